@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.codegen;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeContext;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+
+/**
+ * Helpers for blocking operators (e.g., join and top-K) that store the generated scan's output in an off-heap
+ * structure and re-emit it later
+ */
+public class CodeGenOutputUtils {
+    private static final Set<ATypeTag> FLAT_TYPES =
+            EnumSet.of(ATypeTag.BIGINT, ATypeTag.DOUBLE, ATypeTag.STRING, ATypeTag.ANY);
+
+    private CodeGenOutputUtils() {
+    }
+
+    /**
+     * Collect the variables that are used by the operators above the given operator
+     */
+    public static void getUsedVariablesAbove(ILogicalOperator op, ILogicalOperator blockingOp,
+            Set<LogicalVariable> usedVariables) throws AlgebricksException {
+        if (op == blockingOp) {
+            return;
+        }
+        VariableUtilities.getUsedVariables(op, usedVariables);
+        for (Mutable<ILogicalOperator> inputRef : op.getInputs()) {
+            getUsedVariablesAbove(inputRef.getValue(), blockingOp, usedVariables);
+        }
+    }
+
+    /**
+     * @return the context's output variables that are used (in the same order as they appear in the context)
+     */
+    public static List<LogicalVariable> getOutputVariables(CodeNodeContext context,
+            Set<LogicalVariable> usedVariables) {
+        List<LogicalVariable> output = new ArrayList<>();
+        for (LogicalVariable variable : context.getOutputVariables()) {
+            if (usedVariables.contains(variable) && !output.contains(variable)) {
+                output.add(variable);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Only flat values can be stored and re-emitted
+     */
+    public static boolean isSupported(IVariableTypeEnvironment typeEnv, List<LogicalVariable> variables)
+            throws AlgebricksException {
+        for (LogicalVariable variable : variables) {
+            if (!FLAT_TYPES.contains(getTypeTag(typeEnv, variable))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static ATypeTag getTypeTag(IVariableTypeEnvironment typeEnv, LogicalVariable variable)
+            throws AlgebricksException {
+        IAType type = (IAType) typeEnv.getVarType(variable);
+        if (type == null) {
+            return ATypeTag.ANY;
+        }
+        if (type.getTypeTag() == ATypeTag.UNION) {
+            type = ((AUnionType) type).getActualType();
+        }
+        return type.getTypeTag();
+    }
+}
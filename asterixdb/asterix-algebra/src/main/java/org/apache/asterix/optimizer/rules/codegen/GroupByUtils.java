@@ -31,7 +31,9 @@ import org.apache.asterix.optimizer.rules.codegen.node.control.IfCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.binary.AssignOperatorCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.AggregateBuiltinCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.NewAggregatorBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.NewGroupKeyBuiltinCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.NewTopKBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.SetGroupKeyBuiltinCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.FalseLiteralCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.IdentifierCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.LongLiteralCodeNode;
@@ -155,6 +157,13 @@ public class GroupByUtils {
             type = "COUNT";
         } else if (fId == BuiltinFunctions.LOCAL_SQL_SUM || fId == BuiltinFunctions.SERIAL_LOCAL_SQL_SUM) {
             type = "SUM";
+        } else if (fId == BuiltinFunctions.LOCAL_SQL_MIN) {
+            type = "MIN";
+        } else if (fId == BuiltinFunctions.LOCAL_SQL_MAX) {
+            type = "MAX";
+        } else if (fId == BuiltinFunctions.LOCAL_SQL_AVG || fId == BuiltinFunctions.SERIAL_LOCAL_SQL_AVG) {
+            //The aggregator produces the local (sum, count) partial results
+            type = "AVG";
         }
 
         ICodeNode aggType = new StringLiteralCodeNode(type);
@@ -172,22 +181,50 @@ public class GroupByUtils {
             ScalarExpressionCodeGenVisitor exprVisitor, CodeNodeContext context, ICodeNode aggregator)
             throws AlgebricksException {
         context.clearOutput();
+        ICodeNode groupKey = getGroupKey(op, exprVisitor, context);
         for (Mutable<ILogicalExpression> exprRef : aggregateOp.getExpressions()) {
             AggregateFunctionCallExpression aggExpr = (AggregateFunctionCallExpression) exprRef.getValue();
             LogicalVariable aggVar = aggregateOp.getVariables().get(0);
 
-            //TODO support multiple keys
-            Pair<LogicalVariable, Mutable<ILogicalExpression>> pair = op.getGroupByList().get(0);
-            ILogicalExpression expression = pair.getSecond().getValue();
-            LogicalVariable aggVariable = VariableUtilities.getVariable(expression);
-            LogicalVariable variable = pair.getFirst();
-            ICodeNode topKComputer = toNode(aggVariable, aggExpr, exprVisitor, context, aggregator);
-            context.putOutput(variable, topKComputer, typeEnv.getType(expression));
+            ICodeNode topKComputer = toNode(groupKey, aggExpr, exprVisitor, context, aggregator);
+            //The aggregator appends all the group-by keys (in order) followed by the aggregate value
+            for (Pair<LogicalVariable, Mutable<ILogicalExpression>> pair : op.getGroupByList()) {
+                context.putOutput(pair.getFirst(), topKComputer, typeEnv.getType(pair.getSecond().getValue()));
+            }
             context.putOutput(aggVar, topKComputer, typeEnv.getType(aggExpr));
         }
         context.exitToMainBlock();
     }
 
+    /**
+     * A single group-by key is aggregated as is. Multiple group-by keys are set (in order) into a composite key,
+     * which is declared once in the main block and reused for all tuples.
+     */
+    private static ICodeNode getGroupKey(GroupByOperator op, ScalarExpressionCodeGenVisitor exprVisitor,
+            CodeNodeContext context) {
+        List<Pair<LogicalVariable, Mutable<ILogicalExpression>>> groupByList = op.getGroupByList();
+        if (groupByList.size() == 1) {
+            return toKeyNode(groupByList.get(0), exprVisitor);
+        }
+
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        IdentifierCodeNode groupKey =
+                mainBlock.declareVariableAsFirstLine(context, new NewGroupKeyBuiltinCodeNode(op.getSourceLocation()));
+        BlockCodeNode currentBlock = context.getCurrentBlock();
+        for (int i = 0; i < groupByList.size(); i++) {
+            ICodeNode keyValue = toKeyNode(groupByList.get(i), exprVisitor);
+            currentBlock.appendNode(new SetGroupKeyBuiltinCodeNode(op.getSourceLocation(), groupKey,
+                    new LongLiteralCodeNode(i), keyValue));
+        }
+        return groupKey;
+    }
+
+    private static ICodeNode toKeyNode(Pair<LogicalVariable, Mutable<ILogicalExpression>> pair,
+            ScalarExpressionCodeGenVisitor exprVisitor) {
+        LogicalVariable keyVariable = VariableUtilities.getVariable(pair.getSecond().getValue());
+        return exprVisitor.toNode(keyVariable);
+    }
+
     private static void changeAggFuncInfoIfNeeded(AggregateFunctionCallExpression expr) {
         FunctionIdentifier fId = expr.getFunctionIdentifier();
         if (fId == BuiltinFunctions.SQL_COUNT || fId == BuiltinFunctions.SERIAL_SQL_COUNT) {
@@ -246,7 +283,7 @@ public class GroupByUtils {
         return (AggregateOperator) op;
     }
 
-    private static ICodeNode toNode(LogicalVariable variable, AggregateFunctionCallExpression funcExpr,
+    private static ICodeNode toNode(ICodeNode groupKey, AggregateFunctionCallExpression funcExpr,
             ScalarExpressionCodeGenVisitor exprVisitor, CodeNodeContext context, ICodeNode aggregator)
             throws AlgebricksException {
         ILogicalExpression arg = funcExpr.getArguments().get(0).getValue();
@@ -254,19 +291,19 @@ public class GroupByUtils {
 
         if (fid == BuiltinFunctions.LOCAL_SQL_MAX || fid == BuiltinFunctions.LOCAL_SQL_MIN
                 || fid == BuiltinFunctions.SQL_COUNT || fid == BuiltinFunctions.SERIAL_SQL_COUNT
-                || fid == BuiltinFunctions.LOCAL_SQL_SUM || fid == BuiltinFunctions.SERIAL_LOCAL_SQL_SUM) {
-            return handleAggregate(variable, arg, exprVisitor, context, aggregator);
+                || fid == BuiltinFunctions.LOCAL_SQL_SUM || fid == BuiltinFunctions.SERIAL_LOCAL_SQL_SUM
+                || fid == BuiltinFunctions.LOCAL_SQL_AVG || fid == BuiltinFunctions.SERIAL_LOCAL_SQL_AVG) {
+            return handleAggregate(groupKey, arg, exprVisitor, context, aggregator);
         }
         return null;
     }
 
-    private static ICodeNode handleAggregate(LogicalVariable groupByVar, ILogicalExpression funcExpr,
+    private static ICodeNode handleAggregate(ICodeNode groupByVarName, ILogicalExpression funcExpr,
             ScalarExpressionCodeGenVisitor exprVisitor, CodeNodeContext context, ICodeNode aggregator)
             throws AlgebricksException {
         BlockCodeNode mainBlock = context.getMain().getBlock();
         IdentifierCodeNode aggregatorVar = mainBlock.declareVariableAsFirstLine(context, aggregator);
 
-        ICodeNode groupByVarName = exprVisitor.toNode(groupByVar);
         ICodeNode varName = funcExpr.accept(exprVisitor, exprVisitor.getUsedReaders());
         ICodeNode aggregate =
                 new AggregateBuiltinCodeNode(funcExpr.getSourceLocation(), aggregatorVar, groupByVarName, varName);
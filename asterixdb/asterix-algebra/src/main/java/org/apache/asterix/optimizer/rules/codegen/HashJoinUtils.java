@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.codegen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.optimizer.rules.codegen.node.BlockCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeContext;
+import org.apache.asterix.optimizer.rules.codegen.node.ICodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.control.WhileCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.NewGroupKeyBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.SetGroupKeyBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.EndJoinBuildBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.EndJoinProbeBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.GetJoinBuildFieldBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.GetJoinProbeFieldBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.GetJoinTableBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.JoinBuildBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.JoinProbeBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.NewJoinTableBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.NextJoinMatchBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.join.SetJoinFieldBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.IdentifierCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.LongLiteralCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.StringLiteralCodeNode;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LeftOuterJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Generates an equi-join between two co-partitioned columnar scans as a pair of AIL programs. The build scan inserts
+ * its rows into a per-partition hash table and the probe scan looks its rows up in the same table. The build program
+ * must finish before the probe program starts. Thus, the join operator is replaced by a LEFT OUTER JOIN with a FALSE
+ * condition, which (i) blocks the probe input until the build input is consumed and (ii) receives nothing from the
+ * build scan, as the build scan does not output any tuple.
+ */
+public class HashJoinUtils {
+    private static final Set<ATypeTag> KEY_TYPES = EnumSet.of(ATypeTag.BIGINT, ATypeTag.DOUBLE, ATypeTag.STRING);
+
+    private HashJoinUtils() {
+    }
+
+    /**
+     * Generate the build and the probe sides of an inner join if possible
+     *
+     * @return the probe's context if the join was generated, null otherwise
+     */
+    public static CodeNodeContext handleInnerJoin(IOptimizationContext opContext, ILogicalOperator root,
+            InnerJoinOperator op, ILogicalOperator parent, CodeNodeContext probeContext,
+            CodeNodeContext buildContext, ScalarExpressionCodeGenVisitor exprVisitor) throws AlgebricksException {
+        if (parent == null || probeContext == null || buildContext == null || probeContext == buildContext
+                || probeContext.isNestedScope() || buildContext.isNestedScope()) {
+            return null;
+        }
+
+        List<LogicalVariable> probeKeys = new ArrayList<>();
+        List<LogicalVariable> buildKeys = new ArrayList<>();
+        Set<LogicalVariable> probeVariables = new HashSet<>(probeContext.getOutputVariables());
+        Set<LogicalVariable> buildVariables = new HashSet<>(buildContext.getOutputVariables());
+        if (!getKeys(op.getCondition().getValue(), probeVariables, buildVariables, probeKeys, buildKeys)) {
+            return null;
+        }
+
+        IVariableTypeEnvironment typeEnv = op.computeInputTypeEnvironment(opContext);
+        for (int i = 0; i < probeKeys.size(); i++) {
+            ATypeTag probeKeyType = CodeGenOutputUtils.getTypeTag(typeEnv, probeKeys.get(i));
+            ATypeTag buildKeyType = CodeGenOutputUtils.getTypeTag(typeEnv, buildKeys.get(i));
+            if (!KEY_TYPES.contains(probeKeyType) || probeKeyType != buildKeyType) {
+                //Keys are compared as bytes. Hence, both keys must be of the same type
+                return null;
+            }
+        }
+
+        Set<LogicalVariable> usedVariables = new HashSet<>();
+        CodeGenOutputUtils.getUsedVariablesAbove(root, op, usedVariables);
+        List<LogicalVariable> probeOutput = CodeGenOutputUtils.getOutputVariables(probeContext, usedVariables);
+        List<LogicalVariable> buildOutput = CodeGenOutputUtils.getOutputVariables(buildContext, usedVariables);
+        if (!CodeGenOutputUtils.isSupported(typeEnv, probeOutput)
+                || !CodeGenOutputUtils.isSupported(typeEnv, buildOutput)) {
+            return null;
+        }
+
+        SourceLocation sourceLocation = op.getSourceLocation();
+        ICodeNode joinId = new StringLiteralCodeNode(buildContext.getMain().getFunctionName().toString());
+        generateBuild(opContext, sourceLocation, joinId, buildKeys, buildOutput, buildContext, exprVisitor);
+        generateProbe(typeEnv, sourceLocation, joinId, probeKeys, probeOutput, buildOutput, probeContext,
+                exprVisitor);
+        replaceJoin(opContext, op, parent);
+        return probeContext;
+    }
+
+    private static void generateBuild(IOptimizationContext opContext, SourceLocation sourceLocation,
+            ICodeNode joinId, List<LogicalVariable> keys, List<LogicalVariable> output, CodeNodeContext context,
+            ScalarExpressionCodeGenVisitor exprVisitor) {
+        exprVisitor.enterScope(context);
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        IdentifierCodeNode table = mainBlock.declareVariableAsFirstLine(context,
+                new NewJoinTableBuiltinCodeNode(sourceLocation, joinId, getMemoryBudget(opContext)));
+        ICodeNode key = setKey(sourceLocation, keys, context, exprVisitor);
+        setFields(sourceLocation, table, output, context, exprVisitor);
+        context.getCurrentBlock().appendNode(new JoinBuildBuiltinCodeNode(sourceLocation, table, key));
+
+        //The build scan does not output anything
+        context.projectOutput(Collections.emptyList());
+        context.exitToMainBlock();
+        mainBlock.appendNode(new EndJoinBuildBuiltinCodeNode(sourceLocation, table));
+    }
+
+    private static void generateProbe(IVariableTypeEnvironment typeEnv, SourceLocation sourceLocation,
+            ICodeNode joinId, List<LogicalVariable> keys, List<LogicalVariable> probeOutput,
+            List<LogicalVariable> buildOutput, CodeNodeContext context, ScalarExpressionCodeGenVisitor exprVisitor)
+            throws AlgebricksException {
+        exprVisitor.enterScope(context);
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        IdentifierCodeNode table = mainBlock.declareVariableAsFirstLine(context,
+                new GetJoinTableBuiltinCodeNode(sourceLocation, joinId));
+        ICodeNode key = setKey(sourceLocation, keys, context, exprVisitor);
+        setFields(sourceLocation, table, probeOutput, context, exprVisitor);
+        BlockCodeNode currentBlock = context.getCurrentBlock();
+        currentBlock.appendNode(new JoinProbeBuiltinCodeNode(sourceLocation, table, key));
+
+        /*
+         * The matches are consumed by the same block twice: once for every probe tuple and once after the scan is
+         * done, where the spilled partitions (if any) are joined
+         */
+        BlockCodeNode matchBlock = context.createBlock(LogicalOperatorTag.INNERJOIN);
+        currentBlock.appendNode(
+                new WhileCodeNode(sourceLocation, new NextJoinMatchBuiltinCodeNode(sourceLocation, table), matchBlock));
+        mainBlock.appendNode(new EndJoinProbeBuiltinCodeNode(sourceLocation, table));
+        mainBlock.appendNode(
+                new WhileCodeNode(sourceLocation, new NextJoinMatchBuiltinCodeNode(sourceLocation, table), matchBlock));
+
+        context.clearOutput();
+        context.enterBlock(matchBlock);
+        for (int i = 0; i < probeOutput.size(); i++) {
+            ICodeNode field =
+                    new GetJoinProbeFieldBuiltinCodeNode(sourceLocation, table, new LongLiteralCodeNode(i));
+            LogicalVariable variable = probeOutput.get(i);
+            context.putOutput(variable, matchBlock.declareVariable(context, field), typeEnv.getVarType(variable));
+        }
+        for (int i = 0; i < buildOutput.size(); i++) {
+            ICodeNode field =
+                    new GetJoinBuildFieldBuiltinCodeNode(sourceLocation, table, new LongLiteralCodeNode(i));
+            LogicalVariable variable = buildOutput.get(i);
+            context.putOutput(variable, matchBlock.declareVariable(context, field), typeEnv.getVarType(variable));
+        }
+    }
+
+    /**
+     * Join keys are set (in order) into a composite key, which is declared once in the main block
+     */
+    private static ICodeNode setKey(SourceLocation sourceLocation, List<LogicalVariable> keys,
+            CodeNodeContext context, ScalarExpressionCodeGenVisitor exprVisitor) {
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        IdentifierCodeNode key =
+                mainBlock.declareVariableAsFirstLine(context, new NewGroupKeyBuiltinCodeNode(sourceLocation));
+        for (int i = 0; i < keys.size(); i++) {
+            ICodeNode keyValue = exprVisitor.toNode(keys.get(i));
+            context.getCurrentBlock().appendNode(
+                    new SetGroupKeyBuiltinCodeNode(sourceLocation, key, new LongLiteralCodeNode(i), keyValue));
+        }
+        return key;
+    }
+
+    private static void setFields(SourceLocation sourceLocation, IdentifierCodeNode table,
+            List<LogicalVariable> fields, CodeNodeContext context, ScalarExpressionCodeGenVisitor exprVisitor) {
+        for (int i = 0; i < fields.size(); i++) {
+            ICodeNode value = exprVisitor.toNode(fields.get(i));
+            context.getCurrentBlock().appendNode(
+                    new SetJoinFieldBuiltinCodeNode(sourceLocation, table, new LongLiteralCodeNode(i), value));
+        }
+    }
+
+    private static void replaceJoin(IOptimizationContext opContext, InnerJoinOperator op, ILogicalOperator parent)
+            throws AlgebricksException {
+        List<Mutable<ILogicalOperator>> inputs = op.getInputs();
+        LeftOuterJoinOperator buildBarrier = new LeftOuterJoinOperator(new MutableObject<>(ConstantExpression.FALSE),
+                inputs.get(0), inputs.get(1), ConstantExpression.MISSING.getValue());
+        buildBarrier.setSourceLocation(op.getSourceLocation());
+        buildBarrier.setExecutionMode(op.getExecutionMode());
+        for (Mutable<ILogicalOperator> inputRef : parent.getInputs()) {
+            if (inputRef.getValue() == op) {
+                inputRef.setValue(buildBarrier);
+            }
+        }
+        opContext.computeAndSetTypeEnvironmentForOperator(buildBarrier);
+        opContext.computeAndSetTypeEnvironmentForOperator(parent);
+    }
+
+    /**
+     * The join condition must be a conjunction of equalities, where each equality is between a variable from the
+     * probe side and a variable from the build side
+     */
+    private static boolean getKeys(ILogicalExpression condition, Set<LogicalVariable> probeVariables,
+            Set<LogicalVariable> buildVariables, List<LogicalVariable> probeKeys, List<LogicalVariable> buildKeys) {
+        if (condition.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) condition;
+        FunctionIdentifier fid = funcExpr.getFunctionIdentifier();
+        if (fid == AlgebricksBuiltinFunctions.AND) {
+            for (Mutable<ILogicalExpression> argRef : funcExpr.getArguments()) {
+                if (!getKeys(argRef.getValue(), probeVariables, buildVariables, probeKeys, buildKeys)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (fid != AlgebricksBuiltinFunctions.EQ) {
+            return false;
+        }
+
+        LogicalVariable left = VariableUtilities.getVariable(funcExpr.getArguments().get(0).getValue());
+        LogicalVariable right = VariableUtilities.getVariable(funcExpr.getArguments().get(1).getValue());
+        if (probeVariables.contains(left) && buildVariables.contains(right)) {
+            probeKeys.add(left);
+            buildKeys.add(right);
+            return true;
+        } else if (probeVariables.contains(right) && buildVariables.contains(left)) {
+            probeKeys.add(right);
+            buildKeys.add(left);
+            return true;
+        }
+        return false;
+    }
+
+    private static ICodeNode getMemoryBudget(IOptimizationContext opContext) {
+        PhysicalOptimizationConfig config = opContext.getPhysicalOptimizationConfig();
+        return new LongLiteralCodeNode((long) config.getMaxFramesForJoin() * config.getFrameSize());
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.asterix.common.metadata.DataverseName;
 import org.apache.asterix.metadata.declared.DataSource;
 import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.optimizer.rules.codegen.VectorizedAggregateUtils.VectorizedPipeline;
 import org.apache.asterix.optimizer.rules.codegen.node.BlockCodeNode;
 import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeContext;
 import org.apache.asterix.optimizer.rules.codegen.node.ICodeNode;
@@ -96,6 +97,7 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
     private final SchemaPathSplitterVisitor pathSplitter;
     private final Map<ILogicalOperator, CodeNodeContext> scopeContextMap;
     private int topK;
+    private ILogicalOperator root;
     private CodeNodeContext currentContext;
     private SelectOperator currentSelectOp;
 
@@ -110,6 +112,7 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
     }
 
     public void getGeneratedCode(ILogicalOperator root) throws AlgebricksException {
+        this.root = root;
         root.accept(schemaInferVisitor, null);
         root.accept(this, null);
         StringCodeGeneratorVisitor codeGenerator = new StringCodeGeneratorVisitor();
@@ -193,6 +196,8 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
 
     @Override
     public Void visitAggregateOperator(AggregateOperator op, ILogicalOperator arg) throws AlgebricksException {
+        //Must be collected before the input is generated, as generating the input consumes the assigns' expressions
+        VectorizedPipeline pipeline = VectorizedAggregateUtils.getPipeline(op);
         visitInputs(op);
         //Nested scope means in a subplan
         if (currentContext == null || op.isGlobal() && !currentContext.isNestedScope()) {
@@ -213,6 +218,12 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
             currentContext.putOutput(variables.get(i), aggregateVar, type);
         }
         currentContext.exitToMainBlock();
+        if (!currentContext.isNestedScope()) {
+            currentContext.setPartialAggregateOutput();
+            if (pipeline != null && scopeContextMap.get(pipeline.getScanOp()) == currentContext) {
+                VectorizedAggregateUtils.handleBatchAggregate(pipeline, op, currentContext, expressionVisitor);
+            }
+        }
 
         removeOp(op, arg);
         //End of this scope
@@ -270,6 +281,9 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
         GroupByUtils.handleUnnestGroupBy(typeEnv, opContext, op, expressionVisitor, currentContext);
         if (!GroupByUtils.handleMinMaxTopK(typeEnv, op, expressionVisitor, currentContext, topK)) {
             GroupByUtils.handleGeneralAggregate(typeEnv, op, expressionVisitor, currentContext, opContext);
+            currentContext.setPartialAggregateOutput();
+        } else {
+            currentContext.setSingleScan();
         }
         if (op.getInputs().get(0).getValue().getOperatorTag() == LogicalOperatorTag.ORDER) {
             //In case it is SORT_GROUP_BY, then remove the operator
@@ -388,13 +402,38 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
     @Override
     public Void visitLimitOperator(LimitOperator op, ILogicalOperator arg) throws AlgebricksException {
         visitInputs(op);
+        if (currentContext == null || currentContext.isNestedScope()) {
+            return null;
+        }
+        if (!OrderByUtils.handleLimit(op, currentContext)) {
+            currentContext = null;
+            return null;
+        }
+        currentContext.setSingleScan();
+        removeOp(op, arg);
         return null;
     }
 
     @Override
     public Void visitInnerJoinOperator(InnerJoinOperator op, ILogicalOperator arg) throws AlgebricksException {
-        visitInputs(op);
-        currentContext = null;
+        if (visitedOperators.contains(op)) {
+            currentContext = null;
+            return null;
+        }
+        visitedOperators.add(op);
+
+        List<Mutable<ILogicalOperator>> inputs = op.getInputs();
+        inputs.get(0).getValue().accept(this, op);
+        CodeNodeContext probeContext = currentContext;
+        inputs.get(1).getValue().accept(this, op);
+        CodeNodeContext buildContext = currentContext;
+        currentContext = HashJoinUtils.handleInnerJoin(opContext, root, op, arg, probeContext, buildContext,
+                expressionVisitor);
+        if (currentContext != null) {
+            //Both sides share the task's join table
+            probeContext.setSingleScan();
+            buildContext.setSingleScan();
+        }
         return null;
     }
 
@@ -415,9 +454,15 @@ public class OperatorCodeGeneratorVisitor implements ILogicalOperatorVisitor<Voi
     @Override
     public Void visitOrderOperator(OrderOperator op, ILogicalOperator arg) throws AlgebricksException {
         visitInputs(op);
-        if (arg.getOperatorTag() != LogicalOperatorTag.GROUP) {
+        if (arg.getOperatorTag() == LogicalOperatorTag.GROUP || currentContext == null) {
+            return null;
+        }
+        if (!OrderByUtils.handleTopK(opContext, root, op, arg, currentContext, expressionVisitor)) {
             currentContext = null;
+            return null;
         }
+        currentContext.setSingleScan();
+        removeOp(op, arg);
         return null;
     }
 
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.codegen;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.optimizer.rules.codegen.node.BlockCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeGenTemplates;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeContext;
+import org.apache.asterix.optimizer.rules.codegen.node.ICodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.control.BreakCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.control.IfCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.control.WhileCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.binary.AssignOperatorCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.binary.arithmatic.AddScalarOperatorCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.binary.logical.LTOperatorCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.NewGroupKeyBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.aggregate.SetGroupKeyBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.AddTopKBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.GetTopKFieldBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.IsTopKCandidateBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.NewSortTopKBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.NextTopKBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.SetTopKFieldBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.sort.SortTopKBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.IdentifierCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.LongLiteralCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.StringLiteralCodeNode;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LimitOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Generates the local (i.e., per-partition) part of ORDER BY ... LIMIT k. Every scanned tuple sets its sort key and
+ * only the tuples that can be among the k smallest (so far) fetch their remaining projected values into an off-heap
+ * bounded heap. Once the scan is done, the heap is sorted and emitted in order, as expected by the SORT_MERGE exchange
+ * that follows the local limit.
+ */
+public class OrderByUtils {
+    private static final Set<ATypeTag> KEY_TYPES = EnumSet.of(ATypeTag.BIGINT, ATypeTag.DOUBLE, ATypeTag.STRING);
+    private static final String ASCENDING = "ASC";
+    private static final String DESCENDING = "DESC";
+    /**
+     * Larger limits are left to the external sort, as the heap's slots are kept on-heap
+     */
+    private static final int MAX_TOP_K = 100_000;
+
+    private OrderByUtils() {
+    }
+
+    /**
+     * Generate a top-k for an order operator that has been pushed under a limit
+     *
+     * @return true if the order operator was generated, false otherwise
+     */
+    public static boolean handleTopK(IOptimizationContext opContext, ILogicalOperator root, OrderOperator op,
+            ILogicalOperator parent, CodeNodeContext context, ScalarExpressionCodeGenVisitor exprVisitor)
+            throws AlgebricksException {
+        int k = op.getTopK();
+        if (parent == null || parent.getOperatorTag() != LogicalOperatorTag.LIMIT || context.isNestedScope()
+                || k <= 0 || k > MAX_TOP_K) {
+            return false;
+        }
+
+        List<LogicalVariable> keys = new ArrayList<>();
+        List<String> directions = new ArrayList<>();
+        if (!getKeys(op, new HashSet<>(context.getOutputVariables()), keys, directions)) {
+            return false;
+        }
+
+        IVariableTypeEnvironment typeEnv = op.computeInputTypeEnvironment(opContext);
+        for (LogicalVariable key : keys) {
+            if (!KEY_TYPES.contains(CodeGenOutputUtils.getTypeTag(typeEnv, key))) {
+                return false;
+            }
+        }
+
+        //The sort keys are needed by the merging exchange above the limit
+        Set<LogicalVariable> usedVariables = new HashSet<>(keys);
+        CodeGenOutputUtils.getUsedVariablesAbove(root, op, usedVariables);
+        List<LogicalVariable> output = CodeGenOutputUtils.getOutputVariables(context, usedVariables);
+        if (!CodeGenOutputUtils.isSupported(typeEnv, output)) {
+            return false;
+        }
+
+        SourceLocation sourceLocation = op.getSourceLocation();
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        ICodeNode newTopK = new NewSortTopKBuiltinCodeNode(sourceLocation, new LongLiteralCodeNode(k),
+                new StringLiteralCodeNode(String.join(",", directions)), getMemoryBudget(opContext));
+        IdentifierCodeNode topK = mainBlock.declareVariableAsFirstLine(context, newTopK);
+        IdentifierCodeNode key =
+                mainBlock.declareVariableAsFirstLine(context, new NewGroupKeyBuiltinCodeNode(sourceLocation));
+        for (int i = 0; i < keys.size(); i++) {
+            ICodeNode keyValue = exprVisitor.toNode(keys.get(i));
+            context.getCurrentBlock().appendNode(
+                    new SetGroupKeyBuiltinCodeNode(sourceLocation, key, new LongLiteralCodeNode(i), keyValue));
+        }
+
+        /*
+         * The candidate's block is entered before the values are requested. Hence, the values of the non-key
+         * variables are only materialized for the tuples that make it into the heap
+         */
+        BlockCodeNode currentBlock = context.getCurrentBlock();
+        BlockCodeNode candidateBlock = context.createAndEnterBlock(op.getOperatorTag());
+        currentBlock.appendNode(new IfCodeNode(sourceLocation,
+                new IsTopKCandidateBuiltinCodeNode(sourceLocation, topK, key), candidateBlock, BlockCodeNode.EMPTY));
+        for (int i = 0; i < output.size(); i++) {
+            ICodeNode value = exprVisitor.toNode(output.get(i));
+            context.getCurrentBlock().appendNode(
+                    new SetTopKFieldBuiltinCodeNode(sourceLocation, topK, new LongLiteralCodeNode(i), value));
+        }
+        context.getCurrentBlock().appendNode(new AddTopKBuiltinCodeNode(sourceLocation, topK, key));
+
+        //Emit the sorted tuples after the scan is done
+        context.exitToMainBlock();
+        mainBlock.appendNode(new SortTopKBuiltinCodeNode(sourceLocation, topK));
+        BlockCodeNode emitBlock = context.createBlock(op.getOperatorTag());
+        mainBlock.appendNode(
+                new WhileCodeNode(sourceLocation, new NextTopKBuiltinCodeNode(sourceLocation, topK), emitBlock));
+
+        context.clearOutput();
+        context.enterBlock(emitBlock);
+        for (int i = 0; i < output.size(); i++) {
+            ICodeNode field = new GetTopKFieldBuiltinCodeNode(sourceLocation, topK, new LongLiteralCodeNode(i));
+            LogicalVariable variable = output.get(i);
+            context.putOutput(variable, emitBlock.declareVariable(context, field), typeEnv.getVarType(variable));
+        }
+        return true;
+    }
+
+    /**
+     * Generate a counter for a limit without an offset. Once the limit is reached, the enclosing loop is exited
+     *
+     * @return true if the limit was generated, false otherwise
+     */
+    public static boolean handleLimit(LimitOperator op, CodeNodeContext context) {
+        if (op.hasOffset() || !op.hasMaxObjects()) {
+            return false;
+        }
+        Integer maxObjects = ConstantExpressionUtil.getIntConstant(op.getMaxObjects().getValue());
+        if (maxObjects == null) {
+            return false;
+        }
+
+        SourceLocation sourceLocation = op.getSourceLocation();
+        BlockCodeNode mainBlock = context.getMain().getBlock();
+        IdentifierCodeNode count = mainBlock.declareVariableAsFirstLine(context, CodeGenTemplates.ZERO);
+        BlockCodeNode currentBlock = context.getCurrentBlock();
+        //Breaking an inner loop (e.g., of an unnest) is safe as the condition is checked again for the next tuple
+        BlockCodeNode elseBlock = context.createBlock(op.getOperatorTag());
+        elseBlock.appendNode(BreakCodeNode.INSTANCE);
+        BlockCodeNode thenBlock = context.createAndEnterBlock(op.getOperatorTag());
+        thenBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, count,
+                new AddScalarOperatorCodeNode(sourceLocation, count, CodeGenTemplates.ONE)));
+        ICodeNode condition = new LTOperatorCodeNode(sourceLocation, count, new LongLiteralCodeNode(maxObjects));
+        currentBlock.appendNode(new IfCodeNode(sourceLocation, condition, thenBlock, elseBlock));
+        return true;
+    }
+
+    /**
+     * Each order expression must be an ascending or a descending variable that is produced by the generated scan
+     */
+    private static boolean getKeys(OrderOperator op, Set<LogicalVariable> variables, List<LogicalVariable> keys,
+            List<String> directions) {
+        for (Pair<IOrder, Mutable<ILogicalExpression>> orderExpr : op.getOrderExpressions()) {
+            OrderKind kind = orderExpr.first.getKind();
+            ILogicalExpression expr = orderExpr.second.getValue();
+            if (kind == OrderKind.FUNCTIONCALL || expr.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+                return false;
+            }
+            LogicalVariable variable = ((VariableReferenceExpression) expr).getVariableReference();
+            if (!variables.contains(variable)) {
+                return false;
+            }
+            keys.add(variable);
+            directions.add(kind == OrderKind.DESC ? DESCENDING : ASCENDING);
+        }
+        return !keys.isEmpty();
+    }
+
+    private static ICodeNode getMemoryBudget(IOptimizationContext opContext) {
+        PhysicalOptimizationConfig config = opContext.getPhysicalOptimizationConfig();
+        return new LongLiteralCodeNode((long) config.getMaxFramesExternalSort() * config.getFrameSize());
+    }
+}
@@ -40,7 +40,9 @@ import org.apache.asterix.optimizer.rules.codegen.schema.NestedReaderBinderVisit
 import org.apache.asterix.optimizer.rules.pushdown.schema.IExpectedSchemaNode;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AggregateFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
@@ -125,6 +127,23 @@ public class ScalarExpressionCodeGenVisitor implements ILogicalExpressionVisitor
         return context.getValue(variable, usedReaders);
     }
 
+    /**
+     * @param expr a variable or a field access
+     * @return the reader of the column that the expression reads directly or null if the expression is not a column
+     */
+    public IdentifierCodeNode getColumnReader(ILogicalExpression expr) {
+        IExpectedSchemaNode schemaNode = null;
+        if (expr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            LogicalVariable variable = ((VariableReferenceExpression) expr).getVariableReference();
+            if (schemaBuilder.isVariableRegistered(variable)) {
+                schemaNode = schemaBuilder.getNodeFromVariable(variable);
+            }
+        } else if (expr.getExpressionTag() == LogicalExpressionTag.FUNCTION_CALL) {
+            schemaNode = schemaBuilder.getNodeFromExpression((AbstractFunctionCallExpression) expr);
+        }
+        return schemaNode == null ? null : context.getBoundReader(schemaNode);
+    }
+
     public Set<IdentifierCodeNode> getUsedReaders() {
         return usedReaders;
     }
@@ -138,7 +157,7 @@ public class ScalarExpressionCodeGenVisitor implements ILogicalExpressionVisitor
     @Override
     public ICodeNode visitScalarFunctionCallExpression(ScalarFunctionCallExpression expr,
             Set<IdentifierCodeNode> usedReaders) throws AlgebricksException {
-        IExpectedSchemaNode schemaNode = schemaBuilder.getNodeFromExpression(expr);
+        IExpectedSchemaNode schemaNode = schemaBuilder.getNodeFromExpression((AbstractFunctionCallExpression) expr);
         if (schemaNode != null) {
             return context.getValue(schemaNode, usedReaders);
         }
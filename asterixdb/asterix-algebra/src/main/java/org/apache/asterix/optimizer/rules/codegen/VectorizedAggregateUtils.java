@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.codegen;
+
+import static org.apache.asterix.optimizer.rules.codegen.node.CodeGenTemplates.CURSOR;
+import static org.apache.asterix.optimizer.rules.codegen.node.CodeGenTemplates.ZERO;
+import static org.apache.asterix.optimizer.rules.codegen.node.expression.literal.NullLiteralCodeNode.NULL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.optimizer.rules.codegen.node.BlockCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeContext;
+import org.apache.asterix.optimizer.rules.codegen.node.CodeNodeType;
+import org.apache.asterix.optimizer.rules.codegen.node.ICodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.control.WhileCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.binary.AssignOperatorCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.BatchCountBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.BatchCountValuesBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.BatchMaxBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.BatchMinBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.BatchSumBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.ColumnVectorBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.ComputeVectorBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.FilterVectorBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.NewSelectionBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.NewVectorBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.builtin.vector.NextBatchBuiltinCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.DoubleLiteralCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.IdentifierCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.LongLiteralCodeNode;
+import org.apache.asterix.optimizer.rules.codegen.node.expression.literal.StringLiteralCodeNode;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AggregateFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AggregateOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ExchangeOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Generates a batch-at-a-time variant of a non-grouped local aggregate whose input is a scan followed only by selects
+ * and assigns. Instead of evaluating the pipeline for one tuple at a time, the variant decodes the used columns of a
+ * leaf at once and evaluates the filters, arithmetic, and aggregates with builtins that loop over whole vectors:
+ *
+ * <pre>
+ * sel = newSelection();
+ * v0 = columnVector(reader0);
+ * count = 0;
+ * while (nextBatch(cursor, sel)) {
+ *     filterVector(sel, v0, "<", 10);
+ *     count = batchCount(count, sel);
+ * }
+ * </pre>
+ * <p>
+ * The row-at-a-time main is always generated as well, as the variant can only run if the used columns turn out to be
+ * non-repeated numeric columns in every searched component (see ColumnCodeGenerationExecutor).
+ */
+public class VectorizedAggregateUtils {
+    private static final Map<FunctionIdentifier, String> COMPARISONS = new HashMap<>();
+    private static final Map<FunctionIdentifier, String> ARITHMETICS = new HashMap<>();
+    private static final Map<String, String> FLIPPED_COMPARISONS = new HashMap<>();
+
+    static {
+        COMPARISONS.put(BuiltinFunctions.LT, "<");
+        COMPARISONS.put(BuiltinFunctions.LE, "<=");
+        COMPARISONS.put(BuiltinFunctions.GT, ">");
+        COMPARISONS.put(BuiltinFunctions.GE, ">=");
+        COMPARISONS.put(BuiltinFunctions.EQ, "=");
+        COMPARISONS.put(BuiltinFunctions.NEQ, "!=");
+
+        FLIPPED_COMPARISONS.put("<", ">");
+        FLIPPED_COMPARISONS.put("<=", ">=");
+        FLIPPED_COMPARISONS.put(">", "<");
+        FLIPPED_COMPARISONS.put(">=", "<=");
+        FLIPPED_COMPARISONS.put("=", "=");
+        FLIPPED_COMPARISONS.put("!=", "!=");
+
+        ARITHMETICS.put(BuiltinFunctions.NUMERIC_ADD, "+");
+        ARITHMETICS.put(BuiltinFunctions.NUMERIC_SUBTRACT, "-");
+        ARITHMETICS.put(BuiltinFunctions.NUMERIC_MULTIPLY, "*");
+    }
+
+    private VectorizedAggregateUtils() {
+    }
+
+    /**
+     * Collect the conditions and the assigned expressions between an aggregate and its scan. This must be done before
+     * the aggregate's input is generated, as generating an assign consumes its expressions.
+     *
+     * @return the aggregate's pipeline or null if an operator in between cannot be evaluated in batches
+     */
+    public static VectorizedPipeline getPipeline(AggregateOperator op) {
+        VectorizedPipeline pipeline = new VectorizedPipeline();
+        ILogicalOperator current = op.getInputs().get(0).getValue();
+        while (current.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            switch (current.getOperatorTag()) {
+                case SELECT:
+                    pipeline.conditions.add(((SelectOperator) current).getCondition().getValue());
+                    break;
+                case ASSIGN:
+                    AssignOperator assignOp = (AssignOperator) current;
+                    List<LogicalVariable> variables = assignOp.getVariables();
+                    List<Mutable<ILogicalExpression>> expressions = assignOp.getExpressions();
+                    for (int i = 0; i < variables.size(); i++) {
+                        pipeline.assignments.put(variables.get(i), expressions.get(i).getValue());
+                    }
+                    break;
+                case PROJECT:
+                    break;
+                case EXCHANGE:
+                    PhysicalOperatorTag tag = ((ExchangeOperator) current).getPhysicalOperator().getOperatorTag();
+                    if (tag != PhysicalOperatorTag.ONE_TO_ONE_EXCHANGE) {
+                        return null;
+                    }
+                    break;
+                default:
+                    return null;
+            }
+            current = current.getInputs().get(0).getValue();
+        }
+        pipeline.scanOp = (DataSourceScanOperator) current;
+        return pipeline;
+    }
+
+    /**
+     * Generate the batch variant of a non-grouped local aggregate. The variant is discarded if any of the conditions,
+     * the aggregates, or their arguments cannot be evaluated in batches.
+     */
+    public static void handleBatchAggregate(VectorizedPipeline pipeline, AggregateOperator op, CodeNodeContext context,
+            ScalarExpressionCodeGenVisitor exprVisitor) {
+        BatchGenerator generator = new BatchGenerator(pipeline, op.getSourceLocation(), context, exprVisitor);
+        if (!generator.generate(op)) {
+            context.discardBatchMain();
+        }
+    }
+
+    /**
+     * The selects' conditions and the assigns' expressions between an aggregate and its scan
+     */
+    public static final class VectorizedPipeline {
+        private final List<ILogicalExpression> conditions = new ArrayList<>();
+        private final Map<LogicalVariable, ILogicalExpression> assignments = new HashMap<>();
+        private DataSourceScanOperator scanOp;
+
+        private VectorizedPipeline() {
+        }
+
+        public DataSourceScanOperator getScanOp() {
+            return scanOp;
+        }
+    }
+
+    private static final class BatchGenerator {
+        private final VectorizedPipeline pipeline;
+        private final SourceLocation sourceLocation;
+        private final CodeNodeContext context;
+        private final ScalarExpressionCodeGenVisitor exprVisitor;
+        private final BlockCodeNode mainBlock;
+        private final BlockCodeNode loopBlock;
+        private final IdentifierCodeNode selection;
+        private final Map<IdentifierCodeNode, IdentifierCodeNode> columnVectors;
+        private final Map<LogicalVariable, ICodeNode> computedVectors;
+
+        private BatchGenerator(VectorizedPipeline pipeline, SourceLocation sourceLocation, CodeNodeContext context,
+                ScalarExpressionCodeGenVisitor exprVisitor) {
+            this.pipeline = pipeline;
+            this.sourceLocation = sourceLocation;
+            this.context = context;
+            this.exprVisitor = exprVisitor;
+            mainBlock = context.createBatchMain().getBlock();
+            loopBlock = new BlockCodeNode(mainBlock, LogicalOperatorTag.DATASOURCESCAN);
+            selection = mainBlock.declareVariable(context, new NewSelectionBuiltinCodeNode(sourceLocation));
+            columnVectors = new HashMap<>();
+            computedVectors = new HashMap<>();
+        }
+
+        private boolean generate(AggregateOperator op) {
+            //Filters are applied before any of the aggregates is computed, as the aggregates read the selection
+            for (ILogicalExpression condition : pipeline.conditions) {
+                if (!filter(condition)) {
+                    return false;
+                }
+            }
+
+            List<Mutable<ILogicalExpression>> expressions = op.getExpressions();
+            List<LogicalVariable> variables = op.getVariables();
+            for (int i = 0; i < expressions.size(); i++) {
+                ICodeNode aggregate = aggregate((AggregateFunctionCallExpression) expressions.get(i).getValue());
+                if (aggregate == null) {
+                    return false;
+                }
+                context.putBatchOutput(variables.get(i), aggregate);
+            }
+
+            NextBatchBuiltinCodeNode next = new NextBatchBuiltinCodeNode(sourceLocation, CURSOR, selection);
+            mainBlock.appendNode(new WhileCodeNode(sourceLocation, next, loopBlock));
+            return true;
+        }
+
+        private boolean filter(ILogicalExpression condition) {
+            if (condition.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+                return false;
+            }
+
+            AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) condition;
+            FunctionIdentifier fId = funcExpr.getFunctionIdentifier();
+            List<Mutable<ILogicalExpression>> args = funcExpr.getArguments();
+            if (fId == BuiltinFunctions.AND) {
+                for (Mutable<ILogicalExpression> arg : args) {
+                    if (!filter(arg.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            } else if (!COMPARISONS.containsKey(fId) || args.size() != 2) {
+                return false;
+            }
+
+            ICodeNode left = operand(args.get(0).getValue());
+            ICodeNode right = operand(args.get(1).getValue());
+            if (left == null || right == null) {
+                return false;
+            }
+
+            String operator = COMPARISONS.get(fId);
+            if (!isVector(left)) {
+                if (!isVector(right)) {
+                    return false;
+                }
+                //Constant on the left, e.g., 10 > $x is evaluated as $x < 10
+                ICodeNode temp = left;
+                left = right;
+                right = temp;
+                operator = FLIPPED_COMPARISONS.get(operator);
+            }
+            loopBlock.appendNode(new FilterVectorBuiltinCodeNode(sourceLocation, selection, left,
+                    new StringLiteralCodeNode(operator), right));
+            return true;
+        }
+
+        private ICodeNode aggregate(AggregateFunctionCallExpression funcExpr) {
+            FunctionIdentifier fId = funcExpr.getFunctionIdentifier();
+            ILogicalExpression arg = funcExpr.getArguments().get(0).getValue();
+            if (fId == BuiltinFunctions.SQL_COUNT || fId == BuiltinFunctions.SERIAL_SQL_COUNT) {
+                IdentifierCodeNode count = mainBlock.declareVariable(context, ZERO);
+                if (arg.getExpressionTag() == LogicalExpressionTag.CONSTANT) {
+                    // count(*)
+                    loopBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, count,
+                            new BatchCountBuiltinCodeNode(sourceLocation, count, selection)));
+                    return count;
+                }
+                ICodeNode vector = vectorOperand(arg);
+                if (vector == null) {
+                    return null;
+                }
+                loopBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, count,
+                        new BatchCountValuesBuiltinCodeNode(sourceLocation, count, vector, selection)));
+                return count;
+            }
+
+            ICodeNode vector = vectorOperand(arg);
+            if (vector == null) {
+                return null;
+            }
+            if (fId == BuiltinFunctions.LOCAL_SQL_SUM || fId == BuiltinFunctions.SERIAL_LOCAL_SQL_SUM
+                    || fId == BuiltinFunctions.SQL_SUM) {
+                ICodeNode initValue = fId == BuiltinFunctions.SQL_SUM ? NULL : ZERO;
+                IdentifierCodeNode sum = mainBlock.declareVariable(context, initValue);
+                loopBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, sum,
+                        new BatchSumBuiltinCodeNode(sourceLocation, sum, vector, selection)));
+                return sum;
+            } else if (fId == BuiltinFunctions.LOCAL_SQL_MIN) {
+                IdentifierCodeNode min = mainBlock.declareVariable(context, NULL);
+                loopBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, min,
+                        new BatchMinBuiltinCodeNode(sourceLocation, min, vector, selection)));
+                return min;
+            } else if (fId == BuiltinFunctions.LOCAL_SQL_MAX) {
+                IdentifierCodeNode max = mainBlock.declareVariable(context, NULL);
+                loopBlock.appendNode(new AssignOperatorCodeNode(sourceLocation, max,
+                        new BatchMaxBuiltinCodeNode(sourceLocation, max, vector, selection)));
+                return max;
+            }
+            return null;
+        }
+
+        private ICodeNode vectorOperand(ILogicalExpression expr) {
+            ICodeNode operand = operand(expr);
+            return operand != null && isVector(operand) ? operand : null;
+        }
+
+        /**
+         * @return a vector, a numeric constant, or null if the expression cannot be evaluated in batches
+         */
+        private ICodeNode operand(ILogicalExpression expr) {
+            IdentifierCodeNode reader = exprVisitor.getColumnReader(expr);
+            if (reader != null) {
+                return columnVectors.computeIfAbsent(reader, r -> mainBlock.declareVariable(context,
+                        new ColumnVectorBuiltinCodeNode(sourceLocation, r)));
+            }
+
+            switch (expr.getExpressionTag()) {
+                case VARIABLE:
+                    LogicalVariable variable = ((VariableReferenceExpression) expr).getVariableReference();
+                    if (computedVectors.containsKey(variable)) {
+                        return computedVectors.get(variable);
+                    }
+                    ILogicalExpression assignedExpr = pipeline.assignments.get(variable);
+                    ICodeNode vector = assignedExpr == null ? null : operand(assignedExpr);
+                    computedVectors.put(variable, vector);
+                    return vector;
+                case CONSTANT:
+                    Long longValue = ConstantExpressionUtil.getLongConstant(expr);
+                    if (longValue != null) {
+                        return new LongLiteralCodeNode(sourceLocation, longValue);
+                    }
+                    Double doubleValue = ConstantExpressionUtil.getDoubleConstant(expr);
+                    return doubleValue == null ? null : new DoubleLiteralCodeNode(sourceLocation, doubleValue);
+                case FUNCTION_CALL:
+                    return compute((AbstractFunctionCallExpression) expr);
+                default:
+                    return null;
+            }
+        }
+
+        private ICodeNode compute(AbstractFunctionCallExpression funcExpr) {
+            String operator = ARITHMETICS.get(funcExpr.getFunctionIdentifier());
+            List<Mutable<ILogicalExpression>> args = funcExpr.getArguments();
+            if (operator == null || args.size() != 2) {
+                return null;
+            }
+
+            ICodeNode left = operand(args.get(0).getValue());
+            ICodeNode right = operand(args.get(1).getValue());
+            if (left == null || right == null || !isVector(left) && !isVector(right)) {
+                //Constant folding is left to the optimizer
+                return null;
+            }
+
+            IdentifierCodeNode result =
+                    mainBlock.declareVariable(context, new NewVectorBuiltinCodeNode(sourceLocation));
+            loopBlock.appendNode(new ComputeVectorBuiltinCodeNode(sourceLocation, result, left,
+                    new StringLiteralCodeNode(operator), right));
+            return result;
+        }
+
+        private static boolean isVector(ICodeNode node) {
+            return node.getType() == CodeNodeType.IDENTIFIER;
+        }
+    }
+}
@@ -48,6 +48,8 @@ import org.apache.logging.log4j.Logger;
 
 public class CodeNodeContext {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final String BATCH_FUNCTION_POSTFIX = "Batch";
+    private final String functionName;
     private final Set<LogicalVariable> originalVariables;
     private final Map<String, FunctionCallInformation> functionCallInformationMap;
     private final DataSourceScanOperator scanOp;
@@ -62,13 +64,21 @@ public class CodeNodeContext {
     //Maps each expression to its set of used variables
     private final Map<LogicalVariable, Set<IdentifierCodeNode>> exprToUsedReader;
     private final MainFunctionCodeNode main;
+    //The batch-at-a-time variant of main (if any) and its output
+    private MainFunctionCodeNode batchMain;
+    private final Map<LogicalVariable, ICodeNode> batchOutputExpr;
     private int nestedScope;
+    //The output is a local (partial) aggregate, which the global aggregate can merge from any number of workers
+    private boolean partialAggregateOutput;
+    //The code must see the whole partition in a single scan (e.g., top-K, LIMIT, and joins)
+    private boolean singleScan;
     private BlockCodeNode currentBlock;
     private int varCount;
 
     public CodeNodeContext(String functionName, DataSourceScanOperator scanOp,
             CodeGenExpectedSchemaBuilder schemaBuilder, Map<AnyExpectedSchemaNode, IAType> paths,
             Map<String, FunctionCallInformation> functionCallInformationMap) {
+        this.functionName = functionName;
         this.scanOp = scanOp;
         this.schemaBuilder = schemaBuilder;
         this.paths = new HashMap<>(paths);
@@ -81,6 +91,7 @@ public class CodeNodeContext {
         nestedExpressionsToVariable = new HashMap<>();
         arrayVarToIndexVar = new HashMap<>();
         exprToUsedReader = new HashMap<>();
+        batchOutputExpr = new HashMap<>();
         varCount = 0;
         nestedScope = 0;
         main = createMainFunction(functionName);
@@ -104,6 +115,27 @@ public class CodeNodeContext {
         return main;
     }
 
+    /**
+     * Create the batch-at-a-time variant of main, which has the same arguments as main. The executor runs the variant
+     * instead of main if all the columns of the used readers can be decoded in batches
+     */
+    public MainFunctionCodeNode createBatchMain() {
+        BlockCodeNode batchMainBlock = new BlockCodeNode(null, LogicalOperatorTag.EMPTYTUPLESOURCE);
+        batchMain = new MainFunctionCodeNode(functionName + BATCH_FUNCTION_POSTFIX, scanOp.getSourceLocation(),
+                batchMainBlock, paths.size());
+        batchOutputExpr.clear();
+        return batchMain;
+    }
+
+    public void discardBatchMain() {
+        batchMain = null;
+        batchOutputExpr.clear();
+    }
+
+    public void putBatchOutput(LogicalVariable variable, ICodeNode output) {
+        batchOutputExpr.put(variable, output);
+    }
+
     public void finish(ScalarExpressionCodeGenVisitor expressionVisitor, StringCodeGeneratorVisitor codeGenerator)
             throws AlgebricksException {
         List<LogicalVariable> variables = scanOp.getProjectVariables();
@@ -126,11 +158,39 @@ public class CodeNodeContext {
 
         main.setPaths(getFinalReaderSchemas());
         String code = codeGenerator.generateCode(main);
-        scanOp.setDatasetProjectionInfo(new CodeGenerationProjectionInfo(main.getFunctionName().toString(), code,
-                main.getPaths(), functionCallInformationMap));
+        String batchFunctionName = null;
+        if (finishBatchMain(variables)) {
+            batchMain.setPaths(main.getPaths());
+            code += '\n' + codeGenerator.generateCode(batchMain);
+            batchFunctionName = batchMain.getFunctionName().toString();
+        }
+        scanOp.setDatasetProjectionInfo(new CodeGenerationProjectionInfo(main.getFunctionName().toString(),
+                batchFunctionName, code, main.getPaths(), functionCallInformationMap,
+                partialAggregateOutput && !singleScan));
         LOGGER.info(code);
     }
 
+    /**
+     * Append the output of the batch-at-a-time variant of main (if any)
+     *
+     * @return false if there is no variant or if it does not produce all the output variables
+     */
+    private boolean finishBatchMain(List<LogicalVariable> variables) {
+        if (batchMain == null || !batchOutputExpr.keySet().containsAll(variables)) {
+            return false;
+        }
+        BlockCodeNode batchMainBlock = batchMain.getBlock();
+        Set<ICodeNode> alreadyOutput = new HashSet<>();
+        for (LogicalVariable variable : variables) {
+            ICodeNode output = batchOutputExpr.get(variable);
+            if (alreadyOutput.add(output)) {
+                batchMainBlock.appendNode(new AppendBuiltinFunctionCodeNode(output));
+            }
+        }
+        batchMainBlock.appendNode(new FlushBuiltinFunctionCodeNode());
+        return true;
+    }
+
     public BlockCodeNode getCurrentBlock() {
         return currentBlock;
     }
@@ -189,6 +249,13 @@ public class CodeNodeContext {
         return schemaToReaderArg.containsKey(schemaNode);
     }
 
+    /**
+     * @return the reader that is bound to the given schema node or null if no reader is bound to it
+     */
+    public IdentifierCodeNode getBoundReader(IExpectedSchemaNode schemaNode) {
+        return schemaToReaderArg.get(schemaNode);
+    }
+
     public ICodeNode createNext(IExpectedSchemaNode schemaNode, BlockCodeNode loopBlock) {
         IdentifierCodeNode reader = bindReader(schemaNode);
         if (currentBlock.isReaderOverridden(reader)) {
@@ -261,6 +328,10 @@ public class CodeNodeContext {
         scanOp.projectOnly(projectedVars);
     }
 
+    public List<LogicalVariable> getOutputVariables() {
+        return scanOp.getProjectVariables();
+    }
+
     public void clearOutput() {
         outputExpr.clear();
         scanOp.clearProject();
@@ -335,6 +406,14 @@ public class CodeNodeContext {
         return nestedScope > 0;
     }
 
+    public void setPartialAggregateOutput() {
+        partialAggregateOutput = true;
+    }
+
+    public void setSingleScan() {
+        singleScan = true;
+    }
+
     public void bindPositionalVariable(LogicalVariable unnestVariable, LogicalVariable positionalVariable) {
         schemaBuilder.setPositionalVariable(unnestVariable, positionalVariable);
     }
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.pushdown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AFloat;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.typecomputer.impl.TypeComputeUtils;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo.Comparison;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+
+/**
+ * Collects simple range predicates (e.g., {@code $$t.getField("ts") >= 10}) on a dataset's record variable. The
+ * collected predicates are pushed to the columnar scan to skip the mega leaf nodes that cannot satisfy them.
+ * Only predicates of the form {@code <field path> <comparison> <numeric constant>} that are part of a conjunction
+ * are collected.
+ */
+class ColumnRangeFilterBuilder {
+    private final IOptimizationContext context;
+    private final Map<LogicalVariable, List<ColumnRangeFilterInfo>> recordVarToFilters;
+    //Assigned variables (and the environments they were assigned in) between the filter and the scan
+    private final Map<LogicalVariable, ILogicalExpression> assignedExpressions;
+    private final Map<LogicalVariable, IVariableTypeEnvironment> assignedTypeEnvs;
+
+    ColumnRangeFilterBuilder(IOptimizationContext context) {
+        this.context = context;
+        recordVarToFilters = new HashMap<>();
+        assignedExpressions = new HashMap<>();
+        assignedTypeEnvs = new HashMap<>();
+    }
+
+    /**
+     * Collect the range predicates of a condition that is evaluated directly on the output of a scan
+     *
+     * @param condition   the filter condition
+     * @param conditionOp the operator that evaluates the condition
+     * @param assigns     assign operators between the condition's operator and the scan (if any)
+     * @param recordVar   the scan's record variable
+     */
+    void addCondition(ILogicalExpression condition, ILogicalOperator conditionOp, List<AssignOperator> assigns,
+            LogicalVariable recordVar) throws AlgebricksException {
+        assignedExpressions.clear();
+        assignedTypeEnvs.clear();
+        for (AssignOperator assign : assigns) {
+            IVariableTypeEnvironment assignTypeEnv = assign.computeOutputTypeEnvironment(context);
+            List<LogicalVariable> variables = assign.getVariables();
+            List<Mutable<ILogicalExpression>> expressions = assign.getExpressions();
+            for (int i = 0; i < variables.size(); i++) {
+                assignedExpressions.put(variables.get(i), expressions.get(i).getValue());
+                assignedTypeEnvs.put(variables.get(i), assignTypeEnv);
+            }
+        }
+
+        IVariableTypeEnvironment typeEnv = conditionOp.computeOutputTypeEnvironment(context);
+        List<ColumnRangeFilterInfo> filters = new ArrayList<>();
+        collect(condition, recordVar, typeEnv, filters);
+        if (!filters.isEmpty()) {
+            recordVarToFilters.computeIfAbsent(recordVar, k -> new ArrayList<>()).addAll(filters);
+        }
+    }
+
+    /**
+     * @param recordVar the scan's record variable
+     * @return the collected range predicates on the record variable
+     */
+    List<ColumnRangeFilterInfo> getFilters(LogicalVariable recordVar) {
+        return recordVarToFilters.getOrDefault(recordVar, Collections.emptyList());
+    }
+
+    private void collect(ILogicalExpression expr, LogicalVariable recordVar, IVariableTypeEnvironment typeEnv,
+            List<ColumnRangeFilterInfo> filters) throws AlgebricksException {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return;
+        }
+
+        AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = funcExpr.getFunctionIdentifier();
+        if (BuiltinFunctions.AND.equals(fid)) {
+            for (Mutable<ILogicalExpression> arg : funcExpr.getArguments()) {
+                collect(arg.getValue(), recordVar, typeEnv, filters);
+            }
+            return;
+        }
+
+        Comparison comparison = getComparison(fid);
+        if (comparison == null) {
+            return;
+        }
+
+        ILogicalExpression left = funcExpr.getArguments().get(0).getValue();
+        ILogicalExpression right = funcExpr.getArguments().get(1).getValue();
+        if (left.getExpressionTag() == LogicalExpressionTag.CONSTANT) {
+            //constant <op> path -> path <flipped op> constant
+            ILogicalExpression temp = left;
+            left = right;
+            right = temp;
+            comparison = comparison.flip();
+        }
+
+        List<String> path = getPath(left, recordVar, typeEnv);
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+
+        ColumnRangeFilterInfo filter = createFilter(path, comparison, right);
+        if (filter != null) {
+            filters.add(filter);
+        }
+    }
+
+    private List<String> getPath(ILogicalExpression expr, LogicalVariable recordVar, IVariableTypeEnvironment typeEnv)
+            throws AlgebricksException {
+        if (expr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            LogicalVariable variable = ((VariableReferenceExpression) expr).getVariableReference();
+            if (variable.equals(recordVar)) {
+                return new ArrayList<>();
+            } else if (assignedExpressions.containsKey(variable)) {
+                return getPath(assignedExpressions.get(variable), recordVar, assignedTypeEnvs.get(variable));
+            }
+            return null;
+        } else if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+
+        AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = funcExpr.getFunctionIdentifier();
+        String fieldName;
+        if (BuiltinFunctions.FIELD_ACCESS_BY_NAME.equals(fid)) {
+            fieldName = ConstantExpressionUtil.getStringArgument(funcExpr, 1);
+        } else if (BuiltinFunctions.FIELD_ACCESS_BY_INDEX.equals(fid)) {
+            fieldName = getFieldName(funcExpr, typeEnv);
+        } else {
+            return null;
+        }
+
+        if (fieldName == null) {
+            return null;
+        }
+
+        List<String> path = getPath(funcExpr.getArguments().get(0).getValue(), recordVar, typeEnv);
+        if (path != null) {
+            path.add(fieldName);
+        }
+        return path;
+    }
+
+    private static String getFieldName(AbstractFunctionCallExpression funcExpr, IVariableTypeEnvironment typeEnv)
+            throws AlgebricksException {
+        Integer fieldIndex = ConstantExpressionUtil.getIntArgument(funcExpr, 1);
+        IAType inputType = (IAType) typeEnv.getType(funcExpr.getArguments().get(0).getValue());
+        IAType type = TypeComputeUtils.getActualType(inputType);
+        if (fieldIndex == null || !(type instanceof ARecordType)) {
+            return null;
+        }
+        return ((ARecordType) type).getFieldNames()[fieldIndex];
+    }
+
+    private static Comparison getComparison(FunctionIdentifier fid) {
+        if (BuiltinFunctions.EQ.equals(fid)) {
+            return Comparison.EQ;
+        } else if (BuiltinFunctions.LT.equals(fid)) {
+            return Comparison.LT;
+        } else if (BuiltinFunctions.LE.equals(fid)) {
+            return Comparison.LE;
+        } else if (BuiltinFunctions.GT.equals(fid)) {
+            return Comparison.GT;
+        } else if (BuiltinFunctions.GE.equals(fid)) {
+            return Comparison.GE;
+        }
+        return null;
+    }
+
+    private static ColumnRangeFilterInfo createFilter(List<String> path, Comparison comparison,
+            ILogicalExpression constant) {
+        IAObject value = ConstantExpressionUtil.getConstantIaObject(constant, null);
+        if (value == null) {
+            return null;
+        }
+
+        switch (value.getType().getTypeTag()) {
+            case TINYINT:
+                return ColumnRangeFilterInfo.createLong(path, comparison, ((AInt8) value).getByteValue());
+            case SMALLINT:
+                return ColumnRangeFilterInfo.createLong(path, comparison, ((AInt16) value).getShortValue());
+            case INTEGER:
+                return ColumnRangeFilterInfo.createLong(path, comparison, ((AInt32) value).getIntegerValue());
+            case BIGINT:
+                return ColumnRangeFilterInfo.createLong(path, comparison, ((AInt64) value).getLongValue());
+            case FLOAT:
+                return createDoubleFilter(path, comparison, ((AFloat) value).getFloatValue());
+            case DOUBLE:
+                return createDoubleFilter(path, comparison, ((ADouble) value).getDoubleValue());
+            default:
+                //Only numeric values are supported
+                return null;
+        }
+    }
+
+    private static ColumnRangeFilterInfo createDoubleFilter(List<String> path, Comparison comparison, double value) {
+        return Double.isNaN(value) ? null : ColumnRangeFilterInfo.createDouble(path, comparison, value);
+    }
+}
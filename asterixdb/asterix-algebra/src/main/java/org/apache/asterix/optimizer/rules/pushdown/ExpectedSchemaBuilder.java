@@ -21,6 +21,7 @@ package org.apache.asterix.optimizer.rules.pushdown;
 import static org.apache.asterix.optimizer.rules.pushdown.ExpressionValueAccessPushdownVisitor.ARRAY_FUNCTIONS;
 import static org.apache.asterix.optimizer.rules.pushdown.ExpressionValueAccessPushdownVisitor.SUPPORTED_FUNCTIONS;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.apache.asterix.optimizer.rules.pushdown.schema.IExpectedSchemaNode;
 import org.apache.asterix.optimizer.rules.pushdown.schema.ObjectExpectedSchemaNode;
 import org.apache.asterix.optimizer.rules.pushdown.schema.RootExpectedSchemaNode;
 import org.apache.asterix.optimizer.rules.pushdown.schema.UnionExpectedSchemaNode;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.DataProjectionInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -68,11 +70,16 @@ public class ExpectedSchemaBuilder {
     }
 
     public DataProjectionInfo createProjectionInfo(LogicalVariable recordVariable) {
+        return createProjectionInfo(recordVariable, Collections.emptyList());
+    }
+
+    public DataProjectionInfo createProjectionInfo(LogicalVariable recordVariable,
+            List<ColumnRangeFilterInfo> rangeFilters) {
         IExpectedSchemaNode rootNode = varToNode.get(recordVariable);
         Map<String, FunctionCallInformation> sourceInformation = new HashMap<>();
         typeBuilder.reset(sourceInformation);
         ARecordType recordType = (ARecordType) rootNode.accept(typeBuilder, null);
-        return new DataProjectionInfo(recordType, sourceInformation);
+        return new DataProjectionInfo(recordType, sourceInformation, rangeFilters);
     }
 
     public boolean setSchemaFromExpression(AbstractFunctionCallExpression expr, LogicalVariable producedVar,
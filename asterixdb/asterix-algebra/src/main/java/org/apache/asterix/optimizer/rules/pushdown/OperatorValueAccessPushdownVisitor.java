@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.optimizer.rules.pushdown;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +29,7 @@ import java.util.stream.Collectors;
 
 import org.apache.asterix.common.config.DatasetConfig;
 import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
 import org.apache.asterix.common.metadata.DataverseName;
 import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.metadata.declared.DataSource;
@@ -108,6 +110,8 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
     private final ExpressionValueAccessPushdownVisitor pushdownVisitor;
     //visitedOperators so we do not visit the same operator twice (in case of REPLICATE)
     private final Set<ILogicalOperator> visitedOperators;
+    //Range predicates that can be used to skip mega leaf nodes of columnar datasets
+    private final ColumnRangeFilterBuilder rangeFilterBuilder;
 
     public OperatorValueAccessPushdownVisitor(IOptimizationContext context) {
         this(context, new ExpectedSchemaBuilder());
@@ -120,6 +124,7 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         registeredDatasets = new HashMap<>();
         registeredMetas = new HashMap<>();
         visitedOperators = new HashSet<>();
+        rangeFilterBuilder = new ColumnRangeFilterBuilder(context);
     }
 
     public void finish() {
@@ -127,7 +132,9 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
             AbstractScanOperator abstractScan = entry.getValue();
             if (abstractScan.getOperatorTag() == LogicalOperatorTag.DATASOURCESCAN) {
                 DataSourceScanOperator scan = (DataSourceScanOperator) abstractScan;
-                scan.setDatasetProjectionInfo(builder.createProjectionInfo(entry.getKey()));
+                LogicalVariable recordVar = entry.getKey();
+                scan.setDatasetProjectionInfo(
+                        builder.createProjectionInfo(recordVar, rangeFilterBuilder.getFilters(recordVar)));
             } else {
                 UnnestMapOperator unnest = (UnnestMapOperator) abstractScan;
                 unnest.setDatasetProjectionInfo(builder.createProjectionInfo(entry.getKey()));
@@ -193,6 +200,9 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         DatasetDataSource datasetDataSource = getDatasetDataSourceIfApplicable((DataSource) op.getDataSource());
         registerDatasetIfApplicable(datasetDataSource, op);
         visitInputs(op);
+        if (op.getSelectCondition() != null) {
+            collectRangeFilters(op.getSelectCondition().getValue(), op, op);
+        }
         return null;
     }
 
@@ -367,6 +377,34 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         }
     }
 
+    private void collectRangeFilters(ILogicalExpression condition, ILogicalOperator conditionOp,
+            DataSourceScanOperator scan) throws AlgebricksException {
+        collectRangeFilters(condition, conditionOp, scan, Collections.emptyList());
+    }
+
+    /**
+     * Collect the range predicates of a condition that filters the output of a scan of a columnar dataset. The
+     * collected predicates are used to skip the mega leaf nodes that cannot satisfy the condition.
+     *
+     * @param condition   the filter condition
+     * @param conditionOp the operator that evaluates the condition
+     * @param scan        the scan operator
+     * @param assigns     assign operators between the condition's operator and the scan
+     */
+    private void collectRangeFilters(ILogicalExpression condition, ILogicalOperator conditionOp,
+            DataSourceScanOperator scan, List<AssignOperator> assigns) throws AlgebricksException {
+        DatasetDataSource datasetDataSource = getDatasetDataSourceIfApplicable((DataSource) scan.getDataSource());
+        if (datasetDataSource == null || datasetDataSource.getDataset().getDatasetType() != DatasetType.INTERNAL) {
+            //Only the columnar datasets store min/max values
+            return;
+        }
+
+        LogicalVariable recordVar = datasetDataSource.getDataRecordVariable(scan.getVariables());
+        if (registeredDatasets.get(recordVar) == scan) {
+            rangeFilterBuilder.addCondition(condition, conditionOp, assigns, recordVar);
+        }
+    }
+
     private boolean isCountConstant(List<Mutable<ILogicalExpression>> expressions) {
         if (expressions.size() != 1) {
             return false;
@@ -404,6 +442,16 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
     @Override
     public Void visitSelectOperator(SelectOperator op, Void arg) throws AlgebricksException {
         visitInputs(op);
+        //Find the scan (if any) that is below this select. Only assigns are allowed between the two
+        List<AssignOperator> assigns = new ArrayList<>();
+        ILogicalOperator inputOp = op.getInputs().get(0).getValue();
+        while (inputOp.getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+            assigns.add((AssignOperator) inputOp);
+            inputOp = inputOp.getInputs().get(0).getValue();
+        }
+        if (inputOp.getOperatorTag() == LogicalOperatorTag.DATASOURCESCAN) {
+            collectRangeFilters(op.getCondition().getValue(), op, (DataSourceScanOperator) inputOp, assigns);
+        }
         return null;
     }
 
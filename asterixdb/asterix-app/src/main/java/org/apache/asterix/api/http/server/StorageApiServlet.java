@@ -30,6 +30,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.context.IndexInfo;
 import org.apache.asterix.common.replication.IPartitionReplica;
 import org.apache.asterix.common.storage.IReplicaManager;
 import org.apache.asterix.common.storage.ReplicaIdentifier;
@@ -75,6 +76,10 @@ public class StorageApiServlet extends AbstractServlet {
                 json = getPartitionStatus(path);
             } else if (path.startsWith("/stats")) {
                 json = getStats();
+            } else if (path.startsWith("/buffercache")) {
+                json = getBufferCacheStats();
+            } else if (path.startsWith("/indexstats")) {
+                json = getIndexStats();
             } else {
                 throw new IllegalArgumentException();
             }
@@ -204,4 +209,22 @@ public class StorageApiServlet extends AbstractServlet {
         storageStats.stream().map(ResourceStorageStats::asJson).forEach(result::add);
         return result;
     }
+
+    private JsonNode getBufferCacheStats() {
+        final ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        appCtx.getBufferCache().addStats(result);
+        return result;
+    }
+
+    private JsonNode getIndexStats() {
+        final ArrayNode result = OBJECT_MAPPER.createArrayNode();
+        for (IndexInfo indexInfo : appCtx.getDatasetLifecycleManager().getOpenIndexesInfo()) {
+            final ObjectNode indexJson = OBJECT_MAPPER.createObjectNode();
+            indexJson.put("path", indexInfo.getLocalResource().getPath());
+            indexJson.put("partition", indexInfo.getPartition());
+            indexInfo.getIndex().addStats(indexJson);
+            result.add(indexJson);
+        }
+        return result;
+    }
 }
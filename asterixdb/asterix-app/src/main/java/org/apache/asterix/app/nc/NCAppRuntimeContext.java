@@ -89,6 +89,8 @@ import org.apache.hyracks.api.network.INetworkSecurityManager;
 import org.apache.hyracks.control.common.controllers.NCConfig;
 import org.apache.hyracks.control.nc.NodeControllerService;
 import org.apache.hyracks.ipc.impl.HyracksConnection;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnLeafKeysCacheProvider;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnLeafKeysCache;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
@@ -104,6 +106,7 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICacheMemoryAllocator;
 import org.apache.hyracks.storage.common.buffercache.IPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.storage.common.file.ILocalResourceRepositoryFactory;
 import org.apache.hyracks.storage.common.file.IResourceIdFactory;
@@ -114,7 +117,7 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-public class NCAppRuntimeContext implements INcApplicationContext {
+public class NCAppRuntimeContext implements INcApplicationContext, IColumnLeafKeysCacheProvider {
     private static final Logger LOGGER = LogManager.getLogger();
 
     private ILSMMergePolicyFactory metadataMergePolicyFactory;
@@ -154,6 +157,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
     private ICacheManager cacheManager;
     private IConfigValidator configValidator;
     private IDiskWriteRateLimiterProvider diskWriteRateLimiterProvider;
+    private ColumnLeafKeysCache columnLeafKeysCache;
 
     public NCAppRuntimeContext(INCServiceContext ncServiceContext, NCExtensionManager extensionManager,
             IPropertiesFactory propertiesFactory) {
@@ -185,8 +189,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 MaintainedThreadNameExecutorService.newCachedThreadPool(getServiceContext().getThreadFactory());
         ICacheMemoryAllocator allocator = new HeapBufferAllocator();
         IPageCleanerPolicy pcp = new DelayPageCleanerPolicy(600000);
-        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(allocator,
-                storageProperties.getBufferCachePageSize(), storageProperties.getBufferCacheNumPages());
+        IPageReplacementStrategy prs = createPageReplacementStrategy(allocator);
         lsmIOScheduler = createIoScheduler(storageProperties);
         metadataMergePolicyFactory = new ConcurrentMergePolicyFactory();
         indexCheckpointManagerProvider = new IndexCheckpointManagerProvider(ioManager);
@@ -289,6 +292,8 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         lccm.register(libraryManager);
 
         diskWriteRateLimiterProvider = new DiskWriteRateLimiterProvider();
+        columnLeafKeysCache = new ColumnLeafKeysCache(storageProperties.getColumnLeafKeysCacheSize(),
+                ncServiceContext.getMemoryManager());
     }
 
     @Override
@@ -318,6 +323,11 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return bufferCache;
     }
 
+    @Override
+    public ColumnLeafKeysCache getColumnLeafKeysCache() {
+        return columnLeafKeysCache;
+    }
+
     @Override
     public IVirtualBufferCache getVirtualBufferCache() {
         return virtualBufferCache;
@@ -577,6 +587,19 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return configValidator;
     }
 
+    private IPageReplacementStrategy createPageReplacementStrategy(ICacheMemoryAllocator allocator) {
+        String policy = storageProperties.getBufferCacheReplacementPolicy();
+        int pageSize = storageProperties.getBufferCachePageSize();
+        int numPages = storageProperties.getBufferCacheNumPages();
+        if (TwoQueueClockPageReplacementStrategy.NAME.equalsIgnoreCase(policy)) {
+            return new TwoQueueClockPageReplacementStrategy(allocator, pageSize, numPages);
+        } else if (!ClockPageReplacementStrategy.NAME.equalsIgnoreCase(policy) && LOGGER.isWarnEnabled()) {
+            LOGGER.log(Level.WARN,
+                    "Unknown buffer cache replacement policy: " + policy + "; defaulting to clock replacement policy.");
+        }
+        return new ClockPageReplacementStrategy(allocator, pageSize, numPages);
+    }
+
     private ILSMIOOperationScheduler createIoScheduler(StorageProperties properties) {
         String schedulerName = storageProperties.getIoScheduler();
         int numPartitions = ioManager.getIODevices().size();
@@ -39,6 +39,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.asterix.common.api.IDatasetLifecycleManager;
@@ -72,7 +74,10 @@ import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleWriter;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentId.IdCompareResult;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
@@ -275,7 +280,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
 
     private synchronized void startRecoveryRedoPhase(Set<Integer> partitions, ILogReader logReader,
             long lowWaterMarkLSN, Set<Long> winnerTxnSet, boolean closeOnFlushRedo) throws IOException, ACIDException {
-        int redoCount = 0;
+        final AtomicInteger redoCount = new AtomicInteger();
         long txnId = 0;
 
         long resourceId;
@@ -296,7 +301,10 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
         TxnEntityId tempKeyTxnEntityId = new TxnEntityId(-1, -1, -1, null, -1, false);
 
         ILogRecord logRecord = null;
-        Set<Integer> flushRedoDatasets = new HashSet<>();
+        final Set<Integer> flushRedoDatasets = ConcurrentHashMap.newKeySet();
+        // the log records are read (and filtered) in log order while the indexes are redone in parallel
+        final RecoveryRedoDispatcher redoDispatcher =
+                new RecoveryRedoDispatcher(appCtx.getThreadExecutor(), getNumRedoWorkers());
         try {
             logReader.setPosition(lowWaterMarkLSN);
             logRecord = logReader.next();
@@ -379,8 +387,14 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                             }
                             // lsn @ maxDiskLastLsn is either a flush log or a master replica log
                             if (lsn >= maxDiskLastLsn) {
-                                redo(logRecord, datasetLifecycleManager);
-                                redoCount++;
+                                final ILSMIndex redoIndex = index;
+                                final byte newOp = logRecord.getNewOp();
+                                final ITupleReference newValue = copyTuple(logRecord.getNewValue());
+                                redoDispatcher.dispatch(logRecord.getDatasetId(), logRecord.getResourcePartition(),
+                                        () -> {
+                                            redo(redoIndex, newOp, newValue);
+                                            redoCount.incrementAndGet();
+                                        });
                             }
                         }
                         break;
@@ -397,6 +411,7 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                             // we only need to flush open indexes here (opened by previous update records)
                             // if an index has no ongoing updates, then it's memory component must be empty
                             // and there is nothing to flush
+                            final List<ILSMIndex> flushIndexes = new ArrayList<>();
                             for (final IndexInfo iInfo : dsInfo.getIndexes().values()) {
                                 if (iInfo.isOpen() && iInfo.getPartition() == partition) {
                                     Long maxLsnBeforeFlush = resourceId2MaxLSNMap.get(iInfo.getResourceId());
@@ -405,13 +420,8 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                                         // IMPORTANT: Don't remove the check above
                                         // This check is to support indexes without transaction logs
                                         maxDiskLastLsn = maxLsnBeforeFlush;
-                                        index = iInfo.getIndex();
-                                        if (logRecord.getLSN() > maxDiskLastLsn
-                                                && !index.isCurrentMutableComponentEmpty()) {
-                                            // schedule flush
-                                            redoFlush(index, logRecord);
-                                            flushRedoDatasets.add(datasetId);
-                                            redoCount++;
+                                        if (logRecord.getLSN() > maxDiskLastLsn) {
+                                            flushIndexes.add(iInfo.getIndex());
                                         } else {
                                             // TODO: update checkpoint file?
                                         }
@@ -420,6 +430,23 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                                     }
                                 }
                             }
+                            if (!flushIndexes.isEmpty()) {
+                                // the memory components are checked once the preceding updates of the partition
+                                // are redone
+                                final long flushLsn = logRecord.getLSN();
+                                final ILSMComponentId flushComponentId = new LSMComponentId(
+                                        logRecord.getFlushingComponentMinId(), logRecord.getFlushingComponentMaxId());
+                                redoDispatcher.dispatch(datasetId, partition, () -> {
+                                    for (ILSMIndex flushIndex : flushIndexes) {
+                                        if (!flushIndex.isCurrentMutableComponentEmpty()) {
+                                            // schedule flush
+                                            redoFlush(flushIndex, flushLsn, flushComponentId);
+                                            flushRedoDatasets.add(datasetId);
+                                            redoCount.incrementAndGet();
+                                        }
+                                    }
+                                });
+                            }
                         }
                         break;
                     case LogType.JOB_COMMIT:
@@ -435,8 +462,10 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
                 }
                 logRecord = logReader.next();
             }
+            redoDispatcher.finish();
             LOGGER.info("Logs REDO phase completed. Redo logs count: " + redoCount);
         } finally {
+            redoDispatcher.close();
             txnSubsystem.getTransactionManager().ensureMaxTxnId(txnId);
             //close all indexes
             Set<Long> resourceIdList = resourceId2MaxLSNMap.keySet();
@@ -451,6 +480,21 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
         }
     }
 
+    private int getNumRedoWorkers() {
+        final int redoThreads = txnSubsystem.getTransactionProperties().getRecoveryRedoThreads();
+        return redoThreads > 0 ? redoThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ITupleReference copyTuple(ITupleReference tuple) {
+        // the log reader reuses its log record (and read buffer) for the next log record
+        final byte[] bytes = new byte[SimpleTupleWriter.INSTANCE.bytesRequired(tuple)];
+        SimpleTupleWriter.INSTANCE.writeTuple(tuple, bytes, 0);
+        final ITreeIndexTupleReference copy = SimpleTupleWriter.INSTANCE.createTupleReference();
+        copy.setFieldCount(tuple.getFieldCount());
+        copy.resetByTupleOffset(bytes, 0);
+        return copy;
+    }
+
     private boolean needToFreeMemory() {
         return Runtime.getRuntime().freeMemory() < cachedEntityCommitsPerJobSize;
     }
@@ -806,42 +850,35 @@ public class RecoveryManager implements IRecoveryManager, ILifeCycleComponent {
         }
     }
 
-    private static void redo(ILogRecord logRecord, IDatasetLifecycleManager datasetLifecycleManager) {
+    private static void redo(ILSMIndex index, byte newOp, ITupleReference newValue) {
         try {
-            int datasetId = logRecord.getDatasetId();
-            long resourceId = logRecord.getResourceId();
-            ILSMIndex index = (ILSMIndex) datasetLifecycleManager.getIndex(datasetId, resourceId);
             ILSMIndexAccessor indexAccessor = index.createAccessor(NoOpIndexAccessParameters.INSTANCE);
             ILSMIndexOperationContext opCtx = indexAccessor.getOpContext();
             opCtx.setFilterSkip(true);
             opCtx.setRecovery(true);
-            if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.INSERT_BYTE) {
-                indexAccessor.forceInsert(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.DELETE_BYTE) {
-                indexAccessor.forceDelete(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.UPSERT_BYTE) {
+            if (newOp == AbstractIndexModificationOperationCallback.INSERT_BYTE) {
+                indexAccessor.forceInsert(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.DELETE_BYTE) {
+                indexAccessor.forceDelete(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.UPSERT_BYTE) {
                 // redo, upsert the new value
-                indexAccessor.forceUpsert(logRecord.getNewValue());
-            } else if (logRecord.getNewOp() == AbstractIndexModificationOperationCallback.FILTER_BYTE) {
+                indexAccessor.forceUpsert(newValue);
+            } else if (newOp == AbstractIndexModificationOperationCallback.FILTER_BYTE) {
                 opCtx.setFilterSkip(false);
-                indexAccessor.updateFilter(logRecord.getNewValue());
+                indexAccessor.updateFilter(newValue);
             } else {
-                throw new IllegalStateException("Unsupported OperationType: " + logRecord.getNewOp());
+                throw new IllegalStateException("Unsupported OperationType: " + newOp);
             }
         } catch (Exception e) {
             throw new IllegalStateException("Failed to redo", e);
         }
     }
 
-    private static void redoFlush(ILSMIndex index, ILogRecord logRecord) throws HyracksDataException {
-        long flushLsn = logRecord.getLSN();
+    private static void redoFlush(ILSMIndex index, long flushLsn, ILSMComponentId id) throws HyracksDataException {
         Map<String, Object> flushMap = new HashMap<>();
         flushMap.put(LSMIOOperationCallback.KEY_FLUSH_LOG_LSN, flushLsn);
         ILSMIndexAccessor accessor = index.createAccessor(NoOpIndexAccessParameters.INSTANCE);
         accessor.getOpContext().setParameters(flushMap);
-        long minId = logRecord.getFlushingComponentMinId();
-        long maxId = logRecord.getFlushingComponentMaxId();
-        ILSMComponentId id = new LSMComponentId(minId, maxId);
         flushMap.put(LSMIOOperationCallback.KEY_NEXT_COMPONENT_ID, index.getCurrentMemoryComponent().getId());
         if (!index.getDiskComponents().isEmpty()) {
             ILSMDiskComponent diskComponent = index.getDiskComponents().get(0);
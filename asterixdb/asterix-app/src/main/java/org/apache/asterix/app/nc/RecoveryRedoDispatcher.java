@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.nc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.util.ThrowingAction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Dispatches the redo of log records to a fixed number of workers during recovery. The redo of each (dataset,
+ * partition) is always done by the same worker in the order it was dispatched, which keeps the log order within each
+ * index, while the indexes of different (dataset, partition)s are redone in parallel.
+ */
+class RecoveryRedoDispatcher implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    // the maximum number of pending redo tasks of a worker (the dispatcher waits once reached)
+    private static final int WORKER_QUEUE_CAPACITY = 4096;
+    private static final ThrowingAction STOP = () -> {
+    };
+    private final BlockingQueue<ThrowingAction>[] queues;
+    private final CompletableFuture<?>[] workers;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean aborted;
+    private boolean stopped;
+
+    @SuppressWarnings("unchecked")
+    RecoveryRedoDispatcher(Executor executor, int numWorkers) {
+        queues = new BlockingQueue[numWorkers];
+        workers = new CompletableFuture[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            final BlockingQueue<ThrowingAction> queue = new ArrayBlockingQueue<>(WORKER_QUEUE_CAPACITY);
+            queues[i] = queue;
+            workers[i] = CompletableFuture.runAsync(() -> work(queue), executor);
+        }
+    }
+
+    /**
+     * Dispatches a redo task of a (dataset, partition). The caller waits if the worker of the (dataset, partition)
+     * has too many pending tasks.
+     *
+     * @throws HyracksDataException
+     *             if any of the previously dispatched tasks failed
+     */
+    void dispatch(int datasetId, int partition, ThrowingAction task) throws HyracksDataException {
+        throwIfFailed();
+        final int worker = Math.floorMod(31 * datasetId + partition, queues.length);
+        try {
+            queues[worker].put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Waits for all dispatched tasks to be done
+     *
+     * @throws HyracksDataException
+     *             if any of the dispatched tasks failed
+     */
+    void finish() throws HyracksDataException {
+        stop();
+        throwIfFailed();
+    }
+
+    /**
+     * Stops the workers without doing the tasks that are still pending (if {@link #finish()} was not called)
+     */
+    @Override
+    public void close() {
+        aborted = true;
+        stop();
+    }
+
+    private void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        boolean interrupted = false;
+        for (BlockingQueue<ThrowingAction> queue : queues) {
+            while (true) {
+                try {
+                    queue.put(STOP);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (CompletableFuture<?> worker : workers) {
+            worker.join();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwIfFailed() throws HyracksDataException {
+        final Throwable th = failure.get();
+        if (th != null) {
+            throw HyracksDataException.create(th);
+        }
+    }
+
+    private void work(BlockingQueue<ThrowingAction> queue) {
+        while (true) {
+            final ThrowingAction task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                // the dispatcher always stops its workers
+                continue;
+            }
+            if (task == STOP) {
+                return;
+            }
+            // keep consuming tasks after a failure so that the dispatcher never waits forever
+            if (failure.get() == null && !aborted) {
+                try {
+                    task.run();
+                } catch (Throwable th) {
+                    LOGGER.error("failed to redo log records", th);
+                    failure.compareAndSet(null, th);
+                }
+            }
+        }
+    }
+}
@@ -258,6 +258,7 @@ import org.apache.hyracks.api.result.ResultSetId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.controllers.CCConfig;
 import org.apache.hyracks.storage.am.common.dataflow.IndexDropOperatorDescriptor.DropOption;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.TokenizerCategory;
 import org.apache.hyracks.util.OptionalBoolean;
@@ -748,6 +749,10 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         StorageProperties storageProperties = metadataProvider.getStorageProperties();
         DatasetFormatInfo datasetFormatInfo = dd.getDatasetFormatInfo(storageProperties.getColumnMaxTupleCount(),
                 storageProperties.getColumnFreeSpaceTolerance());
+        if (!ColumnCompression.isSupported(datasetFormatInfo.getColumnCompression())) {
+            throw new CompilationException(ErrorCode.UNKNOWN_COMPRESSION_SCHEME, sourceLoc,
+                    datasetFormatInfo.getColumnCompression(), ColumnCompression.getSupportedSchemes());
+        }
         try {
             // Check if the dataverse exists
             Dataverse dv = MetadataManager.INSTANCE.getDataverse(mdTxnCtx, dataverseName);
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.nc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecoveryRedoDispatcherTest {
+    private static final int NUM_WORKERS = 4;
+    private static final int NUM_DATASETS = 4;
+    private static final int NUM_PARTITIONS = 4;
+    private static final int NUM_TASKS = 20000;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(NUM_WORKERS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 60000)
+    public void redoOrderTest() throws Exception {
+        final List<List<Integer>> redone = new ArrayList<>();
+        final List<Set<String>> threads = new ArrayList<>();
+        for (int i = 0; i < NUM_DATASETS * NUM_PARTITIONS; i++) {
+            redone.add(new ArrayList<>());
+            threads.add(new HashSet<>());
+        }
+        try (RecoveryRedoDispatcher dispatcher = new RecoveryRedoDispatcher(executor, NUM_WORKERS)) {
+            for (int i = 0; i < NUM_TASKS; i++) {
+                final int datasetId = i % NUM_DATASETS;
+                final int partition = (i / NUM_DATASETS) % NUM_PARTITIONS;
+                final int index = datasetId * NUM_PARTITIONS + partition;
+                final int logRecord = i;
+                dispatcher.dispatch(datasetId, partition, () -> {
+                    redone.get(index).add(logRecord);
+                    threads.get(index).add(Thread.currentThread().getName());
+                });
+            }
+            dispatcher.finish();
+        }
+        int numRedone = 0;
+        for (int i = 0; i < redone.size(); i++) {
+            // the log records of a (dataset, partition) are redone by one worker in the order they were dispatched
+            final List<Integer> logRecords = redone.get(i);
+            for (int j = 1; j < logRecords.size(); j++) {
+                Assert.assertTrue(logRecords.get(j - 1) < logRecords.get(j));
+            }
+            Assert.assertEquals(1, threads.get(i).size());
+            numRedone += logRecords.size();
+        }
+        Assert.assertEquals(NUM_TASKS, numRedone);
+    }
+
+    @Test(timeout = 60000)
+    public void workerFailureTest() {
+        final HyracksDataException redoFailure = HyracksDataException.create(new IllegalStateException("redo"));
+        final AtomicInteger redoneAfterFailure = new AtomicInteger();
+        HyracksDataException reported = null;
+        try (RecoveryRedoDispatcher dispatcher = new RecoveryRedoDispatcher(executor, NUM_WORKERS)) {
+            dispatcher.dispatch(0, 0, () -> {
+                throw redoFailure;
+            });
+            // more tasks than a worker can queue, so the recovery thread waits on the failed worker
+            for (int i = 0; i < NUM_TASKS; i++) {
+                dispatcher.dispatch(0, 0, redoneAfterFailure::incrementAndGet);
+            }
+            dispatcher.finish();
+        } catch (HyracksDataException e) {
+            reported = e;
+        }
+        // the failure reaches the recovery thread and the failed (dataset, partition) is not redone any further
+        Assert.assertSame(redoFailure, reported);
+        Assert.assertEquals(0, redoneAfterFailure.get());
+    }
+
+    @Test(timeout = 60000)
+    public void finishAfterFailureTest() {
+        final HyracksDataException redoFailure = HyracksDataException.create(new IllegalStateException("redo"));
+        HyracksDataException reported = null;
+        try (RecoveryRedoDispatcher dispatcher = new RecoveryRedoDispatcher(executor, NUM_WORKERS)) {
+            // the last task fails after all tasks were dispatched
+            for (int i = 0; i < NUM_PARTITIONS; i++) {
+                dispatcher.dispatch(0, i, () -> {
+                });
+            }
+            dispatcher.dispatch(1, 0, () -> {
+                throw redoFailure;
+            });
+            dispatcher.finish();
+        } catch (HyracksDataException e) {
+            reported = e;
+        }
+        Assert.assertSame(redoFailure, reported);
+    }
+}
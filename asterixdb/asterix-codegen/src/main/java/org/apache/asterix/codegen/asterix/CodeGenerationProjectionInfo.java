@@ -28,25 +28,36 @@ import org.apache.hyracks.algebricks.core.algebra.metadata.projection.ProjectorT
 
 public class CodeGenerationProjectionInfo implements IProjectionInfo<ARecordType[]> {
     private final String functionName;
+    private final String batchFunctionName;
     private final String code;
     private final ARecordType[] paths;
     private final Map<String, FunctionCallInformation> functionCallInfoMap;
+    private final boolean parallelScan;
 
-    public CodeGenerationProjectionInfo(String functionName, String code, ARecordType[] paths,
-            Map<String, FunctionCallInformation> functionCallInfoMap) {
+    /**
+     * @param batchFunctionName the name of the program's batch-at-a-time variant or {@code null} if it has none
+     * @param parallelScan      whether the generated code can be executed concurrently over disjoint key ranges of a
+     *                          partition (i.e., its output is still correct when produced per range)
+     */
+    public CodeGenerationProjectionInfo(String functionName, String batchFunctionName, String code,
+            ARecordType[] paths, Map<String, FunctionCallInformation> functionCallInfoMap, boolean parallelScan) {
         this.functionName = functionName;
+        this.batchFunctionName = batchFunctionName;
         this.code = code;
         this.paths = paths;
         this.functionCallInfoMap = functionCallInfoMap;
+        this.parallelScan = parallelScan;
     }
 
     private CodeGenerationProjectionInfo(CodeGenerationProjectionInfo other) {
         this.functionName = other.functionName;
+        this.batchFunctionName = other.batchFunctionName;
         this.code = other.code;
         ARecordType[] copyPaths = other.paths;
         paths = new ARecordType[copyPaths.length];
         System.arraycopy(copyPaths, 0, paths, 0, copyPaths.length);
         functionCallInfoMap = new HashMap<>(other.functionCallInfoMap);
+        parallelScan = other.parallelScan;
     }
 
     @Override
@@ -72,10 +83,18 @@ public class CodeGenerationProjectionInfo implements IProjectionInfo<ARecordType
         return functionName;
     }
 
+    public String getBatchFunctionName() {
+        return batchFunctionName;
+    }
+
     public Map<String, FunctionCallInformation> getFunctionCallInfoMap() {
         return functionCallInfoMap;
     }
 
+    public boolean isParallelScan() {
+        return parallelScan;
+    }
+
     @Override
     public String toString() {
         return code;
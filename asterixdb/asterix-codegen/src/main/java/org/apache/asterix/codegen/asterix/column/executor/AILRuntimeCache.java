@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.executor;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
+import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+/**
+ * Node-wide runtime for executing the generated AIL programs:
+ * - A single {@link Engine} is shared by all executions, which allows reusing the parsed and compiled programs
+ * - {@link Context}s are pooled (a context can only be used by one thread at a time). At most
+ * {@link #MAX_IDLE_CONTEXTS} idle contexts are kept, the others are closed once released
+ * - The {@link Source}s of the generated programs are cached by their code and function names. A cached source is
+ * parsed once by a context and its compiled code is reused across partitions and repeated queries
+ * <p>
+ * The pooled contexts and the engine are closed when the node stops. A new engine is created if the runtime is used
+ * again afterwards (e.g., by another node that runs in the same JVM).
+ */
+final class AILRuntimeCache {
+    static final int MAX_IDLE_CONTEXTS = Runtime.getRuntime().availableProcessors();
+    private static final int MAX_CACHED_SOURCES = 256;
+    private static final Map<SourceKey, Source> SOURCES = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SourceKey, Source> eldest) {
+            return size() > MAX_CACHED_SOURCES;
+        }
+    };
+    private static final Deque<Context> IDLE_CONTEXTS = new ArrayDeque<>();
+    //The life cycle managers of the nodes that will close the runtime once they stop
+    private static final Set<ILifeCycleComponentManager> LIFE_CYCLE_MANAGERS =
+            Collections.newSetFromMap(new WeakHashMap<>());
+    private static final ILifeCycleComponent LIFE_CYCLE_COMPONENT = new RuntimeLifeCycleComponent();
+    private static Engine engine;
+
+    private AILRuntimeCache() {
+    }
+
+    /**
+     * Close the runtime once the node of the given life cycle manager stops
+     */
+    static synchronized void register(ILifeCycleComponentManager lifeCycleManager) {
+        if (LIFE_CYCLE_MANAGERS.add(lifeCycleManager)) {
+            lifeCycleManager.register(LIFE_CYCLE_COMPONENT);
+        }
+    }
+
+    /**
+     * @return an idle context or a new one if none is idle. The context must be released by calling
+     * {@link #releaseContext(Context, boolean)}
+     */
+    static synchronized Context acquireContext() {
+        Context context = IDLE_CONTEXTS.poll();
+        if (context != null) {
+            return context;
+        }
+        if (engine == null) {
+            engine = Engine.newBuilder().options(createOptions()).allowExperimentalOptions(true).build();
+        }
+        return Context.newBuilder(AILLanguage.ID).engine(engine).allowHostAccess(HostAccess.ALL)
+                .allowExperimentalOptions(true).build();
+    }
+
+    /**
+     * Return the context to the pool or close it if the pool is full
+     *
+     * @param context the acquired context
+     * @param discard whether the context must be closed (e.g., after a failure) as it could be in an invalid state
+     */
+    static synchronized void releaseContext(Context context, boolean discard) {
+        if (discard || context.getEngine() != engine || IDLE_CONTEXTS.size() >= MAX_IDLE_CONTEXTS) {
+            //The contexts of a closed engine are closed already
+            context.close(discard);
+        } else {
+            IDLE_CONTEXTS.push(context);
+        }
+    }
+
+    /**
+     * Evaluate the given program in the given context (if needed) and get its entry function
+     *
+     * @param context      an acquired context
+     * @param functionName the entry function name
+     * @param code         the program's code
+     * @return the entry function
+     */
+    static Value getFunction(Context context, String functionName, String code) {
+        /*
+         * Evaluating a cached source does not parse it again. It only (re-)registers the program's functions, which
+         * could have been redefined by another program that was evaluated in the same context
+         */
+        context.eval(getSource(functionName, code));
+        return context.getBindings(AILLanguage.ID).getMember(functionName);
+    }
+
+    /**
+     * Close the idle contexts and the engine. Contexts that are still in use are cancelled
+     */
+    static synchronized void close() {
+        while (!IDLE_CONTEXTS.isEmpty()) {
+            IDLE_CONTEXTS.pop().close();
+        }
+        if (engine != null) {
+            engine.close(true);
+            engine = null;
+        }
+    }
+
+    static synchronized int getNumberOfIdleContexts() {
+        return IDLE_CONTEXTS.size();
+    }
+
+    static Source getSource(String functionName, String code) {
+        SourceKey key = new SourceKey(functionName, code);
+        synchronized (SOURCES) {
+            return SOURCES.computeIfAbsent(key,
+                    k -> Source.newBuilder(AILLanguage.ID, code, functionName).cached(true).buildLiteral());
+        }
+    }
+
+    private static Map<String, String> createOptions() {
+        Map<String, String> options = new HashMap<>();
+        if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("-ea")) {
+            options.put("engine.TraceCompilation", "true");
+            options.put("cpusampler", "true");
+            options.put("cpusampler.Delay", "1000");
+            options.put("engine.TracePerformanceWarnings", "all");
+        }
+        return options;
+    }
+
+    private static final class SourceKey {
+        private final String functionName;
+        private final String code;
+        private final int hash;
+
+        private SourceKey(String functionName, String code) {
+            this.functionName = functionName;
+            this.code = code;
+            hash = Objects.hash(functionName, code);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SourceKey)) {
+                return false;
+            }
+            SourceKey other = (SourceKey) obj;
+            return functionName.equals(other.functionName) && code.equals(other.code);
+        }
+    }
+
+    private static final class RuntimeLifeCycleComponent implements ILifeCycleComponent {
+        @Override
+        public void start() {
+            //NoOp
+        }
+
+        @Override
+        public void dumpState(OutputStream os) {
+            //NoOp
+        }
+
+        @Override
+        public void stop(boolean dumpState, OutputStream ouputStream) {
+            close();
+        }
+    }
+}
@@ -20,25 +20,32 @@ package org.apache.asterix.codegen.asterix.column.executor;
 
 import java.io.DataOutput;
 import java.io.IOException;
-import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.asterix.codegen.asterix.column.reader.AbstractTypedColumnReader;
-import org.apache.asterix.codegen.truffle.AILLanguage;
 import org.apache.asterix.codegen.truffle.runtime.cursor.AILIndexCursor;
 import org.apache.asterix.codegen.truffle.runtime.reader.column.AILColumnReader;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.common.api.INcApplicationContext;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
+import org.apache.hyracks.api.util.ExceptionUtils;
 import org.apache.hyracks.data.std.api.IValueReference;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
@@ -47,77 +54,161 @@ import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProj
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.LSMColumnBTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeSearchCursor;
 import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.projection.ICodeGenerationScanRange;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.graalvm.polyglot.Context;
-import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.Value;
 
 public final class ColumnCodeGenerationExecutor implements IColumnCodeGenerationExecutor {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final Map<String, String> OPTIONS = new HashMap<>();
+    private static final ATypeTag[] MISSING_TYPE = { ATypeTag.MISSING };
+    private static final Set<ATypeTag> BATCH_TYPES =
+            EnumSet.of(ATypeTag.BIGINT, ATypeTag.DOUBLE, ATypeTag.MISSING, ATypeTag.NULL);
     private final IHyracksTaskContext context;
     private final ARecordType datasetType;
     private final int numberOfPrimaryKeys;
     private final ARecordType[] paths;
     private final Map<String, FunctionCallInformation> functionCallInfoMap;
     private final IWarningCollector warningCollector;
-    private final ATypeTag[] typeTags;
+    //The types of each path across all components
+    private final ATypeTag[][] typeTags;
     private final String functionName;
+    private final String batchFunctionName;
     private final String code;
-
-    static {
-        if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("-ea")) {
-            OPTIONS.put("engine.TraceCompilation", "true");
-            OPTIONS.put("cpusampler", "true");
-            OPTIONS.put("cpusampler.Delay", "1000");
-            OPTIONS.put("engine.TracePerformanceWarnings", "all");
-        }
-    }
+    private final boolean parallelScan;
+    //Whether every path is stored in a single non-repeated numeric column in all the searched components
+    private boolean batchReadable;
 
     ColumnCodeGenerationExecutor(IHyracksTaskContext context, ARecordType datasetType, int numberOfPrimaryKeys,
             ARecordType[] paths, Map<String, FunctionCallInformation> functionCallInfoMap,
-            IWarningCollector warningCollector, String functionName, String code) {
+            IWarningCollector warningCollector, String functionName, String batchFunctionName, String code,
+            boolean parallelScan) {
         this.context = context;
         this.datasetType = datasetType;
         this.numberOfPrimaryKeys = numberOfPrimaryKeys;
         this.paths = paths;
         this.functionCallInfoMap = functionCallInfoMap;
         this.warningCollector = warningCollector;
-        typeTags = new ATypeTag[paths.length];
-        Arrays.fill(typeTags, ATypeTag.MISSING);
+        typeTags = new ATypeTag[paths.length][];
+        Arrays.fill(typeTags, MISSING_TYPE);
         this.functionName = functionName;
+        this.batchFunctionName = batchFunctionName;
+        batchReadable = batchFunctionName != null;
         this.code = code;
+        this.parallelScan = parallelScan;
+        AILRuntimeCache.register(context.getJobletContext().getServiceContext().getLifeCycleComponentManager());
     }
 
     @Override
     public void execute(IIndexCursor cursor, DataOutput dos, ArrayTupleBuilder tb, IFrameWriter writer,
             FrameTupleAppender appender) throws HyracksDataException {
-        try (Context truffleContext = Context.newBuilder(AILLanguage.ID).options(OPTIONS)
-                .allowHostAccess(HostAccess.ALL).allowExperimentalOptions(true).build()) {
-            Object[] arguments = getArguments(cursor, dos, tb, writer, appender);
-            truffleContext.eval(AILLanguage.ID, code);
-            Value execute = truffleContext.getBindings(AILLanguage.ID).getMember(functionName);
+        Context runtimeContext = AILRuntimeCache.acquireContext();
+        boolean failed = true;
+        try {
+            Object[] arguments = getArguments(cursor, new AILResultWriter(context, dos, tb, writer, appender));
+            Value execute = AILRuntimeCache.getFunction(runtimeContext, getEntryFunctionName(), code);
             execute.executeVoid(arguments);
+            failed = false;
         } catch (Exception e) {
             throw HyracksDataException.create(e);
+        } finally {
+            //A failed context could be in an invalid state
+            AILRuntimeCache.releaseContext(runtimeContext, failed);
         }
 
-        //        Context truffleContext = Context.newBuilder(AILLanguage.ID).options(OPTIONS).allowHostAccess(HostAccess.ALL)
-        //                .allowExperimentalOptions(true).build();
         //        Object[] arguments = getArguments(cursor, dos, tb, writer, appender);
         //        executeJava(arguments);
     }
 
     @Override
-    public IColumnProjectionInfo createProjectionInfo(IValueReference columnMetadata) throws HyracksDataException {
+    public int getMaxParallelism() {
+        if (!parallelScan) {
+            return 1;
+        }
+        INcApplicationContext appCtx =
+                (INcApplicationContext) context.getJobletContext().getServiceContext().getApplicationContext();
+        int parallelism = appCtx.getStorageProperties().getColumnScanParallelism();
+        if (parallelism > 0) {
+            return parallelism;
+        }
+        //The node's storage partitions are scanned concurrently. The cores left idle are split among their key ranges
+        String nodeId = context.getJobletContext().getServiceContext().getNodeId();
+        int numberOfPartitions = Math.max(1, appCtx.getMetadataProperties().getNodePartitions(nodeId).size());
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / numberOfPartitions);
+    }
+
+    @Override
+    public void execute(List<ICodeGenerationScanRange> ranges, int fieldCount, IFrameWriter writer)
+            throws HyracksDataException {
+        IFrameWriter sharedWriter = new SynchronizedFrameWriter(writer);
+        ExecutorService executorService = context.getExecutorService();
+        List<Future<Void>> workers = new ArrayList<>(ranges.size());
+        for (ICodeGenerationScanRange range : ranges) {
+            workers.add(executorService.submit(() -> {
+                executeRange(range, fieldCount, sharedWriter, ranges.size());
+                return null;
+            }));
+        }
+
+        //Wait for all workers (even after a failure) as the ranges' cursors must be closed before the task ends
+        Throwable failure = null;
+        for (Future<Void> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = ExceptionUtils.suppress(failure, e);
+            } catch (ExecutionException e) {
+                failure = ExceptionUtils.suppress(failure, e.getCause());
+            }
+        }
+        if (failure != null) {
+            throw HyracksDataException.create(failure);
+        }
+    }
+
+    private void executeRange(ICodeGenerationScanRange range, int fieldCount, IFrameWriter writer,
+            int numberOfWorkers) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(fieldCount);
+        FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(context), true);
+        Context runtimeContext = AILRuntimeCache.acquireContext();
+        boolean failed = true;
+        try {
+            AILResultWriter resultWriter =
+                    new AILResultWriter(context, tb.getDataOutput(), tb, writer, appender, numberOfWorkers);
+            Object[] arguments = getArguments(range.search(), resultWriter);
+            Value execute = AILRuntimeCache.getFunction(runtimeContext, getEntryFunctionName(), code);
+            execute.executeVoid(arguments);
+            failed = false;
+            if (appender.getTupleCount() > 0) {
+                appender.write(writer, true);
+            }
+        } catch (Exception e) {
+            throw HyracksDataException.create(e);
+        } finally {
+            AILRuntimeCache.releaseContext(runtimeContext, failed);
+            range.close();
+        }
+    }
+
+    @Override
+    public synchronized IColumnProjectionInfo createProjectionInfo(IValueReference columnMetadata)
+            throws HyracksDataException {
         try {
             QueryCodeGenerationColumnMetadata metadata =
                     QueryCodeGenerationColumnMetadata.create(datasetType, numberOfPrimaryKeys, columnMetadata,
                             new ColumnValueReaderFactory(), paths, functionCallInfoMap, warningCollector);
             IColumnValuesReader[] readers = metadata.getReaders();
-            for (int i = 0; i < readers.length; i++) {
-                typeTags[i] = readers[i].getTypeTag();
+            int[] numberOfPathColumns = metadata.getNumberOfPathColumns();
+            int columnIndex = 0;
+            for (int i = 0; i < typeTags.length; i++) {
+                batchReadable &= numberOfPathColumns[i] == 1;
+                for (int j = 0; j < numberOfPathColumns[i]; j++) {
+                    IColumnValuesReader reader = readers[columnIndex++];
+                    typeTags[i] = addTypeTag(typeTags[i], reader.getTypeTag());
+                    batchReadable &= !reader.isRepeated() && BATCH_TYPES.contains(reader.getTypeTag());
+                }
             }
             return metadata;
         } catch (IOException e) {
@@ -125,6 +216,34 @@ public final class ColumnCodeGenerationExecutor implements IColumnCodeGeneration
         }
     }
 
+    /**
+     * A path that has different types (in the same or in different components) is read as a union. Missing and null
+     * columns do not contribute a type, as their values are missing or null regardless of the path's type
+     */
+    private static ATypeTag[] addTypeTag(ATypeTag[] pathTypeTags, ATypeTag typeTag) {
+        if (typeTag == ATypeTag.MISSING || typeTag == ATypeTag.NULL) {
+            return pathTypeTags;
+        } else if (pathTypeTags == MISSING_TYPE) {
+            return new ATypeTag[] { typeTag };
+        }
+        for (ATypeTag pathTypeTag : pathTypeTags) {
+            if (pathTypeTag == typeTag) {
+                return pathTypeTags;
+            }
+        }
+        ATypeTag[] newTypeTags = Arrays.copyOf(pathTypeTags, pathTypeTags.length + 1);
+        newTypeTags[pathTypeTags.length] = typeTag;
+        return newTypeTags;
+    }
+
+    /**
+     * The batch-at-a-time variant of the program (if any) decodes each column directly into a vector. Thus, it is
+     * only executed if the columns of all the searched components can be decoded as such
+     */
+    private synchronized String getEntryFunctionName() {
+        return batchReadable ? batchFunctionName : functionName;
+    }
+
     private void executeJava(Object[] arguments) throws HyracksDataException {
         LOGGER.fatal("JAVA");
         AILIndexCursor cursor = (AILIndexCursor) arguments[0];
@@ -146,8 +265,11 @@ public final class ColumnCodeGenerationExecutor implements IColumnCodeGeneration
         resultWriter.flush();
     }
 
-    private Object[] getArguments(IIndexCursor cursor, DataOutput dos, ArrayTupleBuilder tb, IFrameWriter writer,
-            FrameTupleAppender appender) {
+    /**
+     * Synchronized as the types are updated by {@link #createProjectionInfo(IValueReference)} when a range's worker
+     * searches its components
+     */
+    private synchronized Object[] getArguments(IIndexCursor cursor, AILResultWriter resultWriter) {
         LSMColumnBTreeRangeSearchCursor columnCursor =
                 (LSMColumnBTreeRangeSearchCursor) ((LSMBTreeSearchCursor) cursor).getCurrentCursor();
         //1 for cursor and 1 for resultWriter and the rest are for readers
@@ -159,7 +281,7 @@ public final class ColumnCodeGenerationExecutor implements IColumnCodeGeneration
             readers[i] = typedReader;
         }
         arguments[0] = new AILIndexCursor(columnCursor, readers);
-        arguments[1] = new AILResultWriter(context, dos, tb, writer, appender);
+        arguments[1] = resultWriter;
         return arguments;
     }
 }
@@ -29,7 +29,9 @@ import org.apache.hyracks.storage.common.projection.ICodeGenerationExecutorFacto
 public class ColumnCodeGenerationExecutorFactory implements ICodeGenerationExecutorFactory {
     private static final long serialVersionUID = 6586388689265604419L;
     private final String functionName;
+    private final String batchFunctionName;
     private final String code;
+    private final boolean parallelScan;
 
     private final ARecordType datasetType;
     private final int numberOfPrimaryKeys;
@@ -37,19 +39,22 @@ public class ColumnCodeGenerationExecutorFactory implements ICodeGenerationExecu
     private final Map<String, FunctionCallInformation> functionCallInfoMap;
 
     public ColumnCodeGenerationExecutorFactory(ARecordType datasetType, int numberOfPrimaryKeys, ARecordType[] paths,
-            Map<String, FunctionCallInformation> functionCallInfoMap, String functionName, String code) {
+            Map<String, FunctionCallInformation> functionCallInfoMap, String functionName, String batchFunctionName,
+            String code, boolean parallelScan) {
         this.datasetType = datasetType;
         this.numberOfPrimaryKeys = numberOfPrimaryKeys;
         this.paths = paths;
         this.functionCallInfoMap = functionCallInfoMap;
 
         this.functionName = functionName;
+        this.batchFunctionName = batchFunctionName;
         this.code = code;
+        this.parallelScan = parallelScan;
     }
 
     @Override
     public ICodeGenerationExecutor createExecutor(IHyracksTaskContext context) {
         return new ColumnCodeGenerationExecutor(context, datasetType, numberOfPrimaryKeys, paths, functionCallInfoMap,
-                context.getWarningCollector(), functionName, code);
+                context.getWarningCollector(), functionName, batchFunctionName, code, parallelScan);
     }
 }
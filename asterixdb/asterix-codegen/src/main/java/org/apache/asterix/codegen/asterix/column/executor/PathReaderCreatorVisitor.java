@@ -19,11 +19,13 @@
 package org.apache.asterix.codegen.asterix.column.executor;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.metadata.FieldNamesDictionary;
 import org.apache.asterix.column.metadata.schema.AbstractSchemaNode;
 import org.apache.asterix.column.metadata.schema.ObjectSchemaNode;
+import org.apache.asterix.column.metadata.schema.UnionSchemaNode;
 import org.apache.asterix.column.metadata.schema.collection.AbstractCollectionSchemaNode;
 import org.apache.asterix.column.metadata.schema.primitive.MissingFieldSchemaNode;
 import org.apache.asterix.column.metadata.schema.primitive.PrimitiveSchemaNode;
@@ -53,10 +55,32 @@ public class PathReaderCreatorVisitor extends SchemaClipperVisitor {
         delimiters = new IntArrayList();
     }
 
-    public IColumnValuesReader createReader(ARecordType path, AbstractSchemaNode root) {
+    /**
+     * Create the reader(s) of the requested path. A path of a union-typed value (e.g., a field that is a BIGINT in
+     * some records and a STRING in others) has one reader per type
+     *
+     * @param path    requested path
+     * @param root    the schema's root
+     * @param readers the created readers are appended to this list
+     * @return the number of created readers
+     */
+    public int createReaders(ARecordType path, AbstractSchemaNode root, List<IColumnValuesReader> readers) {
         delimiters.clear();
         level = 0;
         AbstractSchemaNode node = path.accept(this, root);
+        if (node.getTypeTag() != ATypeTag.UNION) {
+            readers.add(createReader(node));
+            return 1;
+        }
+        //The union does not add a level. Thus, all the union's types have the same level and delimiters
+        UnionSchemaNode unionNode = (UnionSchemaNode) node;
+        for (AbstractSchemaNode child : unionNode.getChildren().values()) {
+            readers.add(createReader(child));
+        }
+        return unionNode.getChildren().size();
+    }
+
+    private IColumnValuesReader createReader(AbstractSchemaNode node) {
         if (node.isNested()) {
             throw new UnsupportedOperationException("Nested values are not supported with code generation");
         }
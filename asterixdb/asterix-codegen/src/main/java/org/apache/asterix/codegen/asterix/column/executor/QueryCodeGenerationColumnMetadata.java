@@ -22,6 +22,8 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.metadata.AbstractColumnImmutableReadMetadata;
@@ -41,13 +43,14 @@ import org.apache.hyracks.storage.am.lsm.btree.column.utils.UnsafeUtil;
 public class QueryCodeGenerationColumnMetadata extends AbstractColumnImmutableReadMetadata {
     private final IColumnValuesReader[] primaryKeyReaders;
     private final IColumnValuesReader[] readers;
+    private final int[] numberOfPathColumns;
 
     protected QueryCodeGenerationColumnMetadata(ARecordType datasetType, IValueReference serializedMetadata,
-            IColumnValuesReader[] primaryKeyReaders, IColumnValuesReader[] readers) {
+            IColumnValuesReader[] primaryKeyReaders, IColumnValuesReader[] readers, int[] numberOfPathColumns) {
         super(datasetType, null, primaryKeyReaders.length, serializedMetadata, readers.length);
         this.primaryKeyReaders = primaryKeyReaders;
         this.readers = readers;
-
+        this.numberOfPathColumns = numberOfPathColumns;
     }
 
     @Override
@@ -63,6 +66,13 @@ public class QueryCodeGenerationColumnMetadata extends AbstractColumnImmutableRe
         return readers;
     }
 
+    /**
+     * @return the number of readers of each requested path, where a union-typed value has a reader per type
+     */
+    public int[] getNumberOfPathColumns() {
+        return numberOfPathColumns;
+    }
+
     @Override
     public int getColumnIndex(int ordinal) {
         return readers[ordinal].getColumnIndex();
@@ -109,20 +119,22 @@ public class QueryCodeGenerationColumnMetadata extends AbstractColumnImmutableRe
         //Clip schema
         PathReaderCreatorVisitor pathConverter = new PathReaderCreatorVisitor(fieldNamesDictionary, functionCallInfoMap,
                 warningCollector, readerFactory);
-        IColumnValuesReader[] columnPaths = createTruffleReaders(paths, root, pathConverter);
+        int[] numberOfPathColumns = new int[paths.length];
+        IColumnValuesReader[] columnPaths = createTruffleReaders(paths, root, pathConverter, numberOfPathColumns);
 
         IColumnValuesReader[] primaryKeyReaders = createPrimaryKeyReaders(input, readerFactory, numberOfPrimaryKeys);
 
-        return new QueryCodeGenerationColumnMetadata(datasetType, serializedMetadata, primaryKeyReaders, columnPaths);
+        return new QueryCodeGenerationColumnMetadata(datasetType, serializedMetadata, primaryKeyReaders, columnPaths,
+                numberOfPathColumns);
     }
 
     protected static IColumnValuesReader[] createTruffleReaders(ARecordType[] paths, ObjectSchemaNode root,
-            PathReaderCreatorVisitor visitor) {
-        IColumnValuesReader[] readers = new IColumnValuesReader[paths.length];
+            PathReaderCreatorVisitor visitor, int[] numberOfPathColumns) {
+        List<IColumnValuesReader> readers = new ArrayList<>();
         for (int i = 0; i < paths.length; i++) {
-            readers[i] = visitor.createReader(paths[i], root);
+            numberOfPathColumns[i] = visitor.createReaders(paths[i], root, readers);
         }
-        return readers;
+        return readers.toArray(new IColumnValuesReader[0]);
     }
 
     protected static IColumnValuesReader[] createPrimaryKeyReaders(DataInput input,
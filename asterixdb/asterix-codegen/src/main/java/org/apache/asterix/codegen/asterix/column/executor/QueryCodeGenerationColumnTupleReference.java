@@ -32,17 +32,26 @@ import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeRea
 
 public final class QueryCodeGenerationColumnTupleReference extends AbstractAsterixColumnTupleReference {
     private final IColumnValuesReader[] readers;
+    private final int[] numberOfPathColumns;
 
     QueryCodeGenerationColumnTupleReference(int componentIndex, ColumnBTreeReadLeafFrame frame,
             QueryCodeGenerationColumnMetadata info, IColumnReadMultiPageOp multiPageOp) {
         super(componentIndex, frame, info, multiPageOp);
         readers = info.getReaders();
+        numberOfPathColumns = info.getNumberOfPathColumns();
     }
 
     public IColumnValuesReader[] getReaders() {
         return readers;
     }
 
+    /**
+     * @return the number of columns (i.e., readers) of each requested path
+     */
+    public int[] getNumberOfPathColumns() {
+        return numberOfPathColumns;
+    }
+
     @Override
     protected IColumnValuesReader[] getPrimaryKeyReaders(IColumnProjectionInfo info) {
         return ((QueryCodeGenerationColumnMetadata) info).getPrimaryKeyReaders();
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.executor;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Serializes the frames of the concurrent workers of a task into the task's (already opened) writer. Opening and
+ * closing the writer is left to the task.
+ */
+final class SynchronizedFrameWriter implements IFrameWriter {
+    private final IFrameWriter writer;
+
+    SynchronizedFrameWriter(IFrameWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void open() throws HyracksDataException {
+        //NoOp
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        synchronized (writer) {
+            writer.nextFrame(buffer);
+        }
+    }
+
+    @Override
+    public void flush() throws HyracksDataException {
+        synchronized (writer) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void fail() throws HyracksDataException {
+        //NoOp: the task fails the writer once a worker fails
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+        //NoOp
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.reader;
+
+import java.util.Arrays;
+
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * A reader of variable-length (byte-array) values. The items of a repeated value are appended to a single buffer and
+ * referenced by their offsets and lengths, so decoding a tuple does not allocate or copy into a storage per item.
+ */
+abstract class AbstractBytesColumnReader extends AbstractTypedColumnReader {
+    private final ArrayBackedValueStorage buffer;
+    private final VoidPointable value;
+    private int[] offsets;
+    private int[] lengths;
+
+    AbstractBytesColumnReader() {
+        buffer = new ArrayBackedValueStorage();
+        value = new VoidPointable();
+        offsets = new int[INITIAL_SIZE];
+        lengths = new int[INITIAL_SIZE];
+    }
+
+    /**
+     * @return a view of the current value, which is valid until the cursor moves to the next tuple
+     */
+    final IValueReference getBytes() {
+        if (inPlaceReader != null) {
+            return inPlaceReader.getBytes();
+        }
+        value.set(buffer.getByteArray(), offsets[index], lengths[index]);
+        return value;
+    }
+
+    @Override
+    final void setValue(IColumnValuesReader reader, int index) throws HyracksDataException {
+        IValueReference bytes = reader.getBytes();
+        offsets[index] = buffer.getStartOffset() + buffer.getLength();
+        lengths[index] = bytes.getLength();
+        buffer.append(bytes);
+    }
+
+    @Override
+    final void resetValuesBuffer() {
+        buffer.reset();
+    }
+
+    @Override
+    protected final void expandValuesBuffer(int newLength) {
+        offsets = Arrays.copyOf(offsets, newLength);
+        lengths = Arrays.copyOf(lengths, newLength);
+    }
+}
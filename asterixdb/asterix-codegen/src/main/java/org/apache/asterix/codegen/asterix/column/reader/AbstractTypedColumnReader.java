@@ -21,10 +21,16 @@ package org.apache.asterix.codegen.asterix.column.reader;
 import java.util.Arrays;
 
 import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
+import org.apache.asterix.codegen.truffle.runtime.vector.AILVectorRuntime;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
+/**
+ * Exposes the values of a column for the current tuple. A non-repeated column has at most one value per tuple, which
+ * is read in place from the column reader. The values of a repeated column (i.e., an array's items) are decoded once
+ * per tuple into dense buffers, which array storages may share instead of copying them again.
+ */
 public abstract class AbstractTypedColumnReader {
     protected static final int INITIAL_SIZE = 64;
     private int numberOfValues;
@@ -32,6 +38,10 @@ public abstract class AbstractTypedColumnReader {
     private boolean[] missings;
 
     protected int index;
+    //The reader of a non-repeated column, where the current value is read from directly
+    protected IColumnValuesReader inPlaceReader;
+    //The values of a batch of tuples (only for batch-at-a-time execution)
+    private AILVectorRuntime vector;
 
     AbstractTypedColumnReader() {
         nulls = new boolean[INITIAL_SIZE];
@@ -42,15 +52,21 @@ public abstract class AbstractTypedColumnReader {
         boolean hasNext = reader.next() && reader.getMaxLevel() - reader.getLevel() <= 1;
         numberOfValues = 0;
         index = -1;
+        if (!reader.isRepeated()) {
+            inPlaceReader = reader;
+            numberOfValues = hasNext ? 1 : 0;
+            return;
+        }
+        inPlaceReader = null;
+        resetValuesBuffer();
         while (hasNext) {
             ensureBuffers();
-            if (reader.isMissing()) {
-                missings[numberOfValues] = true;
-            } else if (reader.isNull()) {
-                nulls[numberOfValues] = true;
-            } else {
-                nulls[numberOfValues] = false;
-                missings[numberOfValues] = false;
+            //A null is stored below the value's level (i.e., the reader reports it as missing as well)
+            boolean isNull = reader.isNull();
+            boolean missing = !isNull && reader.isMissing();
+            missings[numberOfValues] = missing;
+            nulls[numberOfValues] = isNull;
+            if (!missing && !isNull) {
                 setValue(reader, numberOfValues);
             }
             numberOfValues++;
@@ -58,11 +74,88 @@ public abstract class AbstractTypedColumnReader {
         }
     }
 
+    /**
+     * Set the values of the current tuple from the value's columns
+     *
+     * @param columnReaders   the readers of all the requested columns
+     * @param columnIndex     the index of the value's first column
+     * @param numberOfColumns the number of the value's columns (more than one for union-typed values)
+     */
+    public void setReaders(IColumnValuesReader[] columnReaders, int columnIndex, int numberOfColumns)
+            throws HyracksDataException {
+        setReader(columnReaders[columnIndex]);
+    }
+
+    /**
+     * Decode the values of the next {@code count} tuples at once into this reader's vector. The values of the current
+     * tuple (e.g., {@link #getValue()}) are undefined afterwards
+     *
+     * @param reader the reader of a non-repeated column
+     * @param count  the number of tuples
+     */
+    public final void setBatch(IColumnValuesReader reader, int count) throws HyracksDataException {
+        resetValues();
+        getVector().load(reader, count);
+    }
+
+    public final AILVectorRuntime getVector() {
+        if (vector == null) {
+            vector = new AILVectorRuntime();
+        }
+        return vector;
+    }
+
     public int getNumberOfValues() {
         return numberOfValues;
     }
 
-    abstract void setValue(IColumnValuesReader reader, int index);
+    abstract void setValue(IColumnValuesReader reader, int index) throws HyracksDataException;
+
+    /**
+     * Reset the buffer of the values before decoding the values of a new tuple
+     */
+    void resetValuesBuffer() {
+        //NoOp
+    }
+
+    /**
+     * @return true if the current tuple's value is read in place and it is neither null nor missing
+     */
+    final boolean hasInPlaceValue() {
+        return inPlaceReader != null && numberOfValues > 0 && inPlaceReader.isValue();
+    }
+
+    /**
+     * @return the current value (boxed for primitives) if it is neither null nor missing
+     */
+    public abstract Object getValue();
+
+    final void resetValues() {
+        numberOfValues = 0;
+        index = -1;
+        inPlaceReader = null;
+    }
+
+    final void appendValue(boolean missing, boolean isNull) {
+        ensureBuffers();
+        missings[numberOfValues] = missing;
+        nulls[numberOfValues] = isNull;
+        numberOfValues++;
+    }
+
+    final boolean isMissing(int valueIndex) {
+        if (inPlaceReader != null) {
+            return !inPlaceReader.isNull() && inPlaceReader.isMissing();
+        }
+        return missings[valueIndex];
+    }
+
+    final boolean isNull(int valueIndex) {
+        if (inPlaceReader != null) {
+            return inPlaceReader.isNull();
+        }
+        return nulls[valueIndex];
+    }
 
     private void ensureBuffers() {
         final int currentNumberOfValues = numberOfValues;
@@ -93,11 +186,11 @@ public abstract class AbstractTypedColumnReader {
     }
 
     public final boolean isNull() {
-        return nulls[index];
+        return isNull(index);
     }
 
     public final boolean isMissing() {
-        return missings[index];
+        return isMissing(index);
     }
 
     public abstract ATypeTag getTypeTag();
@@ -112,6 +205,8 @@ public abstract class AbstractTypedColumnReader {
                 return new DoubleColumnReader();
             case STRING:
                 return new StringColumnReader();
+            case UUID:
+                return new UUIDColumnReader();
             case MISSING:
                 return new MissingColumnReader();
             default:
@@ -119,5 +214,21 @@ public abstract class AbstractTypedColumnReader {
         }
     }
 
+    /**
+     * Create a reader for a value that is stored in one column per type
+     *
+     * @param typeTags the types of the value's columns in all components (more than one for union-typed values)
+     */
+    public static AbstractTypedColumnReader createReader(ATypeTag[] typeTags) {
+        if (typeTags.length == 1) {
+            return createReader(typeTags[0]);
+        }
+        AbstractTypedColumnReader[] children = new AbstractTypedColumnReader[typeTags.length];
+        for (int i = 0; i < typeTags.length; i++) {
+            children[i] = createReader(typeTags[i]);
+        }
+        return new UnionColumnReader(children);
+    }
+
     public abstract AbstractArrayStorage createArray();
 }
@@ -33,7 +33,12 @@ public final class BooleanColumnReader extends AbstractTypedColumnReader {
     }
 
     public boolean getBoolean() {
-        return values[index];
+        return inPlaceReader != null ? inPlaceReader.getBoolean() : values[index];
+    }
+
+    @Override
+    public Object getValue() {
+        return getBoolean();
     }
 
     @Override
@@ -51,7 +56,13 @@ public final class BooleanColumnReader extends AbstractTypedColumnReader {
         return ATypeTag.BOOLEAN;
     }
 
+    /**
+     * @return the decoded values of the current tuple, which are shared (not copied) by array storages
+     */
     public boolean[] getValues() {
+        if (hasInPlaceValue()) {
+            values[0] = inPlaceReader.getBoolean();
+        }
         return values;
     }
 
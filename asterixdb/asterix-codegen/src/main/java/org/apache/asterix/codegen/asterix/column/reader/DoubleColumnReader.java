@@ -33,7 +33,12 @@ public final class DoubleColumnReader extends AbstractTypedColumnReader {
     }
 
     public double getDouble() {
-        return values[index];
+        return inPlaceReader != null ? inPlaceReader.getDouble() : values[index];
+    }
+
+    @Override
+    public Object getValue() {
+        return getDouble();
     }
 
     @Override
@@ -51,7 +56,13 @@ public final class DoubleColumnReader extends AbstractTypedColumnReader {
         return ATypeTag.DOUBLE;
     }
 
+    /**
+     * @return the decoded values of the current tuple, which are shared (not copied) by array storages
+     */
     public double[] getValues() {
+        if (hasInPlaceValue()) {
+            values[0] = inPlaceReader.getDouble();
+        }
         return values;
     }
 
@@ -33,7 +33,12 @@ public final class LongColumnReader extends AbstractTypedColumnReader {
     }
 
     public long getLong() {
-        return values[index];
+        return inPlaceReader != null ? inPlaceReader.getLong() : values[index];
+    }
+
+    @Override
+    public Object getValue() {
+        return getLong();
     }
 
     @Override
@@ -51,7 +56,13 @@ public final class LongColumnReader extends AbstractTypedColumnReader {
         return ATypeTag.BIGINT;
     }
 
+    /**
+     * @return the decoded values of the current tuple, which are shared (not copied) by array storages
+     */
     public long[] getValues() {
+        if (hasInPlaceValue()) {
+            values[0] = inPlaceReader.getLong();
+        }
         return values;
     }
 
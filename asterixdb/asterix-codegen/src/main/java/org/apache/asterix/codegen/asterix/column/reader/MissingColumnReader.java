@@ -18,12 +18,18 @@
  */
 package org.apache.asterix.codegen.asterix.column.reader;
 
+import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.om.types.ATypeTag;
 
 public class MissingColumnReader extends AbstractTypedColumnReader {
 
+    @Override
+    public Object getValue() {
+        return AILMissingRuntime.INSTANCE;
+    }
+
     @Override
     void setValue(IColumnValuesReader reader, int index) {
         //NoOp
@@ -18,44 +18,26 @@
  */
 package org.apache.asterix.codegen.asterix.column.reader;
 
-import java.util.Arrays;
-
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.StringArrayStorage;
-import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.om.types.ATypeTag;
-import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 
-public final class StringColumnReader extends AbstractTypedColumnReader {
+public final class StringColumnReader extends AbstractBytesColumnReader {
     private final AILStringRuntime string;
-    private ArrayBackedValueStorage[] values;
 
     public StringColumnReader() {
         string = new AILStringRuntime();
-        values = new ArrayBackedValueStorage[INITIAL_SIZE];
-        for (int i = 0; i < INITIAL_SIZE; i++) {
-            values[i] = new ArrayBackedValueStorage(32);
-        }
     }
 
     public AILStringRuntime getString() {
-        string.reset(values[index]);
+        string.reset(getBytes());
         return string;
     }
 
     @Override
-    void setValue(IColumnValuesReader reader, int index) {
-        values[index].set(reader.getBytes());
-    }
-
-    @Override
-    protected void expandValuesBuffer(int newLength) {
-        int oldLength = values.length;
-        values = Arrays.copyOf(values, newLength);
-        for (int i = oldLength; i < newLength; i++) {
-            values[i] = new ArrayBackedValueStorage(32);
-        }
+    public Object getValue() {
+        return getString();
     }
 
     @Override
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.reader;
+
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
+import org.apache.asterix.om.types.ATypeTag;
+
+public final class UUIDColumnReader extends AbstractBytesColumnReader {
+    private final AILUUIDRuntime uuid;
+
+    public UUIDColumnReader() {
+        uuid = new AILUUIDRuntime();
+    }
+
+    public AILUUIDRuntime getUUID() {
+        uuid.reset(getBytes());
+        return uuid;
+    }
+
+    @Override
+    public Object getValue() {
+        return getUUID();
+    }
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return ATypeTag.UUID;
+    }
+
+    @Override
+    public AbstractArrayStorage createArray() {
+        //UUIDs are not materialized as arrays
+        return null;
+    }
+}
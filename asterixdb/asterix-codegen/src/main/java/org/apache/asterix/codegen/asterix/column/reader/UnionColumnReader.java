@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.reader;
+
+import java.util.Arrays;
+
+import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Reads a value that has more than one type (e.g., a BIGINT in some records and a STRING in others). Each type is
+ * stored in a separate column and a value is present in at most one of them. The remaining columns report the value
+ * as missing. The children are the value's types across all the components, where a component may have only some
+ * of them.
+ */
+public final class UnionColumnReader extends AbstractTypedColumnReader {
+    private static final byte NO_VALUE = -1;
+    private final AbstractTypedColumnReader[] children;
+    private final MissingColumnReader missingChild;
+    private byte[] valueChildren;
+
+    UnionColumnReader(AbstractTypedColumnReader[] children) {
+        this.children = children;
+        missingChild = new MissingColumnReader();
+        valueChildren = new byte[INITIAL_SIZE];
+    }
+
+    @Override
+    public void setReaders(IColumnValuesReader[] columnReaders, int columnIndex, int numberOfColumns)
+            throws HyracksDataException {
+        for (int i = 0; i < children.length; i++) {
+            children[i].resetValues();
+        }
+        missingChild.resetValues();
+        //A component may have only some of the union's types
+        int numberOfValues = 0;
+        for (int i = columnIndex; i < columnIndex + numberOfColumns; i++) {
+            IColumnValuesReader columnReader = columnReaders[i];
+            AbstractTypedColumnReader child = getChild(columnReader.getTypeTag());
+            child.setReader(columnReader);
+            numberOfValues = Math.max(numberOfValues, child.getNumberOfValues());
+        }
+
+        resetValues();
+        for (int valueIndex = 0; valueIndex < numberOfValues; valueIndex++) {
+            byte valueChild = NO_VALUE;
+            boolean isNull = valueIndex < missingChild.getNumberOfValues() && missingChild.isNull(valueIndex);
+            for (int i = 0; i < children.length; i++) {
+                AbstractTypedColumnReader child = children[i];
+                if (valueIndex >= child.getNumberOfValues() || child.isMissing(valueIndex)) {
+                    continue;
+                }
+                if (child.isNull(valueIndex)) {
+                    isNull = true;
+                } else {
+                    valueChild = (byte) i;
+                }
+            }
+            appendValue(valueChild == NO_VALUE && !isNull, valueChild == NO_VALUE && isNull);
+            valueChildren[valueIndex] = valueChild;
+        }
+    }
+
+    @Override
+    public Object getValue() {
+        AbstractTypedColumnReader child = children[valueChildren[index]];
+        child.index = index;
+        return child.getValue();
+    }
+
+    /**
+     * @return the child of the given type or a missing reader for a column that has no values (i.e., the value is
+     * either missing or null in the column's component)
+     */
+    private AbstractTypedColumnReader getChild(ATypeTag typeTag) {
+        for (int i = 0; i < children.length; i++) {
+            if (children[i].getTypeTag() == typeTag) {
+                return children[i];
+            }
+        }
+        return missingChild;
+    }
+
+    @Override
+    void setValue(IColumnValuesReader reader, int index) {
+        throw new IllegalStateException("A union is set from its children's columns");
+    }
+
+    @Override
+    protected void expandValuesBuffer(int newLength) {
+        valueChildren = Arrays.copyOf(valueChildren, newLength);
+    }
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return ATypeTag.UNION;
+    }
+
+    @Override
+    public AbstractArrayStorage createArray() {
+        //The items of a union-typed array do not have a single storage type
+        return null;
+    }
+}
@@ -26,4 +26,12 @@ public interface IUnsafeAggregator {
     void initAggregateValue(IEntry aggregateEntry, IEntry newValue);
 
     void aggregate(IEntry aggregateEntry, IEntry newValue);
+
+    /**
+     * Combine two partial aggregates of the same key (e.g., when merging spilled runs)
+     *
+     * @param aggregateEntry   the aggregate to update
+     * @param partialAggregate another partial aggregate
+     */
+    void merge(IEntry aggregateEntry, IEntry partialAggregate);
 }
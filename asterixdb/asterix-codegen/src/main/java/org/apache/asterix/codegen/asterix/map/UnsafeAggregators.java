@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.codegen.asterix.map;
 
+import org.apache.asterix.codegen.asterix.map.entry.AvgEntry;
 import org.apache.asterix.codegen.asterix.map.entry.DoubleEntry;
 import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
 import org.apache.hyracks.unsafe.entry.IEntry;
@@ -25,8 +26,9 @@ import org.apache.hyracks.unsafe.entry.IEntry;
 public class UnsafeAggregators {
     public static final String MIN_NAME = "MIN";
     public static final String MAX_NAME = "MAX";
-    private static final String SUM_NAME = "SUM";
-    private static final String COUNT_NAME = "COUNT";
+    public static final String SUM_NAME = "SUM";
+    public static final String COUNT_NAME = "COUNT";
+    public static final String AVG_NAME = "AVG";
 
     public static AbstractLongAggregator getLongAggregator(String type) {
         switch (type) {
@@ -58,6 +60,13 @@ public class UnsafeAggregators {
         }
     }
 
+    /**
+     * @return an aggregator that accumulates {@link DoubleEntry} values into {@link AvgEntry} (sum, count) pairs
+     */
+    public static IUnsafeAggregator getAvgAggregator() {
+        return AVG;
+    }
+
     /* ********************************************
      * Double Aggregators
      * ********************************************
@@ -66,7 +75,7 @@ public class UnsafeAggregators {
     private abstract static class AbstractDoubleAggregator implements IUnsafeAggregator {
         @Override
         public final IEntry createValueEntry() {
-            return new LongEntry();
+            return new DoubleEntry();
         }
 
         @Override
@@ -79,9 +88,19 @@ public class UnsafeAggregators {
             aggregateDouble((DoubleEntry) aggregateEntry, (DoubleEntry) newValue);
         }
 
+        @Override
+        public final void merge(IEntry aggregateEntry, IEntry partialAggregate) {
+            mergeDouble((DoubleEntry) aggregateEntry, (DoubleEntry) partialAggregate);
+        }
+
         protected abstract void initAggregateDouble(DoubleEntry aggregateEntry, DoubleEntry newValue);
 
         protected abstract void aggregateDouble(DoubleEntry aggregateEntry, DoubleEntry newValue);
+
+        protected void mergeDouble(DoubleEntry aggregateEntry, DoubleEntry partialAggregate) {
+            //MIN, MAX, and SUM combine partial aggregates the same way they aggregate values
+            aggregateDouble(aggregateEntry, partialAggregate);
+        }
     }
 
     private static final AbstractDoubleAggregator DOUBLE_MIN = new AbstractDoubleAggregator() {
@@ -130,6 +149,41 @@ public class UnsafeAggregators {
         protected void aggregateDouble(DoubleEntry aggregateEntry, DoubleEntry newValue) {
             aggregateEntry.reset(aggregateEntry.getValue() + 1);
         }
+
+        @Override
+        protected void mergeDouble(DoubleEntry aggregateEntry, DoubleEntry partialAggregate) {
+            aggregateEntry.reset(aggregateEntry.getValue() + partialAggregate.getValue());
+        }
+    };
+
+    /* ********************************************
+     * Average Aggregator
+     * ********************************************
+     */
+
+    private static final IUnsafeAggregator AVG = new IUnsafeAggregator() {
+        @Override
+        public IEntry createValueEntry() {
+            return new AvgEntry();
+        }
+
+        @Override
+        public void initAggregateValue(IEntry aggregateEntry, IEntry newValue) {
+            ((AvgEntry) aggregateEntry).reset(((DoubleEntry) newValue).getValue(), 1);
+        }
+
+        @Override
+        public void aggregate(IEntry aggregateEntry, IEntry newValue) {
+            AvgEntry avg = (AvgEntry) aggregateEntry;
+            avg.reset(avg.getSum() + ((DoubleEntry) newValue).getValue(), avg.getCount() + 1);
+        }
+
+        @Override
+        public void merge(IEntry aggregateEntry, IEntry partialAggregate) {
+            AvgEntry avg = (AvgEntry) aggregateEntry;
+            AvgEntry partialAvg = (AvgEntry) partialAggregate;
+            avg.reset(avg.getSum() + partialAvg.getSum(), avg.getCount() + partialAvg.getCount());
+        }
     };
 
     /* ********************************************
@@ -153,9 +207,19 @@ public class UnsafeAggregators {
             aggregateLong((LongEntry) aggregateEntry, (LongEntry) newValue);
         }
 
+        @Override
+        public final void merge(IEntry aggregateEntry, IEntry partialAggregate) {
+            mergeLong((LongEntry) aggregateEntry, (LongEntry) partialAggregate);
+        }
+
         protected abstract void initAggregateLong(LongEntry aggregateEntry, LongEntry newValue);
 
         protected abstract void aggregateLong(LongEntry aggregateEntry, LongEntry newValue);
+
+        protected void mergeLong(LongEntry aggregateEntry, LongEntry partialAggregate) {
+            //MIN, MAX, and SUM combine partial aggregates the same way they aggregate values
+            aggregateLong(aggregateEntry, partialAggregate);
+        }
     }
 
     private static final AbstractLongAggregator LONG_MIN = new AbstractLongAggregator() {
@@ -204,5 +268,10 @@ public class UnsafeAggregators {
         protected void aggregateLong(LongEntry aggregateEntry, LongEntry newValue) {
             aggregateEntry.reset(aggregateEntry.getValue() + 1);
         }
+
+        @Override
+        protected void mergeLong(LongEntry aggregateEntry, LongEntry partialAggregate) {
+            aggregateEntry.reset(aggregateEntry.getValue() + partialAggregate.getValue());
+        }
     };
 }
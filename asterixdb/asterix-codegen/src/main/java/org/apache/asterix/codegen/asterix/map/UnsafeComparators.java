@@ -18,6 +18,8 @@
  */
 package org.apache.asterix.codegen.asterix.map;
 
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryUtil;
 import org.apache.asterix.codegen.asterix.map.entry.StringEntryUtil;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.hyracks.unsafe.entry.IEntryComparator;
@@ -113,4 +115,73 @@ public class UnsafeComparators {
             return false;
         }
     };
+
+    public static final IEntryComparator COMPOSITE_COMPARATOR = new IEntryComparator() {
+        @Override
+        public int compare(Object leftBaseObject, long leftBaseOffset, int leftBaseLength, Object rightBaseObject,
+                long rightBaseOffset, int rightBaseLength) {
+            return CompositeEntryUtil.compare(leftBaseObject, leftBaseOffset, leftBaseLength, rightBaseObject,
+                    rightBaseOffset, rightBaseLength);
+        }
+
+        @Override
+        public int compare(IEntry left, IEntry right) {
+            return left.compareTo(right);
+        }
+
+        @Override
+        public long computePrefix(Object basedObject, long offset, int length) {
+            return CompositeEntryUtil.computePrefix(basedObject, offset, length);
+        }
+
+        @Override
+        public int comparePrefix(long left, long right) {
+            return Long.compare(left, right);
+        }
+
+        @Override
+        public boolean isDecisive() {
+            return false;
+        }
+    };
+
+    /**
+     * @param descending whether each field of a composite sort key is in descending order
+     * @return a comparator that orders composite keys as ORDER BY does (see
+     * {@link CompositeEntryUtil#compareSortKeys(boolean[], Object, long, int, Object, long, int)})
+     */
+    public static IEntryComparator getSortKeyComparator(boolean[] descending) {
+        return new IEntryComparator() {
+            @Override
+            public int compare(Object leftBaseObject, long leftBaseOffset, int leftBaseLength, Object rightBaseObject,
+                    long rightBaseOffset, int rightBaseLength) {
+                return CompositeEntryUtil.compareSortKeys(descending, leftBaseObject, leftBaseOffset, leftBaseLength,
+                        rightBaseObject, rightBaseOffset, rightBaseLength);
+            }
+
+            @Override
+            public int compare(IEntry left, IEntry right) {
+                CompositeEntry leftEntry = (CompositeEntry) left;
+                CompositeEntry rightEntry = (CompositeEntry) right;
+                return compare(leftEntry.getByteArray(), Platform.BYTE_ARRAY_OFFSET, leftEntry.getLength(),
+                        rightEntry.getByteArray(), Platform.BYTE_ARRAY_OFFSET, rightEntry.getLength());
+            }
+
+            @Override
+            public long computePrefix(Object basedObject, long offset, int length) {
+                //Descending fields do not have an order-preserving prefix
+                return 0;
+            }
+
+            @Override
+            public int comparePrefix(long left, long right) {
+                return 0;
+            }
+
+            @Override
+            public boolean isDecisive() {
+                return false;
+            }
+        };
+    }
 }
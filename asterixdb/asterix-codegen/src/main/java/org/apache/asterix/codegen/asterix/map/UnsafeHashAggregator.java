@@ -18,27 +18,82 @@
  */
 package org.apache.asterix.codegen.asterix.map;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.asterix.codegen.asterix.map.entry.IUnsafeMapResultAppender;
+import org.apache.asterix.codegen.truffle.AILRuntimeException;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
 import org.apache.hyracks.unsafe.BytesToBytesMap;
 import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.hyracks.unsafe.entry.IEntryComparator;
+import org.apache.hyracks.unsafe.io.RunFileAppender;
+import org.apache.hyracks.unsafe.io.RunFilesMerger;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.UnsafeAlignedOffset;
 import org.apache.spark.unsafe.memory.MemoryAllocator;
 
 import com.google.common.annotations.VisibleForTesting;
 
 public final class UnsafeHashAggregator extends AbstractUnsafeHashAggregator {
+    private static final String RUN_FILE_PREFIX = "UnsafeHashAggregator";
     private final BytesToBytesMap map;
     private final IEntry aggregate;
+    private final IEntry partialAggregate;
+    private final IEntryComparator keyComparator;
+    /*
+     * Spilling (null if no task context is provided)
+     */
+    private final RunFileAppender runAppender;
+    private final RunFilesMerger runsMerger;
+    private final int mergeFanIn;
+    private final Location runLocation;
+    private final Location groupLocation;
+    private byte[] groupRecord;
 
     public UnsafeHashAggregator(IUnsafeAggregator aggregator, IUnsafeMapResultAppender appender,
             IEntryComparator keyComparator, long budget) {
+        this(aggregator, appender, keyComparator, budget, null);
+    }
+
+    /**
+     * @param ctx task context to spill the map's groups into workspace files when the budget is exhausted. The map
+     *            is then kept off-heap, accounted for in the NC's memory manager, and freed when the task ends.
+     *            If {@code null}, the map is kept on-heap and {@link #aggregate(IEntry, IEntry)} returns false when
+     *            the map is full
+     */
+    public UnsafeHashAggregator(IUnsafeAggregator aggregator, IUnsafeMapResultAppender appender,
+            IEntryComparator keyComparator, long budget, IHyracksTaskContext ctx) {
         super(aggregator, appender);
-        map = new BytesToBytesMap(MemoryAllocator.HEAP, budget, 1024, keyComparator);
+        this.keyComparator = keyComparator;
         aggregate = aggregator.createValueEntry();
+        partialAggregate = aggregator.createValueEntry();
+        if (ctx == null) {
+            map = new BytesToBytesMap(MemoryAllocator.HEAP, budget, 1024, keyComparator);
+            runAppender = null;
+            runsMerger = null;
+            mergeFanIn = 0;
+        } else {
+            int frameSize = ctx.getInitialFrameSize();
+            IMemoryManager memoryManager = ctx.getJobletContext().getServiceContext().getMemoryManager();
+            //The write buffer of the runs is taken from the budget
+            map = new BytesToBytesMap(MemoryAllocator.UNSAFE, memoryManager, budget - frameSize, 1024, keyComparator);
+            ctx.registerDeallocatable(map);
+            runAppender = new RunFileAppender(ctx, RUN_FILE_PREFIX, ByteBuffer.allocate(frameSize));
+            runsMerger = new RunFilesMerger(ctx.getIoManager(), keyComparator, frameSize);
+            //When merging, the map is empty and each run takes a read buffer (in addition to the write buffer)
+            mergeFanIn = (int) Math.max(2, budget / frameSize - 1);
+        }
+        runLocation = map.createLocation();
+        groupLocation = map.createLocation();
+        groupRecord = new byte[0];
     }
 
     @Override
@@ -52,19 +107,36 @@ public final class UnsafeHashAggregator extends AbstractUnsafeHashAggregator {
         }
         //New key
         aggregator.initAggregateValue(aggregate, value);
-        return location.append(key, aggregate);
+        if (location.append(key, aggregate)) {
+            return true;
+        } else if (runAppender == null) {
+            return false;
+        }
+        //The map is full
+        spill();
+        return map.lookup(key).append(key, aggregate);
     }
 
     @Override
     public void append(AILResultWriter resultWriter) {
-        Iterator<Location> iterator = map.iterator();
-        while (iterator.hasNext()) {
-            Location location = iterator.next();
-            appender.appendKey(resultWriter, location);
-            appender.appendValue(resultWriter, location);
-            resultWriter.flush();
+        if (runAppender == null || runAppender.getRuns().isEmpty()) {
+            Iterator<Location> iterator = map.iterator();
+            while (iterator.hasNext()) {
+                Location location = iterator.next();
+                appender.appendKey(resultWriter, location);
+                appender.appendValue(resultWriter, location);
+                resultWriter.flush();
+            }
+            map.reset();
+            return;
+        }
+        //Spill the remaining groups and merge all runs
+        spill();
+        try {
+            mergeRuns(resultWriter);
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException(e);
         }
-        map.reset();
     }
 
     @VisibleForTesting
@@ -72,10 +144,127 @@ public final class UnsafeHashAggregator extends AbstractUnsafeHashAggregator {
         return map.numKeys();
     }
 
+    @VisibleForTesting
+    public int getNumberOfRuns() {
+        return runAppender == null ? 0 : runAppender.getRuns().size();
+    }
+
     @VisibleForTesting
     public Iterator<Location> sortedIterator() {
         map.sort();
         return map.sortedIterator();
     }
 
+    /**
+     * Sort the map's groups by their keys and write them as a run
+     */
+    private void spill() {
+        if (map.numKeys() == 0) {
+            return;
+        }
+        try {
+            runAppender.open();
+            Iterator<Location> iterator = sortedIterator();
+            while (iterator.hasNext()) {
+                runAppender.append(iterator.next());
+            }
+            runAppender.close();
+        } catch (HyracksDataException e) {
+            eraseRuns();
+            throw new AILRuntimeException(e);
+        } finally {
+            map.reset();
+        }
+    }
+
+    private void mergeRuns(AILResultWriter resultWriter) throws HyracksDataException {
+        List<RunFileWriter> runs = new ArrayList<>(runAppender.getRuns());
+        runAppender.getRuns().clear();
+        try {
+            //Reduce the number of runs until they can be merged at once
+            while (runs.size() > mergeFanIn) {
+                List<RunFileWriter> mergedRuns = runs.subList(0, mergeFanIn);
+                runsMerger.open(mergedRuns);
+                runAppender.open();
+                mergeAggregate(null);
+                runAppender.close();
+                mergedRuns.clear();
+                runs.addAll(runAppender.getRuns());
+                runAppender.getRuns().clear();
+            }
+            runsMerger.open(runs);
+            mergeAggregate(resultWriter);
+        } catch (HyracksDataException e) {
+            runAppender.getRuns().addAll(runs);
+            eraseRuns();
+            throw e;
+        } finally {
+            runsMerger.close();
+        }
+    }
+
+    /**
+     * Combine the records of the same keys from the opened runs
+     *
+     * @param resultWriter result writer or {@code null} to write the combined records into a new run
+     */
+    private void mergeAggregate(AILResultWriter resultWriter) throws HyracksDataException {
+        boolean hasGroup = false;
+        while (runsMerger.next(runLocation)) {
+            if (hasGroup && compareKeys(groupLocation, runLocation) == 0) {
+                aggregate.getValue(groupLocation);
+                partialAggregate.getValue(runLocation);
+                aggregator.merge(aggregate, partialAggregate);
+                aggregate.setValue(groupLocation);
+                continue;
+            }
+
+            if (hasGroup) {
+                writeGroup(resultWriter);
+            }
+            //runLocation is only valid until the next record -- copy it
+            copyGroup(runLocation);
+            hasGroup = true;
+        }
+
+        if (hasGroup) {
+            writeGroup(resultWriter);
+        }
+    }
+
+    private void writeGroup(AILResultWriter resultWriter) throws HyracksDataException {
+        if (resultWriter == null) {
+            runAppender.append(groupLocation);
+        } else {
+            appender.appendKey(resultWriter, groupLocation);
+            appender.appendValue(resultWriter, groupLocation);
+            resultWriter.flush();
+        }
+    }
+
+    private void copyGroup(Location location) {
+        int uaoSize = UnsafeAlignedOffset.getUaoSize();
+        //(record length) (key length) (key) (value)
+        long recordOffset = location.getKeyOffset() - 2L * uaoSize;
+        int recordLength = UnsafeAlignedOffset.getSize(location.getKeyBase(), recordOffset);
+        int recordSize = recordLength + uaoSize;
+        if (groupRecord.length < recordSize) {
+            groupRecord = new byte[recordSize];
+        }
+        Platform.copyMemory(location.getKeyBase(), recordOffset, groupRecord, Platform.BYTE_ARRAY_OFFSET, recordSize);
+        groupLocation.with(groupRecord, Platform.BYTE_ARRAY_OFFSET + (long) uaoSize, recordLength);
+    }
+
+    private int compareKeys(Location left, Location right) {
+        return keyComparator.compare(left.getKeyBase(), left.getKeyOffset(), left.getKeyLength(), right.getKeyBase(),
+                right.getKeyOffset(), right.getKeyLength());
+    }
+
+    private void eraseRuns() {
+        try {
+            runAppender.erase();
+        } catch (HyracksDataException e) {
+            //Ignore -- the workspace files are managed and will be deleted when the task is done
+        }
+    }
 }
@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map;
+
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryAccessor;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryReference;
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.resources.IDeallocatable;
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.apache.hyracks.unsafe.BytesToBytesMap;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.io.RunFileAppender;
+import org.apache.hyracks.unsafe.io.RunFileCursor;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.memory.MemoryAllocator;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A hash table that joins the rows of a build input with the rows of a probe input on equal keys. Both the keys and
+ * the rows are {@link CompositeEntry}s.
+ * <p>
+ * The build rows are hash-partitioned into one {@link BytesToBytesMap} per partition. Whenever the build rows exceed
+ * the budget, the largest partition is spilled into a run, and the following build rows of a spilled partition are
+ * written into its run. The probe rows of a spilled partition are written into another run, and the spilled
+ * partitions are joined after the probe input ends: each spilled partition's build run is loaded into a map, as much
+ * as the budget allows at a time, and its probe run is re-read for each loaded part.
+ * <p>
+ * Usage: {@link #build(CompositeEntry, CompositeEntry)} all build rows, {@link #endBuild()}, then for each probe row
+ * {@link #probe(CompositeEntry, CompositeEntry)} and iterate its matches using {@link #nextMatch()}. After
+ * {@link #endProbe()}, {@link #nextMatch()} iterates the matches of the spilled partitions.
+ */
+public final class UnsafeHashJoinTable implements IDeallocatable {
+    private static final String BUILD_RUN_PREFIX = "UnsafeHashJoinBuild";
+    private static final String PROBE_RUN_PREFIX = "UnsafeHashJoinProbe";
+    private static final int MAX_NUMBER_OF_PARTITIONS = 16;
+    //Each partition should be able to hold a few data pages (1MB each)
+    private static final long MIN_PARTITION_BUDGET = 4L << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private final BytesToBytesMap[] maps;
+    private final long mapsBudget;
+    private final CompositeEntryAccessor buildRow;
+    private final CompositeEntryAccessor probeRow;
+    /*
+     * Spilling (null if no joblet context is provided)
+     */
+    private final IHyracksJobletContext ctx;
+    private final int frameSize;
+    private final RunFileAppender[] buildRuns;
+    private final RunFileAppender[] probeRuns;
+    private final CompositeEntryReference runKey;
+    private final CompositeEntryReference runRow;
+    private RunFileCursor buildCursor;
+    private RunFileCursor probeCursor;
+    private Location buildRunLocation;
+    private Location probeRunLocation;
+    /*
+     * Matches of the current probe row
+     */
+    private Location matches;
+    private boolean hasFirstMatch;
+    /*
+     * Joining the spilled partitions
+     */
+    private int spilledPartition;
+    private boolean partLoaded;
+    private boolean hasPendingBuildRow;
+
+    public UnsafeHashJoinTable(long budget) {
+        this(budget, null, 0);
+    }
+
+    /**
+     * @param ctx       joblet context to spill partitions into workspace files when the budget is exhausted. The maps
+     *                  are then kept off-heap and accounted for in the NC's memory manager. The joblet context
+     *                  is used (rather than a task's) as the table is built by one task and probed by another.
+     *                  If {@code null}, the table has a single on-heap partition and
+     *                  {@link #build(CompositeEntry, CompositeEntry)} returns false when the table is full
+     * @param frameSize the size of the runs' buffers
+     */
+    public UnsafeHashJoinTable(long budget, IHyracksJobletContext ctx, int frameSize) {
+        this.ctx = ctx;
+        this.frameSize = frameSize;
+        int numberOfPartitions = getNumberOfPartitions(budget, ctx);
+        maps = new BytesToBytesMap[numberOfPartitions];
+        if (ctx == null) {
+            mapsBudget = budget;
+            maps[0] = new BytesToBytesMap(MemoryAllocator.HEAP, budget, INITIAL_CAPACITY,
+                    UnsafeComparators.COMPOSITE_COMPARATOR);
+            buildRuns = null;
+            probeRuns = null;
+        } else {
+            //Each partition may take a write buffer for its build run and another for its probe run
+            mapsBudget = Math.max(frameSize, budget - 2L * numberOfPartitions * frameSize);
+            IMemoryManager memoryManager = ctx.getServiceContext().getMemoryManager();
+            for (int i = 0; i < numberOfPartitions; i++) {
+                maps[i] = new BytesToBytesMap(MemoryAllocator.UNSAFE, memoryManager, mapsBudget, INITIAL_CAPACITY,
+                        UnsafeComparators.COMPOSITE_COMPARATOR);
+            }
+            buildRuns = new RunFileAppender[numberOfPartitions];
+            probeRuns = new RunFileAppender[numberOfPartitions];
+        }
+        buildRow = new CompositeEntryAccessor();
+        probeRow = new CompositeEntryAccessor();
+        runKey = new CompositeEntryReference();
+        runRow = new CompositeEntryReference();
+        spilledPartition = numberOfPartitions;
+    }
+
+    /**
+     * @return true if the row was added, false if the (on-heap) table is full
+     */
+    public boolean build(CompositeEntry key, CompositeEntry row) throws HyracksDataException {
+        int partition = getPartition(key.getHash());
+        if (isSpilled(partition)) {
+            buildRuns[partition].append(key, row);
+            return true;
+        }
+        while (!maps[partition].lookup(key).append(key, row)) {
+            if (buildRuns == null) {
+                return false;
+            }
+            int largest = getLargestPartition();
+            if (largest < 0) {
+                throw new IllegalStateException("Insufficient memory to build the hash join table");
+            }
+            spill(largest);
+            if (largest == partition) {
+                buildRuns[partition].append(key, row);
+                return true;
+            }
+        }
+        //The budget is shared by all partitions
+        while (buildRuns != null && getUsedMemory() > mapsBudget) {
+            int largest = getLargestPartition();
+            if (largest < 0) {
+                break;
+            }
+            spill(largest);
+        }
+        return true;
+    }
+
+    public void endBuild() throws HyracksDataException {
+        for (int i = 0; i < maps.length; i++) {
+            if (isSpilled(i)) {
+                buildRuns[i].close();
+                probeRuns[i] = new RunFileAppender(ctx, ctx.getIoManager(), PROBE_RUN_PREFIX,
+                        ByteBuffer.allocate(frameSize));
+                probeRuns[i].open();
+            }
+        }
+    }
+
+    /**
+     * Set the current probe row and find its matches. The matches of a spilled partition's row are found after
+     * {@link #endProbe()}
+     */
+    public void probe(CompositeEntry key, CompositeEntry row) throws HyracksDataException {
+        int partition = getPartition(key.getHash());
+        matches = null;
+        if (isSpilled(partition)) {
+            probeRuns[partition].append(key, row);
+            return;
+        }
+        probeRow.reset(row);
+        Location location = maps[partition].lookup(key);
+        if (location.isDefined()) {
+            setMatches(location);
+        }
+    }
+
+    /**
+     * Move to the next match of the current probe row. After {@link #endProbe()}, it moves to the next match of the
+     * spilled partitions' probe rows.
+     *
+     * @return true if there is a match, false otherwise
+     */
+    public boolean nextMatch() throws HyracksDataException {
+        while (true) {
+            if (matches != null) {
+                if (hasFirstMatch || matches.nextValue()) {
+                    hasFirstMatch = false;
+                    buildRow.reset(matches.getValueBase(), matches.getValueOffset(), matches.getValueLength());
+                    return true;
+                }
+                matches = null;
+            }
+            if (!nextSpilledProbeRow()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * End the probe input. The in-memory partitions are freed, and the spilled partitions are joined next.
+     */
+    public void endProbe() throws HyracksDataException {
+        matches = null;
+        boolean hasSpilledPartitions = false;
+        for (int i = 0; i < maps.length; i++) {
+            if (isSpilled(i)) {
+                probeRuns[i].close();
+                hasSpilledPartitions = true;
+            }
+            if (i > 0) {
+                maps[i].free();
+            }
+        }
+        if (!hasSpilledPartitions) {
+            maps[0].free();
+            return;
+        }
+        //The first map is reused to load the spilled partitions
+        buildCursor = new RunFileCursor(ctx.getIoManager(), frameSize);
+        probeCursor = new RunFileCursor(ctx.getIoManager(), frameSize);
+        buildRunLocation = maps[0].createLocation();
+        probeRunLocation = maps[0].createLocation();
+        spilledPartition = -1;
+        openNextSpilledPartition();
+    }
+
+    /**
+     * @return the build row of the current match
+     */
+    public CompositeEntryAccessor getBuildRow() {
+        return buildRow;
+    }
+
+    /**
+     * @return the probe row of the current match
+     */
+    public CompositeEntryAccessor getProbeRow() {
+        return probeRow;
+    }
+
+    @Override
+    public void deallocate() {
+        for (BytesToBytesMap map : maps) {
+            map.free();
+        }
+        try {
+            if (buildCursor != null) {
+                buildCursor.close();
+                probeCursor.close();
+            }
+            if (buildRuns != null) {
+                for (int i = 0; i < maps.length; i++) {
+                    eraseRuns(buildRuns[i]);
+                    eraseRuns(probeRuns[i]);
+                }
+            }
+        } catch (HyracksDataException e) {
+            //Ignore -- the workspace files are managed and will be deleted when the job is done
+        }
+    }
+
+    @VisibleForTesting
+    public int getNumberOfPartitions() {
+        return maps.length;
+    }
+
+    @VisibleForTesting
+    public int getNumberOfSpilledPartitions() {
+        int count = 0;
+        for (int i = 0; i < maps.length; i++) {
+            count += isSpilled(i) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int getNumberOfPartitions(long budget, IHyracksJobletContext ctx) {
+        if (ctx == null) {
+            return 1;
+        }
+        long numberOfPartitions = Math.max(1, Math.min(MAX_NUMBER_OF_PARTITIONS, budget / MIN_PARTITION_BUDGET));
+        //A power of two
+        return Integer.highestOneBit((int) numberOfPartitions);
+    }
+
+    private int getPartition(int hash) {
+        //The maps use the hash's lower bits -- partition on the higher ones
+        return (hash >>> 24) & (maps.length - 1);
+    }
+
+    private boolean isSpilled(int partition) {
+        return buildRuns != null && buildRuns[partition] != null;
+    }
+
+    private long getUsedMemory() {
+        long used = 0;
+        for (BytesToBytesMap map : maps) {
+            used += map.getUsedMemory();
+        }
+        return used;
+    }
+
+    /**
+     * @return the largest in-memory partition that has rows or -1 if there is none
+     */
+    private int getLargestPartition() {
+        int largest = -1;
+        long largestSize = 0;
+        for (int i = 0; i < maps.length; i++) {
+            long size = maps[i].getUsedMemory();
+            if (!isSpilled(i) && maps[i].numValues() > 0 && size >= largestSize) {
+                largest = i;
+                largestSize = size;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Write the partition's rows into its build run and release its map's pages
+     */
+    private void spill(int partition) throws HyracksDataException {
+        RunFileAppender runAppender =
+                new RunFileAppender(ctx, ctx.getIoManager(), BUILD_RUN_PREFIX, ByteBuffer.allocate(frameSize));
+        buildRuns[partition] = runAppender;
+        runAppender.open();
+        BytesToBytesMap map = maps[partition];
+        BytesToBytesMap.MapIterator iterator = map.iterator();
+        while (iterator.hasNext()) {
+            runAppender.append(iterator.next());
+        }
+        map.reset();
+    }
+
+    private boolean nextSpilledProbeRow() throws HyracksDataException {
+        while (spilledPartition < maps.length) {
+            if (partLoaded && probeCursor.next()) {
+                probeCursor.set(probeRunLocation);
+                runKey.reset(probeRunLocation.getKeyBase(), probeRunLocation.getKeyOffset(),
+                        probeRunLocation.getKeyLength());
+                probeRow.reset(probeRunLocation.getValueBase(), probeRunLocation.getValueOffset(),
+                        probeRunLocation.getValueLength());
+                Location location = maps[0].lookup(runKey);
+                if (location.isDefined()) {
+                    setMatches(location);
+                    return true;
+                }
+            } else {
+                partLoaded = loadNextPart();
+                if (!partLoaded) {
+                    openNextSpilledPartition();
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Load the next part of the current spilled partition's build run into the first map
+     *
+     * @return true if a part was loaded, false if the build run has no more rows
+     */
+    private boolean loadNextPart() throws HyracksDataException {
+        if (!hasPendingBuildRow && !buildCursor.next()) {
+            return false;
+        }
+        BytesToBytesMap map = maps[0];
+        map.reset();
+        do {
+            buildCursor.set(buildRunLocation);
+            runKey.reset(buildRunLocation.getKeyBase(), buildRunLocation.getKeyOffset(),
+                    buildRunLocation.getKeyLength());
+            runRow.reset(buildRunLocation.getValueBase(), buildRunLocation.getValueOffset(),
+                    buildRunLocation.getValueLength());
+            hasPendingBuildRow = !map.lookup(runKey).append(runKey, runRow);
+            if (hasPendingBuildRow) {
+                if (map.numValues() == 0) {
+                    throw new IllegalStateException("Insufficient memory to load a spilled hash join row");
+                }
+                //The map is full -- the row will be the first of the next part
+                break;
+            }
+        } while (buildCursor.next());
+        probeCursor.rewind();
+        return true;
+    }
+
+    private void openNextSpilledPartition() throws HyracksDataException {
+        buildCursor.close();
+        probeCursor.close();
+        partLoaded = false;
+        hasPendingBuildRow = false;
+        while (++spilledPartition < maps.length) {
+            if (isSpilled(spilledPartition)) {
+                buildCursor.open(buildRuns[spilledPartition].getRuns().get(0));
+                probeCursor.open(probeRuns[spilledPartition].getRuns().get(0));
+                //The cursors delete the runs once they are consumed
+                buildRuns[spilledPartition].getRuns().clear();
+                probeRuns[spilledPartition].getRuns().clear();
+                return;
+            }
+        }
+        maps[0].free();
+    }
+
+    private void setMatches(Location location) {
+        matches = location;
+        hasFirstMatch = true;
+    }
+
+    private static void eraseRuns(RunFileAppender runAppender) throws HyracksDataException {
+        if (runAppender != null) {
+            runAppender.erase();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map.entry;
+
+import static org.apache.hyracks.unsafe.BytesToBytesMap.SEED;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.hash.Murmur3_x86_32;
+
+/**
+ * A partial average stored as a (double sum, long count) pair
+ */
+public class AvgEntry implements IEntry {
+    private static final int COUNT_OFFSET = Double.BYTES;
+    private double sum;
+    private long count;
+
+    public void reset(double sum, long count) {
+        this.sum = sum;
+        this.count = count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public static double getSum(Object baseObject, long offset) {
+        return Platform.getDouble(baseObject, offset);
+    }
+
+    public static long getCount(Object baseObject, long offset) {
+        return Platform.getLong(baseObject, offset + COUNT_OFFSET);
+    }
+
+    @Override
+    public boolean isEqual(Location location) {
+        Object baseObject = location.getKeyBase();
+        long offset = location.getKeyOffset();
+        return Double.compare(sum, getSum(baseObject, offset)) == 0 && count == getCount(baseObject, offset);
+    }
+
+    @Override
+    public void setValue(Location location) {
+        set(location.getValueBase(), location.getValueOffset(), -1);
+    }
+
+    @Override
+    public void set(Object baseObject, long offset, long length) {
+        Platform.putDouble(baseObject, offset, sum);
+        Platform.putLong(baseObject, offset + COUNT_OFFSET, count);
+    }
+
+    @Override
+    public void getValue(Location location) {
+        get(location.getValueBase(), location.getValueOffset(), -1);
+    }
+
+    @Override
+    public void get(Object baseObject, long offset, long length) {
+        sum = getSum(baseObject, offset);
+        count = getCount(baseObject, offset);
+    }
+
+    @Override
+    public int getLength() {
+        return Double.BYTES + Long.BYTES;
+    }
+
+    @Override
+    public int getHash() {
+        return Murmur3_x86_32.hashLong(Double.doubleToLongBits(sum) * 31 + count, SEED);
+    }
+
+    @Override
+    public byte getEntryTypeOrdinal() {
+        return ATypeTag.OBJECT.serialize();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        return compareTo((IEntry) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return getHash();
+    }
+
+    @Override
+    public int compareTo(IEntry o) {
+        if (!(o instanceof AvgEntry)) {
+            return getEntryTypeOrdinal() - o.getEntryTypeOrdinal();
+        }
+        AvgEntry other = (AvgEntry) o;
+        int compare = Double.compare(sum, other.sum);
+        return compare != 0 ? compare : Long.compare(count, other.count);
+    }
+
+    @Override
+    public IEntry createCopy() {
+        AvgEntry copy = new AvgEntry();
+        copy.reset(sum, count);
+        return copy;
+    }
+
+    @Override
+    public void reset(IEntry other) {
+        AvgEntry otherAvg = (AvgEntry) other;
+        reset(otherAvg.sum, otherAvg.count);
+    }
+}
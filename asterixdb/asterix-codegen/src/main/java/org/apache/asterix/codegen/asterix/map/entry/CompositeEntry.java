@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map.entry;
+
+import static org.apache.hyracks.unsafe.BytesToBytesMap.SEED;
+
+import java.util.Arrays;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.array.ByteArrayMethods;
+import org.apache.spark.unsafe.hash.Murmur3_x86_32;
+
+/**
+ * A multi-field key. Each field is stored as its type tag followed by its value:
+ * <ul>
+ *     <li>BIGINT and DOUBLE: 8 bytes</li>
+ *     <li>STRING: the serialized UTF-8 string (i.e., its encoded length followed by its bytes)</li>
+ *     <li>NULL and MISSING: no value</li>
+ * </ul>
+ * The fields are padded with zeros to the nearest word. As zero is not a valid type tag, the padding marks the end of
+ * the fields.
+ *
+ * @see CompositeEntryUtil
+ */
+public class CompositeEntry implements IEntry {
+    private final ArrayBackedValueStorage storage;
+
+    public CompositeEntry() {
+        storage = new ArrayBackedValueStorage();
+    }
+
+    public void reset() {
+        storage.reset();
+    }
+
+    public void addLong(long value) {
+        long offset = addField(ATypeTag.BIGINT, Long.BYTES);
+        Platform.putLong(storage.getByteArray(), offset, value);
+    }
+
+    public void addDouble(double value) {
+        long offset = addField(ATypeTag.DOUBLE, Double.BYTES);
+        Platform.putDouble(storage.getByteArray(), offset, value);
+    }
+
+    public void addString(IValueReference value) {
+        long offset = addField(ATypeTag.STRING, value.getLength());
+        Platform.copyMemory(value.getByteArray(), value.getStartOffset() + (long) Platform.BYTE_ARRAY_OFFSET,
+                storage.getByteArray(), offset, value.getLength());
+    }
+
+    public void addNull() {
+        addField(ATypeTag.NULL, 0);
+    }
+
+    public void addMissing() {
+        addField(ATypeTag.MISSING, 0);
+    }
+
+    /**
+     * Pad the fields to the nearest word. Must be called after adding all fields and before using the entry.
+     */
+    public void seal() {
+        int length = storage.getLength();
+        int alignedLength = ByteArrayMethods.roundNumberOfBytesToNearestWord(length);
+        if (alignedLength != length) {
+            storage.setSize(alignedLength);
+            Arrays.fill(storage.getByteArray(), length, alignedLength, (byte) 0);
+        }
+    }
+
+    /**
+     * @return the bytes of the fields (starting at zero)
+     */
+    public byte[] getByteArray() {
+        return storage.getByteArray();
+    }
+
+    private long addField(ATypeTag typeTag, int valueLength) {
+        int tagOffset = storage.getLength();
+        storage.setSize(tagOffset + 1 + valueLength);
+        byte[] bytes = storage.getByteArray();
+        bytes[tagOffset] = typeTag.serialize();
+        return Platform.BYTE_ARRAY_OFFSET + tagOffset + 1L;
+    }
+
+    @Override
+    public boolean isEqual(Location location) {
+        long valueOffset = storage.getStartOffset() + (long) Platform.BYTE_ARRAY_OFFSET;
+        int valueLength = storage.getLength();
+        Object baseObject = location.getKeyBase();
+        long offset = location.getKeyOffset();
+        int length = location.getKeyLength();
+        return length == valueLength
+                && ByteArrayMethods.arrayEquals(baseObject, offset, storage.getByteArray(), valueOffset, length);
+    }
+
+    @Override
+    public void setValue(Location location) {
+        set(location.getValueBase(), location.getValueOffset(), location.getValueLength());
+    }
+
+    @Override
+    public void set(Object baseObject, long offset, long length) {
+        long valueOffset = storage.getStartOffset() + (long) Platform.BYTE_ARRAY_OFFSET;
+        Platform.copyMemory(storage.getByteArray(), valueOffset, baseObject, offset, length);
+    }
+
+    @Override
+    public void getValue(Location location) {
+        get(location.getValueBase(), location.getValueOffset(), location.getValueLength());
+    }
+
+    @Override
+    public void get(Object baseObject, long offset, long length) {
+        storage.setSize((int) length);
+        Platform.copyMemory(baseObject, offset, storage.getByteArray(), Platform.BYTE_ARRAY_OFFSET, length);
+    }
+
+    @Override
+    public int getLength() {
+        return storage.getLength();
+    }
+
+    @Override
+    public int getHash() {
+        long valueOffset = storage.getStartOffset() + (long) Platform.BYTE_ARRAY_OFFSET;
+        return Murmur3_x86_32.hashUnsafeWords(storage.getByteArray(), valueOffset, storage.getLength(), SEED);
+    }
+
+    @Override
+    public byte getEntryTypeOrdinal() {
+        return ATypeTag.ARRAY.serialize();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        return compareTo((IEntry) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return getHash();
+    }
+
+    @Override
+    public int compareTo(IEntry o) {
+        if (!(o instanceof CompositeEntry)) {
+            return getEntryTypeOrdinal() - o.getEntryTypeOrdinal();
+        }
+        ArrayBackedValueStorage other = ((CompositeEntry) o).storage;
+        return CompositeEntryUtil.compare(storage.getByteArray(), Platform.BYTE_ARRAY_OFFSET, storage.getLength(),
+                other.getByteArray(), Platform.BYTE_ARRAY_OFFSET, other.getLength());
+    }
+
+    @Override
+    public IEntry createCopy() {
+        CompositeEntry copy = new CompositeEntry();
+        copy.storage.set(storage);
+        return copy;
+    }
+
+    @Override
+    public void reset(IEntry other) {
+        storage.set(((CompositeEntry) other).storage);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map.entry;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.spark.unsafe.Platform;
+
+/**
+ * Accesses the fields of a {@link CompositeEntry} by their indexes. The fields' offsets are computed (once per
+ * entry) when a field is first accessed.
+ */
+public class CompositeEntryAccessor {
+    private long[] fieldOffsets;
+    private Object baseObject;
+    private long offset;
+    private long endOffset;
+    private int numberOfFields;
+
+    public CompositeEntryAccessor() {
+        fieldOffsets = new long[8];
+    }
+
+    public void reset(Object baseObject, long offset, int length) {
+        this.baseObject = baseObject;
+        this.offset = offset;
+        endOffset = offset + length;
+        numberOfFields = -1;
+    }
+
+    public void reset(CompositeEntry entry) {
+        reset(entry.getByteArray(), Platform.BYTE_ARRAY_OFFSET, entry.getLength());
+    }
+
+    /**
+     * @return the type tag of the field or {@link CompositeEntryUtil#END_OF_FIELDS} if there is no such field
+     */
+    public byte getTypeTag(int index) {
+        computeOffsets();
+        return index < numberOfFields ? Platform.getByte(baseObject, fieldOffsets[index])
+                : CompositeEntryUtil.END_OF_FIELDS;
+    }
+
+    public long getLong(int index) {
+        return Platform.getLong(baseObject, getValueOffset(index));
+    }
+
+    public double getDouble(int index) {
+        return Platform.getDouble(baseObject, getValueOffset(index));
+    }
+
+    /**
+     * Copy the value of a STRING field (i.e., its encoded length followed by its bytes) into the given storage
+     */
+    public void getString(int index, ArrayBackedValueStorage storage) {
+        long valueOffset = getValueOffset(index);
+        byte typeTag = Platform.getByte(baseObject, valueOffset - 1);
+        int length = CompositeEntryUtil.getValueLength(typeTag, baseObject, valueOffset, endOffset);
+        storage.reset();
+        storage.setSize(length);
+        Platform.copyMemory(baseObject, valueOffset, storage.getByteArray(), Platform.BYTE_ARRAY_OFFSET, length);
+    }
+
+    private long getValueOffset(int index) {
+        computeOffsets();
+        return fieldOffsets[index] + 1;
+    }
+
+    private void computeOffsets() {
+        if (numberOfFields >= 0) {
+            return;
+        }
+        int count = 0;
+        long fieldOffset = offset;
+        byte typeTag = CompositeEntryUtil.getTypeTag(baseObject, fieldOffset, endOffset);
+        while (typeTag != CompositeEntryUtil.END_OF_FIELDS) {
+            if (count == fieldOffsets.length) {
+                fieldOffsets = Arrays.copyOf(fieldOffsets, count * 2);
+            }
+            fieldOffsets[count++] = fieldOffset;
+            long valueOffset = fieldOffset + 1;
+            fieldOffset = valueOffset + CompositeEntryUtil.getValueLength(typeTag, baseObject, valueOffset, endOffset);
+            typeTag = CompositeEntryUtil.getTypeTag(baseObject, fieldOffset, endOffset);
+        }
+        numberOfFields = count;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map.entry;
+
+import static org.apache.hyracks.unsafe.BytesToBytesMap.SEED;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.array.ByteArrayMethods;
+import org.apache.spark.unsafe.hash.Murmur3_x86_32;
+
+/**
+ * A read-only reference to a {@link CompositeEntry} that is stored elsewhere (e.g., in a record that is read back
+ * from a spilled run). It hashes and compares as the referenced {@link CompositeEntry}, so it can be used to look up
+ * or to re-insert the record into a map.
+ */
+public class CompositeEntryReference implements IEntry {
+    private Object baseObject;
+    private long offset;
+    private int length;
+
+    public void reset(Object baseObject, long offset, int length) {
+        this.baseObject = baseObject;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public boolean isEqual(Location location) {
+        return length == location.getKeyLength() && ByteArrayMethods.arrayEquals(location.getKeyBase(),
+                location.getKeyOffset(), baseObject, offset, length);
+    }
+
+    @Override
+    public void setValue(Location location) {
+        set(location.getValueBase(), location.getValueOffset(), location.getValueLength());
+    }
+
+    @Override
+    public void set(Object destObject, long destOffset, long length) {
+        Platform.copyMemory(baseObject, offset, destObject, destOffset, length);
+    }
+
+    @Override
+    public void getValue(Location location) {
+        get(location.getValueBase(), location.getValueOffset(), location.getValueLength());
+    }
+
+    @Override
+    public void get(Object baseObject, long offset, long length) {
+        reset(baseObject, offset, (int) length);
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public int getHash() {
+        return Murmur3_x86_32.hashUnsafeWords(baseObject, offset, length, SEED);
+    }
+
+    @Override
+    public byte getEntryTypeOrdinal() {
+        return ATypeTag.ARRAY.serialize();
+    }
+
+    @Override
+    public int compareTo(IEntry o) {
+        if (!(o instanceof CompositeEntryReference)) {
+            return getEntryTypeOrdinal() - o.getEntryTypeOrdinal();
+        }
+        CompositeEntryReference other = (CompositeEntryReference) o;
+        return CompositeEntryUtil.compare(baseObject, offset, length, other.baseObject, other.offset, other.length);
+    }
+
+    @Override
+    public IEntry createCopy() {
+        CompositeEntryReference copy = new CompositeEntryReference();
+        copy.reset(baseObject, offset, length);
+        return copy;
+    }
+
+    @Override
+    public void reset(IEntry other) {
+        CompositeEntryReference reference = (CompositeEntryReference) other;
+        reset(reference.baseObject, reference.offset, reference.length);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.map.entry;
+
+import static org.apache.hyracks.util.string.UTF8StringUtil.getNumBytesToStoreLength;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.spark.unsafe.Platform;
+
+/**
+ * Accessors and comparators for the fields of a {@link CompositeEntry}
+ */
+public class CompositeEntryUtil {
+    /**
+     * Zero is not a valid type tag -- it is the padding after the last field
+     */
+    public static final byte END_OF_FIELDS = 0;
+    private static final byte BIGINT_TAG = ATypeTag.BIGINT.serialize();
+    private static final byte DOUBLE_TAG = ATypeTag.DOUBLE.serialize();
+    private static final byte STRING_TAG = ATypeTag.STRING.serialize();
+    private static final byte NULL_TAG = ATypeTag.NULL.serialize();
+    private static final byte MISSING_TAG = ATypeTag.MISSING.serialize();
+    private static final int PREFIX_VALUE_BITS = Long.SIZE - Byte.SIZE;
+    private static final int PREFIX_CHARS = PREFIX_VALUE_BITS / Character.SIZE;
+
+    private CompositeEntryUtil() {
+    }
+
+    /**
+     * @param baseObject base object of the composite entry
+     * @param offset     offset of the field's type tag
+     * @param endOffset  the end of the composite entry
+     * @return the field's type tag or {@link #END_OF_FIELDS} if there are no more fields
+     */
+    public static byte getTypeTag(Object baseObject, long offset, long endOffset) {
+        return offset < endOffset ? Platform.getByte(baseObject, offset) : END_OF_FIELDS;
+    }
+
+    /**
+     * @param typeTag    field's type tag
+     * @param baseObject base object of the composite entry
+     * @param offset     offset of the field's value (i.e., after the type tag)
+     * @param endOffset  the end of the composite entry
+     * @return the length of the field's value
+     */
+    public static int getValueLength(byte typeTag, Object baseObject, long offset, long endOffset) {
+        if (typeTag == BIGINT_TAG || typeTag == DOUBLE_TAG) {
+            return Long.BYTES;
+        } else if (typeTag == STRING_TAG) {
+            int length = StringEntryUtil.decode(baseObject, offset, endOffset - offset);
+            return length + getNumBytesToStoreLength(length);
+        } else if (typeTag == NULL_TAG || typeTag == MISSING_TAG) {
+            return 0;
+        }
+        throw new IllegalStateException("Unsupported key type " + ATypeTag.VALUE_TYPE_MAPPING[typeTag]);
+    }
+
+    public static int compare(Object leftBaseObject, long leftBaseOffset, int leftBaseLength, Object rightBaseObject,
+            long rightBaseOffset, int rightBaseLength) {
+        long leftOffset = leftBaseOffset;
+        long rightOffset = rightBaseOffset;
+        long leftEnd = leftBaseOffset + leftBaseLength;
+        long rightEnd = rightBaseOffset + rightBaseLength;
+        while (true) {
+            byte leftTag = getTypeTag(leftBaseObject, leftOffset, leftEnd);
+            byte rightTag = getTypeTag(rightBaseObject, rightOffset, rightEnd);
+            if (leftTag != rightTag || leftTag == END_OF_FIELDS) {
+                return leftTag - rightTag;
+            }
+            leftOffset++;
+            rightOffset++;
+            int compare = compareValues(leftTag, leftBaseObject, leftOffset, leftEnd, rightBaseObject, rightOffset,
+                    rightEnd);
+            if (compare != 0) {
+                return compare;
+            }
+            leftOffset += getValueLength(leftTag, leftBaseObject, leftOffset, leftEnd);
+            rightOffset += getValueLength(rightTag, rightBaseObject, rightOffset, rightEnd);
+        }
+    }
+
+    /**
+     * Compare two composite sort keys field by field as ORDER BY does: MISSING is less than NULL, which is less than
+     * any value, and the order of a descending field is reversed. Unlike
+     * {@link #compare(Object, long, int, Object, long, int)}, both keys must have the given number of fields.
+     */
+    public static int compareSortKeys(boolean[] descending, Object leftBaseObject, long leftBaseOffset,
+            int leftBaseLength, Object rightBaseObject, long rightBaseOffset, int rightBaseLength) {
+        long leftOffset = leftBaseOffset;
+        long rightOffset = rightBaseOffset;
+        long leftEnd = leftBaseOffset + leftBaseLength;
+        long rightEnd = rightBaseOffset + rightBaseLength;
+        for (boolean isDescending : descending) {
+            byte leftTag = getTypeTag(leftBaseObject, leftOffset, leftEnd);
+            byte rightTag = getTypeTag(rightBaseObject, rightOffset, rightEnd);
+            int compare = Integer.compare(getSortRank(leftTag), getSortRank(rightTag));
+            if (compare == 0) {
+                compare = leftTag != rightTag ? leftTag - rightTag
+                        : compareValues(leftTag, leftBaseObject, leftOffset + 1, leftEnd, rightBaseObject,
+                                rightOffset + 1, rightEnd);
+            }
+            if (compare != 0) {
+                return isDescending ? -compare : compare;
+            }
+            leftOffset += 1 + getValueLength(leftTag, leftBaseObject, leftOffset + 1, leftEnd);
+            rightOffset += 1 + getValueLength(rightTag, rightBaseObject, rightOffset + 1, rightEnd);
+        }
+        return 0;
+    }
+
+    private static int getSortRank(byte typeTag) {
+        if (typeTag == MISSING_TAG) {
+            return 0;
+        } else if (typeTag == NULL_TAG) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * The prefix is the first field's type tag (the most significant byte) followed by the most significant 56 bits
+     * of an order-preserving encoding of the first field's value (or its first three characters if it is a string).
+     * Thus, it is never decisive.
+     */
+    public static long computePrefix(Object baseObject, long offset, int length) {
+        long endOffset = offset + length;
+        byte typeTag = getTypeTag(baseObject, offset, endOffset);
+        long valueOffset = offset + 1;
+        long value;
+        if (typeTag == BIGINT_TAG) {
+            value = (Platform.getLong(baseObject, valueOffset) ^ Long.MIN_VALUE) >>> Byte.SIZE;
+        } else if (typeTag == DOUBLE_TAG) {
+            long bits = Double.doubleToLongBits(Platform.getDouble(baseObject, valueOffset));
+            value = (bits < 0 ? ~bits : bits ^ Long.MIN_VALUE) >>> Byte.SIZE;
+        } else if (typeTag == STRING_TAG) {
+            value = computeStringPrefix(baseObject, valueOffset, endOffset);
+        } else {
+            value = 0;
+        }
+        return ((long) typeTag << PREFIX_VALUE_BITS) | value;
+    }
+
+    private static long computeStringPrefix(Object baseObject, long offset, long endOffset) {
+        int length = StringEntryUtil.decode(baseObject, offset, endOffset - offset);
+        long charOffset = offset + getNumBytesToStoreLength(length);
+        long endOfString = charOffset + length;
+        long prefix = 0;
+        //Left-aligned, so shorter strings have smaller (or equal) prefixes
+        for (int i = 0; i < PREFIX_CHARS; i++) {
+            prefix <<= Character.SIZE;
+            if (charOffset < endOfString) {
+                prefix |= StringEntryUtil.charAt(baseObject, charOffset);
+                charOffset += StringEntryUtil.charSize(baseObject, charOffset);
+            }
+        }
+        return prefix << Byte.SIZE;
+    }
+
+    private static int compareValues(byte typeTag, Object leftBaseObject, long leftOffset, long leftEnd,
+            Object rightBaseObject, long rightOffset, long rightEnd) {
+        if (typeTag == BIGINT_TAG) {
+            return Long.compare(Platform.getLong(leftBaseObject, leftOffset),
+                    Platform.getLong(rightBaseObject, rightOffset));
+        } else if (typeTag == DOUBLE_TAG) {
+            return Double.compare(Platform.getDouble(leftBaseObject, leftOffset),
+                    Platform.getDouble(rightBaseObject, rightOffset));
+        } else if (typeTag == STRING_TAG) {
+            return StringEntryUtil.compare(leftBaseObject, leftOffset, (int) (leftEnd - leftOffset), rightBaseObject,
+                    rightOffset, (int) (rightEnd - rightOffset));
+        }
+        //NULLs (and MISSINGs) are equal
+        return 0;
+    }
+}
@@ -89,7 +89,7 @@ public class StringEntryUtil {
         return thisLength - thatLength;
     }
 
-    private static char charAt(Object baseObject, long offset) {
+    static char charAt(Object baseObject, long offset) {
         int c = Platform.getByte(baseObject, offset) & 0xff;
         switch (c >> 4) {
             case 0:
@@ -22,9 +22,25 @@ import com.oracle.truffle.api.nodes.ControlFlowException;
 
 public class AILRuntimeException extends ControlFlowException {
     private static final long serialVersionUID = -8485225177755988602L;
+    //ControlFlowException sets its cause to null, which cannot be initialized afterwards
+    private final Throwable cause;
 
     public AILRuntimeException() {
+        this(null);
+    }
+
+    public AILRuntimeException(Throwable cause) {
         super();
+        this.cause = cause;
     }
 
+    @Override
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public String getMessage() {
+        return cause == null ? null : cause.toString();
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.asterix.codegen.truffle.builtins;
 import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
 import org.apache.asterix.codegen.truffle.runtime.aggregation.AILGeneralAggregator;
 import org.apache.asterix.codegen.truffle.runtime.aggregation.AILMinMaxTopKAggregator;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
@@ -66,6 +67,13 @@ public abstract class AILAppendBuiltin extends AILBuiltinNode {
         return appender;
     }
 
+    @Specialization
+    @TruffleBoundary
+    public Object append(AILResultWriter appender, AILUUIDRuntime value) {
+        appender.append(value);
+        return appender;
+    }
+
     @Specialization
     @TruffleBoundary
     public Object append(AILResultWriter appender, AILMinMaxTopKAggregator value) {
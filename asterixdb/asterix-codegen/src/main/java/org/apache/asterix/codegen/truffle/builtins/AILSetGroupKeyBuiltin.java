@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.builtins;
+
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+
+/**
+ * Sets the field at the given index of a multi-field group-by key. Setting the field at index 0 starts a new key.
+ */
+@NodeInfo(shortName = "setGroupKey")
+public abstract class AILSetGroupKeyBuiltin extends AILBuiltinNode {
+    @Specialization
+    public AILCompositeKeyRuntime set(AILCompositeKeyRuntime key, long index, long value) {
+        key.set(index, value);
+        return key;
+    }
+
+    @Specialization
+    public AILCompositeKeyRuntime set(AILCompositeKeyRuntime key, long index, double value) {
+        key.set(index, value);
+        return key;
+    }
+
+    @Specialization
+    public AILCompositeKeyRuntime set(AILCompositeKeyRuntime key, long index, AILStringRuntime value) {
+        key.set(index, value);
+        return key;
+    }
+
+    @Specialization
+    public AILCompositeKeyRuntime set(AILCompositeKeyRuntime key, long index, AILNullRuntime value) {
+        key.setNull(index);
+        return key;
+    }
+
+    @Specialization
+    public AILCompositeKeyRuntime set(AILCompositeKeyRuntime key, long index, AILMissingRuntime value) {
+        key.setMissing(index);
+        return key;
+    }
+}
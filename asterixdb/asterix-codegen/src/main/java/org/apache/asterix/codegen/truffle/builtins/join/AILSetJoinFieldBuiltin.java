@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.builtins.join;
+
+import org.apache.asterix.codegen.truffle.builtins.AILBuiltinNode;
+import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.join.AILJoinTableRuntime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+
+/**
+ * Sets the field at the given index of the row to be built or probed. Setting the field at index 0 starts a new row.
+ */
+@NodeInfo(shortName = "setJoinField")
+public abstract class AILSetJoinFieldBuiltin extends AILBuiltinNode {
+    @Specialization
+    public AILJoinTableRuntime set(AILJoinTableRuntime table, long index, long value) {
+        table.set(index, value);
+        return table;
+    }
+
+    @Specialization
+    public AILJoinTableRuntime set(AILJoinTableRuntime table, long index, double value) {
+        table.set(index, value);
+        return table;
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public AILJoinTableRuntime set(AILJoinTableRuntime table, long index, AILStringRuntime value) {
+        table.set(index, value);
+        return table;
+    }
+
+    @Specialization
+    public AILJoinTableRuntime set(AILJoinTableRuntime table, long index, AILNullRuntime value) {
+        table.setNull(index);
+        return table;
+    }
+
+    @Specialization
+    public AILJoinTableRuntime set(AILJoinTableRuntime table, long index, AILMissingRuntime value) {
+        table.setMissing(index);
+        return table;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.builtins.vector;
+
+import org.apache.asterix.codegen.truffle.builtins.AILBuiltinNode;
+import org.apache.asterix.codegen.truffle.runtime.vector.AILSelectionRuntime;
+import org.apache.asterix.codegen.truffle.runtime.vector.AILVectorRuntime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+
+/**
+ * Merges the maximum of the selected values of a batch into a MAX, where the MAX is either a number or null (i.e., no
+ * values were seen so far)
+ */
+@NodeInfo(shortName = "batchMax")
+public abstract class AILBatchMaxBuiltin extends AILBuiltinNode {
+    @Specialization
+    @TruffleBoundary
+    public Object max(Object max, AILVectorRuntime vector, AILSelectionRuntime selection) {
+        Object batchMax = vector.max(selection);
+        if (batchMax == null || !(max instanceof Number)) {
+            return batchMax == null ? max : batchMax;
+        } else if (max instanceof Long && batchMax instanceof Long) {
+            return Math.max((Long) max, (Long) batchMax);
+        }
+        //Mixed BIGINT and DOUBLE values are compared as doubles and the winning value keeps its type
+        return ((Number) batchMax).doubleValue() > ((Number) max).doubleValue() ? batchMax : max;
+    }
+}
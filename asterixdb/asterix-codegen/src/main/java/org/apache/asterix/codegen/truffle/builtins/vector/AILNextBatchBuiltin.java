@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.builtins.vector;
+
+import org.apache.asterix.codegen.truffle.builtins.AILBuiltinNode;
+import org.apache.asterix.codegen.truffle.runtime.cursor.AILIndexCursor;
+import org.apache.asterix.codegen.truffle.runtime.vector.AILSelectionRuntime;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+
+/**
+ * Decodes the next batch of tuples into the readers' vectors and selects all of the batch's tuples
+ *
+ * @return false if there are no more tuples
+ */
+@NodeInfo(shortName = "nextBatch")
+public abstract class AILNextBatchBuiltin extends AILBuiltinNode {
+    @Specialization
+    @TruffleBoundary
+    public boolean next(AILIndexCursor cursor, AILSelectionRuntime selection) {
+        int size = cursor.nextBatch();
+        selection.selectAll(size);
+        return size > 0;
+    }
+}
@@ -23,6 +23,7 @@ import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 import org.apache.asterix.codegen.truffle.nodes.AILBinaryNode;
 import org.apache.asterix.codegen.truffle.runtime.AILFunction;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -68,6 +69,11 @@ public abstract class AILEqualNode extends AILBinaryNode {
         return left.isEqual(right);
     }
 
+    @Specialization
+    protected boolean doUUID(AILUUIDRuntime left, AILUUIDRuntime right) {
+        return left.isEqual(right);
+    }
+
     @Specialization
     protected boolean doFunction(AILFunction left, Object right) {
         /*
@@ -22,6 +22,7 @@ import org.apache.asterix.codegen.truffle.nodes.AILBinaryNode;
 import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
@@ -57,6 +58,11 @@ public abstract class AILLessOrEqualNode extends AILBinaryNode {
         return left.compare(right) <= 0;
     }
 
+    @Specialization
+    protected boolean lessOrEqual(AILUUIDRuntime left, AILUUIDRuntime right) {
+        return left.compare(right) <= 0;
+    }
+
     @Specialization
     protected boolean lessOrEqual(long left, AILStringRuntime right) {
         return false;
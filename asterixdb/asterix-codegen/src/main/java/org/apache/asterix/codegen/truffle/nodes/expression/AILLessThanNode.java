@@ -22,6 +22,7 @@ import org.apache.asterix.codegen.truffle.nodes.AILBinaryNode;
 import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
@@ -58,6 +59,11 @@ public abstract class AILLessThanNode extends AILBinaryNode {
         return left.compare(right) < 0;
     }
 
+    @Specialization
+    protected boolean lessThan(AILUUIDRuntime left, AILUUIDRuntime right) {
+        return left.compare(right) < 0;
+    }
+
     @Specialization
     protected boolean lessThan(long left, AILStringRuntime right) {
         return false;
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime;
+
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.truffle.AILLanguage;
+
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A reusable multi-field group-by key. The fields are set in order (starting from index 0) for every tuple before
+ * the key is aggregated.
+ */
+@ExportLibrary(InteropLibrary.class)
+public class AILCompositeKeyRuntime implements TruffleObject {
+    private final CompositeEntry entry;
+    private boolean missing;
+    private boolean hasNull;
+
+    public AILCompositeKeyRuntime() {
+        entry = new CompositeEntry();
+    }
+
+    public void set(long index, long value) {
+        start(index);
+        entry.addLong(value);
+    }
+
+    public void set(long index, double value) {
+        start(index);
+        entry.addDouble(value);
+    }
+
+    public void set(long index, AILStringRuntime value) {
+        start(index);
+        entry.addString(value.getStringValue());
+    }
+
+    public void setNull(long index) {
+        start(index);
+        entry.addNull();
+        hasNull = true;
+    }
+
+    public void setMissing(long index) {
+        start(index);
+        entry.addMissing();
+        missing = true;
+    }
+
+    /**
+     * @return true if any of the fields is missing (i.e., the tuple does not belong to any group)
+     */
+    public boolean isMissing() {
+        return missing;
+    }
+
+    /**
+     * @return true if any of the fields is null (i.e., the key is not equal to any other key in a join)
+     */
+    public boolean hasNull() {
+        return hasNull;
+    }
+
+    public CompositeEntry getEntry() {
+        entry.seal();
+        return entry;
+    }
+
+    private void start(long index) {
+        if (index == 0) {
+            entry.reset();
+            missing = false;
+            hasNull = false;
+        }
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Composite Key";
+    }
+}
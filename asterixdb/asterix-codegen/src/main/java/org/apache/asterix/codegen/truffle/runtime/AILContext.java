@@ -41,14 +41,26 @@ import org.apache.asterix.codegen.truffle.builtins.AILIsNullBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILJavaTypeBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILNanoTimeBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILNewAggregatorBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.AILNewGroupKeyBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILNewTopKFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILOneZeroFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILPrintlnBuiltin;
 import org.apache.asterix.codegen.truffle.builtins.AILPrintlnBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILReadlnBuiltin;
 import org.apache.asterix.codegen.truffle.builtins.AILReadlnBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.AILSetGroupKeyBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILStackTraceBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.AILWrapPrimitiveBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILEndJoinBuildBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILEndJoinProbeBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILGetJoinBuildFieldBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILGetJoinProbeFieldBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILGetJoinTableBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILJoinBuildBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILJoinProbeBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILNewJoinTableBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILNextJoinMatchBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.join.AILSetJoinFieldBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILAbsBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILCosBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILCoshBuiltinFactory;
@@ -56,8 +68,26 @@ import org.apache.asterix.codegen.truffle.builtins.numeric.AILFloorBuiltinFactor
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILSinBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILSinhBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.numeric.AILSqrtBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILAddTopKBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILGetTopKFieldBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILIsTopKCandidateBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILNewSortTopKBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILNextTopKBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILSetTopKFieldBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.sort.AILSortTopKBuiltinFactory;
 import org.apache.asterix.codegen.truffle.builtins.string.AILStringLengthFactory;
 import org.apache.asterix.codegen.truffle.builtins.string.AILStringLowercaseFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILBatchCountBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILBatchCountValuesBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILBatchMaxBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILBatchMinBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILBatchSumBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILColumnVectorBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILComputeVectorBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILFilterVectorBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILNewSelectionBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILNewVectorBuiltinFactory;
+import org.apache.asterix.codegen.truffle.builtins.vector.AILNextBatchBuiltinFactory;
 import org.apache.asterix.codegen.truffle.nodes.AILExpressionNode;
 import org.graalvm.polyglot.Context;
 
@@ -172,6 +202,36 @@ public final class AILContext {
         installBuiltin(AILNewTopKFactory.getInstance());
         installBuiltin(AILNewAggregatorBuiltinFactory.getInstance());
         installBuiltin(AILAggregateBuiltinFactory.getInstance());
+        installBuiltin(AILNewGroupKeyBuiltinFactory.getInstance());
+        installBuiltin(AILSetGroupKeyBuiltinFactory.getInstance());
+        installBuiltin(AILNewJoinTableBuiltinFactory.getInstance());
+        installBuiltin(AILGetJoinTableBuiltinFactory.getInstance());
+        installBuiltin(AILSetJoinFieldBuiltinFactory.getInstance());
+        installBuiltin(AILJoinBuildBuiltinFactory.getInstance());
+        installBuiltin(AILEndJoinBuildBuiltinFactory.getInstance());
+        installBuiltin(AILJoinProbeBuiltinFactory.getInstance());
+        installBuiltin(AILEndJoinProbeBuiltinFactory.getInstance());
+        installBuiltin(AILNextJoinMatchBuiltinFactory.getInstance());
+        installBuiltin(AILGetJoinBuildFieldBuiltinFactory.getInstance());
+        installBuiltin(AILGetJoinProbeFieldBuiltinFactory.getInstance());
+        installBuiltin(AILNewSortTopKBuiltinFactory.getInstance());
+        installBuiltin(AILIsTopKCandidateBuiltinFactory.getInstance());
+        installBuiltin(AILSetTopKFieldBuiltinFactory.getInstance());
+        installBuiltin(AILAddTopKBuiltinFactory.getInstance());
+        installBuiltin(AILSortTopKBuiltinFactory.getInstance());
+        installBuiltin(AILNextTopKBuiltinFactory.getInstance());
+        installBuiltin(AILGetTopKFieldBuiltinFactory.getInstance());
+        installBuiltin(AILNewSelectionBuiltinFactory.getInstance());
+        installBuiltin(AILNewVectorBuiltinFactory.getInstance());
+        installBuiltin(AILColumnVectorBuiltinFactory.getInstance());
+        installBuiltin(AILNextBatchBuiltinFactory.getInstance());
+        installBuiltin(AILFilterVectorBuiltinFactory.getInstance());
+        installBuiltin(AILComputeVectorBuiltinFactory.getInstance());
+        installBuiltin(AILBatchCountBuiltinFactory.getInstance());
+        installBuiltin(AILBatchCountValuesBuiltinFactory.getInstance());
+        installBuiltin(AILBatchSumBuiltinFactory.getInstance());
+        installBuiltin(AILBatchMinBuiltinFactory.getInstance());
+        installBuiltin(AILBatchMaxBuiltinFactory.getInstance());
         installBuiltin(AILStringLengthFactory.getInstance());
         installBuiltin(AILStringLowercaseFactory.getInstance());
         installBuiltin(AILFloorBuiltinFactory.getInstance());
@@ -21,7 +21,6 @@ package org.apache.asterix.codegen.truffle.runtime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,7 +39,6 @@ public final class AILFunctionRegistry {
 
     private final AILLanguage language;
     private final FunctionsObject functionsObject = new FunctionsObject();
-    private final Map<Map<String, RootCallTarget>, Void> registeredFunctions = new IdentityHashMap<>();
 
     public AILFunctionRegistry(AILLanguage language) {
         this.language = language;
@@ -70,26 +68,22 @@ public final class AILFunctionRegistry {
         if (result == null) {
             result = new AILFunction(callTarget);
             functionsObject.functions.put(name, result);
-        } else {
+        } else if (result.getCallTarget() != callTarget) {
             result.setCallTarget(callTarget);
         }
         return result;
     }
 
     /**
-     * Registers a map of functions. The once registered map must not change in order to allow to
-     * cache the registration for the entire map. If the map is changed after registration the
-     * functions might not get registered.
+     * Registers a map of functions. A context can evaluate different programs that define functions with the same
+     * names (e.g., a pooled context). Hence, the functions of a map are registered again every time the map is
+     * registered. Functions that are already associated with the same implementation are left unchanged.
      */
     @TruffleBoundary
     public void register(Map<String, RootCallTarget> newFunctions) {
-        if (registeredFunctions.containsKey(newFunctions)) {
-            return;
-        }
         for (Map.Entry<String, RootCallTarget> entry : newFunctions.entrySet()) {
             register(entry.getKey(), entry.getValue());
         }
-        registeredFunctions.put(newFunctions, null);
     }
 
     public void register(Source newFunctions) {
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime;
+
+import java.util.Arrays;
+
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryAccessor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * Converts the fields of a row (stored as a {@link org.apache.asterix.codegen.asterix.map.entry.CompositeEntry}) into
+ * AIL values. The string values are reused for every row.
+ */
+public class AILRowValues {
+    private static final byte BIGINT_TAG = ATypeTag.BIGINT.serialize();
+    private static final byte DOUBLE_TAG = ATypeTag.DOUBLE.serialize();
+    private static final byte STRING_TAG = ATypeTag.STRING.serialize();
+    private static final byte NULL_TAG = ATypeTag.NULL.serialize();
+    private ArrayBackedValueStorage[] storages;
+    private AILStringRuntime[] strings;
+
+    public AILRowValues() {
+        storages = new ArrayBackedValueStorage[0];
+        strings = new AILStringRuntime[0];
+    }
+
+    public Object getValue(CompositeEntryAccessor accessor, int index) {
+        byte typeTag = accessor.getTypeTag(index);
+        if (typeTag == BIGINT_TAG) {
+            return accessor.getLong(index);
+        } else if (typeTag == DOUBLE_TAG) {
+            return accessor.getDouble(index);
+        } else if (typeTag == STRING_TAG) {
+            ensureCapacity(index);
+            accessor.getString(index, storages[index]);
+            strings[index].reset(storages[index]);
+            return strings[index];
+        } else if (typeTag == NULL_TAG) {
+            return AILNullRuntime.INSTANCE;
+        }
+        return AILMissingRuntime.INSTANCE;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index < storages.length) {
+            return;
+        }
+        int length = storages.length;
+        storages = Arrays.copyOf(storages, index + 1);
+        strings = Arrays.copyOf(strings, index + 1);
+        for (int i = length; i <= index; i++) {
+            storages[i] = new ArrayBackedValueStorage();
+            strings[i] = new AILStringRuntime();
+        }
+    }
+}
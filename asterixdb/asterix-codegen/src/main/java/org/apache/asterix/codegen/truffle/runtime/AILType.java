@@ -65,6 +65,7 @@ public final class AILType implements TruffleObject {
     public static final AILType NULL = new AILType("NULL", InteropLibrary::isNull);
     public static final AILType STRING = new AILType("String", InteropLibrary::isString);
     public static final AILType STRING_RUNTIME = new AILType("StringRuntime", (l, v) -> v instanceof AILStringRuntime);
+    public static final AILType UUID_RUNTIME = new AILType("UUIDRuntime", (l, v) -> v instanceof AILUUIDRuntime);
     public static final AILType BOOLEAN = new AILType("Boolean", InteropLibrary::isBoolean);
     public static final AILType FUNCTION = new AILType("Function", InteropLibrary::isExecutable);
     public static final AILType COLUMN_READER = new AILType("ColumnReader", (l, v) -> v instanceof AILColumnReader);
@@ -79,7 +80,7 @@ public final class AILType implements TruffleObject {
      */
     @CompilationFinal(dimensions = 1)
     public static final AILType[] PRECEDENCE = new AILType[] { NULL, BOOLEAN, INT, DOUBLE, STRING, STRING_RUNTIME,
-            FUNCTION, COLUMN_READER, CURSOR, OBJECT };
+            UUID_RUNTIME, FUNCTION, COLUMN_READER, CURSOR, OBJECT };
 
     private final String name;
     private final TypeCheck isInstance;
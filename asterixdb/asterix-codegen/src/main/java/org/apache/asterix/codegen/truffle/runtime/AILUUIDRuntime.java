@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime;
+
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.asterix.dataflow.data.nontagged.comparators.AUUIDPartialBinaryComparatorFactory;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * An AsterixDB serialized (untagged) UUID. Similar to {@link AILStringRuntime}, it only refers to the value's bytes.
+ */
+@ExportLibrary(InteropLibrary.class)
+public class AILUUIDRuntime implements TruffleObject {
+    private final VoidPointable uuidValue;
+
+    public AILUUIDRuntime() {
+        uuidValue = new VoidPointable();
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    boolean hasMetaObject() {
+        return true;
+    }
+
+    @ExportMessage
+    Object getMetaObject() {
+        return AILType.UUID_RUNTIME;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Asterix UUID";
+    }
+
+    public IValueReference getUUIDValue() {
+        return uuidValue;
+    }
+
+    public void reset(IValueReference value) {
+        uuidValue.set(value);
+    }
+
+    @TruffleBoundary
+    public boolean isEqual(AILUUIDRuntime right) {
+        return compare(right) == 0;
+    }
+
+    @TruffleBoundary
+    public int compare(AILUUIDRuntime right) {
+        return AUUIDPartialBinaryComparatorFactory.compare(uuidValue, right.uuidValue);
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.codegen.truffle.runtime.aggregation;
 
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILMissingRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILNullRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
@@ -83,6 +84,51 @@ public class AILAggregatorNodes {
             return aggregator;
         }
 
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, AILCompositeKeyRuntime key, long value,
+                @Cached AddNode addNode) {
+            if (!key.isMissing()) {
+                addNode.execute(aggregator.getStorage(), key, value);
+            }
+            return aggregator;
+        }
+
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, AILMissingRuntime key, double value,
+                @Cached AddNode addNode) {
+            return aggregator;
+        }
+
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, long key, double value,
+                @Cached AddNode addNode) {
+            addNode.execute(aggregator.getStorage(), key, value);
+            return aggregator;
+        }
+
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, double key, double value,
+                @Cached AddNode addNode) {
+            addNode.execute(aggregator.getStorage(), key, value);
+            return aggregator;
+        }
+
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, AILStringRuntime key, double value,
+                @Cached AddNode addNode) {
+            addNode.execute(aggregator.getStorage(), key, value);
+            return aggregator;
+        }
+
+        @Specialization
+        protected static AbstractAggregator add(AbstractAggregator aggregator, AILCompositeKeyRuntime key,
+                double value, @Cached AddNode addNode) {
+            if (!key.isMissing()) {
+                addNode.execute(aggregator.getStorage(), key, value);
+            }
+            return aggregator;
+        }
+
         protected static boolean isEmpty(AbstractAggregator aggregator) {
             return aggregator.getStorage().getType() == HashTableType.EMPTY;
         }
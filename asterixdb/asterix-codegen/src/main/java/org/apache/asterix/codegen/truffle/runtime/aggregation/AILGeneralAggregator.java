@@ -25,6 +25,7 @@ import org.apache.asterix.codegen.asterix.map.UnsafeHashAggregator;
 import org.apache.asterix.codegen.asterix.map.entry.IUnsafeMapResultAppender;
 import org.apache.asterix.codegen.truffle.AILLanguage;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.unsafe.entry.IEntryComparator;
 
 import com.oracle.truffle.api.TruffleLanguage;
@@ -37,7 +38,8 @@ import com.oracle.truffle.api.library.ExportMessage;
 public class AILGeneralAggregator extends AbstractAggregator implements TruffleObject {
 
     public AILGeneralAggregator(String aggType, long budget, AILResultWriter resultWriter) {
-        super(new GeneralAggregatorFactory(budget), aggType, resultWriter);
+        super(new GeneralAggregatorFactory(resultWriter.getBudgetShare(budget), resultWriter.getContext()), aggType,
+                resultWriter);
     }
 
     @ExportMessage
@@ -57,15 +59,17 @@ public class AILGeneralAggregator extends AbstractAggregator implements TruffleO
 
     private static class GeneralAggregatorFactory implements IUnsafeHashAggregatorFactory {
         private final long budget;
+        private final IHyracksTaskContext ctx;
 
-        GeneralAggregatorFactory(long budget) {
+        GeneralAggregatorFactory(long budget, IHyracksTaskContext ctx) {
             this.budget = budget;
+            this.ctx = ctx;
         }
 
         @Override
         public AbstractUnsafeHashAggregator createInstance(IUnsafeAggregator aggregator,
                 IUnsafeMapResultAppender appender, IEntryComparator keyComparator, IEntryComparator valueComparator) {
-            return new UnsafeHashAggregator(aggregator, appender, keyComparator, budget);
+            return new UnsafeHashAggregator(aggregator, appender, keyComparator, budget, ctx);
         }
     }
 }
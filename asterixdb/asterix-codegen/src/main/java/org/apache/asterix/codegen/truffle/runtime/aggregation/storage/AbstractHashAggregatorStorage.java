@@ -19,21 +19,36 @@
 package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
 import org.apache.asterix.codegen.asterix.map.AbstractUnsafeHashAggregator;
-import org.apache.asterix.codegen.asterix.map.IUnsafeAggregator;
 import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
+import org.apache.asterix.codegen.asterix.map.entry.AvgEntry;
+import org.apache.asterix.codegen.asterix.map.entry.DoubleEntry;
 import org.apache.asterix.codegen.asterix.map.entry.IUnsafeMapResultAppender;
+import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.hyracks.unsafe.entry.IEntryComparator;
+import org.apache.spark.unsafe.Platform;
 
+/**
+ * A hash aggregator storage maps keys of a single type to values of a single {@link AggregateValueType}. Subclasses
+ * handle the keys, this class handles the values.
+ */
 public abstract class AbstractHashAggregatorStorage implements IHashAggregatorStorage, IUnsafeMapResultAppender {
     private final AbstractUnsafeHashAggregator computer;
     private final AILResultWriter resultWriter;
+    private final AggregateValueType valueType;
+    private final LongEntry longValue;
+    private final DoubleEntry doubleValue;
 
     AbstractHashAggregatorStorage(IUnsafeHashAggregatorFactory aggregatorFactory, AILResultWriter resultWriter,
-            IUnsafeAggregator aggregator, IEntryComparator keyComparator, IEntryComparator valueComparator) {
-        this.computer = aggregatorFactory.createInstance(aggregator, this, keyComparator, valueComparator);
+            String aggType, AggregateValueType valueType, IEntryComparator keyComparator) {
+        this.computer = aggregatorFactory.createInstance(valueType.getAggregator(aggType), this, keyComparator,
+                valueType.getValueComparator());
         this.resultWriter = resultWriter;
+        this.valueType = valueType;
+        longValue = new LongEntry();
+        doubleValue = new DoubleEntry();
     }
 
     @Override
@@ -41,8 +56,59 @@ public abstract class AbstractHashAggregatorStorage implements IHashAggregatorSt
         computer.append(resultWriter);
     }
 
-    final void aggregate(IEntry key, IEntry value) {
+    public final boolean acceptsDouble() {
+        return valueType.acceptsDouble();
+    }
+
+    @Override
+    public final void appendValue(AILResultWriter resultWriter, Location location) {
+        Object baseObject = location.getValueBase();
+        long offset = location.getValueOffset();
+        if (valueType.isLongValued()) {
+            resultWriter.append(Platform.getLong(baseObject, offset));
+        } else if (valueType == AggregateValueType.DOUBLE) {
+            resultWriter.append(Platform.getDouble(baseObject, offset));
+        } else {
+            resultWriter.appendAvg(AvgEntry.getSum(baseObject, offset), AvgEntry.getCount(baseObject, offset));
+        }
+    }
+
+    @Override
+    public final void appendValue(AILResultWriter resultWriter, IEntry entry) {
+        if (valueType.isLongValued()) {
+            resultWriter.append(((LongEntry) entry).getValue());
+        } else if (valueType == AggregateValueType.DOUBLE) {
+            resultWriter.append(((DoubleEntry) entry).getValue());
+        } else {
+            AvgEntry avg = (AvgEntry) entry;
+            resultWriter.appendAvg(avg.getSum(), avg.getCount());
+        }
+    }
+
+    final void aggregate(IEntry key, long value) {
+        if (valueType.isLongValued()) {
+            longValue.reset(value);
+            aggregate(key, longValue);
+        } else {
+            doubleValue.reset(value);
+            aggregate(key, doubleValue);
+        }
+    }
+
+    final void aggregate(IEntry key, double value) {
+        if (valueType.isLongValued()) {
+            //Only COUNT accepts doubles into long aggregates and it ignores the values
+            longValue.reset(0);
+            aggregate(key, longValue);
+        } else {
+            doubleValue.reset(value);
+            aggregate(key, doubleValue);
+        }
+    }
+
+    private void aggregate(IEntry key, IEntry value) {
         if (!computer.aggregate(key, value)) {
+            //The aggregator cannot spill -- flush the partial groups downstream and start over
             computer.append(resultWriter);
             computer.aggregate(key, value);
         }
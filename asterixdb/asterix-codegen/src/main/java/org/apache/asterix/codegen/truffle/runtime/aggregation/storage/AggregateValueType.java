@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
+
+import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.DOUBLE_COMPARATOR;
+import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.LONG_COMPARATOR;
+
+import org.apache.asterix.codegen.asterix.map.IUnsafeAggregator;
+import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
+import org.apache.hyracks.unsafe.entry.IEntryComparator;
+
+/**
+ * The type of the aggregated values of a hash aggregator storage
+ */
+public enum AggregateValueType {
+    /**
+     * Long counts of any numeric values
+     */
+    COUNT(LONG_COMPARATOR),
+    /**
+     * Long aggregates of long values
+     */
+    LONG(LONG_COMPARATOR),
+    /**
+     * Double aggregates of double (or long) values
+     */
+    DOUBLE(DOUBLE_COMPARATOR),
+    /**
+     * (double sum, long count) pairs of double (or long) values. Averages are never ordered (i.e., no top-K)
+     */
+    AVG(null);
+
+    private final IEntryComparator valueComparator;
+
+    AggregateValueType(IEntryComparator valueComparator) {
+        this.valueComparator = valueComparator;
+    }
+
+    IUnsafeAggregator getAggregator(String aggType) {
+        switch (this) {
+            case LONG:
+            case COUNT:
+                return UnsafeAggregators.getLongAggregator(aggType);
+            case DOUBLE:
+                return UnsafeAggregators.getDoubleAggregator(aggType);
+            default:
+                return UnsafeAggregators.getAvgAggregator();
+        }
+    }
+
+    IEntryComparator getValueComparator() {
+        return valueComparator;
+    }
+
+    /**
+     * @return true if the aggregates are longs, false if the values are accumulated as doubles
+     */
+    boolean isLongValued() {
+        return this == COUNT || this == LONG;
+    }
+
+    public boolean acceptsDouble() {
+        return this != LONG;
+    }
+
+    /**
+     * @param aggType aggregate type
+     * @param value   the first value to aggregate
+     * @return the value type or {@code null} if the value is not supported
+     */
+    public static AggregateValueType of(String aggType, Object value) {
+        if (!(value instanceof Long) && !(value instanceof Double)) {
+            return null;
+        } else if (UnsafeAggregators.COUNT_NAME.equals(aggType)) {
+            return COUNT;
+        } else if (UnsafeAggregators.AVG_NAME.equals(aggType)) {
+            return AVG;
+        }
+        return value instanceof Long ? LONG : DOUBLE;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
+
+import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.COMPOSITE_COMPARATOR;
+
+import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryUtil;
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
+import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.apache.spark.unsafe.Platform;
+
+/**
+ * Groups by multiple keys. Each key is appended to the result as a separate field.
+ */
+public class CompositeKeyHashAggregatorStorage extends AbstractHashAggregatorStorage {
+    private static final byte BIGINT_TAG = ATypeTag.BIGINT.serialize();
+    private static final byte DOUBLE_TAG = ATypeTag.DOUBLE.serialize();
+    private static final byte STRING_TAG = ATypeTag.STRING.serialize();
+
+    CompositeKeyHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
+            AggregateValueType valueType, AILResultWriter resultWriter) {
+        super(aggFactory, resultWriter, aggType, valueType, COMPOSITE_COMPARATOR);
+    }
+
+    public void add(AILCompositeKeyRuntime key, long value) {
+        aggregate(key.getEntry(), value);
+    }
+
+    public void add(AILCompositeKeyRuntime key, double value) {
+        aggregate(key.getEntry(), value);
+    }
+
+    @Override
+    public void appendKey(AILResultWriter resultWriter, Location location) {
+        appendKeys(resultWriter, location.getKeyBase(), location.getKeyOffset(), location.getKeyLength());
+    }
+
+    @Override
+    public void appendKey(AILResultWriter resultWriter, IEntry entry) {
+        CompositeEntry compositeEntry = (CompositeEntry) entry;
+        appendKeys(resultWriter, compositeEntry.getByteArray(), Platform.BYTE_ARRAY_OFFSET,
+                compositeEntry.getLength());
+    }
+
+    @Override
+    public HashTableType getType() {
+        return HashTableType.COMPOSITE_KEY;
+    }
+
+    private static void appendKeys(AILResultWriter resultWriter, Object baseObject, long offset, int length) {
+        long endOffset = offset + length;
+        long fieldOffset = offset;
+        byte typeTag = CompositeEntryUtil.getTypeTag(baseObject, fieldOffset, endOffset);
+        while (typeTag != CompositeEntryUtil.END_OF_FIELDS) {
+            long valueOffset = fieldOffset + 1;
+            int valueLength = CompositeEntryUtil.getValueLength(typeTag, baseObject, valueOffset, endOffset);
+            if (typeTag == BIGINT_TAG) {
+                resultWriter.append(Platform.getLong(baseObject, valueOffset));
+            } else if (typeTag == DOUBLE_TAG) {
+                resultWriter.append(Platform.getDouble(baseObject, valueOffset));
+            } else if (typeTag == STRING_TAG) {
+                resultWriter.append(ATypeTag.STRING, baseObject, valueOffset, valueLength);
+            } else {
+                resultWriter.appendNull();
+            }
+            fieldOffset = valueOffset + valueLength;
+            typeTag = CompositeEntryUtil.getTypeTag(baseObject, fieldOffset, endOffset);
+        }
+    }
+}
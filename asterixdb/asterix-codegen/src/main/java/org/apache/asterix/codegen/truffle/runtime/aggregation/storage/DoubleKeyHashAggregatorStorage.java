@@ -19,33 +19,31 @@
 package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
 import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.DOUBLE_COMPARATOR;
-import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.LONG_COMPARATOR;
 
 import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
-import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
 import org.apache.asterix.codegen.asterix.map.entry.DoubleEntry;
-import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
 import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.spark.unsafe.Platform;
 
-public class DoubleToLongHashAggregatorStorage extends AbstractHashAggregatorStorage {
+public class DoubleKeyHashAggregatorStorage extends AbstractHashAggregatorStorage {
     private final DoubleEntry mapKey;
-    private final LongEntry mapValue;
 
-    DoubleToLongHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
-            AILResultWriter resultWriter) {
-        super(aggFactory, resultWriter, UnsafeAggregators.getLongAggregator(aggType), DOUBLE_COMPARATOR,
-                LONG_COMPARATOR);
+    DoubleKeyHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
+            AggregateValueType valueType, AILResultWriter resultWriter) {
+        super(aggFactory, resultWriter, aggType, valueType, DOUBLE_COMPARATOR);
         mapKey = new DoubleEntry();
-        mapValue = new LongEntry();
     }
 
     public void add(double key, long value) {
         mapKey.reset(key);
-        mapValue.reset(value);
-        aggregate(mapKey, mapValue);
+        aggregate(mapKey, value);
+    }
+
+    public void add(double key, double value) {
+        mapKey.reset(key);
+        aggregate(mapKey, value);
     }
 
     @Override
@@ -58,18 +56,8 @@ public class DoubleToLongHashAggregatorStorage extends AbstractHashAggregatorSto
         resultWriter.append(((DoubleEntry) entry).getValue());
     }
 
-    @Override
-    public void appendValue(AILResultWriter resultWriter, Location location) {
-        resultWriter.append(Platform.getLong(location.getValueBase(), location.getValueOffset()));
-    }
-
-    @Override
-    public void appendValue(AILResultWriter resultWriter, IEntry entry) {
-        resultWriter.append(((LongEntry) entry).getValue());
-    }
-
     @Override
     public HashTableType getType() {
-        return HashTableType.LONG_LONG;
+        return HashTableType.DOUBLE_KEY;
     }
 }
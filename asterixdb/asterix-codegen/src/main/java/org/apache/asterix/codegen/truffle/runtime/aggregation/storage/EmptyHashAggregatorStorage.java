@@ -19,6 +19,7 @@
 package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
 import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
 
@@ -40,12 +41,17 @@ public class EmptyHashAggregatorStorage implements IHashAggregatorStorage {
     }
 
     public AbstractHashAggregatorStorage specialize(Object key, Object value) {
-        if (key instanceof AILStringRuntime && value instanceof Long) {
-            return new StringToLongHashAggregatorStorage(aggFactory, aggType, resultWriter);
-        } else if (key instanceof Long && value instanceof Long) {
-            return new LongToLongHashAggregatorStorage(aggFactory, aggType, resultWriter);
-        } else if (key instanceof Double && value instanceof Long) {
-            return new DoubleToLongHashAggregatorStorage(aggFactory, aggType, resultWriter);
+        AggregateValueType valueType = AggregateValueType.of(aggType, value);
+        if (valueType == null) {
+            return null;
+        } else if (key instanceof AILStringRuntime) {
+            return new StringKeyHashAggregatorStorage(aggFactory, aggType, valueType, resultWriter);
+        } else if (key instanceof Long) {
+            return new LongKeyHashAggregatorStorage(aggFactory, aggType, valueType, resultWriter);
+        } else if (key instanceof Double) {
+            return new DoubleKeyHashAggregatorStorage(aggFactory, aggType, valueType, resultWriter);
+        } else if (key instanceof AILCompositeKeyRuntime) {
+            return new CompositeKeyHashAggregatorStorage(aggFactory, aggType, valueType, resultWriter);
         }
         return null;
     }
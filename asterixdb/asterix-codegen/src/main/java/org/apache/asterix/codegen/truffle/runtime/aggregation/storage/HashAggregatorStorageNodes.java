@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
 
 import com.oracle.truffle.api.dsl.GenerateUncached;
@@ -32,21 +33,57 @@ public class HashAggregatorStorageNodes {
 
         public abstract IHashAggregatorStorage execute(IHashAggregatorStorage storage, Object key, long value);
 
+        public abstract IHashAggregatorStorage execute(IHashAggregatorStorage storage, Object key, double value);
+
         @Specialization
-        protected static IHashAggregatorStorage add(StringToLongHashAggregatorStorage storage, AILStringRuntime key,
+        protected static IHashAggregatorStorage add(StringKeyHashAggregatorStorage storage, AILStringRuntime key,
                 long value) {
             storage.add(key, value);
             return storage;
         }
 
         @Specialization
-        protected static IHashAggregatorStorage add(DoubleToLongHashAggregatorStorage storage, double key, long value) {
+        protected static IHashAggregatorStorage add(DoubleKeyHashAggregatorStorage storage, double key, long value) {
+            storage.add(key, value);
+            return storage;
+        }
+
+        @Specialization
+        protected static IHashAggregatorStorage add(LongKeyHashAggregatorStorage storage, long key, long value) {
             storage.add(key, value);
             return storage;
         }
 
         @Specialization
-        protected static IHashAggregatorStorage add(LongToLongHashAggregatorStorage storage, long key, long value) {
+        protected static IHashAggregatorStorage add(CompositeKeyHashAggregatorStorage storage,
+                AILCompositeKeyRuntime key, long value) {
+            storage.add(key, value);
+            return storage;
+        }
+
+        @Specialization(guards = "storage.acceptsDouble()")
+        protected static IHashAggregatorStorage add(StringKeyHashAggregatorStorage storage, AILStringRuntime key,
+                double value) {
+            storage.add(key, value);
+            return storage;
+        }
+
+        @Specialization(guards = "storage.acceptsDouble()")
+        protected static IHashAggregatorStorage add(DoubleKeyHashAggregatorStorage storage, double key,
+                double value) {
+            storage.add(key, value);
+            return storage;
+        }
+
+        @Specialization(guards = "storage.acceptsDouble()")
+        protected static IHashAggregatorStorage add(LongKeyHashAggregatorStorage storage, long key, double value) {
+            storage.add(key, value);
+            return storage;
+        }
+
+        @Specialization(guards = "storage.acceptsDouble()")
+        protected static IHashAggregatorStorage add(CompositeKeyHashAggregatorStorage storage,
+                AILCompositeKeyRuntime key, double value) {
             storage.add(key, value);
             return storage;
         }
@@ -20,7 +20,8 @@ package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
 public enum HashTableType {
     EMPTY,
-    LONG_LONG,
-    DOUBLE_LONG,
-    STRING_LONG;
+    LONG_KEY,
+    DOUBLE_KEY,
+    STRING_KEY,
+    COMPOSITE_KEY;
 }
@@ -21,28 +21,29 @@ package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.LONG_COMPARATOR;
 
 import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
-import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
 import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
 import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
 import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.spark.unsafe.Platform;
 
-public class LongToLongHashAggregatorStorage extends AbstractHashAggregatorStorage {
+public class LongKeyHashAggregatorStorage extends AbstractHashAggregatorStorage {
     private final LongEntry mapKey;
-    private final LongEntry mapValue;
 
-    LongToLongHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
-            AILResultWriter resultWriter) {
-        super(aggFactory, resultWriter, UnsafeAggregators.getLongAggregator(aggType), LONG_COMPARATOR, LONG_COMPARATOR);
+    LongKeyHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
+            AggregateValueType valueType, AILResultWriter resultWriter) {
+        super(aggFactory, resultWriter, aggType, valueType, LONG_COMPARATOR);
         mapKey = new LongEntry();
-        mapValue = new LongEntry();
     }
 
     public void add(long key, long value) {
         mapKey.reset(key);
-        mapValue.reset(value);
-        aggregate(mapKey, mapValue);
+        aggregate(mapKey, value);
+    }
+
+    public void add(long key, double value) {
+        mapKey.reset(key);
+        aggregate(mapKey, value);
     }
 
     @Override
@@ -55,18 +56,8 @@ public class LongToLongHashAggregatorStorage extends AbstractHashAggregatorStora
         resultWriter.append(((LongEntry) entry).getValue());
     }
 
-    @Override
-    public void appendValue(AILResultWriter resultWriter, Location location) {
-        resultWriter.append(Platform.getLong(location.getValueBase(), location.getValueOffset()));
-    }
-
-    @Override
-    public void appendValue(AILResultWriter resultWriter, IEntry entry) {
-        resultWriter.append(((LongEntry) entry).getValue());
-    }
-
     @Override
     public HashTableType getType() {
-        return HashTableType.LONG_LONG;
+        return HashTableType.LONG_KEY;
     }
 }
@@ -18,12 +18,9 @@
  */
 package org.apache.asterix.codegen.truffle.runtime.aggregation.storage;
 
-import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.LONG_COMPARATOR;
 import static org.apache.asterix.codegen.asterix.map.UnsafeComparators.STRING_COMPARATOR;
 
 import org.apache.asterix.codegen.asterix.map.IUnsafeHashAggregatorFactory;
-import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
-import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
 import org.apache.asterix.codegen.asterix.map.entry.StringEntry;
 import org.apache.asterix.codegen.asterix.map.entry.StringEntryUtil;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
@@ -33,24 +30,24 @@ import org.apache.hyracks.data.std.api.IValueReference;
 import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder;
-import org.apache.spark.unsafe.Platform;
 
-public class StringToLongHashAggregatorStorage extends AbstractHashAggregatorStorage {
+public class StringKeyHashAggregatorStorage extends AbstractHashAggregatorStorage {
     private final StringEntry mapKey;
-    private final LongEntry mapValue;
 
-    StringToLongHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
-            AILResultWriter resultWriter) {
-        super(aggFactory, resultWriter, UnsafeAggregators.getLongAggregator(aggType), STRING_COMPARATOR,
-                LONG_COMPARATOR);
+    StringKeyHashAggregatorStorage(IUnsafeHashAggregatorFactory aggFactory, String aggType,
+            AggregateValueType valueType, AILResultWriter resultWriter) {
+        super(aggFactory, resultWriter, aggType, valueType, STRING_COMPARATOR);
         mapKey = new StringEntry();
-        mapValue = new LongEntry();
     }
 
     public void add(AILStringRuntime key, long value) {
         mapKey.reset(key.getStringValue());
-        mapValue.reset(value);
-        aggregate(mapKey, mapValue);
+        aggregate(mapKey, value);
+    }
+
+    public void add(AILStringRuntime key, double value) {
+        mapKey.reset(key.getStringValue());
+        aggregate(mapKey, value);
     }
 
     @Override
@@ -71,18 +68,8 @@ public class StringToLongHashAggregatorStorage extends AbstractHashAggregatorSto
         resultWriter.append(ATypeTag.STRING, reference.getByteArray(), reference.getStartOffset(), actualLength);
     }
 
-    @Override
-    public void appendValue(AILResultWriter resultWriter, IEntry entry) {
-        resultWriter.append(((LongEntry) entry).getValue());
-    }
-
-    @Override
-    public void appendValue(AILResultWriter resultWriter, Location location) {
-        resultWriter.append(Platform.getLong(location.getValueBase(), location.getValueOffset()));
-    }
-
     @Override
     public HashTableType getType() {
-        return HashTableType.STRING_LONG;
+        return HashTableType.STRING_KEY;
     }
 }
@@ -41,6 +41,25 @@ public class DoubleArrayStorage extends AbstractArrayStorage {
         length = doubleReader.getNumberOfValues();
     }
 
+    /**
+     * Share (not copy) the given values, which are owned by the caller (e.g., a decoded column batch)
+     *
+     * @param values the values to share
+     * @param length the number of values
+     */
+    public void setValues(double[] values, int length) {
+        this.values = values;
+        this.length = length;
+        capacity = values.length;
+    }
+
+    /**
+     * @return the underlying values array, which has at least {@link #getLength()} values
+     */
+    public double[] getValues() {
+        return values;
+    }
+
     public double get(int index) {
         if (index >= length) {
             throw new ArrayIndexOutOfBoundsException("index: " + index + " length: " + length);
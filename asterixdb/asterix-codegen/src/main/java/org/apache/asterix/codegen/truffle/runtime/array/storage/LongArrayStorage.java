@@ -41,6 +41,25 @@ public class LongArrayStorage extends AbstractArrayStorage {
         length = reader.getNumberOfValues();
     }
 
+    /**
+     * Share (not copy) the given values, which are owned by the caller (e.g., a decoded column batch)
+     *
+     * @param values the values to share
+     * @param length the number of values
+     */
+    public void setValues(long[] values, int length) {
+        this.values = values;
+        this.length = length;
+        capacity = values.length;
+    }
+
+    /**
+     * @return the underlying values array, which has at least {@link #getLength()} values
+     */
+    public long[] getValues() {
+        return values;
+    }
+
     public long get(int index) {
         return values[index];
     }
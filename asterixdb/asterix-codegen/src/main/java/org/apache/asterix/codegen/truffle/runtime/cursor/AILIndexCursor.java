@@ -77,7 +77,9 @@ public final class AILIndexCursor implements TruffleObject {
             final boolean hasNext = cursor.hasNext();
             if (hasNext) {
                 cursor.next();
-                numberOfTuples = setReaders(cursor);
+                //The remaining tuples of the leaf (up to the range's high key) are read through the readers
+                numberOfTuples = cursor.consumeLeaf();
+                setReaders(cursor);
             }
             return hasNext;
         } catch (HyracksDataException e) {
@@ -85,17 +87,49 @@ public final class AILIndexCursor implements TruffleObject {
         }
     }
 
+    /**
+     * Advance to the next leaf and decode the values of its remaining tuples (up to the range's high key) at once
+     * into the readers' vectors. This is only used by the batch-at-a-time variant of a program, which is executed
+     * when every reader's path is stored in a single non-repeated column
+     *
+     * @return the number of decoded tuples or 0 if there are no more tuples
+     */
+    @TruffleBoundary
+    public int nextBatch() {
+        try {
+            if (!cursor.hasNext()) {
+                return 0;
+            }
+            cursor.next();
+            QueryCodeGenerationColumnTupleReference tuple =
+                    (QueryCodeGenerationColumnTupleReference) cursor.doGetTuple();
+            //The tuple that the cursor is positioned at is the first tuple of the batch
+            int count = 1 + cursor.consumeLeaf();
+            IColumnValuesReader[] columnReaders = tuple.getReaders();
+            int[] numberOfColumns = tuple.getNumberOfPathColumns();
+            int columnIndex = 0;
+            for (int i = 0; i < readers.length; i++) {
+                readers[i].setBatch(columnReaders[columnIndex], count);
+                columnIndex += numberOfColumns[i];
+            }
+            return count;
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
     @ExplodeLoop
-    private int setReaders(LSMColumnBTreeRangeSearchCursor cursor) throws HyracksDataException {
+    private void setReaders(LSMColumnBTreeRangeSearchCursor cursor) throws HyracksDataException {
         QueryCodeGenerationColumnTupleReference tuple = (QueryCodeGenerationColumnTupleReference) cursor.doGetTuple();
-        tuple.consume();
         if (readers.length > 0) {
             IColumnValuesReader[] columnReaders = tuple.getReaders();
+            int[] numberOfColumns = tuple.getNumberOfPathColumns();
+            int columnIndex = 0;
             for (int i = 0; i < readers.length; i++) {
-                readers[i].setReader(columnReaders[i]);
+                readers[i].setReaders(columnReaders, columnIndex, numberOfColumns[i]);
+                columnIndex += numberOfColumns[i];
             }
         }
-        return tuple.getTupleCount() - 1;
     }
 
     /*
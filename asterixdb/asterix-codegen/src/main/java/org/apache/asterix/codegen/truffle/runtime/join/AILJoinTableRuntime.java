@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.join;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.asterix.codegen.asterix.map.UnsafeHashJoinTable;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.asterix.codegen.truffle.AILRuntimeException;
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILRowValues;
+import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * A hash join table that is built by the generated program of one scan and probed by the generated program of
+ * another scan of the same partition. The table is registered by its join's ID, the job, and the partition, and it is
+ * freed when the job ends. The fields of a row are set (in order, starting from index 0) before the row is built or
+ * probed.
+ */
+@ExportLibrary(InteropLibrary.class)
+public class AILJoinTableRuntime implements TruffleObject {
+    private static final Map<String, AILJoinTableRuntime> TABLES = new ConcurrentHashMap<>();
+    private final UnsafeHashJoinTable table;
+    private final CompositeEntry row;
+    private final AILRowValues buildValues;
+    private final AILRowValues probeValues;
+
+    private AILJoinTableRuntime(UnsafeHashJoinTable table) {
+        this.table = table;
+        row = new CompositeEntry();
+        buildValues = new AILRowValues();
+        probeValues = new AILRowValues();
+    }
+
+    public static AILJoinTableRuntime create(String joinId, long budget, AILResultWriter resultWriter) {
+        IHyracksTaskContext ctx = resultWriter.getContext();
+        IHyracksJobletContext jobletCtx = ctx.getJobletContext();
+        String key = getKey(joinId, ctx);
+        UnsafeHashJoinTable table = new UnsafeHashJoinTable(budget, jobletCtx, ctx.getInitialFrameSize());
+        AILJoinTableRuntime joinTable = new AILJoinTableRuntime(table);
+        TABLES.put(key, joinTable);
+        jobletCtx.registerDeallocatable(() -> {
+            TABLES.remove(key);
+            table.deallocate();
+        });
+        return joinTable;
+    }
+
+    public static AILJoinTableRuntime get(String joinId, AILResultWriter resultWriter) {
+        AILJoinTableRuntime joinTable = TABLES.get(getKey(joinId, resultWriter.getContext()));
+        if (joinTable == null) {
+            //The build side did not run (or ran in another node)
+            throw new AILRuntimeException();
+        }
+        return joinTable;
+    }
+
+    public void set(long index, long value) {
+        start(index);
+        row.addLong(value);
+    }
+
+    public void set(long index, double value) {
+        start(index);
+        row.addDouble(value);
+    }
+
+    public void set(long index, AILStringRuntime value) {
+        start(index);
+        row.addString(value.getStringValue());
+    }
+
+    public void setNull(long index) {
+        start(index);
+        row.addNull();
+    }
+
+    public void setMissing(long index) {
+        start(index);
+        row.addMissing();
+    }
+
+    public void build(AILCompositeKeyRuntime key) {
+        if (key.isMissing() || key.hasNull()) {
+            //Never equal to any probe key
+            return;
+        }
+        row.seal();
+        try {
+            if (!table.build(key.getEntry(), row)) {
+                throw new AILRuntimeException();
+            }
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
+    public void endBuild() {
+        try {
+            table.endBuild();
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
+    /**
+     * Probe the table using the current row. Its matches are then iterated using {@link #nextMatch()}
+     */
+    public void probe(AILCompositeKeyRuntime key) {
+        if (key.isMissing() || key.hasNull()) {
+            return;
+        }
+        row.seal();
+        try {
+            table.probe(key.getEntry(), row);
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
+    public void endProbe() {
+        try {
+            table.endProbe();
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
+    public boolean nextMatch() {
+        try {
+            return table.nextMatch();
+        } catch (HyracksDataException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
+    public Object getBuildField(long index) {
+        return buildValues.getValue(table.getBuildRow(), (int) index);
+    }
+
+    public Object getProbeField(long index) {
+        return probeValues.getValue(table.getProbeRow(), (int) index);
+    }
+
+    private void start(long index) {
+        if (index == 0) {
+            row.reset();
+        }
+    }
+
+    private static String getKey(String joinId, IHyracksTaskContext ctx) {
+        return ctx.getJobletContext().getJobId() + ":" + joinId + ":"
+                + ctx.getTaskAttemptId().getTaskId().getPartition();
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Join Table";
+    }
+}
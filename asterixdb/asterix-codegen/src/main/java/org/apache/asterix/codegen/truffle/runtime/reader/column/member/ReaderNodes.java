@@ -23,7 +23,10 @@ import org.apache.asterix.codegen.asterix.column.reader.BooleanColumnReader;
 import org.apache.asterix.codegen.asterix.column.reader.DoubleColumnReader;
 import org.apache.asterix.codegen.asterix.column.reader.LongColumnReader;
 import org.apache.asterix.codegen.asterix.column.reader.StringColumnReader;
+import org.apache.asterix.codegen.asterix.column.reader.UUIDColumnReader;
+import org.apache.asterix.codegen.asterix.column.reader.UnionColumnReader;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.AbstractArrayStorage;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.BooleanArrayStorage;
 import org.apache.asterix.codegen.truffle.runtime.array.storage.DoubleArrayStorage;
@@ -66,6 +69,17 @@ public class ReaderNodes {
         AILStringRuntime getString(StringColumnReader reader) {
             return reader.getString();
         }
+
+        @Specialization
+        AILUUIDRuntime getUUID(UUIDColumnReader reader) {
+            return reader.getUUID();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        Object getUnion(UnionColumnReader reader) {
+            return reader.getValue();
+        }
     }
 
     @GenerateUncached
@@ -24,11 +24,17 @@ import java.io.IOException;
 import org.apache.asterix.codegen.truffle.AILLanguage;
 import org.apache.asterix.codegen.truffle.AILRuntimeException;
 import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
 import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.data.std.util.GrowableArray;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
@@ -43,19 +49,48 @@ import com.oracle.truffle.api.library.ExportMessage;
 
 @ExportLibrary(InteropLibrary.class)
 public class AILResultWriter implements TruffleObject {
+    /**
+     * The partial result type of a local AVG
+     */
+    private static final ARecordType AVG_TYPE = new ARecordType(null, new String[] { "sum", "count" },
+            new IAType[] { BuiltinType.ADOUBLE, BuiltinType.AINT64 }, false);
     private final IHyracksTaskContext context;
     private final DataOutput dos;
     private final ArrayTupleBuilder tb;
     private final IFrameWriter writer;
     private final FrameTupleAppender appender;
+    private final int numberOfWorkers;
+    private RecordBuilder avgBuilder;
+    private ArrayBackedValueStorage avgField;
 
     public AILResultWriter(IHyracksTaskContext context, DataOutput dos, ArrayTupleBuilder tb, IFrameWriter writer,
             FrameTupleAppender appender) {
+        this(context, dos, tb, writer, appender, 1);
+    }
+
+    /**
+     * @param numberOfWorkers the number of workers that execute the same program concurrently in the task
+     */
+    public AILResultWriter(IHyracksTaskContext context, DataOutput dos, ArrayTupleBuilder tb, IFrameWriter writer,
+            FrameTupleAppender appender, int numberOfWorkers) {
         this.context = context;
         this.dos = dos;
         this.tb = tb;
         this.writer = writer;
         this.appender = appender;
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    public IHyracksTaskContext getContext() {
+        return context;
+    }
+
+    /**
+     * @param budget a task's memory budget of an operator
+     * @return the share of the budget that can be used by this writer's worker
+     */
+    public long getBudgetShare(long budget) {
+        return budget / numberOfWorkers;
     }
 
     public void appendMissing() {
@@ -96,10 +131,41 @@ public class AILResultWriter implements TruffleObject {
         }
     }
 
+    /**
+     * Append a local AVG's partial result as a {sum: double, count: bigint} record
+     */
+    public void appendAvg(double sum, long count) {
+        if (avgBuilder == null) {
+            avgBuilder = new RecordBuilder();
+            avgBuilder.reset(AVG_TYPE);
+            avgField = new ArrayBackedValueStorage();
+        }
+        try {
+            avgBuilder.init();
+            DataOutput fieldOut = avgField.getDataOutput();
+            avgField.reset();
+            fieldOut.writeByte(ATypeTag.DOUBLE.serialize());
+            fieldOut.writeDouble(sum);
+            avgBuilder.addField(0, avgField);
+            avgField.reset();
+            fieldOut.writeByte(ATypeTag.BIGINT.serialize());
+            fieldOut.writeLong(count);
+            avgBuilder.addField(1, avgField);
+            avgBuilder.write(dos, true);
+            tb.addFieldEndOffset();
+        } catch (IOException e) {
+            throw new AILRuntimeException();
+        }
+    }
+
     public void append(AILStringRuntime stringRuntime) {
         append(ATypeTag.STRING, stringRuntime.getStringValue());
     }
 
+    public void append(AILUUIDRuntime uuidRuntime) {
+        append(ATypeTag.UUID, uuidRuntime.getUUIDValue());
+    }
+
     public void append(ATypeTag typeTag, IValueReference value) {
         try {
             dos.writeByte(typeTag.serialize());
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.sort;
+
+import org.apache.asterix.codegen.asterix.map.UnsafeComparators;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryAccessor;
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.asterix.codegen.truffle.AILRuntimeException;
+import org.apache.asterix.codegen.truffle.runtime.AILCompositeKeyRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILRowValues;
+import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.apache.hyracks.unsafe.UnsafeTopKHeap;
+import org.apache.spark.unsafe.memory.MemoryAllocator;
+
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * Keeps the first K rows of a partition according to an ORDER BY's (composite) key. The key of every tuple is
+ * checked first, and the fields of a row are set (in order, starting from index 0) only if the tuple is a candidate.
+ * Once the scan is done, the rows are sorted and iterated.
+ */
+@ExportLibrary(InteropLibrary.class)
+public class AILSortTopKRuntime implements TruffleObject {
+    public static final String DESCENDING = "DESC";
+    private final UnsafeTopKHeap heap;
+    private final CompositeEntry row;
+    private final CompositeEntryAccessor accessor;
+    private final AILRowValues values;
+
+    /**
+     * @param k            the number of rows to keep
+     * @param directions   comma-separated directions (ASC or DESC) of the key's fields
+     * @param budget       memory budget of the rows
+     * @param resultWriter to get the task's context
+     */
+    public AILSortTopKRuntime(long k, String directions, long budget, AILResultWriter resultWriter) {
+        IHyracksTaskContext ctx = resultWriter.getContext();
+        IMemoryManager memoryManager = ctx.getJobletContext().getServiceContext().getMemoryManager();
+        heap = new UnsafeTopKHeap(MemoryAllocator.UNSAFE, memoryManager, budget, (int) k,
+                UnsafeComparators.getSortKeyComparator(parseDirections(directions)));
+        ctx.registerDeallocatable(heap);
+        row = new CompositeEntry();
+        accessor = new CompositeEntryAccessor();
+        values = new AILRowValues();
+    }
+
+    public boolean isCandidate(AILCompositeKeyRuntime key) {
+        return heap.isCandidate(key.getEntry());
+    }
+
+    public void set(long index, long value) {
+        start(index);
+        row.addLong(value);
+    }
+
+    public void set(long index, double value) {
+        start(index);
+        row.addDouble(value);
+    }
+
+    public void set(long index, AILStringRuntime value) {
+        start(index);
+        row.addString(value.getStringValue());
+    }
+
+    public void setNull(long index) {
+        start(index);
+        row.addNull();
+    }
+
+    public void setMissing(long index) {
+        start(index);
+        row.addMissing();
+    }
+
+    public void add(AILCompositeKeyRuntime key) {
+        row.seal();
+        if (!heap.add(key.getEntry(), row)) {
+            //The K rows do not fit in the budget
+            throw new AILRuntimeException();
+        }
+    }
+
+    public void sort() {
+        heap.sort();
+    }
+
+    /**
+     * Move to the next sorted row. The rows are freed after the last one.
+     *
+     * @return true if there is a row, false otherwise
+     */
+    public boolean next() {
+        if (heap.next()) {
+            accessor.reset(heap.getValueBase(), heap.getValueOffset(), heap.getValueLength());
+            return true;
+        }
+        heap.free();
+        return false;
+    }
+
+    public Object getField(long index) {
+        return values.getValue(accessor, (int) index);
+    }
+
+    private void start(long index) {
+        if (index == 0) {
+            row.reset();
+        }
+    }
+
+    private static boolean[] parseDirections(String directions) {
+        String[] fields = directions.split(",");
+        boolean[] descending = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            descending[i] = DESCENDING.equals(fields[i]);
+        }
+        return descending;
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Sort Top-K";
+    }
+}
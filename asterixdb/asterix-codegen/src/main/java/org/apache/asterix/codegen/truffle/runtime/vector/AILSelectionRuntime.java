@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.vector;
+
+import java.util.Arrays;
+
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.ArrayType;
+
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * The selection vector of a batch, where the i-th tuple of the batch is selected if it passed all the filters so far.
+ * The selection is kept as a dense mask (rather than a list of positions) so the filters' and the aggregates' loops
+ * access all arrays sequentially and without branches, which allows the JIT to vectorize them.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class AILSelectionRuntime implements TruffleObject {
+    private boolean[] selected;
+    //The presence of a constant operand, which is never null or missing
+    private boolean[] constantPresent;
+    private int size;
+
+    public AILSelectionRuntime() {
+        selected = new boolean[AILVectorRuntime.INITIAL_SIZE];
+        constantPresent = new boolean[AILVectorRuntime.INITIAL_SIZE];
+        Arrays.fill(constantPresent, true);
+    }
+
+    /**
+     * Select all the tuples of a new batch
+     *
+     * @param size the number of the batch's tuples
+     */
+    public void selectAll(int size) {
+        if (selected.length < size) {
+            selected = new boolean[size];
+            constantPresent = new boolean[size];
+            Arrays.fill(constantPresent, true);
+        }
+        Arrays.fill(selected, 0, size, true);
+        this.size = size;
+    }
+
+    public boolean[] getSelected() {
+        return selected;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of the selected tuples
+     */
+    public long count() {
+        boolean[] localSelected = selected;
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += localSelected[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Keep only the selected tuples that satisfy the comparison {@code left operator right}. A tuple that has a null
+     * or a missing operand does not satisfy any comparison.
+     *
+     * @param left     a vector
+     * @param operator one of {@code <, <=, >, >=, =, !=}
+     * @param right    a vector or a constant (i.e., a long or a double)
+     */
+    public void filter(AILVectorRuntime left, String operator, Object right) {
+        boolean lessThan = "<".equals(operator) || "<=".equals(operator) || "!=".equals(operator);
+        boolean equal = "=".equals(operator) || "<=".equals(operator) || ">=".equals(operator);
+        boolean greaterThan = ">".equals(operator) || ">=".equals(operator) || "!=".equals(operator);
+        if (!lessThan && !equal && !greaterThan) {
+            throw new IllegalStateException("Unsupported comparison " + operator);
+        }
+
+        ArrayType rightType = AILVectorRuntime.getOperandType(right);
+        if (left.getType() == ArrayType.EMPTY || rightType == ArrayType.EMPTY) {
+            //All values of one side are either null or missing
+            Arrays.fill(selected, 0, size, false);
+            return;
+        }
+
+        boolean[] leftPresent = left.getPresent();
+        boolean[] rightPresent = getPresent(right);
+        boolean[] localSelected = selected;
+        int localSize = size;
+        if (left.getType() == ArrayType.LONG && rightType == ArrayType.LONG) {
+            long[] leftValues = left.getLongs();
+            long[] rightValues = AILVectorRuntime.getLongs(right, left);
+            for (int i = 0; i < localSize; i++) {
+                long l = leftValues[i];
+                long r = rightValues[i];
+                localSelected[i] &= leftPresent[i] & rightPresent[i]
+                        & (lessThan & l < r | equal & l == r | greaterThan & l > r);
+            }
+        } else {
+            double[] leftValues = left.getDoubles();
+            double[] rightValues = AILVectorRuntime.getDoubles(right, left);
+            for (int i = 0; i < localSize; i++) {
+                double l = leftValues[i];
+                double r = rightValues[i];
+                localSelected[i] &= leftPresent[i] & rightPresent[i]
+                        & (lessThan & l < r | equal & l == r | greaterThan & l > r);
+            }
+        }
+    }
+
+    private boolean[] getPresent(Object operand) {
+        return operand instanceof AILVectorRuntime ? ((AILVectorRuntime) operand).getPresent() : constantPresent;
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Selection Vector";
+    }
+}
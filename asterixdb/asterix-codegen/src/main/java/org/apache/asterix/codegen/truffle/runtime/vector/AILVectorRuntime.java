@@ -0,0 +1,415 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.vector;
+
+import java.util.Arrays;
+
+import org.apache.asterix.codegen.truffle.AILLanguage;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.ArrayType;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.DoubleArrayStorage;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.LongArrayStorage;
+import org.apache.asterix.column.values.ColumnValuesBatch;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * The values of a batch of tuples, which are either decoded from a non-repeated column or computed from other
+ * vectors. The i-th value belongs to the i-th tuple of the batch and it is only valid if it is present (i.e., neither
+ * null nor missing). The values are stored in {@link LongArrayStorage} for BIGINT values or in
+ * {@link DoubleArrayStorage} for DOUBLE values. A vector of a column that has no values (e.g., a column of nulls) is
+ * {@link ArrayType#EMPTY}.
+ * <p>
+ * Computations are done for all the tuples of the batch regardless of their selection. Computing a few unneeded
+ * values is cheaper than branching on each tuple and keeps the loops simple enough for the JIT to vectorize.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class AILVectorRuntime implements TruffleObject {
+    static final int INITIAL_SIZE = 256;
+    private final LongArrayStorage longs;
+    private final DoubleArrayStorage doubles;
+    private ColumnValuesBatch batch;
+    private ArrayType type;
+    private boolean[] present;
+    private int size;
+    //LONG values widened to doubles (when compared or computed with doubles)
+    private double[] widenedDoubles;
+    private boolean widened;
+    //A constant operand broadcast to the batch's size
+    private long[] constantLongs;
+    private double[] constantDoubles;
+
+    public AILVectorRuntime() {
+        longs = new LongArrayStorage(false);
+        doubles = new DoubleArrayStorage(false);
+        type = ArrayType.EMPTY;
+        present = new boolean[INITIAL_SIZE];
+    }
+
+    /**
+     * Decode the next entries of a non-repeated column
+     *
+     * @param reader the column's reader
+     * @param count  the number of entries to decode
+     */
+    public void load(IColumnValuesReader reader, int count) throws HyracksDataException {
+        if (batch == null) {
+            batch = new ColumnValuesBatch();
+        }
+        int readCount = reader.readBatch(batch, count);
+        setSize(count);
+        boolean[] localPresent = present;
+        for (int i = 0; i < readCount; i++) {
+            localPresent[i] = batch.isValue(i);
+        }
+        Arrays.fill(localPresent, readCount, count, false);
+
+        switch (batch.getTypeTag()) {
+            case BIGINT:
+                type = ArrayType.LONG;
+                longs.setValues(ensureSize(batch.getLongs(), count), count);
+                break;
+            case DOUBLE:
+                type = ArrayType.DOUBLE;
+                doubles.setValues(ensureSize(batch.getDoubles(), count), count);
+                break;
+            case MISSING:
+            case NULL:
+                type = ArrayType.EMPTY;
+                break;
+            default:
+                throw new IllegalStateException("Unsupported vector type " + batch.getTypeTag());
+        }
+    }
+
+    /**
+     * Compute {@code left operator right} for all the tuples of the batch. The result is null if either operand is
+     * null or missing.
+     *
+     * @param left     a vector or a constant (i.e., a long or a double)
+     * @param operator one of {@code +, -, *}
+     * @param right    a vector or a constant (i.e., a long or a double)
+     */
+    public void compute(Object left, String operator, Object right) {
+        AILVectorRuntime vector =
+                left instanceof AILVectorRuntime ? (AILVectorRuntime) left : (AILVectorRuntime) right;
+        setSize(vector.size);
+        ArrayType leftType = getOperandType(left);
+        ArrayType rightType = getOperandType(right);
+        int localSize = size;
+        boolean[] localPresent = present;
+        if (leftType == ArrayType.EMPTY || rightType == ArrayType.EMPTY) {
+            type = ArrayType.EMPTY;
+            Arrays.fill(localPresent, 0, localSize, false);
+            return;
+        }
+        computePresent(left, right);
+
+        if (leftType == ArrayType.LONG && rightType == ArrayType.LONG) {
+            type = ArrayType.LONG;
+            long[] leftValues = getLongs(left, this);
+            long[] rightValues = getLongs(right, this);
+            long[] result = ensureSize(longs.getValues(), localSize);
+            switch (operator) {
+                case "+":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] + rightValues[i];
+                    }
+                    break;
+                case "-":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] - rightValues[i];
+                    }
+                    break;
+                case "*":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] * rightValues[i];
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported operator " + operator);
+            }
+            longs.setValues(result, localSize);
+        } else {
+            type = ArrayType.DOUBLE;
+            double[] leftValues = getDoubles(left, this);
+            double[] rightValues = getDoubles(right, this);
+            double[] result = ensureSize(doubles.getValues(), localSize);
+            switch (operator) {
+                case "+":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] + rightValues[i];
+                    }
+                    break;
+                case "-":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] - rightValues[i];
+                    }
+                    break;
+                case "*":
+                    for (int i = 0; i < localSize; i++) {
+                        result[i] = leftValues[i] * rightValues[i];
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported operator " + operator);
+            }
+            doubles.setValues(result, localSize);
+        }
+    }
+
+    /* ***********************
+     * Aggregates
+     * ***********************
+     */
+
+    /**
+     * @return the number of the selected tuples that have a value (i.e., neither null nor missing)
+     */
+    public long count(AILSelectionRuntime selection) {
+        boolean[] selected = selection.getSelected();
+        boolean[] localPresent = present;
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += selected[i] & localPresent[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the selected values or null if none of the selected tuples has a value
+     */
+    public Object sum(AILSelectionRuntime selection) {
+        boolean[] selected = selection.getSelected();
+        boolean[] localPresent = present;
+        int localSize = size;
+        if (type == ArrayType.LONG) {
+            long[] values = longs.getValues();
+            long sum = 0;
+            boolean overflow = false;
+            for (int i = 0; i < localSize; i++) {
+                long value = selected[i] & localPresent[i] ? values[i] : 0;
+                long newSum = sum + value;
+                overflow |= ((sum ^ newSum) & (value ^ newSum)) < 0;
+                sum = newSum;
+            }
+            //An overflowing sum is capped as done by the row-at-a-time aggregate
+            return overflow ? Long.MAX_VALUE : sum;
+        } else if (type == ArrayType.DOUBLE) {
+            double[] values = doubles.getValues();
+            double sum = 0.0;
+            for (int i = 0; i < localSize; i++) {
+                sum += selected[i] & localPresent[i] ? values[i] : 0.0;
+            }
+            return sum;
+        }
+        return null;
+    }
+
+    /**
+     * @return the minimum of the selected values or null if none of the selected tuples has a value
+     */
+    public Object min(AILSelectionRuntime selection) {
+        boolean[] selected = selection.getSelected();
+        boolean[] localPresent = present;
+        int localSize = size;
+        boolean found = false;
+        if (type == ArrayType.LONG) {
+            long[] values = longs.getValues();
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < localSize; i++) {
+                if (selected[i] & localPresent[i]) {
+                    min = Math.min(min, values[i]);
+                    found = true;
+                }
+            }
+            return found ? min : null;
+        } else if (type == ArrayType.DOUBLE) {
+            double[] values = doubles.getValues();
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < localSize; i++) {
+                if (selected[i] & localPresent[i]) {
+                    min = Math.min(min, values[i]);
+                    found = true;
+                }
+            }
+            return found ? min : null;
+        }
+        return null;
+    }
+
+    /**
+     * @return the maximum of the selected values or null if none of the selected tuples has a value
+     */
+    public Object max(AILSelectionRuntime selection) {
+        boolean[] selected = selection.getSelected();
+        boolean[] localPresent = present;
+        int localSize = size;
+        boolean found = false;
+        if (type == ArrayType.LONG) {
+            long[] values = longs.getValues();
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < localSize; i++) {
+                if (selected[i] & localPresent[i]) {
+                    max = Math.max(max, values[i]);
+                    found = true;
+                }
+            }
+            return found ? max : null;
+        } else if (type == ArrayType.DOUBLE) {
+            double[] values = doubles.getValues();
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < localSize; i++) {
+                if (selected[i] & localPresent[i]) {
+                    max = Math.max(max, values[i]);
+                    found = true;
+                }
+            }
+            return found ? max : null;
+        }
+        return null;
+    }
+
+    /* ***********************
+     * Values
+     * ***********************
+     */
+
+    public ArrayType getType() {
+        return type;
+    }
+
+    boolean[] getPresent() {
+        return present;
+    }
+
+    long[] getLongs() {
+        return longs.getValues();
+    }
+
+    double[] getDoubles() {
+        if (type == ArrayType.DOUBLE) {
+            return doubles.getValues();
+        }
+        if (!widened) {
+            long[] values = longs.getValues();
+            widenedDoubles = ensureSize(widenedDoubles, size);
+            for (int i = 0; i < size; i++) {
+                widenedDoubles[i] = values[i];
+            }
+            widened = true;
+        }
+        return widenedDoubles;
+    }
+
+    static ArrayType getOperandType(Object operand) {
+        if (operand instanceof AILVectorRuntime) {
+            return ((AILVectorRuntime) operand).type;
+        } else if (operand instanceof Long) {
+            return ArrayType.LONG;
+        } else if (operand instanceof Double) {
+            return ArrayType.DOUBLE;
+        }
+        throw new IllegalStateException("Unsupported operand " + operand);
+    }
+
+    /**
+     * @param operand a LONG vector or a long constant
+     * @param owner   the vector that holds the constant's broadcast values
+     */
+    static long[] getLongs(Object operand, AILVectorRuntime owner) {
+        if (operand instanceof AILVectorRuntime) {
+            return ((AILVectorRuntime) operand).getLongs();
+        }
+        owner.constantLongs = ensureSize(owner.constantLongs, owner.size);
+        Arrays.fill(owner.constantLongs, 0, owner.size, (Long) operand);
+        return owner.constantLongs;
+    }
+
+    /**
+     * @param operand a non-empty vector or a numeric constant
+     * @param owner   the vector that holds the constant's broadcast values
+     */
+    static double[] getDoubles(Object operand, AILVectorRuntime owner) {
+        if (operand instanceof AILVectorRuntime) {
+            return ((AILVectorRuntime) operand).getDoubles();
+        }
+        owner.constantDoubles = ensureSize(owner.constantDoubles, owner.size);
+        Arrays.fill(owner.constantDoubles, 0, owner.size, ((Number) operand).doubleValue());
+        return owner.constantDoubles;
+    }
+
+    private void computePresent(Object left, Object right) {
+        boolean[] localPresent = present;
+        int localSize = size;
+        if (left instanceof AILVectorRuntime && right instanceof AILVectorRuntime) {
+            boolean[] leftPresent = ((AILVectorRuntime) left).present;
+            boolean[] rightPresent = ((AILVectorRuntime) right).present;
+            for (int i = 0; i < localSize; i++) {
+                localPresent[i] = leftPresent[i] & rightPresent[i];
+            }
+        } else {
+            AILVectorRuntime vector =
+                left instanceof AILVectorRuntime ? (AILVectorRuntime) left : (AILVectorRuntime) right;
+            System.arraycopy(vector.present, 0, localPresent, 0, localSize);
+        }
+    }
+
+    private void setSize(int newSize) {
+        if (present.length < newSize) {
+            present = new boolean[newSize];
+        }
+        size = newSize;
+        widened = false;
+    }
+
+    private static long[] ensureSize(long[] array, int size) {
+        if (array == null) {
+            return new long[Math.max(size, INITIAL_SIZE)];
+        }
+        return array.length < size ? Arrays.copyOf(array, size) : array;
+    }
+
+    private static double[] ensureSize(double[] array, int size) {
+        if (array == null) {
+            return new double[Math.max(size, INITIAL_SIZE)];
+        }
+        return array.length < size ? Arrays.copyOf(array, size) : array;
+    }
+
+    @ExportMessage
+    boolean hasLanguage() {
+        return true;
+    }
+
+    @ExportMessage
+    Class<? extends TruffleLanguage<?>> getLanguage() {
+        return AILLanguage.class;
+    }
+
+    @ExportMessage
+    Object toDisplayString(@SuppressWarnings("unused") boolean allowSideEffects) {
+        return "Vector";
+    }
+}
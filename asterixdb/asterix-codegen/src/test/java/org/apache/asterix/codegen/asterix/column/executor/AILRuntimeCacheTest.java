@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AILRuntimeCacheTest {
+    private static final String FUNCTION_NAME = "test";
+    private static final String CODE = "function test(arg1) {\n    return arg1 + 1;\n}";
+
+    @After
+    public void tearDown() {
+        AILRuntimeCache.close();
+    }
+
+    @Test
+    public void testSourceIsReusedAcrossQueries() {
+        Assert.assertEquals(16, execute(15));
+        Source source = AILRuntimeCache.getSource(FUNCTION_NAME, CODE);
+
+        //Another query with the same generated program
+        Assert.assertEquals(21, execute(20));
+        Assert.assertSame(source, AILRuntimeCache.getSource(FUNCTION_NAME, CODE));
+        Assert.assertNotSame(source, AILRuntimeCache.getSource("other", CODE));
+    }
+
+    @Test
+    public void testContextIsPooled() {
+        Context context = AILRuntimeCache.acquireContext();
+        AILRuntimeCache.releaseContext(context, false);
+        Assert.assertEquals(1, AILRuntimeCache.getNumberOfIdleContexts());
+        Assert.assertSame(context, AILRuntimeCache.acquireContext());
+
+        //A failed context is not reused
+        AILRuntimeCache.releaseContext(context, true);
+        Assert.assertEquals(0, AILRuntimeCache.getNumberOfIdleContexts());
+        Context newContext = AILRuntimeCache.acquireContext();
+        Assert.assertNotSame(context, newContext);
+        AILRuntimeCache.releaseContext(newContext, false);
+    }
+
+    @Test
+    public void testIdleContextsAreBounded() {
+        List<Context> contexts = new ArrayList<>();
+        for (int i = 0; i < AILRuntimeCache.MAX_IDLE_CONTEXTS + 2; i++) {
+            contexts.add(AILRuntimeCache.acquireContext());
+        }
+        for (Context context : contexts) {
+            AILRuntimeCache.releaseContext(context, false);
+        }
+        Assert.assertEquals(AILRuntimeCache.MAX_IDLE_CONTEXTS, AILRuntimeCache.getNumberOfIdleContexts());
+    }
+
+    @Test
+    public void testClose() {
+        Assert.assertEquals(16, execute(15));
+        Context inUse = AILRuntimeCache.acquireContext();
+        Assert.assertEquals(1, AILRuntimeCache.getNumberOfIdleContexts() + 1);
+
+        AILRuntimeCache.close();
+        Assert.assertEquals(0, AILRuntimeCache.getNumberOfIdleContexts());
+        //A context of the closed engine is not returned to the pool
+        AILRuntimeCache.releaseContext(inUse, false);
+        Assert.assertEquals(0, AILRuntimeCache.getNumberOfIdleContexts());
+
+        //The runtime can be used again
+        Assert.assertEquals(16, execute(15));
+        Assert.assertEquals(1, AILRuntimeCache.getNumberOfIdleContexts());
+    }
+
+    private static long execute(long argument) {
+        Context context = AILRuntimeCache.acquireContext();
+        try {
+            return AILRuntimeCache.getFunction(context, FUNCTION_NAME, CODE).execute(argument).asLong();
+        } finally {
+            AILRuntimeCache.releaseContext(context, false);
+        }
+    }
+}
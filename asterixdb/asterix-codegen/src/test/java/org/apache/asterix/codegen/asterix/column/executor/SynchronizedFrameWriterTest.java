@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.executor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SynchronizedFrameWriterTest {
+    private static final int NUMBER_OF_WORKERS = 8;
+    private static final int FRAMES_PER_WORKER = 500;
+
+    @Test
+    public void deliverFramesOfConcurrentWorkers() throws InterruptedException {
+        RecordingFrameWriter writer = new RecordingFrameWriter();
+        IFrameWriter sharedWriter = new SynchronizedFrameWriter(writer);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_WORKERS; i++) {
+            int workerId = i;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES * 2);
+                    for (int j = 0; j < FRAMES_PER_WORKER; j++) {
+                        //Each worker reuses its frame, as workers do with their appenders
+                        frame.putInt(0, workerId);
+                        frame.putInt(Integer.BYTES, j);
+                        sharedWriter.nextFrame(frame);
+                    }
+                    sharedWriter.flush();
+                } catch (Throwable th) {
+                    synchronized (failures) {
+                        failures.add(th);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Assert.assertTrue(failures.toString(), failures.isEmpty());
+        Assert.assertFalse("Concurrent calls reached the writer", writer.overlapped);
+        Assert.assertEquals(NUMBER_OF_WORKERS * FRAMES_PER_WORKER, writer.frames.size());
+        Assert.assertEquals(NUMBER_OF_WORKERS, writer.numberOfFlushes);
+
+        //Every frame is delivered once and the frames of each worker are delivered in order
+        int[] nextFrame = new int[NUMBER_OF_WORKERS];
+        for (int[] frame : writer.frames) {
+            Assert.assertEquals(nextFrame[frame[0]]++, frame[1]);
+        }
+        for (int i = 0; i < NUMBER_OF_WORKERS; i++) {
+            Assert.assertEquals(FRAMES_PER_WORKER, nextFrame[i]);
+        }
+    }
+
+    @Test
+    public void taskOwnsTheWriterLifeCycle() throws HyracksDataException {
+        RecordingFrameWriter writer = new RecordingFrameWriter();
+        IFrameWriter sharedWriter = new SynchronizedFrameWriter(writer);
+        sharedWriter.open();
+        sharedWriter.fail();
+        sharedWriter.close();
+        Assert.assertEquals(0, writer.numberOfLifeCycleCalls);
+    }
+
+    private static class RecordingFrameWriter implements IFrameWriter {
+        private final AtomicBoolean inUse = new AtomicBoolean();
+        private final List<int[]> frames = new ArrayList<>();
+        private int numberOfFlushes;
+        private int numberOfLifeCycleCalls;
+        private volatile boolean overlapped;
+
+        @Override
+        public void open() {
+            numberOfLifeCycleCalls++;
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            enter();
+            //Read the frame before returning, as its owner reuses it
+            frames.add(new int[] { buffer.getInt(0), buffer.getInt(Integer.BYTES) });
+            Thread.yield();
+            exit();
+        }
+
+        @Override
+        public void flush() {
+            enter();
+            numberOfFlushes++;
+            exit();
+        }
+
+        @Override
+        public void fail() {
+            numberOfLifeCycleCalls++;
+        }
+
+        @Override
+        public void close() {
+            numberOfLifeCycleCalls++;
+        }
+
+        private void enter() {
+            if (!inUse.compareAndSet(false, true)) {
+                overlapped = true;
+            }
+        }
+
+        private void exit() {
+            inUse.set(false);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.asterix.column.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.UUID;
+
+import org.apache.asterix.codegen.common.TestColumn;
+import org.apache.asterix.codegen.common.TruffleTestUtil;
+import org.apache.asterix.codegen.truffle.runtime.AILStringRuntime;
+import org.apache.asterix.codegen.truffle.runtime.AILUUIDRuntime;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the typed readers of the generated code read the same values as reading the columns directly (i.e., as
+ * the interpreted assemblers do), where a null takes precedence over a missing value. The columns are read in small
+ * pages, so the values that are read in place may span more than one page
+ */
+public class TypedColumnReaderTest {
+    private static final int NUMBER_OF_TUPLES = 500;
+    private static final Object NULL = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+    private static final Object MISSING = new Object() {
+        @Override
+        public String toString() {
+            return "missing";
+        }
+    };
+
+    @Test
+    public void testUnionOfLongsAndStrings() throws IOException {
+        TestColumn[] columns = writeUnion(ATypeTag.BIGINT, ATypeTag.STRING);
+        AbstractTypedColumnReader reader = AbstractTypedColumnReader.createReader(getTypes(columns));
+        Assert.assertEquals(ATypeTag.UNION, reader.getTypeTag());
+        assertValues(reader, columns);
+    }
+
+    @Test
+    public void testUnionOfLongsAndUUIDs() throws IOException {
+        TestColumn[] columns = writeUnion(ATypeTag.BIGINT, ATypeTag.UUID);
+        assertValues(AbstractTypedColumnReader.createReader(getTypes(columns)), columns);
+    }
+
+    @Test
+    public void testComponentsWithSomeOfTheUnionTypes() throws IOException {
+        AbstractTypedColumnReader reader =
+                AbstractTypedColumnReader.createReader(new ATypeTag[] { ATypeTag.BIGINT, ATypeTag.STRING });
+        //The reader is reused for components that have both, only one, or the other type
+        assertValues(reader, writeUnion(ATypeTag.BIGINT, ATypeTag.STRING));
+        assertValues(reader, writeUnion(ATypeTag.STRING));
+        assertValues(reader, writeUnion(ATypeTag.BIGINT));
+        //A component where all the values are nulls or missing
+        TestColumn nulls = new TestColumn(ATypeTag.NULL, 0);
+        for (int i = 0; i < NUMBER_OF_TUPLES; i++) {
+            if (i % 2 == 0) {
+                nulls.writeNull();
+            } else {
+                nulls.writeMissing();
+            }
+        }
+        assertValues(reader, nulls);
+    }
+
+    @Test
+    public void testUUIDs() throws IOException {
+        TestColumn[] columns = writeUnion(ATypeTag.UUID);
+        AbstractTypedColumnReader reader = AbstractTypedColumnReader.createReader(getTypes(columns));
+        Assert.assertTrue(reader instanceof UUIDColumnReader);
+        assertValues(reader, columns);
+    }
+
+    @Test
+    public void testInPlaceStringsSpanningPages() throws IOException {
+        TestColumn column = new TestColumn(ATypeTag.STRING, 0);
+        for (int i = 0; i < NUMBER_OF_TUPLES; i++) {
+            if (i % 5 == 0) {
+                column.writeNull();
+            } else if (i % 5 == 1) {
+                column.writeMissing();
+            } else {
+                //Strings of up to a few pages
+                column.writeString("value-" + i + StringUtils.repeat('x', i % 400));
+            }
+        }
+        assertValues(AbstractTypedColumnReader.createReader(ATypeTag.STRING), column);
+    }
+
+    @Test
+    public void testInPlaceValuesAfterMovingToNextLeaf() throws IOException {
+        String longString = StringUtils.repeat("long-", 100);
+        TestColumn firstLeaf = new TestColumn(ATypeTag.STRING, 0);
+        firstLeaf.writeString("a");
+        firstLeaf.writeString(longString);
+        TestColumn secondLeaf = new TestColumn(ATypeTag.STRING, 0);
+        secondLeaf.writeNull();
+        secondLeaf.writeMissing();
+        secondLeaf.writeString("b");
+
+        StringColumnReader reader = new StringColumnReader();
+        IColumnValuesReader columnReader = firstLeaf.createReader();
+        assertNextValue("a", reader, columnReader);
+        AILStringRuntime string = reader.getString();
+        assertNextValue(longString, reader, columnReader);
+        Assert.assertSame(string, reader.getString());
+
+        //The same reader reads the next leaf's column
+        columnReader = secondLeaf.createReader();
+        assertNextValue(NULL, reader, columnReader);
+        assertNextValue(MISSING, reader, columnReader);
+        assertNextValue("b", reader, columnReader);
+        //The reused string must not point to the previous leaf's value
+        Assert.assertEquals("b", TruffleTestUtil.createJavaString(string));
+        Assert.assertFalse(columnReader.next());
+
+        TestColumn firstLongs = new TestColumn(ATypeTag.BIGINT, 0);
+        firstLongs.writeLong(7);
+        firstLongs.writeLong(42);
+        TestColumn secondLongs = new TestColumn(ATypeTag.BIGINT, 0);
+        secondLongs.writeNull();
+        secondLongs.writeLong(5);
+
+        LongColumnReader longReader = new LongColumnReader();
+        columnReader = firstLongs.createReader();
+        assertNextValue(7L, longReader, columnReader);
+        assertNextValue(42L, longReader, columnReader);
+        columnReader = secondLongs.createReader();
+        assertNextValue(NULL, longReader, columnReader);
+        assertNextValue(5L, longReader, columnReader);
+        Assert.assertEquals(5L, longReader.getValues()[0]);
+    }
+
+    @Test
+    public void testReusedItemsBufferDoesNotLeakStaleValues() throws IOException {
+        Object[][] strings = { { StringUtils.repeat("long-", 100), "b" }, { "x" }, { NULL }, {},
+                { "y", NULL, StringUtils.repeat('z', 300) } };
+        TestColumn stringItems = new TestColumn(ATypeTag.STRING, 0, true);
+        writeArrays(stringItems, strings);
+        assertArrays(new StringColumnReader(), stringItems, strings);
+
+        Object[][] longs = { { 1L, 2L, 3L }, { NULL }, {}, { 4L } };
+        TestColumn longItems = new TestColumn(ATypeTag.BIGINT, 0, true);
+        writeArrays(longItems, longs);
+        LongColumnReader longReader = new LongColumnReader();
+        assertArrays(longReader, longItems, longs);
+        Assert.assertEquals(4L, longReader.getValues()[0]);
+    }
+
+    /**
+     * Write a value that has the given types, where each type is stored in a separate column. A tuple's value has one
+     * of the types or it is a null or missing
+     */
+    private static TestColumn[] writeUnion(ATypeTag... typeTags) throws IOException {
+        TestColumn[] columns = new TestColumn[typeTags.length];
+        for (int i = 0; i < typeTags.length; i++) {
+            columns[i] = new TestColumn(typeTags[i], i);
+        }
+        Random random = new Random(0);
+        for (int i = 0; i < NUMBER_OF_TUPLES; i++) {
+            //A value of one of the types, a null, or a missing value
+            int kind = i % (typeTags.length + 2);
+            for (int j = 0; j < columns.length; j++) {
+                TestColumn column = columns[j];
+                if (kind == j) {
+                    writeValue(column, random, i);
+                } else if (kind == columns.length && j == 0) {
+                    //A null is stored in (only) one of the union's columns
+                    column.writeNull();
+                } else {
+                    column.writeMissing();
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static void writeValue(TestColumn column, Random random, int i) throws IOException {
+        switch (column.getTypeTag()) {
+            case BIGINT:
+                column.writeLong(random.nextInt(1000) - 500);
+                break;
+            case STRING:
+                column.writeString("value-" + i);
+                break;
+            case UUID:
+                column.writeUUID(new UUID(random.nextLong(), random.nextLong()));
+                break;
+            default:
+                throw new IllegalArgumentException(column.getTypeTag().toString());
+        }
+    }
+
+    private static ATypeTag[] getTypes(TestColumn[] columns) {
+        ATypeTag[] typeTags = new ATypeTag[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            typeTags[i] = columns[i].getTypeTag();
+        }
+        return typeTags;
+    }
+
+    private static void assertValues(AbstractTypedColumnReader reader, TestColumn... columns) throws IOException {
+        IColumnValuesReader[] typedColumnReaders = new IColumnValuesReader[columns.length];
+        IColumnValuesReader[] interpretedReaders = new IColumnValuesReader[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            typedColumnReaders[i] = columns[i].createReader();
+            interpretedReaders[i] = columns[i].createReader();
+        }
+
+        int numberOfNulls = 0;
+        int numberOfMissings = 0;
+        for (int i = 0; i < NUMBER_OF_TUPLES; i++) {
+            reader.setReaders(typedColumnReaders, 0, columns.length);
+            Assert.assertEquals(1, reader.getNumberOfValues());
+            reader.next();
+            Object expected = interpret(interpretedReaders);
+            Assert.assertEquals("tuple " + i, expected, getValue(reader));
+            numberOfNulls += expected == NULL ? 1 : 0;
+            numberOfMissings += expected == MISSING ? 1 : 0;
+        }
+        Assert.assertTrue(numberOfNulls > 0);
+        Assert.assertTrue(numberOfMissings > 0);
+    }
+
+    private static void assertNextValue(Object expected, AbstractTypedColumnReader reader,
+            IColumnValuesReader columnReader) throws IOException {
+        reader.setReader(columnReader);
+        Assert.assertEquals(1, reader.getNumberOfValues());
+        reader.next();
+        Assert.assertEquals(expected, getValue(reader));
+    }
+
+    /**
+     * Write the items of each tuple's array, where an item is either a {@link #NULL}, a long, or a string
+     */
+    private static void writeArrays(TestColumn column, Object[][] arrays) throws IOException {
+        for (Object[] array : arrays) {
+            for (Object item : array) {
+                if (item == NULL) {
+                    column.writeNull();
+                } else if (item instanceof Long) {
+                    column.writeLong((Long) item);
+                } else {
+                    column.writeString((String) item);
+                }
+            }
+            column.endArray();
+        }
+    }
+
+    private static void assertArrays(AbstractTypedColumnReader reader, TestColumn column, Object[][] arrays)
+            throws IOException {
+        IColumnValuesReader columnReader = column.createReader();
+        for (int i = 0; i < arrays.length; i++) {
+            Object[] array = arrays[i];
+            reader.setReader(columnReader);
+            Assert.assertEquals("tuple " + i, array.length, reader.getNumberOfValues());
+            for (int j = 0; j < array.length; j++) {
+                reader.next();
+                Assert.assertEquals("tuple " + i + " item " + j, array[j], getValue(reader));
+            }
+            reader.next();
+            Assert.assertTrue(reader.isEndOfArray());
+        }
+        Assert.assertFalse(columnReader.next());
+    }
+
+    /**
+     * @return the current tuple's value as the interpreted assemblers read it
+     */
+    private static Object interpret(IColumnValuesReader[] readers) throws IOException {
+        Object value = MISSING;
+        for (IColumnValuesReader columnReader : readers) {
+            Assert.assertTrue(columnReader.next());
+            if (columnReader.isNull()) {
+                value = NULL;
+            } else if (columnReader.isValue()) {
+                value = getValue(columnReader);
+            }
+        }
+        return value;
+    }
+
+    private static Object getValue(IColumnValuesReader reader) {
+        switch (reader.getTypeTag()) {
+            case BIGINT:
+                return reader.getLong();
+            case STRING:
+                IValueReference string = reader.getBytes();
+                return UTF8StringUtil.toString(string.getByteArray(), string.getStartOffset());
+            case UUID:
+                return toUUID(reader.getBytes());
+            default:
+                throw new IllegalArgumentException(reader.getTypeTag().toString());
+        }
+    }
+
+    private static Object getValue(AbstractTypedColumnReader reader) throws IOException {
+        if (reader.isNull()) {
+            return NULL;
+        } else if (reader.isMissing()) {
+            return MISSING;
+        }
+        Object value = reader.getValue();
+        if (value instanceof AILStringRuntime) {
+            return TruffleTestUtil.createJavaString((AILStringRuntime) value);
+        } else if (value instanceof AILUUIDRuntime) {
+            return toUUID(((AILUUIDRuntime) value).getUUIDValue());
+        }
+        return value;
+    }
+
+    private static UUID toUUID(IValueReference value) {
+        Assert.assertEquals(2 * Long.BYTES, value.getLength());
+        ByteBuffer buffer = ByteBuffer.wrap(value.getByteArray(), value.getStartOffset(), value.getLength());
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
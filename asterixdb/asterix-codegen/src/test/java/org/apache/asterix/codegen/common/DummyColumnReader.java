@@ -21,6 +21,7 @@ package org.apache.asterix.codegen.common;
 import java.util.Random;
 
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.asterix.dataflow.data.nontagged.serde.AStringSerializerDeserializer;
@@ -43,10 +44,14 @@ public class DummyColumnReader implements IColumnValuesReader {
     private int value;
 
     public DummyColumnReader(ATypeTag typeTag, int limit) {
+        this(typeTag, limit, 0);
+    }
+
+    public DummyColumnReader(ATypeTag typeTag, int limit, long seed) {
         stringSerDer = new AStringSerializerDeserializer(new UTF8StringWriter(), new UTF8StringReader());
         mutableString = new AMutableString("");
         storage = new ArrayBackedValueStorage();
-        random = new Random(0);
+        random = new Random(seed);
         this.typeTag = typeTag;
         this.limit = limit;
     }
@@ -90,14 +95,14 @@ public class DummyColumnReader implements IColumnValuesReader {
 
     @Override
     public boolean isNull() {
-        // 1/5 of the values are nulls
-        return value % 5 == 1;
+        // 1/5 of the values are nulls (or all non-missing values if the column is of nulls)
+        return value % 5 == 1 || typeTag == ATypeTag.NULL && value % 5 != 0;
     }
 
     @Override
     public boolean isValue() {
         // 3/5 of the values are present
-        return value % 5 > 1;
+        return value % 5 > 1 && typeTag != ATypeTag.NULL;
     }
 
     @Override
@@ -157,6 +162,24 @@ public class DummyColumnReader implements IColumnValuesReader {
 
     }
 
+    @Override
+    public int readBatch(ColumnValuesBatch batch, int maxCount) throws HyracksDataException {
+        int count = Math.max(0, Math.min(maxCount, limit - counter));
+        //Missing values are at level 0 and nulls and present values are at level 1
+        batch.reset(typeTag, 1, count);
+        int[] levels = batch.getLevels();
+        for (int i = 0; i < count; i++) {
+            next();
+            levels[i] = isMissing() ? 0 : 1;
+            if (isNull()) {
+                batch.setNull(i);
+            } else if (isValue()) {
+                setValue(batch, i);
+            }
+        }
+        return count;
+    }
+
     @Override
     public void skip(int count) throws HyracksDataException {
 
@@ -166,4 +189,21 @@ public class DummyColumnReader implements IColumnValuesReader {
     public int compareTo(IColumnValuesReader o) {
         return 0;
     }
+
+    private void setValue(ColumnValuesBatch batch, int index) throws HyracksDataException {
+        switch (typeTag) {
+            case BIGINT:
+                batch.getLongs()[index] = getLong();
+                break;
+            case DOUBLE:
+                batch.getDoubles()[index] = getDouble();
+                break;
+            case BOOLEAN:
+                batch.getLongs()[index] = getBoolean() ? 1 : 0;
+                break;
+            default:
+                storage.reset();
+                batch.setBytes(index, getBytes());
+        }
+    }
 }
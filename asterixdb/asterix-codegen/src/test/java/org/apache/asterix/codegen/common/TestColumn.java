@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.UUID;
+
+import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.column.values.writer.ColumnValuesWriterFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * A column of a field of the root record that is written and read using the actual column writers and readers. As in
+ * a flushed component, a missing field is at level 1, a null is at level 1 with the null bit set, and a value is at
+ * level 2. The written column is read in small pages, so values may span more than one page.
+ * <p>
+ * A repeated column is a field's array items, where an item is at the levels above and each array ends at level 0.
+ */
+public class TestColumn {
+    public static final int PAGE_SIZE = 128;
+    private static final int MAX_LEVEL = 2;
+    private static final int[] DELIMITERS = { 0 };
+    private static final ColumnValueReaderFactory READER_FACTORY = new ColumnValueReaderFactory();
+    private final ATypeTag typeTag;
+    private final int columnIndex;
+    private final boolean repeated;
+    private final IColumnValuesWriter writer;
+    private final ArrayBackedValueStorage storage;
+    //Values and delimiters
+    private int numberOfEntries;
+    private byte[] column;
+
+    public TestColumn(ATypeTag typeTag, int columnIndex) {
+        this(typeTag, columnIndex, false);
+    }
+
+    public TestColumn(ATypeTag typeTag, int columnIndex, boolean repeated) {
+        this.typeTag = typeTag;
+        this.columnIndex = columnIndex;
+        this.repeated = repeated;
+        ColumnValuesWriterFactory writerFactory = new ColumnValuesWriterFactory(new MutableObject<>(new WriteOp()));
+        writer = writerFactory.createValueWriter(typeTag, columnIndex, MAX_LEVEL, repeated, true);
+        storage = new ArrayBackedValueStorage();
+    }
+
+    public ATypeTag getTypeTag() {
+        return typeTag;
+    }
+
+    public void writeLong(long value) throws IOException {
+        storage.reset();
+        storage.getDataOutput().writeLong(value);
+        writeValue();
+    }
+
+    public void writeString(String value) throws IOException {
+        storage.reset();
+        UTF8StringUtil.writeUTF8(value, storage.getDataOutput());
+        writeValue();
+    }
+
+    public void writeUUID(UUID value) throws IOException {
+        storage.reset();
+        storage.getDataOutput().writeLong(value.getMostSignificantBits());
+        storage.getDataOutput().writeLong(value.getLeastSignificantBits());
+        writeValue();
+    }
+
+    public void writeNull() throws HyracksDataException {
+        writer.writeNull(MAX_LEVEL - 1);
+        numberOfEntries++;
+    }
+
+    public void writeMissing() throws HyracksDataException {
+        writer.writeLevel(MAX_LEVEL - 1);
+        numberOfEntries++;
+    }
+
+    /**
+     * End the current array of a repeated column
+     */
+    public void endArray() throws HyracksDataException {
+        writer.writeLevel(DELIMITERS[0]);
+        numberOfEntries++;
+    }
+
+    /**
+     * @return a new reader that is positioned before the column's first value
+     */
+    public IColumnValuesReader createReader() throws HyracksDataException {
+        if (column == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.flush(out);
+            writer.close();
+            column = out.toByteArray();
+        }
+        MultiByteBufferInputStream in = new MultiByteBufferInputStream();
+        in.reset(new PagedBufferProvider(column, columnIndex));
+        IColumnValuesReader reader = repeated
+                ? READER_FACTORY.createValueReader(typeTag, columnIndex, MAX_LEVEL, DELIMITERS)
+                : READER_FACTORY.createValueReader(typeTag, columnIndex, MAX_LEVEL, false);
+        reader.reset(in, numberOfEntries);
+        return reader;
+    }
+
+    /**
+     * @return UUID's bytes as they are stored in a column
+     */
+    public static byte[] getBytes(UUID value) {
+        return ByteBuffer.allocate(2 * Long.BYTES).putLong(value.getMostSignificantBits())
+                .putLong(value.getLeastSignificantBits()).array();
+    }
+
+    private void writeValue() throws HyracksDataException {
+        writer.writeValue(typeTag, storage);
+        numberOfEntries++;
+    }
+
+    private static class WriteOp implements IColumnWriteMultiPageOp {
+        @Override
+        public ByteBuffer confiscatePersistent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void persist() {
+            //NoOp
+        }
+
+        @Override
+        public int getNumberOfPersistentBuffers() {
+            return 0;
+        }
+
+        @Override
+        public ByteBuffer confiscateTemporary() {
+            return ByteBuffer.allocate(PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Provides a flushed column as pages of {@link #PAGE_SIZE} bytes
+     */
+    private static class PagedBufferProvider implements IColumnBufferProvider {
+        private final byte[] column;
+        private final int columnIndex;
+
+        PagedBufferProvider(byte[] column, int columnIndex) {
+            this.column = column;
+            this.columnIndex = columnIndex;
+        }
+
+        @Override
+        public void reset(ColumnBTreeReadLeafFrame frame) {
+            //NoOp
+        }
+
+        @Override
+        public void readAll(Queue<ByteBuffer> buffers) {
+            for (int offset = 0; offset < column.length; offset += PAGE_SIZE) {
+                //Each page has its own array as the pages of a column are not contiguous
+                int end = Math.min(column.length, offset + PAGE_SIZE);
+                buffers.add(ByteBuffer.wrap(Arrays.copyOfRange(column, offset, end)));
+            }
+        }
+
+        @Override
+        public void releaseAll() {
+            //NoOp
+        }
+
+        @Override
+        public ByteBuffer getBuffer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getLength() {
+            return column.length;
+        }
+
+        @Override
+        public int getColumnIndex() {
+            return columnIndex;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.codegen.truffle.runtime.vector;
+
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
+
+import org.apache.asterix.codegen.common.DummyColumnReader;
+import org.apache.asterix.codegen.truffle.runtime.array.storage.ArrayType;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the batch-at-a-time filters, arithmetic, and aggregates of {@link AILVectorRuntime} and
+ * {@link AILSelectionRuntime} produce the same results as evaluating each tuple at a time, where a null or a missing
+ * value neither satisfies a filter nor contributes to an aggregate
+ */
+public class AILVectorRuntimeTest {
+    private static final int NUMBER_OF_ENTRIES = 1000;
+    //Not a divisor of the number of entries, so the last batch is only partially filled by the reader
+    private static final int BATCH_SIZE = 300;
+    private static final int NUMBER_OF_BATCHES = (NUMBER_OF_ENTRIES + BATCH_SIZE - 1) / BATCH_SIZE;
+
+    @Test
+    public void testLongs() throws HyracksDataException {
+        Column column = new Column(ATypeTag.BIGINT, 0);
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            column.next();
+            selection.selectAll(BATCH_SIZE);
+            Assert.assertEquals(ArrayType.LONG, column.vector.getType());
+            assertAggregates(column.rows, selectAll(), column.vector, selection);
+        }
+    }
+
+    @Test
+    public void testDoubles() throws HyracksDataException {
+        Column column = new Column(ATypeTag.DOUBLE, 0);
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            column.next();
+            selection.selectAll(BATCH_SIZE);
+            Assert.assertEquals(ArrayType.DOUBLE, column.vector.getType());
+            assertAggregates(column.rows, selectAll(), column.vector, selection);
+        }
+    }
+
+    @Test
+    public void testFilters() throws HyracksDataException {
+        Column longs = new Column(ATypeTag.BIGINT, 0);
+        Column doubles = new Column(ATypeTag.DOUBLE, 1);
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            longs.next();
+            doubles.next();
+            selection.selectAll(BATCH_SIZE);
+            selection.filter(longs.vector, "<", 50000L);
+            selection.filter(doubles.vector, ">=", 1000L);
+            selection.filter(longs.vector, "!=", 777L);
+            boolean[] selected = selectAll();
+            filter(selected, longs.rows, constant(50000L), c -> c < 0);
+            filter(selected, doubles.rows, constant(1000L), c -> c >= 0);
+            filter(selected, longs.rows, constant(777L), c -> c != 0);
+            assertAggregates(longs.rows, selected, longs.vector, selection);
+            assertAggregates(doubles.rows, selected, doubles.vector, selection);
+        }
+    }
+
+    @Test
+    public void testMixedTypes() throws HyracksDataException {
+        Column longs = new Column(ATypeTag.BIGINT, 0);
+        Column doubles = new Column(ATypeTag.DOUBLE, 1);
+        AILVectorRuntime product = new AILVectorRuntime();
+        AILVectorRuntime difference = new AILVectorRuntime();
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            longs.next();
+            doubles.next();
+            product.compute(longs.vector, "*", doubles.vector);
+            difference.compute(longs.vector, "-", 7L);
+            Assert.assertEquals(ArrayType.DOUBLE, product.getType());
+            Assert.assertEquals(ArrayType.LONG, difference.getType());
+            Object[] productRows = compute(longs.rows, doubles.rows, (l, r) -> l * r, (l, r) -> l * r);
+            Object[] differenceRows = compute(longs.rows, constant(7L), (l, r) -> l - r, (l, r) -> l - r);
+
+            //A LONG vector compared to a DOUBLE vector and to a double constant
+            selection.selectAll(BATCH_SIZE);
+            selection.filter(longs.vector, ">", doubles.vector);
+            selection.filter(difference, "<=", 90000.5);
+            boolean[] selected = selectAll();
+            filter(selected, longs.rows, doubles.rows, c -> c > 0);
+            filter(selected, differenceRows, constant(90000.5), c -> c <= 0);
+
+            assertAggregates(productRows, selected, product, selection);
+            assertAggregates(differenceRows, selected, difference, selection);
+        }
+    }
+
+    @Test
+    public void testEmptySelection() throws HyracksDataException {
+        Column longs = new Column(ATypeTag.BIGINT, 0);
+        Column doubles = new Column(ATypeTag.DOUBLE, 1);
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            longs.next();
+            doubles.next();
+            selection.selectAll(BATCH_SIZE);
+            selection.filter(longs.vector, "<", 0L);
+            Assert.assertEquals(0, selection.count());
+            for (AILVectorRuntime vector : Arrays.asList(longs.vector, doubles.vector)) {
+                Assert.assertEquals(0, vector.count(selection));
+                Assert.assertNull(vector.sum(selection));
+                Assert.assertNull(vector.min(selection));
+                Assert.assertNull(vector.max(selection));
+            }
+        }
+    }
+
+    @Test
+    public void testNulls() throws HyracksDataException {
+        Column nulls = new Column(ATypeTag.NULL, 0);
+        Column longs = new Column(ATypeTag.BIGINT, 1);
+        AILVectorRuntime sum = new AILVectorRuntime();
+        AILSelectionRuntime selection = new AILSelectionRuntime();
+        for (int i = 0; i < NUMBER_OF_BATCHES; i++) {
+            nulls.next();
+            longs.next();
+            Assert.assertEquals(ArrayType.EMPTY, nulls.vector.getType());
+            //Any computation with nulls or missing values is null
+            sum.compute(longs.vector, "+", nulls.vector);
+            Assert.assertEquals(ArrayType.EMPTY, sum.getType());
+
+            selection.selectAll(BATCH_SIZE);
+            assertAggregates(nulls.rows, selectAll(), nulls.vector, selection);
+            assertAggregates(new Object[BATCH_SIZE], selectAll(), sum, selection);
+            //No value satisfies a comparison with a null or a missing value
+            selection.filter(longs.vector, "=", nulls.vector);
+            Assert.assertEquals(0, selection.count());
+        }
+    }
+
+    private static void assertAggregates(Object[] rows, boolean[] selected, AILVectorRuntime vector,
+            AILSelectionRuntime selection) {
+        Assert.assertTrue(Arrays.equals(selected, Arrays.copyOf(selection.getSelected(), BATCH_SIZE)));
+        long count = 0;
+        long countValues = 0;
+        Object sum = null;
+        Object min = null;
+        Object max = null;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (!selected[i]) {
+                continue;
+            }
+            count++;
+            Object value = rows[i];
+            if (value == null) {
+                continue;
+            }
+            countValues++;
+            if (sum == null) {
+                sum = value;
+            } else if (sum instanceof Long && value instanceof Long) {
+                sum = (Long) sum + (Long) value;
+            } else {
+                sum = ((Number) sum).doubleValue() + ((Number) value).doubleValue();
+            }
+            min = min == null || compare(value, min) < 0 ? value : min;
+            max = max == null || compare(value, max) > 0 ? value : max;
+        }
+        Assert.assertEquals(count, selection.count());
+        Assert.assertEquals(countValues, vector.count(selection));
+        Assert.assertEquals(sum, vector.sum(selection));
+        Assert.assertEquals(min, vector.min(selection));
+        Assert.assertEquals(max, vector.max(selection));
+    }
+
+    private static boolean[] selectAll() {
+        boolean[] selected = new boolean[BATCH_SIZE];
+        Arrays.fill(selected, true);
+        return selected;
+    }
+
+    private static Object[] constant(Object value) {
+        Object[] rows = new Object[BATCH_SIZE];
+        Arrays.fill(rows, value);
+        return rows;
+    }
+
+    private static void filter(boolean[] selected, Object[] left, Object[] right, IntPredicate comparison) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            selected[i] &= left[i] != null && right[i] != null && comparison.test(compare(left[i], right[i]));
+        }
+    }
+
+    private static Object[] compute(Object[] left, Object[] right, LongBinaryOperator longOperator,
+            DoubleBinaryOperator doubleOperator) {
+        Object[] result = new Object[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (left[i] == null || right[i] == null) {
+                continue;
+            }
+            if (left[i] instanceof Long && right[i] instanceof Long) {
+                result[i] = longOperator.applyAsLong((Long) left[i], (Long) right[i]);
+            } else {
+                result[i] = doubleOperator.applyAsDouble(((Number) left[i]).doubleValue(),
+                        ((Number) right[i]).doubleValue());
+            }
+        }
+        return result;
+    }
+
+    private static int compare(Object left, Object right) {
+        if (left instanceof Long && right instanceof Long) {
+            return Long.compare((Long) left, (Long) right);
+        }
+        return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+    }
+
+    /**
+     * A column that is read twice: in batches into a vector and one value at a time into rows, where a row is null if
+     * its value is either null or missing
+     */
+    private static class Column {
+        private final IColumnValuesReader batchReader;
+        private final IColumnValuesReader rowReader;
+        private final AILVectorRuntime vector;
+        private final Object[] rows;
+
+        Column(ATypeTag typeTag, long seed) {
+            batchReader = new DummyColumnReader(typeTag, NUMBER_OF_ENTRIES, seed);
+            rowReader = new DummyColumnReader(typeTag, NUMBER_OF_ENTRIES, seed);
+            vector = new AILVectorRuntime();
+            rows = new Object[BATCH_SIZE];
+        }
+
+        void next() throws HyracksDataException {
+            vector.load(batchReader, BATCH_SIZE);
+            Arrays.fill(rows, null);
+            for (int i = 0; i < BATCH_SIZE && rowReader.next(); i++) {
+                if (!rowReader.isValue()) {
+                    continue;
+                }
+                rows[i] = rowReader.getTypeTag() == ATypeTag.BIGINT ? (Object) rowReader.getLong()
+                        : (Object) rowReader.getDouble();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.collection;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
+import org.apache.asterix.codegen.asterix.map.UnsafeComparators;
+import org.apache.asterix.codegen.asterix.map.UnsafeHashAggregator;
+import org.apache.asterix.codegen.asterix.map.entry.AvgEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryUtil;
+import org.apache.asterix.codegen.asterix.map.entry.DoubleEntry;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.spark.unsafe.Platform;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnsafeCompositeKeyAggregatorTest {
+    private static final long BUDGET = 8 << 20;
+    private static final int SIZE = 100000;
+    private static final String[] NAMES = { "", "a", "ab", "abcdefghij", "b", "bcd", "\u00e9t\u00e9" };
+
+    @Test
+    public void testAvgByLongAndString() throws Exception {
+        UnsafeHashAggregator computer = new UnsafeHashAggregator(UnsafeAggregators.getAvgAggregator(), null,
+                UnsafeComparators.COMPOSITE_COMPARATOR, BUDGET);
+        Random random = new Random(0);
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        CompositeEntry key = new CompositeEntry();
+        DoubleEntry value = new DoubleEntry();
+        //Expected (sum, count) per (long, string) key
+        TreeMap<String, double[]> expected = new TreeMap<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            long id = random.nextInt(100) - 50;
+            String name = NAMES[random.nextInt(NAMES.length)];
+            double doubleValue = random.nextDouble();
+
+            storage.reset();
+            UTF8StringUtil.writeUTF8(name, storage.getDataOutput());
+            key.reset();
+            key.addLong(id);
+            key.addString(storage);
+            key.seal();
+            value.reset(doubleValue);
+            computer.aggregate(key, value);
+
+            double[] sumCount = expected.computeIfAbsent(toString(id, name), k -> new double[2]);
+            sumCount[0] += doubleValue;
+            sumCount[1]++;
+        }
+        Assert.assertEquals(expected.size(), computer.size());
+
+        Iterator<Location> iter = computer.sortedIterator();
+        Iterator<Map.Entry<String, double[]>> expectedIter = expected.entrySet().iterator();
+        while (iter.hasNext()) {
+            Location location = iter.next();
+            Map.Entry<String, double[]> expectedEntry = expectedIter.next();
+            Assert.assertEquals(expectedEntry.getKey(), toString(location));
+            Object valueBase = location.getValueBase();
+            long valueOffset = location.getValueOffset();
+            Assert.assertEquals(expectedEntry.getValue()[0], AvgEntry.getSum(valueBase, valueOffset), 1e-6);
+            Assert.assertEquals((long) expectedEntry.getValue()[1], AvgEntry.getCount(valueBase, valueOffset));
+        }
+        Assert.assertFalse(expectedIter.hasNext());
+    }
+
+    @Test
+    public void testPrefixIsConsistent() throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        CompositeEntry[] entries = new CompositeEntry[NAMES.length + 4];
+        for (int i = 0; i < NAMES.length; i++) {
+            storage.reset();
+            UTF8StringUtil.writeUTF8(NAMES[i], storage.getDataOutput());
+            entries[i] = new CompositeEntry();
+            entries[i].addString(storage);
+        }
+        double[] doubles = { -1.5, -0.0, 0.0, 2.25 };
+        for (int i = 0; i < doubles.length; i++) {
+            entries[NAMES.length + i] = new CompositeEntry();
+            entries[NAMES.length + i].addDouble(doubles[i]);
+        }
+
+        for (CompositeEntry left : entries) {
+            left.seal();
+            for (CompositeEntry right : entries) {
+                right.seal();
+                int compare = left.compareTo(right);
+                int prefixCompare = Long.compare(getPrefix(left), getPrefix(right));
+                Assert.assertTrue(prefixCompare == 0 || Integer.signum(prefixCompare) == Integer.signum(compare));
+            }
+        }
+    }
+
+    private static long getPrefix(CompositeEntry entry) {
+        return CompositeEntryUtil.computePrefix(entry.getByteArray(), Platform.BYTE_ARRAY_OFFSET, entry.getLength());
+    }
+
+    private static String toString(long id, String name) {
+        //Zero-padded ids with an offset keep the expected keys in the same order as the composite keys
+        return String.format("%03d|%s", id + 50, name);
+    }
+
+    private static String toString(Location location) {
+        Object baseObject = location.getKeyBase();
+        long offset = location.getKeyOffset();
+        long endOffset = offset + location.getKeyLength();
+        Assert.assertEquals(ATypeTag.BIGINT.serialize(), CompositeEntryUtil.getTypeTag(baseObject, offset, endOffset));
+        long id = Platform.getLong(baseObject, offset + 1);
+        long stringOffset = offset + 1 + Long.BYTES;
+        Assert.assertEquals(ATypeTag.STRING.serialize(),
+                CompositeEntryUtil.getTypeTag(baseObject, stringOffset, endOffset));
+        int length = CompositeEntryUtil.getValueLength(ATypeTag.STRING.serialize(), baseObject, stringOffset + 1,
+                endOffset);
+        byte[] bytes = new byte[length];
+        Platform.copyMemory(baseObject, stringOffset + 1, bytes, Platform.BYTE_ARRAY_OFFSET, length);
+        return toString(id, UTF8StringUtil.toString(bytes, 0));
+    }
+}
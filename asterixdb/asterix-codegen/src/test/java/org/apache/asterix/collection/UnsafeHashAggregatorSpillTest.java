@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.asterix.codegen.asterix.map.IUnsafeAggregator;
+import org.apache.asterix.codegen.asterix.map.UnsafeAggregators;
+import org.apache.asterix.codegen.asterix.map.UnsafeComparators;
+import org.apache.asterix.codegen.asterix.map.UnsafeHashAggregator;
+import org.apache.asterix.codegen.asterix.map.entry.IUnsafeMapResultAppender;
+import org.apache.asterix.codegen.asterix.map.entry.LongEntry;
+import org.apache.asterix.codegen.truffle.runtime.result.AILResultWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.test.support.TestUtils;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Aggregates more groups than the budget can hold, which spills the groups into several runs that are then merged
+ */
+public class UnsafeHashAggregatorSpillTest {
+    private static final int FRAME_SIZE = 32 * 1024;
+    //A single data page of the map and a merge fan-in of 3 runs
+    private static final long BUDGET = 4L * FRAME_SIZE;
+    private static final int NUMBER_OF_KEYS = 100000;
+    //Each key is aggregated once per round. The rounds' values of a key are spilled into different runs
+    private static final int NUMBER_OF_ROUNDS = 3;
+    private final Map<Long, Long> results = new HashMap<>();
+    private IHyracksTaskContext ctx;
+    private AILResultWriter resultWriter;
+
+    @Before
+    public void setUp() {
+        results.clear();
+        ctx = TestUtils.create(FRAME_SIZE);
+        //Nothing is appended to the result writer's tuple builder, flushing it writes nothing
+        resultWriter = new AILResultWriter(ctx, null, new ArrayTupleBuilder(1), null, null);
+    }
+
+    @Test
+    public void testSum() {
+        aggregate(UnsafeAggregators.getLongAggregator(UnsafeAggregators.SUM_NAME));
+        for (long key = 0; key < NUMBER_OF_KEYS; key++) {
+            //key + (key + NUMBER_OF_KEYS) + (key + 2 * NUMBER_OF_KEYS)
+            Assert.assertEquals(Long.valueOf(3 * key + 3L * NUMBER_OF_KEYS), results.get(key));
+        }
+    }
+
+    @Test
+    public void testCount() {
+        aggregate(UnsafeAggregators.getLongAggregator(UnsafeAggregators.COUNT_NAME));
+        for (long key = 0; key < NUMBER_OF_KEYS; key++) {
+            Assert.assertEquals(Long.valueOf(NUMBER_OF_ROUNDS), results.get(key));
+        }
+    }
+
+    @Test
+    public void testMinMax() {
+        aggregate(UnsafeAggregators.getLongAggregator(UnsafeAggregators.MIN_NAME));
+        for (long key = 0; key < NUMBER_OF_KEYS; key++) {
+            Assert.assertEquals(Long.valueOf(key), results.get(key));
+        }
+
+        results.clear();
+        aggregate(UnsafeAggregators.getLongAggregator(UnsafeAggregators.MAX_NAME));
+        for (long key = 0; key < NUMBER_OF_KEYS; key++) {
+            Assert.assertEquals(Long.valueOf(key + (NUMBER_OF_ROUNDS - 1L) * NUMBER_OF_KEYS), results.get(key));
+        }
+    }
+
+    private void aggregate(IUnsafeAggregator aggregator) {
+        UnsafeHashAggregator hashAggregator = new UnsafeHashAggregator(aggregator, new ResultCollector(),
+                UnsafeComparators.LONG_COMPARATOR, BUDGET, ctx);
+        LongEntry key = new LongEntry();
+        LongEntry value = new LongEntry();
+        for (long i = 0; i < (long) NUMBER_OF_KEYS * NUMBER_OF_ROUNDS; i++) {
+            key.reset(i % NUMBER_OF_KEYS);
+            value.reset(i);
+            Assert.assertTrue(hashAggregator.aggregate(key, value));
+        }
+        //More runs than can be merged at once
+        Assert.assertTrue(hashAggregator.getNumberOfRuns() > 3);
+
+        hashAggregator.append(resultWriter);
+        Assert.assertEquals(NUMBER_OF_KEYS, results.size());
+        //The runs were merged and deleted
+        Assert.assertEquals(0, hashAggregator.getNumberOfRuns());
+        Assert.assertEquals(0, hashAggregator.size());
+    }
+
+    private class ResultCollector implements IUnsafeMapResultAppender {
+        private final LongEntry key = new LongEntry();
+        private final LongEntry value = new LongEntry();
+
+        @Override
+        public void appendKey(AILResultWriter resultWriter, Location location) {
+            key.get(location.getKeyBase(), location.getKeyOffset(), location.getKeyLength());
+        }
+
+        @Override
+        public void appendKey(AILResultWriter resultWriter, IEntry entry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void appendValue(AILResultWriter resultWriter, Location location) {
+            value.getValue(location);
+            Assert.assertNull("duplicate group " + key.getValue(), results.put(key.getValue(), value.getValue()));
+        }
+
+        @Override
+        public void appendValue(AILResultWriter resultWriter, IEntry entry) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
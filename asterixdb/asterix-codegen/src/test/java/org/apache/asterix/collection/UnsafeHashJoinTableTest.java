@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.asterix.codegen.asterix.map.UnsafeHashJoinTable;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryAccessor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnsafeHashJoinTableTest {
+    private static final long BUDGET = 8 << 20;
+    private static final int BUILD_SIZE = 10000;
+    private static final int PROBE_SIZE = 20000;
+    private static final int NUMBER_OF_KEYS = 1000;
+
+    @Test
+    public void testDuplicatesAndMisses() throws Exception {
+        UnsafeHashJoinTable table = new UnsafeHashJoinTable(BUDGET);
+        Random random = new Random(0);
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        CompositeEntry key = new CompositeEntry();
+        CompositeEntry row = new CompositeEntry();
+        //Number of build rows per key
+        Map<Long, Integer> buildCounts = new HashMap<>();
+
+        for (int i = 0; i < BUILD_SIZE; i++) {
+            long id = random.nextInt(NUMBER_OF_KEYS);
+            setKey(key, id);
+            row.reset();
+            row.addLong(id);
+            storage.reset();
+            UTF8StringUtil.writeUTF8("name" + id, storage.getDataOutput());
+            row.addString(storage);
+            row.addNull();
+            row.seal();
+            Assert.assertTrue(table.build(key, row));
+            buildCounts.merge(id, 1, Integer::sum);
+        }
+        table.endBuild();
+
+        long expectedMatches = 0;
+        long matches = 0;
+        for (int i = 0; i < PROBE_SIZE; i++) {
+            //Half of the probe keys do not have any match
+            long id = random.nextInt(2 * NUMBER_OF_KEYS);
+            setKey(key, id);
+            row.reset();
+            row.addDouble(id / 2.0);
+            row.seal();
+            table.probe(key, row);
+            expectedMatches += buildCounts.getOrDefault(id, 0);
+            while (table.nextMatch()) {
+                CompositeEntryAccessor buildRow = table.getBuildRow();
+                CompositeEntryAccessor probeRow = table.getProbeRow();
+                Assert.assertEquals(id, buildRow.getLong(0));
+                Assert.assertEquals("name" + id, getString(buildRow, 1, storage));
+                Assert.assertEquals(ATypeTag.NULL.serialize(), buildRow.getTypeTag(2));
+                Assert.assertEquals(id / 2.0, probeRow.getDouble(0), 0.0);
+                matches++;
+            }
+        }
+        table.endProbe();
+        Assert.assertFalse(table.nextMatch());
+        Assert.assertEquals(expectedMatches, matches);
+        Assert.assertEquals(0, table.getNumberOfSpilledPartitions());
+        table.deallocate();
+    }
+
+    @Test
+    public void testFullTable() throws Exception {
+        UnsafeHashJoinTable table = new UnsafeHashJoinTable(1 << 20);
+        CompositeEntry key = new CompositeEntry();
+        CompositeEntry row = new CompositeEntry();
+        boolean full = false;
+        for (int i = 0; i < BUILD_SIZE * 10 && !full; i++) {
+            setKey(key, i);
+            row.reset();
+            row.addLong(i);
+            row.seal();
+            full = !table.build(key, row);
+        }
+        //The on-heap table does not spill
+        Assert.assertTrue(full);
+        table.deallocate();
+    }
+
+    private static void setKey(CompositeEntry key, long id) {
+        key.reset();
+        key.addLong(id);
+        key.seal();
+    }
+
+    private static String getString(CompositeEntryAccessor accessor, int index, ArrayBackedValueStorage storage) {
+        Assert.assertEquals(ATypeTag.STRING.serialize(), accessor.getTypeTag(index));
+        accessor.getString(index, storage);
+        return UTF8StringUtil.toString(storage.getByteArray(), 0);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.collection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.asterix.codegen.asterix.map.UnsafeComparators;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntry;
+import org.apache.asterix.codegen.asterix.map.entry.CompositeEntryAccessor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.unsafe.UnsafeTopKHeap;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.spark.unsafe.memory.MemoryAllocator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnsafeTopKHeapTest {
+    private static final long BUDGET = 8 << 20;
+    private static final int K = 100;
+    private static final int NUMBER_OF_ROWS = 20000;
+    private static final int NUMBER_OF_KEYS = 500;
+
+    @Test
+    public void testMixedDirections() {
+        //ORDER BY a DESC, b ASC (NULLs of b come first)
+        UnsafeTopKHeap heap = new UnsafeTopKHeap(MemoryAllocator.HEAP, null, BUDGET, K,
+                UnsafeComparators.getSortKeyComparator(new boolean[] { true, false }));
+        Random random = new Random(0);
+        CompositeEntry key = new CompositeEntry();
+        CompositeEntry row = new CompositeEntry();
+        List<Row> rows = new ArrayList<>();
+
+        for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+            long a = random.nextInt(NUMBER_OF_KEYS);
+            Double b = random.nextInt(10) == 0 ? null : random.nextDouble();
+            rows.add(new Row(a, b));
+            key.reset();
+            key.addLong(a);
+            if (b == null) {
+                key.addNull();
+            } else {
+                key.addDouble(b);
+            }
+            key.seal();
+            if (heap.isCandidate(key)) {
+                row.reset();
+                row.addLong(a);
+                row.seal();
+                Assert.assertTrue(heap.add(key, row));
+            }
+        }
+
+        rows.sort(Comparator.comparingLong((Row r) -> -r.a)
+                .thenComparing(r -> r.b, Comparator.nullsFirst(Comparator.naturalOrder())));
+        heap.sort();
+        Assert.assertEquals(K, heap.size());
+        CompositeEntryAccessor keyAccessor = new CompositeEntryAccessor();
+        CompositeEntryAccessor rowAccessor = new CompositeEntryAccessor();
+        for (int i = 0; i < K; i++) {
+            Assert.assertTrue(heap.next());
+            keyAccessor.reset(heap.getKeyBase(), heap.getKeyOffset(), heap.getKeyLength());
+            rowAccessor.reset(heap.getValueBase(), heap.getValueOffset(), heap.getValueLength());
+            Row expected = rows.get(i);
+            Assert.assertEquals(expected.a, keyAccessor.getLong(0));
+            Assert.assertEquals(expected.a, rowAccessor.getLong(0));
+            if (expected.b == null) {
+                Assert.assertEquals(ATypeTag.NULL.serialize(), keyAccessor.getTypeTag(1));
+            } else {
+                Assert.assertEquals(expected.b, keyAccessor.getDouble(1), 0.0);
+            }
+        }
+        Assert.assertFalse(heap.next());
+        heap.deallocate();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        //Every row replaces the largest one. Hence, the evicted rows must be reclaimed to stay within the budget
+        UnsafeTopKHeap heap = new UnsafeTopKHeap(MemoryAllocator.HEAP, null, 1 << 20, K,
+                UnsafeComparators.getSortKeyComparator(new boolean[] { false }));
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        CompositeEntry key = new CompositeEntry();
+        CompositeEntry row = new CompositeEntry();
+        int numberOfRows = NUMBER_OF_ROWS * 10;
+        for (int i = numberOfRows - 1; i >= 0; i--) {
+            key.reset();
+            key.addLong(i);
+            key.seal();
+            row.reset();
+            storage.reset();
+            UTF8StringUtil.writeUTF8("some relatively long name for the row number " + i, storage.getDataOutput());
+            row.addString(storage);
+            row.seal();
+            Assert.assertTrue(heap.add(key, row));
+        }
+
+        heap.sort();
+        CompositeEntryAccessor keyAccessor = new CompositeEntryAccessor();
+        CompositeEntryAccessor rowAccessor = new CompositeEntryAccessor();
+        for (int i = 0; i < K; i++) {
+            Assert.assertTrue(heap.next());
+            keyAccessor.reset(heap.getKeyBase(), heap.getKeyOffset(), heap.getKeyLength());
+            rowAccessor.reset(heap.getValueBase(), heap.getValueOffset(), heap.getValueLength());
+            Assert.assertEquals(i, keyAccessor.getLong(0));
+            rowAccessor.getString(0, storage);
+            Assert.assertEquals("some relatively long name for the row number " + i,
+                    UTF8StringUtil.toString(storage.getByteArray(), 0));
+        }
+        Assert.assertFalse(heap.next());
+        heap.deallocate();
+    }
+
+    private static class Row {
+        private final long a;
+        private final Double b;
+
+        private Row(long a, Double b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IJsonSerializable;
 import org.apache.hyracks.api.io.IPersistedResourceRegistry;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleReaderWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManager;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
 
@@ -45,12 +46,15 @@ public final class ColumnManagerFactory implements IColumnManagerFactory {
     private final int pageSize;
     private final int maxTupleCount;
     private final float tolerance;
+    private final ColumnCompression compression;
 
     public ColumnManagerFactory(ARecordType datasetType, ARecordType metaType, List<List<String>> primaryKeys,
-            List<Integer> keySourceIndicator, int pageSize, int maxTupleCount, float tolerance) {
+            List<Integer> keySourceIndicator, int pageSize, int maxTupleCount, float tolerance,
+            ColumnCompression compression) {
         this.pageSize = pageSize;
         this.maxTupleCount = maxTupleCount;
         this.tolerance = tolerance;
+        this.compression = compression;
 
         this.datasetType = datasetType;
         if (keySourceIndicator.size() != 1) {
@@ -69,17 +73,17 @@ public final class ColumnManagerFactory implements IColumnManagerFactory {
 
     @Override
     public AbstractColumnTupleReaderWriterFactory getLoadColumnTupleWriterFactory() {
-        return new LoadColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance);
+        return new LoadColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance, compression);
     }
 
     @Override
     public AbstractColumnTupleReaderWriterFactory getFlushColumnTupleReaderWriterFactory() {
-        return new FlushColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance);
+        return new FlushColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance, compression);
     }
 
     @Override
     public AbstractColumnTupleReaderWriterFactory createMergeColumnTupleReaderWriterFactory() {
-        return new MergeColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance);
+        return new MergeColumnTupleReaderWriterFactory(pageSize, maxTupleCount, tolerance, compression);
     }
 
     @Override
@@ -93,6 +97,7 @@ public final class ColumnManagerFactory implements IColumnManagerFactory {
         json.put("pageSize", pageSize);
         json.put("maxTupleCount", maxTupleCount);
         json.put("tolerance", tolerance);
+        json.put("compression", compression.getScheme());
 
         ArrayNode primaryKeysArray = json.putArray("primaryKeys");
         for (List<String> primaryKey : primaryKeys) {
@@ -121,6 +126,12 @@ public final class ColumnManagerFactory implements IColumnManagerFactory {
         int pageSize = json.get("pageSize").asInt();
         int maxTupleCount = json.get("maxTupleCount").asInt();
         float tolerance = (float) json.get("tolerance").asDouble();
+        //Resources created before introducing column compression do not have the compression field
+        JsonNode compressionNode = json.get("compression");
+        ColumnCompression compression = ColumnCompression.NONE;
+        if (compressionNode != null) {
+            compression = ColumnCompression.fromScheme(compressionNode.asText());
+        }
 
         List<List<String>> primaryKeys = new ArrayList<>();
         ArrayNode primaryKeysNode = (ArrayNode) json.get("primaryKeys");
@@ -140,7 +151,7 @@ public final class ColumnManagerFactory implements IColumnManagerFactory {
         }
 
         return new ColumnManagerFactory(datasetType, metaType, primaryKeys, keySourceIndicator, pageSize, maxTupleCount,
-                tolerance);
+                tolerance, compression);
     }
 
 }
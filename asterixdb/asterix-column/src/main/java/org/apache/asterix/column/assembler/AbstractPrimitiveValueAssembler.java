@@ -72,6 +72,10 @@ public abstract class AbstractPrimitiveValueAssembler extends AbstractValueAssem
         return reader.getColumnIndex();
     }
 
+    public final int getMaxLevel() {
+        return reader.getMaxLevel();
+    }
+
     public final void skip(int count) throws HyracksDataException {
         reader.skip(count);
     }
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.decoder;
+
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.encoder.AbstractDictionaryValuesWriter;
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Decoder for {@link AbstractDictionaryValuesWriter}. The dictionary is materialized on {@link #initFromPage}
+ * and values are then looked up using the RLE/bit-packed ids
+ */
+public abstract class AbstractDictionaryValuesReader extends AbstractParquetValuesReader {
+    //Decoders are cached by their bit widths [0, 32]
+    private final ParquetRunLengthBitPackingHybridDecoder[] idsDecoders;
+    private ParquetRunLengthBitPackingHybridDecoder idsDecoder;
+
+    protected AbstractDictionaryValuesReader() {
+        idsDecoders = new ParquetRunLengthBitPackingHybridDecoder[Integer.SIZE + 1];
+    }
+
+    @Override
+    public final void initFromPage(AbstractBytesInputStream stream) throws IOException {
+        readDictionary(stream, BytesUtils.readUnsignedVarInt(stream));
+        int bitWidth = stream.read();
+        if (bitWidth < 0 || bitWidth > Integer.SIZE) {
+            throw new ParquetDecodingException("Invalid dictionary ids bit width " + bitWidth);
+        }
+        if (idsDecoders[bitWidth] == null) {
+            idsDecoders[bitWidth] = new ParquetRunLengthBitPackingHybridDecoder(bitWidth);
+        }
+        idsDecoder = idsDecoders[bitWidth];
+        idsDecoder.reset(stream);
+    }
+
+    @Override
+    public final void skip() {
+        try {
+            readId();
+        } catch (HyracksDataException e) {
+            throw new ParquetDecodingException(e);
+        }
+    }
+
+    protected final int readId() throws HyracksDataException {
+        return idsDecoder.readInt();
+    }
+
+    protected abstract void readDictionary(AbstractBytesInputStream stream, int dictionarySize) throws IOException;
+}
@@ -32,6 +32,17 @@ public abstract class AbstractParquetValuesReader {
 
     public abstract void skip();
 
+    /**
+     * Skip multiple values at once
+     *
+     * @param count number of values to skip
+     */
+    public void skip(int count) {
+        for (int i = 0; i < count; i++) {
+            skip();
+        }
+    }
+
     public int readInteger() {
         throw new UnsupportedOperationException(getClass().getName());
     }
@@ -44,6 +55,32 @@ public abstract class AbstractParquetValuesReader {
         throw new UnsupportedOperationException(getClass().getName());
     }
 
+    /**
+     * Read multiple long values at once
+     *
+     * @param values destination array
+     * @param offset offset in the destination array
+     * @param length number of values to read
+     */
+    public void readLongs(long[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = readLong();
+        }
+    }
+
+    /**
+     * Read multiple double values at once
+     *
+     * @param values destination array
+     * @param offset offset in the destination array
+     * @param length number of values to read
+     */
+    public void readDoubles(double[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = readDouble();
+        }
+    }
+
     public IValueReference readBytes() {
         throw new UnsupportedOperationException(getClass().getName());
     }
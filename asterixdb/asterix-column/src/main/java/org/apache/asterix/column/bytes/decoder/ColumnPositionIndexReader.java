@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.asterix.column.bytes.encoder.ColumnPositionIndexWriter;
+import org.apache.parquet.bytes.BytesUtils;
+
+/**
+ * Reads the checkpoints written by {@link ColumnPositionIndexWriter}
+ */
+public final class ColumnPositionIndexReader {
+    private int[] positions;
+    private int[] offsets;
+    private int[] numberOfValues;
+    private int numberOfEntries;
+
+    public ColumnPositionIndexReader() {
+        positions = new int[0];
+        offsets = new int[0];
+        numberOfValues = new int[0];
+    }
+
+    public void reset() {
+        numberOfEntries = 0;
+    }
+
+    public void read(InputStream in) throws IOException {
+        numberOfEntries = BytesUtils.readUnsignedVarInt(in);
+        if (positions.length < numberOfEntries) {
+            positions = new int[numberOfEntries];
+            offsets = new int[numberOfEntries];
+            numberOfValues = new int[numberOfEntries];
+        }
+
+        int position = 0;
+        int offset = 0;
+        int values = 0;
+        for (int i = 0; i < numberOfEntries; i++) {
+            position += BytesUtils.readUnsignedVarInt(in);
+            offset += BytesUtils.readUnsignedVarInt(in);
+            values += BytesUtils.readUnsignedVarInt(in);
+            positions[i] = position;
+            offsets[i] = offset;
+            numberOfValues[i] = values;
+        }
+    }
+
+    /**
+     * @param position level position
+     * @return the index of the last checkpoint that is at or before the given position, or -1 if none
+     */
+    public int floor(int position) {
+        int index = Arrays.binarySearch(positions, 0, numberOfEntries, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getNumberOfValues(int index) {
+        return numberOfValues[index];
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.decoder;
+
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.encoder.DictionaryByteArrayValuesWriter;
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Decoder for {@link DictionaryByteArrayValuesWriter}
+ */
+public final class DictionaryByteArrayValuesReader extends AbstractDictionaryValuesReader {
+    private final ArrayBackedValueStorage entries;
+    private final IntArrayList offsets;
+    private final VoidPointable entry;
+    private final VoidPointable value;
+    private final byte[] lengthBytes;
+
+    /**
+     * @param containsLength whether the returned values should be prefixed with their UTF8 length
+     */
+    public DictionaryByteArrayValuesReader(boolean containsLength) {
+        entries = new ArrayBackedValueStorage();
+        offsets = new IntArrayList();
+        entry = new VoidPointable();
+        value = new VoidPointable();
+        lengthBytes = containsLength ? new byte[4] : new byte[0];
+    }
+
+    @Override
+    protected void readDictionary(AbstractBytesInputStream stream, int dictionarySize) throws IOException {
+        entries.reset();
+        offsets.clear();
+        for (int i = 0; i < dictionarySize; i++) {
+            int length = BytesUtils.readUnsignedVarInt(stream);
+            offsets.add(entries.getLength());
+            if (lengthBytes.length > 0) {
+                int numOfBytes = UTF8StringUtil.encodeUTF8Length(length, lengthBytes, 0);
+                entries.append(lengthBytes, 0, numOfBytes);
+            }
+            stream.read(entry, length);
+            entries.append(entry);
+        }
+    }
+
+    @Override
+    public IValueReference readBytes() {
+        try {
+            int id = readId();
+            int start = offsets.getInt(id);
+            int end = id + 1 < offsets.size() ? offsets.getInt(id + 1) : entries.getLength();
+            value.set(entries.getByteArray(), entries.getStartOffset() + start, end - start);
+            return value;
+        } catch (HyracksDataException e) {
+            throw new ParquetDecodingException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.decoder;
+
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.encoder.DictionaryLongValuesWriter;
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Decoder for {@link DictionaryLongValuesWriter}
+ */
+public final class DictionaryLongValuesReader extends AbstractDictionaryValuesReader {
+    private final LongArrayList values;
+
+    public DictionaryLongValuesReader() {
+        values = new LongArrayList();
+    }
+
+    @Override
+    protected void readDictionary(AbstractBytesInputStream stream, int dictionarySize) throws IOException {
+        values.clear();
+        for (int i = 0; i < dictionarySize; i++) {
+            values.add(BytesUtils.readZigZagVarLong(stream));
+        }
+    }
+
+    @Override
+    public long readLong() {
+        try {
+            return values.getLong(readId());
+        } catch (HyracksDataException e) {
+            throw new ParquetDecodingException(e);
+        }
+    }
+}
@@ -109,6 +109,18 @@ public class ParquetDeltaBinaryPackingValuesReader extends AbstractParquetValues
         valuesRead++;
     }
 
+    @Override
+    public void skip(int count) {
+        int remaining = count;
+        while (remaining > 0) {
+            checkRead();
+            int toSkip = Math.min(remaining, valuesBuffered - valuesBufferedRead);
+            valuesBufferedRead += toSkip;
+            valuesRead += toSkip;
+            remaining -= toSkip;
+        }
+    }
+
     @Override
     public int readInteger() {
         // TODO: probably implement it separately
@@ -122,6 +134,23 @@ public class ParquetDeltaBinaryPackingValuesReader extends AbstractParquetValues
         return valuesBuffer[valuesBufferedRead++];
     }
 
+    /**
+     * Copies the decoded values of the current block at once instead of reading them one by one
+     */
+    @Override
+    public void readLongs(long[] values, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        while (index < end) {
+            checkRead();
+            int count = Math.min(end - index, valuesBuffered - valuesBufferedRead);
+            System.arraycopy(valuesBuffer, valuesBufferedRead, values, index, count);
+            valuesBufferedRead += count;
+            valuesRead += count;
+            index += count;
+        }
+    }
+
     private void checkRead() {
         if (valuesRead >= totalValueCount) {
             throw new ParquetDecodingException("no more value to read, total value count is " + totalValueCount);
@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.column.bytes.decoder;
 
+import java.io.EOFException;
 import java.io.IOException;
 
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
@@ -41,6 +42,22 @@ public class ParquetDoublePlainValuesReader extends AbstractParquetValuesReader
         }
     }
 
+    @Override
+    public void skip(int count) {
+        try {
+            int remaining = count * Double.BYTES;
+            while (remaining > 0) {
+                int skipped = in.skipBytes(remaining);
+                if (skipped <= 0) {
+                    throw new EOFException();
+                }
+                remaining -= skipped;
+            }
+        } catch (IOException e) {
+            throw new ParquetDecodingException("could not skip doubles", e);
+        }
+    }
+
     @Override
     public double readDouble() {
         try {
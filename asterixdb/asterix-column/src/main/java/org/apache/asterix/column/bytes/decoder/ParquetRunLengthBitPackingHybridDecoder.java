@@ -71,6 +71,69 @@ public class ParquetRunLengthBitPackingHybridDecoder {
         }
     }
 
+    /**
+     * Read multiple values at once. A run of repeated values is filled and a bit-packed run is copied in bulk
+     *
+     * @param values destination array
+     * @param offset offset in the destination array
+     * @param length number of values to read
+     */
+    public void readInts(int[] values, int offset, int length) throws HyracksDataException {
+        try {
+            int end = offset + length;
+            int index = offset;
+            while (index < end) {
+                if (currentCount == 0) {
+                    readNext();
+                }
+                int count = Math.min(currentCount, end - index);
+                if (mode == MODE.RLE) {
+                    Arrays.fill(values, index, index + count, currentValue);
+                } else {
+                    System.arraycopy(currentBuffer, currentBufferLength - currentCount, values, index, count);
+                }
+                currentCount -= count;
+                index += count;
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Skip multiple values without copying them. A run of repeated values is skipped at once
+     *
+     * @param length number of values to skip
+     * @param mask   mask to apply on the skipped values before comparing them against {@code value}
+     * @param value  the value to count
+     * @return number of skipped values that are equal to {@code value} after applying {@code mask}
+     */
+    public int skip(int length, int mask, int value) throws HyracksDataException {
+        try {
+            int numberOfMatches = 0;
+            int remaining = length;
+            while (remaining > 0) {
+                if (currentCount == 0) {
+                    readNext();
+                }
+                int count = Math.min(currentCount, remaining);
+                if (mode == MODE.RLE) {
+                    numberOfMatches += (currentValue & mask) == value ? count : 0;
+                } else {
+                    int start = currentBufferLength - currentCount;
+                    for (int i = start; i < start + count; i++) {
+                        numberOfMatches += (currentBuffer[i] & mask) == value ? 1 : 0;
+                    }
+                }
+                currentCount -= count;
+                remaining -= count;
+            }
+            return numberOfMatches;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
     private int nextInt() throws IOException {
         if (currentCount == 0) {
             readNext();
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.asterix.column.bytes.stream.out.GrowableBytesOutputStream;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetEncodingException;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Encodes values as ids of a dictionary. The encoded values are laid out as:
+ * [dictionary size][dictionary entries][ids bit width][RLE/bit-packed ids]
+ * <p>
+ * A writer accepts up to {@link #MAX_DICTIONARY_SIZE} distinct values. The owner of the writer is expected to fall
+ * back to the type's default encoding once a value cannot be added (see {@link #writeTo(AbstractParquetValuesWriter)})
+ */
+public abstract class AbstractDictionaryValuesWriter extends AbstractParquetValuesWriter {
+    public static final int MAX_DICTIONARY_SIZE = 1024;
+    /*
+     * On average, each distinct value should appear at least this many times for the dictionary encoding to be
+     * worthwhile. Otherwise, the type's default encoding is used.
+     */
+    private static final int MIN_AVERAGE_REPETITION = 4;
+    private final IntArrayList ids;
+    private final GrowableBytesOutputStream dictionaryStream;
+    private ParquetRunLengthBitPackingHybridEncoder idsEncoder;
+
+    protected AbstractDictionaryValuesWriter() {
+        ids = new IntArrayList();
+        dictionaryStream = new GrowableBytesOutputStream();
+    }
+
+    /**
+     * @return whether encoding the written values using the dictionary is worthwhile
+     */
+    public final boolean isWorthwhile() {
+        int dictionarySize = getDictionarySize();
+        return dictionarySize > 0 && (long) dictionarySize * MIN_AVERAGE_REPETITION <= ids.size();
+    }
+
+    /**
+     * Write all the values (in the same order they were written to this writer) to another writer
+     *
+     * @param writer the destination writer
+     */
+    public final void writeTo(AbstractParquetValuesWriter writer) {
+        for (int i = 0; i < ids.size(); i++) {
+            writeEntry(ids.getInt(i), writer);
+        }
+    }
+
+    @Override
+    public final BytesInput getBytes() {
+        int dictionarySize = getDictionarySize();
+        int bitWidth = getBitWidth(dictionarySize);
+        try {
+            BytesUtils.writeUnsignedVarInt(dictionarySize, dictionaryStream);
+            writeDictionary(dictionaryStream);
+            dictionaryStream.write(bitWidth);
+
+            ParquetRunLengthBitPackingHybridEncoder encoder = getIdsEncoder(bitWidth);
+            for (int i = 0; i < ids.size(); i++) {
+                encoder.writeInt(ids.getInt(i));
+            }
+            return BytesInput.concat(dictionaryStream.asBytesInput(), encoder.toBytes());
+        } catch (IOException e) {
+            throw new ParquetEncodingException("could not write dictionary", e);
+        }
+    }
+
+    @Override
+    public final void reset() {
+        ids.clear();
+        dictionaryStream.reset();
+        if (idsEncoder != null) {
+            idsEncoder.reset();
+        }
+        resetDictionary();
+    }
+
+    @Override
+    public final void close() {
+        ids.clear();
+        dictionaryStream.finish();
+        if (idsEncoder != null) {
+            idsEncoder.close();
+        }
+        resetDictionary();
+    }
+
+    @Override
+    public final int getEstimatedSize() {
+        //Bit-packed ids (rounded up) + 1-byte header per bit-packed run + dictionary size and bit width
+        long idsSize = ((long) ids.size() * getBitWidth(getDictionarySize()) + 7) / 8 + ids.size() / 504 + 1;
+        return (int) idsSize + getDictionaryEstimatedSize() + Integer.BYTES + 1;
+    }
+
+    @Override
+    public final int getAllocatedSize() {
+        int encoderSize = idsEncoder == null ? 0 : idsEncoder.getAllocatedSize();
+        return dictionaryStream.capacity() + encoderSize;
+    }
+
+    protected final void addId(int id) {
+        ids.add(id);
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    protected abstract int getDictionarySize();
+
+    /**
+     * @return the estimated size of the dictionary entries in bytes
+     */
+    protected abstract int getDictionaryEstimatedSize();
+
+    protected abstract void writeDictionary(OutputStream out) throws IOException;
+
+    protected abstract void writeEntry(int id, AbstractParquetValuesWriter writer);
+
+    protected abstract void resetDictionary();
+
+    private ParquetRunLengthBitPackingHybridEncoder getIdsEncoder(int bitWidth) {
+        if (idsEncoder == null || idsEncoder.getBitWidth() != bitWidth) {
+            if (idsEncoder != null) {
+                idsEncoder.close();
+            }
+            idsEncoder = new ParquetRunLengthBitPackingHybridEncoder(bitWidth);
+        }
+        return idsEncoder;
+    }
+
+    private static int getBitWidth(int dictionarySize) {
+        return BytesUtils.getWidthFromMaxInt(Math.max(0, dictionarySize - 1));
+    }
+}
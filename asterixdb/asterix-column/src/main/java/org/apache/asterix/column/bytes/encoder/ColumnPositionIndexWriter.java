@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.asterix.column.util.ColumnValuesUtil;
+import org.apache.parquet.bytes.BytesUtils;
+
+/**
+ * A sparse position index of the runs written by {@link ParquetRunLengthBitPackingHybridEncoder}. A checkpoint is
+ * recorded at the start of the first run that begins at least {@link #INTERVAL} levels after the previous checkpoint.
+ * Each checkpoint stores:
+ * - the number of levels before the run
+ * - the offset of the run's header in the encoded levels
+ * - the number of values before the run (i.e., the levels that are equal to the column's max level)
+ * <p>
+ * The checkpoints are written as deltas of their previous checkpoints
+ */
+public final class ColumnPositionIndexWriter {
+    public static final int INTERVAL = 512;
+    //Three var-ints per entry that are mostly less than 3-bytes long
+    private static final int ENTRY_ESTIMATED_SIZE = 3 * 3;
+    private static final int INITIAL_CAPACITY = 16;
+    private final int maxLevel;
+    private final int nullBitMask;
+    private int[] positions;
+    private int[] offsets;
+    private int[] numberOfValues;
+    private int numberOfEntries;
+    private int levelCount;
+    private int valueCount;
+    private int nextCheckpoint;
+
+    public ColumnPositionIndexWriter(int maxLevel) {
+        this.maxLevel = maxLevel;
+        nullBitMask = ColumnValuesUtil.getNullMask(maxLevel);
+        positions = new int[INITIAL_CAPACITY];
+        offsets = new int[INITIAL_CAPACITY];
+        numberOfValues = new int[INITIAL_CAPACITY];
+        reset();
+    }
+
+    /**
+     * A new run is about to be written
+     *
+     * @param offset the offset of the run's header
+     */
+    void startRun(int offset) {
+        if (levelCount < nextCheckpoint) {
+            return;
+        }
+
+        if (numberOfEntries == positions.length) {
+            int newCapacity = positions.length * 2;
+            positions = Arrays.copyOf(positions, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            numberOfValues = Arrays.copyOf(numberOfValues, newCapacity);
+        }
+        positions[numberOfEntries] = levelCount;
+        offsets[numberOfEntries] = offset;
+        numberOfValues[numberOfEntries] = valueCount;
+        numberOfEntries++;
+        nextCheckpoint = levelCount + INTERVAL;
+    }
+
+    /**
+     * Add the levels of a run-length encoded run
+     */
+    void addLevels(int level, int count) {
+        levelCount += count;
+        valueCount += isValue(level) ? count : 0;
+    }
+
+    /**
+     * Add the levels of a bit-packed group
+     */
+    void addLevels(int[] levels, int count) {
+        for (int i = 0; i < count; i++) {
+            valueCount += isValue(levels[i]) ? 1 : 0;
+        }
+        levelCount += count;
+    }
+
+    public boolean isEmpty() {
+        return numberOfEntries == 0;
+    }
+
+    public int getEstimatedSize() {
+        return numberOfEntries * ENTRY_ESTIMATED_SIZE;
+    }
+
+    public void write(OutputStream out) throws IOException {
+        BytesUtils.writeUnsignedVarInt(numberOfEntries, out);
+        int previousPosition = 0;
+        int previousOffset = 0;
+        int previousNumberOfValues = 0;
+        for (int i = 0; i < numberOfEntries; i++) {
+            BytesUtils.writeUnsignedVarInt(positions[i] - previousPosition, out);
+            BytesUtils.writeUnsignedVarInt(offsets[i] - previousOffset, out);
+            BytesUtils.writeUnsignedVarInt(numberOfValues[i] - previousNumberOfValues, out);
+            previousPosition = positions[i];
+            previousOffset = offsets[i];
+            previousNumberOfValues = numberOfValues[i];
+        }
+    }
+
+    public void reset() {
+        numberOfEntries = 0;
+        levelCount = 0;
+        valueCount = 0;
+        //There is no need to have a checkpoint at the first run
+        nextCheckpoint = INTERVAL;
+    }
+
+    private boolean isValue(int level) {
+        return ColumnValuesUtil.clearNullBit(nullBitMask, level) == maxLevel;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.io.ParquetEncodingException;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Dictionary encoder for byte arrays (e.g., strings). Each dictionary entry is written as [length][bytes]
+ */
+public final class DictionaryByteArrayValuesWriter extends AbstractDictionaryValuesWriter {
+    //Limits the dictionary's size for columns with few but large values
+    private static final int MAX_DICTIONARY_BYTES = 64 * 1024;
+    //Open addressing table of (entry id + 1), 0 means empty
+    private final int[] table;
+    private final int mask;
+    private final IntArrayList hashes;
+    private final IntArrayList offsets;
+    private final ArrayBackedValueStorage entries;
+    private final VoidPointable entry;
+
+    public DictionaryByteArrayValuesWriter() {
+        table = new int[MAX_DICTIONARY_SIZE * 2];
+        mask = table.length - 1;
+        hashes = new IntArrayList();
+        offsets = new IntArrayList();
+        entries = new ArrayBackedValueStorage();
+        entry = new VoidPointable();
+    }
+
+    /**
+     * Add a value to the dictionary
+     *
+     * @param value           the value to add
+     * @param skipLengthBytes whether to skip the length bytes of the value
+     * @return true if the value was added, false if the dictionary is full and the value is not part of it
+     */
+    public boolean tryWriteBytes(IValueReference value, boolean skipLengthBytes) {
+        byte[] bytes = value.getByteArray();
+        int start = value.getStartOffset();
+        int length = value.getLength();
+        if (skipLengthBytes) {
+            int lengthBytes = UTF8StringUtil.getNumBytesToStoreLength(bytes, start);
+            start += lengthBytes;
+            length -= lengthBytes;
+        }
+
+        int hash = hash(bytes, start, length);
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (hashes.getInt(id) == hash && isEqual(id, bytes, start, length)) {
+                addId(id);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = offsets.size();
+        if (id == MAX_DICTIONARY_SIZE || entries.getLength() + length > MAX_DICTIONARY_BYTES) {
+            return false;
+        }
+
+        offsets.add(entries.getLength());
+        hashes.add(hash);
+        try {
+            entries.append(bytes, start, length);
+        } catch (IOException e) {
+            throw new ParquetEncodingException("could not add dictionary entry", e);
+        }
+        table[slot] = id + 1;
+        addId(id);
+        return true;
+    }
+
+    @Override
+    protected int getDictionarySize() {
+        return offsets.size();
+    }
+
+    @Override
+    protected int getDictionaryEstimatedSize() {
+        //Entries + at most 4 bytes for each entry's length
+        return entries.getLength() + offsets.size() * Integer.BYTES;
+    }
+
+    @Override
+    protected void writeDictionary(OutputStream out) throws IOException {
+        for (int i = 0; i < offsets.size(); i++) {
+            setEntry(i);
+            BytesUtils.writeUnsignedVarInt(entry.getLength(), out);
+            out.write(entry.getByteArray(), entry.getStartOffset(), entry.getLength());
+        }
+    }
+
+    @Override
+    protected void writeEntry(int id, AbstractParquetValuesWriter writer) {
+        setEntry(id);
+        writer.writeBytes(entry, false);
+    }
+
+    @Override
+    protected void resetDictionary() {
+        Arrays.fill(table, 0);
+        hashes.clear();
+        offsets.clear();
+        entries.reset();
+    }
+
+    private void setEntry(int id) {
+        int start = offsets.getInt(id);
+        int end = id + 1 < offsets.size() ? offsets.getInt(id + 1) : entries.getLength();
+        entry.set(entries.getByteArray(), entries.getStartOffset() + start, end - start);
+    }
+
+    private boolean isEqual(int id, byte[] bytes, int start, int length) {
+        setEntry(id);
+        return Arrays.equals(entry.getByteArray(), entry.getStartOffset(), entry.getStartOffset() + entry.getLength(),
+                bytes, start, start + length);
+    }
+
+    private static int hash(byte[] bytes, int start, int length) {
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        //Spread the higher bits as the table is indexed by the lower bits
+        return hash ^ (hash >>> 16);
+    }
+}
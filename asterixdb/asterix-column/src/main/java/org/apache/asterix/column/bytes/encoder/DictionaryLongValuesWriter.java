@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.bytes.encoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.parquet.bytes.BytesUtils;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Dictionary encoder for long values. Each dictionary entry is written as a zigzag var-long
+ */
+public final class DictionaryLongValuesWriter extends AbstractDictionaryValuesWriter {
+    private final Long2IntOpenHashMap valueToId;
+    private final LongArrayList values;
+
+    public DictionaryLongValuesWriter() {
+        valueToId = new Long2IntOpenHashMap();
+        valueToId.defaultReturnValue(-1);
+        values = new LongArrayList();
+    }
+
+    /**
+     * Add a value to the dictionary
+     *
+     * @param value the value to add
+     * @return true if the value was added, false if the dictionary is full and the value is not part of it
+     */
+    public boolean tryWriteLong(long value) {
+        int id = valueToId.get(value);
+        if (id < 0) {
+            id = values.size();
+            if (id == MAX_DICTIONARY_SIZE) {
+                return false;
+            }
+            valueToId.put(value, id);
+            values.add(value);
+        }
+        addId(id);
+        return true;
+    }
+
+    @Override
+    protected int getDictionarySize() {
+        return values.size();
+    }
+
+    @Override
+    protected int getDictionaryEstimatedSize() {
+        //A zigzag var-long takes at most 10 bytes
+        return values.size() * 10;
+    }
+
+    @Override
+    protected void writeDictionary(OutputStream out) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            BytesUtils.writeZigZagVarLong(values.getLong(i), out);
+        }
+    }
+
+    @Override
+    protected void writeEntry(int id, AbstractParquetValuesWriter writer) {
+        writer.writeLong(values.getLong(id));
+    }
+
+    @Override
+    protected void resetDictionary() {
+        valueToId.clear();
+        values.clear();
+    }
+}
@@ -86,9 +86,18 @@ public class ParquetRunLengthBitPackingHybridEncoder {
      */
     private final IReservedPointer bitPackedRunHeaderPointer;
 
+    /**
+     * Sparse checkpoints of the written runs (could be null)
+     */
+    private final ColumnPositionIndexWriter positionIndex;
+
     private boolean toBytesCalled;
 
     public ParquetRunLengthBitPackingHybridEncoder(int bitWidth) {
+        this(bitWidth, null);
+    }
+
+    public ParquetRunLengthBitPackingHybridEncoder(int bitWidth, ColumnPositionIndexWriter positionIndex) {
 
         Preconditions.checkArgument(bitWidth >= 0 && bitWidth <= 32, "bitWidth must be >= 0 and <= 32");
 
@@ -98,6 +107,7 @@ public class ParquetRunLengthBitPackingHybridEncoder {
         this.packBuffer = new byte[bitWidth];
         this.bufferedValues = new int[8];
         this.packer = Packer.LITTLE_ENDIAN.newBytePacker(bitWidth);
+        this.positionIndex = positionIndex;
         reset(false);
     }
 
@@ -111,6 +121,9 @@ public class ParquetRunLengthBitPackingHybridEncoder {
         this.bitPackedGroupCount = 0;
         this.bitPackedRunHeaderPointer.reset();
         this.toBytesCalled = false;
+        if (positionIndex != null) {
+            positionIndex.reset();
+        }
     }
 
     public void writeInt(int value) throws IOException {
@@ -162,11 +175,18 @@ public class ParquetRunLengthBitPackingHybridEncoder {
         if (!bitPackedRunHeaderPointer.isSet()) {
             // this is a new bit-packed-run, allocate a byte for the header
             // and keep a "pointer" to it so that it can be mutated later
+            if (positionIndex != null) {
+                positionIndex.startRun(outputStream.size());
+            }
             outputStream.reserveByte(bitPackedRunHeaderPointer);
         }
 
         packer.pack8Values(bufferedValues, 0, packBuffer, 0);
         outputStream.write(packBuffer);
+        if (positionIndex != null) {
+            // the last group could be padded with zeros, which are not part of the levels
+            positionIndex.addLevels(bufferedValues, numBufferedValues);
+        }
 
         // empty the buffer, they've all been written
         numBufferedValues = 0;
@@ -209,6 +229,11 @@ public class ParquetRunLengthBitPackingHybridEncoder {
         // rle-run
         endPreviousBitPackedRun();
 
+        if (positionIndex != null) {
+            positionIndex.startRun(outputStream.size());
+            positionIndex.addLevels(previousValue, repeatCount);
+        }
+
         // write the rle-header (lsb of 0 signifies a rle run)
         BytesUtils.writeUnsignedVarInt(repeatCount << 1, outputStream);
         // write the repeated-value
@@ -260,4 +285,8 @@ public class ParquetRunLengthBitPackingHybridEncoder {
     public int getAllocatedSize() {
         return outputStream.capacity();
     }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.asterix.column.bytes.stream.out;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.apache.asterix.column.bytes.stream.out.pointer.GrowableBytesPointer;
 import org.apache.asterix.column.bytes.stream.out.pointer.IReservedPointer;
@@ -79,6 +80,13 @@ public final class GrowableBytesOutputStream extends AbstractBytesOutputStream {
         return storage.getByteArray().length;
     }
 
+    /**
+     * @return a buffer that wraps the written bytes (without copying them)
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(storage.getByteArray(), storage.getStartOffset(), storage.getLength());
+    }
+
     @Override
     public void writeTo(OutputStream outputStream) throws IOException {
         outputStream.write(storage.getByteArray(), storage.getStartOffset(), storage.getLength());
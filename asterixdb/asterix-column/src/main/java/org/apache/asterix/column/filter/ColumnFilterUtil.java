@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.column.metadata.FieldNamesDictionary;
+import org.apache.asterix.column.metadata.schema.AbstractSchemaNode;
+import org.apache.asterix.column.metadata.schema.ObjectSchemaNode;
+import org.apache.asterix.column.metadata.schema.primitive.PrimitiveSchemaNode;
+import org.apache.asterix.column.values.writer.filters.DoubleColumnFilterWriter;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo.Comparison;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+public class ColumnFilterUtil {
+    //Largest magnitude of a long that can be represented exactly as a double
+    private static final long MAX_EXACT_DOUBLE_LONG = 1L << 53;
+
+    private ColumnFilterUtil() {
+    }
+
+    /**
+     * Create a filter evaluator for the pushed down range predicates. Predicates that cannot be resolved to a single
+     * column of a compatible type (e.g., the value is heterogeneous or does not exist) are ignored.
+     *
+     * @param filters              pushed down range predicates
+     * @param root                 the inferred (unclipped) schema
+     * @param fieldNamesDictionary field names dictionary
+     * @return filter evaluator
+     */
+    public static IColumnFilterEvaluator createEvaluator(List<ColumnRangeFilterInfo> filters, ObjectSchemaNode root,
+            FieldNamesDictionary fieldNamesDictionary) throws HyracksDataException {
+        List<IColumnFilterEvaluator> evaluators = new ArrayList<>();
+        for (ColumnRangeFilterInfo filter : filters) {
+            PrimitiveSchemaNode node = findNode(filter.getPath(), root, fieldNamesDictionary);
+            if (node != null) {
+                IColumnFilterEvaluator evaluator = createEvaluator(filter, node);
+                if (evaluator != null) {
+                    evaluators.add(evaluator);
+                }
+            }
+        }
+
+        if (evaluators.isEmpty()) {
+            return NoOpColumnFilterEvaluator.INSTANCE;
+        } else if (evaluators.size() == 1) {
+            return evaluators.get(0);
+        }
+        return new ConjunctiveColumnFilterEvaluator(evaluators.toArray(new IColumnFilterEvaluator[0]));
+    }
+
+    private static PrimitiveSchemaNode findNode(List<String> path, ObjectSchemaNode root,
+            FieldNamesDictionary fieldNamesDictionary) throws HyracksDataException {
+        AbstractSchemaNode node = root;
+        for (String fieldName : path) {
+            if (node.getTypeTag() != ATypeTag.OBJECT) {
+                return null;
+            }
+            int fieldNameIndex = fieldNamesDictionary.getFieldNameIndex(fieldName);
+            if (fieldNameIndex < 0) {
+                return null;
+            }
+            node = ((ObjectSchemaNode) node).getChild(fieldNameIndex);
+        }
+
+        //Primary keys do not have filters. Also, MissingFieldSchemaNode is not a PrimitiveSchemaNode
+        if (node instanceof PrimitiveSchemaNode && !((PrimitiveSchemaNode) node).isPrimaryKey()) {
+            return (PrimitiveSchemaNode) node;
+        }
+        return null;
+    }
+
+    private static IColumnFilterEvaluator createEvaluator(ColumnRangeFilterInfo filter, PrimitiveSchemaNode node) {
+        int columnIndex = node.getColumnIndex();
+        Comparison comparison = filter.getComparison();
+        ATypeTag columnType = node.getTypeTag();
+        ATypeTag constantType = filter.getTypeTag();
+
+        if (columnType == ATypeTag.BIGINT && constantType == ATypeTag.BIGINT) {
+            long value = filter.getLongValue();
+            return new ColumnRangeFilterEvaluator(columnIndex, columnType, comparison, value, value, false);
+        } else if (columnType == ATypeTag.DOUBLE) {
+            double value;
+            if (constantType == ATypeTag.DOUBLE) {
+                value = filter.getDoubleValue();
+            } else if (isExactDouble(filter.getLongValue())) {
+                value = filter.getLongValue();
+            } else {
+                return null;
+            }
+
+            if (Double.isNaN(value)) {
+                return null;
+            }
+            //-0.0 and 0.0 are equal, but normalized differently
+            double low = value == 0.0d ? -0.0d : value;
+            double high = value == 0.0d ? 0.0d : value;
+            return new ColumnRangeFilterEvaluator(columnIndex, columnType, comparison,
+                    DoubleColumnFilterWriter.normalize(low), DoubleColumnFilterWriter.normalize(high), true);
+        }
+        //Strings' normalized values are not order-preserving
+        return null;
+    }
+
+    private static boolean isExactDouble(long value) {
+        return value >= -MAX_EXACT_DOUBLE_LONG && value <= MAX_EXACT_DOUBLE_LONG;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import static org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter.FILTER_SIZE;
+
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.column.operation.query.ColumnAssembler;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesReaderFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo.Comparison;
+
+/**
+ * Evaluates a single range predicate against the normalized min/max values of a column. The evaluation is
+ * conservative; it returns false only if no value between min and max can satisfy the predicate.
+ */
+final class ColumnRangeFilterEvaluator implements IColumnFilterEvaluator {
+    private final int columnIndex;
+    private final ATypeTag columnType;
+    private final Comparison comparison;
+    //Normalized constant to compare against the column's max value
+    private final long lowValue;
+    //Normalized constant to compare against the column's min value
+    private final long highValue;
+    //Whether the normalized values should be compared as unsigned longs
+    private final boolean unsigned;
+
+    ColumnRangeFilterEvaluator(int columnIndex, ATypeTag columnType, Comparison comparison, long lowValue,
+            long highValue, boolean unsigned) {
+        this.columnIndex = columnIndex;
+        this.columnType = columnType;
+        this.comparison = comparison;
+        this.lowValue = lowValue;
+        this.highValue = highValue;
+        this.unsigned = unsigned;
+    }
+
+    @Override
+    public boolean evaluate(ByteBuffer pageZero, int filtersOffset, int numberOfColumns) {
+        if (columnIndex >= numberOfColumns) {
+            //The column was not part of the schema when this leaf was written. Do not skip
+            return true;
+        }
+
+        int offset = filtersOffset + columnIndex * FILTER_SIZE;
+        long min = pageZero.getLong(offset);
+        long max = pageZero.getLong(offset + Long.BYTES);
+        switch (comparison) {
+            case EQ:
+                return compare(highValue, min) >= 0 && compare(lowValue, max) <= 0;
+            case LT:
+            case LE:
+                return compare(highValue, min) >= 0;
+            case GT:
+            case GE:
+                return compare(lowValue, max) <= 0;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public IColumnTupleFilterEvaluator createTupleFilterEvaluator(ColumnAssembler assembler,
+            IColumnValuesReaderFactory readerFactory) {
+        int ordinal = assembler.getOrdinal(columnIndex);
+        if (ordinal < 0) {
+            //The filtered column is not projected
+            return NoOpColumnTupleFilterEvaluator.INSTANCE;
+        }
+        IColumnValuesReader reader =
+                readerFactory.createValueReader(columnType, columnIndex, assembler.getMaxLevel(ordinal), false);
+        return new ColumnRangeTupleFilterEvaluator(ordinal, reader, this);
+    }
+
+    /**
+     * @param value a normalized value of the column
+     * @return true if the value satisfies the predicate
+     */
+    boolean satisfies(long value) {
+        switch (comparison) {
+            case EQ:
+                return compare(value, lowValue) >= 0 && compare(value, highValue) <= 0;
+            case LT:
+                return compare(value, lowValue) < 0;
+            case LE:
+                return compare(value, highValue) <= 0;
+            case GT:
+                return compare(value, highValue) > 0;
+            case GE:
+                return compare(value, lowValue) >= 0;
+            default:
+                return true;
+        }
+    }
+
+    private int compare(long left, long right) {
+        return unsigned ? Long.compareUnsigned(left, right) : Long.compare(left, right);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.writer.filters.DoubleColumnFilterWriter;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Evaluates a single range predicate against the values of a projected column. The column is decoded by its own
+ * reader, and hence, the assembler's reader of the same column is not affected.
+ */
+final class ColumnRangeTupleFilterEvaluator implements IColumnTupleFilterEvaluator {
+    private static final int BATCH_SIZE = 1024;
+    private final int ordinal;
+    private final IColumnValuesReader reader;
+    private final ColumnRangeFilterEvaluator rangeEvaluator;
+    private final AbstractBytesInputStream stream;
+    private final ColumnValuesBatch batch;
+
+    ColumnRangeTupleFilterEvaluator(int ordinal, IColumnValuesReader reader,
+            ColumnRangeFilterEvaluator rangeEvaluator) {
+        this.ordinal = ordinal;
+        this.reader = reader;
+        this.rangeEvaluator = rangeEvaluator;
+        stream = new MultiByteBufferInputStream();
+        batch = new ColumnValuesBatch();
+    }
+
+    @Override
+    public void evaluate(int ordinal, AbstractBytesInputStream columnStream, int startIndex, int numberOfTuples,
+            BitSet selection) throws HyracksDataException {
+        if (ordinal != this.ordinal) {
+            return;
+        }
+
+        try {
+            stream.resetAt(0, columnStream);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        reader.reset(stream, numberOfTuples);
+        reader.skip(startIndex);
+
+        boolean doubleValues = reader.getTypeTag() == ATypeTag.DOUBLE;
+        int position = 0;
+        int count;
+        while ((count = reader.readBatch(batch, BATCH_SIZE)) > 0) {
+            for (int i = 0; i < count; i++) {
+                if (!batch.isValue(i)) {
+                    //NULL and MISSING values cannot satisfy a comparison
+                    selection.clear(position + i);
+                } else if (doubleValues) {
+                    double value = batch.getDouble(i);
+                    //Leave NaN values to the query's filter
+                    if (!Double.isNaN(value)
+                            && !rangeEvaluator.satisfies(DoubleColumnFilterWriter.normalize(value))) {
+                        selection.clear(position + i);
+                    }
+                } else if (!rangeEvaluator.satisfies(batch.getLong(i))) {
+                    selection.clear(position + i);
+                }
+            }
+            position += count;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.column.operation.query.ColumnAssembler;
+import org.apache.asterix.column.values.IColumnValuesReaderFactory;
+
+final class ConjunctiveColumnFilterEvaluator implements IColumnFilterEvaluator {
+    private final IColumnFilterEvaluator[] evaluators;
+
+    ConjunctiveColumnFilterEvaluator(IColumnFilterEvaluator[] evaluators) {
+        this.evaluators = evaluators;
+    }
+
+    @Override
+    public boolean evaluate(ByteBuffer pageZero, int filtersOffset, int numberOfColumns) {
+        for (int i = 0; i < evaluators.length; i++) {
+            if (!evaluators[i].evaluate(pageZero, filtersOffset, numberOfColumns)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public IColumnTupleFilterEvaluator createTupleFilterEvaluator(ColumnAssembler assembler,
+            IColumnValuesReaderFactory readerFactory) {
+        List<IColumnTupleFilterEvaluator> tupleEvaluators = new ArrayList<>();
+        for (int i = 0; i < evaluators.length; i++) {
+            IColumnTupleFilterEvaluator tupleEvaluator =
+                    evaluators[i].createTupleFilterEvaluator(assembler, readerFactory);
+            if (tupleEvaluator != NoOpColumnTupleFilterEvaluator.INSTANCE) {
+                tupleEvaluators.add(tupleEvaluator);
+            }
+        }
+
+        if (tupleEvaluators.isEmpty()) {
+            return NoOpColumnTupleFilterEvaluator.INSTANCE;
+        } else if (tupleEvaluators.size() == 1) {
+            return tupleEvaluators.get(0);
+        }
+        return new ConjunctiveColumnTupleFilterEvaluator(tupleEvaluators.toArray(new IColumnTupleFilterEvaluator[0]));
+    }
+}
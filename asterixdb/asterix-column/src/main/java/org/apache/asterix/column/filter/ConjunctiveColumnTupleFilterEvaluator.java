@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.util.BitSet;
+
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+final class ConjunctiveColumnTupleFilterEvaluator implements IColumnTupleFilterEvaluator {
+    private final IColumnTupleFilterEvaluator[] evaluators;
+
+    ConjunctiveColumnTupleFilterEvaluator(IColumnTupleFilterEvaluator[] evaluators) {
+        this.evaluators = evaluators;
+    }
+
+    @Override
+    public void evaluate(int ordinal, AbstractBytesInputStream columnStream, int startIndex, int numberOfTuples,
+            BitSet selection) throws HyracksDataException {
+        //Each evaluator clears the positions that do not satisfy its predicate
+        for (int i = 0; i < evaluators.length; i++) {
+            evaluators[i].evaluate(ordinal, columnStream, startIndex, numberOfTuples, selection);
+        }
+    }
+}
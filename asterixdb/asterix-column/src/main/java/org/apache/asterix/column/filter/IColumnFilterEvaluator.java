@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.column.operation.query.ColumnAssembler;
+import org.apache.asterix.column.values.IColumnValuesReaderFactory;
+
+/**
+ * Evaluates a filter against the min/max values of the columns of a mega leaf node
+ *
+ * @see org.apache.asterix.column.values.writer.ColumnBatchWriter
+ */
+public interface IColumnFilterEvaluator {
+    /**
+     * @param pageZero        Page0 of the mega leaf node
+     * @param filtersOffset   the start offset of the columns' min/max values in Page0
+     * @param numberOfColumns number of columns in the mega leaf node
+     * @return true if the mega leaf node may contain values that satisfy the filter, false otherwise
+     */
+    boolean evaluate(ByteBuffer pageZero, int filtersOffset, int numberOfColumns);
+
+    /**
+     * Create an evaluator of this filter against the tuples' values. Only the filtered columns that are projected
+     * (i.e., assembled) can be evaluated at the tuple level.
+     *
+     * @param assembler     the assembler of the projected columns
+     * @param readerFactory column reader factory
+     * @return tuple filter evaluator or {@link NoOpColumnTupleFilterEvaluator#INSTANCE} if none of the filtered
+     * columns is projected
+     */
+    IColumnTupleFilterEvaluator createTupleFilterEvaluator(ColumnAssembler assembler,
+            IColumnValuesReaderFactory readerFactory);
+}
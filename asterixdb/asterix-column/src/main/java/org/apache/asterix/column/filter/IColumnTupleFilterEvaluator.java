@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import java.util.BitSet;
+
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Evaluates a filter against the values of the tuples of a mega leaf node. Unlike {@link IColumnFilterEvaluator},
+ * which can only skip an entire mega leaf node, this evaluator determines which tuples of the mega leaf node satisfy
+ * the filter before any of their projected values is assembled.
+ */
+public interface IColumnTupleFilterEvaluator {
+    /**
+     * Evaluate the filter against the values of a projected column. Evaluators that do not filter the given column
+     * ignore it.
+     *
+     * @param ordinal        the projected column's ordinal
+     * @param columnStream   the column's stream (it is not consumed by this evaluator)
+     * @param startIndex     the index of the first tuple to evaluate
+     * @param numberOfTuples number of tuples in the mega leaf node
+     * @param selection      the positions of the column's entries (one per non-anti-matter tuple) that satisfy the
+     *                       filter. The positions of the entries that do not satisfy the filter are cleared
+     */
+    void evaluate(int ordinal, AbstractBytesInputStream columnStream, int startIndex, int numberOfTuples,
+            BitSet selection) throws HyracksDataException;
+}
@@ -21,6 +21,7 @@ package org.apache.asterix.column.operation.lsm.flush;
 import org.apache.asterix.om.pointables.lazy.RecordLazyVisitablePointable;
 import org.apache.asterix.om.pointables.lazy.TypedRecordLazyVisitablePointable;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
 
 public class FlushColumnTupleWithMetaWriter extends FlushColumnTupleWriter {
@@ -28,8 +29,8 @@ public class FlushColumnTupleWithMetaWriter extends FlushColumnTupleWriter {
     private final RecordLazyVisitablePointable metaPointable;
 
     public FlushColumnTupleWithMetaWriter(FlushColumnMetadata columnMetadata, int pageSize, int maxNumberOfTuples,
-            float tolerance) {
-        super(columnMetadata, pageSize, maxNumberOfTuples, tolerance);
+            float tolerance, ColumnCompression compression) {
+        super(columnMetadata, pageSize, maxNumberOfTuples, tolerance, compression);
         metaColumnTransformer = new ColumnTransformer(columnMetadata, columnMetadata.getMetaRoot());
         metaPointable = new TypedRecordLazyVisitablePointable(columnMetadata.getMetaType());
     }
@@ -21,12 +21,14 @@ package org.apache.asterix.column.operation.lsm.flush;
 import java.nio.ByteBuffer;
 
 import org.apache.asterix.column.values.writer.ColumnBatchWriter;
+import org.apache.asterix.column.values.writer.ColumnEncodingExecutor;
 import org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter;
 import org.apache.asterix.om.pointables.lazy.RecordLazyVisitablePointable;
 import org.apache.asterix.om.pointables.lazy.TypedRecordLazyVisitablePointable;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleWriter;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
 
@@ -42,11 +44,13 @@ public class FlushColumnTupleWriter extends AbstractColumnTupleWriter {
     protected int primaryKeysEstimatedSize;
 
     public FlushColumnTupleWriter(FlushColumnMetadata columnMetadata, int pageSize, int maxNumberOfTuples,
-            float tolerance) {
+            float tolerance, ColumnCompression compression) {
         this.columnMetadata = columnMetadata;
         transformer = new ColumnTransformer(columnMetadata, columnMetadata.getRoot());
         finalizer = new BatchFinalizerVisitor(columnMetadata);
-        writer = new ColumnBatchWriter(columnMetadata.getMultiPageOpRef(), pageSize, tolerance);
+        //Columns are encoded in parallel as the memory component's tuples are written by a single thread
+        writer = new ColumnBatchWriter(columnMetadata.getMultiPageOpRef(), pageSize, tolerance, compression,
+                ColumnEncodingExecutor.get());
         this.maxNumberOfTuples = maxNumberOfTuples;
         pointable = new TypedRecordLazyVisitablePointable(columnMetadata.getDatasetType());
     }
@@ -22,11 +22,12 @@ import org.apache.asterix.column.operation.lsm.flush.FlushColumnMetadata;
 import org.apache.asterix.column.operation.lsm.flush.FlushColumnTupleWriter;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 
 public class LoadColumnTupleWriter extends FlushColumnTupleWriter {
     public LoadColumnTupleWriter(FlushColumnMetadata columnMetadata, int pageSize, int maxNumberOfTuples,
-            float tolerance) {
-        super(columnMetadata, pageSize, maxNumberOfTuples, tolerance);
+            float tolerance, ColumnCompression compression) {
+        super(columnMetadata, pageSize, maxNumberOfTuples, tolerance, compression);
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.tuple.MergeColumnTupleReference;
 import org.apache.asterix.column.util.RunLengthIntArray;
 import org.apache.asterix.column.values.IColumnValuesReader;
@@ -32,8 +33,10 @@ import org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWrite
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleWriter;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
 
 public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
     private final MergeColumnWriteMetadata columnMetadata;
@@ -45,9 +48,12 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
     private final ColumnBatchWriter writer;
     private final int maxNumberOfTuples;
     private int primaryKeysEstimatedSize;
+    private int numberOfTuples;
+    private boolean containsAntimatter;
+    private boolean copied;
 
     public MergeColumnTupleWriter(MergeColumnWriteMetadata columnMetadata, int pageSize, int maxNumberOfTuples,
-            float tolerance) {
+            float tolerance, ColumnCompression compression) {
         this.columnMetadata = columnMetadata;
         List<AbstractColumnTupleReference> componentsTuplesList = columnMetadata.getComponentsTuples();
         this.componentsTuples = new MergeColumnTupleReference[componentsTuplesList.size()];
@@ -56,7 +62,7 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
         }
         this.writtenComponents = new RunLengthIntArray();
         this.maxNumberOfTuples = maxNumberOfTuples;
-        writer = new ColumnBatchWriter(columnMetadata.getMultiPageOpRef(), pageSize, tolerance);
+        writer = new ColumnBatchWriter(columnMetadata.getMultiPageOpRef(), pageSize, tolerance, compression);
         writtenComponents.reset();
 
         primaryKeyWriters = new IColumnValuesWriter[columnMetadata.getNumberOfPrimaryKeys()];
@@ -98,31 +104,94 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
         return primaryKeysEstimatedSize + filterSize;
     }
 
+    @Override
+    public boolean startNewPage(ITupleReference tuple, MultiComparator cmp) throws HyracksDataException {
+        if (copied) {
+            //Nothing can be appended to the copied columns
+            return true;
+        }
+        /*
+         * Start a new page at the beginning of a leaf that does not overlap with the remaining tuples of other
+         * components. The leaf's tuples will be the only tuples of the new page, and its columns can be copied as-is
+         */
+        MergeColumnTupleReference columnTuple = (MergeColumnTupleReference) tuple;
+        return columnTuple.isFirstTuple() && columnTuple.getTupleCount() <= maxNumberOfTuples
+                && !overlaps(columnTuple, cmp);
+    }
+
     @Override
     public void writeTuple(ITupleReference tuple) throws HyracksDataException {
         MergeColumnTupleReference columnTuple = (MergeColumnTupleReference) tuple;
         int componentIndex = columnTuple.getComponentIndex();
         int skipCount = columnTuple.getAndResetSkipCount();
         if (skipCount > 0) {
-            writtenComponents.add(-componentIndex, skipCount);
+            writtenComponents.add(setAntimatterIndicator(componentIndex), skipCount);
+            containsAntimatter = true;
         }
         if (columnTuple.isAntimatter()) {
-            writtenComponents.add(-componentIndex);
+            writtenComponents.add(setAntimatterIndicator(componentIndex));
+            containsAntimatter = true;
         } else {
             writtenComponents.add(componentIndex);
         }
+        numberOfTuples++;
         writePrimaryKeys(columnTuple);
         if (columnTuple.isLastTuple()) {
             /*
              * This is the last tuple from one of the components. Since we are going to the next leaf, we will not be
              * able to access the readers of this component's leaf after this tuple. So, we are going to write
-             * the values of all columns as recorded in writtenComponents
+             * the values of all columns as recorded in writtenComponents (or copy them if the entire leaf is
+             * written into this page)
              */
-            writeNonKeyColumns();
+            if (isWholeLeaf(columnTuple)) {
+                copyNonKeyColumns(columnTuple);
+                copied = true;
+            } else {
+                writeNonKeyColumns();
+            }
             writtenComponents.reset();
         }
     }
 
+    private boolean overlaps(MergeColumnTupleReference columnTuple, MultiComparator cmp)
+            throws HyracksDataException {
+        ITupleReference lastKey = columnTuple.getLastKey();
+        for (MergeColumnTupleReference componentTuple : componentsTuples) {
+            /*
+             * The current tuple of another component is either still to be written (i.e., greater than the given
+             * tuple) or it was already written (or reconciled) when its component has no more tuples. Components
+             * without any tuples have no current tuple at all
+             */
+            if (componentTuple != columnTuple && componentTuple.getFieldData(0) != null
+                    && cmp.compare(componentTuple, columnTuple) > 0
+                    && cmp.compare(componentTuple, lastKey) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isWholeLeaf(MergeColumnTupleReference columnTuple) {
+        //All tuples of the page are all (and only) the non-anti-matter tuples of the component's leaf
+        return !containsAntimatter && writtenComponents.getNumberOfBlocks() == 1
+                && writtenComponents.getSize() == numberOfTuples && numberOfTuples == columnTuple.getTupleCount();
+    }
+
+    private void copyNonKeyColumns(MergeColumnTupleReference componentTuple) throws HyracksDataException {
+        for (int j = columnMetadata.getNumberOfPrimaryKeys(); j < columnMetadata.getNumberOfColumns(); j++) {
+            IColumnValuesReader columnReader = componentTuple.getReader(j);
+            IColumnValuesWriter columnWriter = columnMetadata.getWriter(j);
+            AbstractBytesInputStream encodedColumn = componentTuple.getEncodedColumn(j);
+            if (encodedColumn.available() > 0 && columnWriter.isCompatible(columnReader)) {
+                columnWriter.writeEncoded(encodedColumn, componentTuple.getNormalizedMinValue(j),
+                        componentTuple.getNormalizedMaxValue(j));
+            } else {
+                //The column is missing in the leaf or its type has changed
+                columnReader.write(columnWriter, numberOfTuples);
+            }
+        }
+    }
+
     private void writePrimaryKeys(MergeColumnTupleReference columnTuple) throws HyracksDataException {
         int primaryKeySize = 0;
         for (int i = 0; i < columnMetadata.getNumberOfPrimaryKeys(); i++) {
@@ -139,8 +208,8 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
             int componentIndex = writtenComponents.getBlockValue(i);
             if (componentIndex < 0) {
                 //Skip anti-matter values
-                componentIndex = -componentIndex;
-                skipReaders(componentIndex, writtenComponents.getBlockSize(componentIndex));
+                componentIndex = clearAntimatterIndicator(componentIndex);
+                skipReaders(componentIndex, writtenComponents.getBlockSize(i));
                 continue;
             }
             MergeColumnTupleReference componentTuple = componentsTuples[componentIndex];
@@ -153,6 +222,18 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
         }
     }
 
+    /**
+     * Anti-matter (and skipped) tuples are recorded as negative component indexes. The newest component's index is 0,
+     * and hence, the index is shifted by one to distinguish it from its anti-matter indicator
+     */
+    private static int setAntimatterIndicator(int componentIndex) {
+        return -componentIndex - 1;
+    }
+
+    private static int clearAntimatterIndicator(int componentIndex) {
+        return -componentIndex - 1;
+    }
+
     private void skipReaders(int componentIndex, int count) throws HyracksDataException {
         MergeColumnTupleReference componentTuple = componentsTuples[componentIndex];
         for (int j = columnMetadata.getNumberOfPrimaryKeys(); j < columnMetadata.getNumberOfColumns(); j++) {
@@ -175,6 +256,9 @@ public class MergeColumnTupleWriter extends AbstractColumnTupleWriter {
         writer.setPageZeroBuffer(pageZero, numberOfColumns, numberOfPrimaryKeys);
         int allocatedSpace = writer.writePrimaryKeyColumns(primaryKeyWriters);
         allocatedSpace += writer.writeColumns(orderedColumns);
+        numberOfTuples = 0;
+        containsAntimatter = false;
+        copied = false;
         return allocatedSpace;
     }
 
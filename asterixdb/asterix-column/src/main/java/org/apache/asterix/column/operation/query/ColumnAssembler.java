@@ -59,6 +59,23 @@ public final class ColumnAssembler {
         return assemblers.get(ordinal).getColumnIndex();
     }
 
+    /**
+     * @param columnIndex column index
+     * @return the ordinal of the column or -1 if the column is not projected
+     */
+    public int getOrdinal(int columnIndex) {
+        for (int i = 0; i < assemblers.size(); i++) {
+            if (assemblers.get(i).getColumnIndex() == columnIndex) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getMaxLevel(int ordinal) {
+        return assemblers.get(ordinal).getMaxLevel();
+    }
+
     public IValueReference nextValue() throws HyracksDataException {
         if (tupleIndex == numberOfTuples) {
             return null;
@@ -22,9 +22,14 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.assembler.value.IValueGetterFactory;
+import org.apache.asterix.column.filter.ColumnFilterUtil;
+import org.apache.asterix.column.filter.IColumnFilterEvaluator;
+import org.apache.asterix.column.filter.IColumnTupleFilterEvaluator;
 import org.apache.asterix.column.metadata.AbstractColumnImmutableReadMetadata;
 import org.apache.asterix.column.metadata.FieldNamesDictionary;
 import org.apache.asterix.column.metadata.schema.AbstractSchemaNode;
@@ -32,6 +37,7 @@ import org.apache.asterix.column.metadata.schema.ObjectSchemaNode;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.IColumnValuesReaderFactory;
 import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.DataProjectionInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -46,16 +52,21 @@ import org.apache.hyracks.storage.am.lsm.btree.column.utils.UnsafeUtil;
 public class QueryColumnMetadata extends AbstractColumnImmutableReadMetadata {
     private final FieldNamesDictionary fieldNamesDictionary;
     private final IColumnValuesReader[] primaryKeyReaders;
+    private final IColumnFilterEvaluator filterEvaluator;
+    private final IColumnTupleFilterEvaluator tupleFilterEvaluator;
     protected final ColumnAssembler assembler;
 
     protected QueryColumnMetadata(ARecordType datasetType, ARecordType metaType,
             IColumnValuesReader[] primaryKeyReaders, IValueReference serializedMetadata,
             FieldNamesDictionary fieldNamesDictionary, ObjectSchemaNode root, IColumnValuesReaderFactory readerFactory,
-            IValueGetterFactory valueGetterFactory) throws HyracksDataException {
+            IValueGetterFactory valueGetterFactory, IColumnFilterEvaluator filterEvaluator)
+            throws HyracksDataException {
         super(datasetType, metaType, primaryKeyReaders.length, serializedMetadata, -1);
         this.fieldNamesDictionary = fieldNamesDictionary;
         this.assembler = new ColumnAssembler(root, datasetType, this, readerFactory, valueGetterFactory);
         this.primaryKeyReaders = primaryKeyReaders;
+        this.filterEvaluator = filterEvaluator;
+        tupleFilterEvaluator = filterEvaluator.createTupleFilterEvaluator(assembler, readerFactory);
     }
 
     public final ColumnAssembler getAssembler() {
@@ -70,6 +81,20 @@ public class QueryColumnMetadata extends AbstractColumnImmutableReadMetadata {
         return primaryKeyReaders;
     }
 
+    /**
+     * @return evaluator of the pushed down range predicates against mega leaf nodes' min/max values
+     */
+    public final IColumnFilterEvaluator getFilterEvaluator() {
+        return filterEvaluator;
+    }
+
+    /**
+     * @return evaluator of the pushed down range predicates against the values of the projected columns
+     */
+    public final IColumnTupleFilterEvaluator getTupleFilterEvaluator() {
+        return tupleFilterEvaluator;
+    }
+
     /* *****************************************************
      * Non-final methods
      * *****************************************************
@@ -115,6 +140,28 @@ public class QueryColumnMetadata extends AbstractColumnImmutableReadMetadata {
             IValueGetterFactory valueGetterFactory, ARecordType requestedType,
             Map<String, FunctionCallInformation> functionCallInfoMap, IWarningCollector warningCollector)
             throws IOException {
+        return create(datasetType, numberOfPrimaryKeys, serializedMetadata, readerFactory, valueGetterFactory,
+                requestedType, functionCallInfoMap, Collections.emptyList(), warningCollector);
+    }
+
+    /**
+     * Create {@link QueryColumnMetadata} that would be used to determine the requested values and to skip the mega
+     * leaf nodes that cannot satisfy the pushed down range predicates
+     *
+     * @param datasetType         dataset declared type
+     * @param numberOfPrimaryKeys number of PKs
+     * @param serializedMetadata  inferred metadata (schema)
+     * @param readerFactory       column reader factory
+     * @param valueGetterFactory  value serializer
+     * @param requestedType       the requested schema
+     * @param rangeFilters        pushed down range predicates
+     * @return query metadata
+     */
+    public static QueryColumnMetadata create(ARecordType datasetType, int numberOfPrimaryKeys,
+            IValueReference serializedMetadata, IColumnValuesReaderFactory readerFactory,
+            IValueGetterFactory valueGetterFactory, ARecordType requestedType,
+            Map<String, FunctionCallInformation> functionCallInfoMap, List<ColumnRangeFilterInfo> rangeFilters,
+            IWarningCollector warningCollector) throws IOException {
         byte[] bytes = serializedMetadata.getByteArray();
         int offset = serializedMetadata.getStartOffset();
         int length = serializedMetadata.getLength();
@@ -139,8 +186,12 @@ public class QueryColumnMetadata extends AbstractColumnImmutableReadMetadata {
 
         IColumnValuesReader[] primaryKeyReaders = createPrimaryKeyReaders(input, readerFactory, numberOfPrimaryKeys);
 
+        //Filters are resolved against the unclipped schema as the filtered values may not be requested
+        IColumnFilterEvaluator filterEvaluator =
+                ColumnFilterUtil.createEvaluator(rangeFilters, root, fieldNamesDictionary);
+
         return new QueryColumnMetadata(datasetType, null, primaryKeyReaders, serializedMetadata, fieldNamesDictionary,
-                clippedRoot, readerFactory, valueGetterFactory);
+                clippedRoot, readerFactory, valueGetterFactory, filterEvaluator);
     }
 
     protected static ObjectSchemaNode clip(ARecordType requestedType, ObjectSchemaNode root,
@@ -20,12 +20,14 @@ package org.apache.asterix.column.operation.query;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.assembler.value.ValueGetterFactory;
 import org.apache.asterix.column.tuple.QueryColumnTupleReference;
 import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
 import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
@@ -40,14 +42,17 @@ class QueryColumnTupleProjector implements IColumnTupleProjector {
     protected final ARecordType requestedType;
     protected final int numberOfPrimaryKeys;
     protected final Map<String, FunctionCallInformation> functionCallInfoMap;
+    protected final List<ColumnRangeFilterInfo> rangeFilters;
     protected final IWarningCollector warningCollector;
 
     QueryColumnTupleProjector(ARecordType datasetType, int numberOfPrimaryKeys, ARecordType requestedType,
-            Map<String, FunctionCallInformation> functionCallInfoMap, IWarningCollector warningCollector) {
+            Map<String, FunctionCallInformation> functionCallInfoMap, List<ColumnRangeFilterInfo> rangeFilters,
+            IWarningCollector warningCollector) {
         this.datasetType = datasetType;
         this.numberOfPrimaryKeys = numberOfPrimaryKeys;
         this.requestedType = requestedType;
         this.functionCallInfoMap = functionCallInfoMap;
+        this.rangeFilters = rangeFilters;
         this.warningCollector = warningCollector;
     }
 
@@ -56,7 +61,7 @@ class QueryColumnTupleProjector implements IColumnTupleProjector {
         try {
             return QueryColumnMetadata.create(datasetType, numberOfPrimaryKeys, serializedMetadata,
                     new ColumnValueReaderFactory(), ValueGetterFactory.INSTANCE, requestedType, functionCallInfoMap,
-                    warningCollector);
+                    rangeFilters, warningCollector);
         } catch (IOException e) {
             throw HyracksDataException.create(e);
         }
@@ -18,9 +18,11 @@
  */
 package org.apache.asterix.column.operation.query;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.DataProjectionInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -37,10 +39,12 @@ public class QueryColumnTupleProjectorFactory implements ITupleProjectorFactory
     private final ARecordType requestedMetaType;
     private final Map<String, FunctionCallInformation> functionCallInfo;
     private final Map<String, FunctionCallInformation> metaFunctionCallInfo;
+    private final List<ColumnRangeFilterInfo> rangeFilters;
 
     public QueryColumnTupleProjectorFactory(ARecordType datasetType, ARecordType metaType, int numberOfPrimaryKeys,
             ARecordType requestedType, Map<String, FunctionCallInformation> functionCallInfo,
-            ARecordType requestedMetaType, Map<String, FunctionCallInformation> metaFunctionCallInfo) {
+            ARecordType requestedMetaType, Map<String, FunctionCallInformation> metaFunctionCallInfo,
+            List<ColumnRangeFilterInfo> rangeFilters) {
         this.datasetType = datasetType;
         this.metaType = metaType;
         this.numberOfPrimaryKeys = numberOfPrimaryKeys;
@@ -48,6 +52,7 @@ public class QueryColumnTupleProjectorFactory implements ITupleProjectorFactory
         this.functionCallInfo = functionCallInfo;
         this.requestedMetaType = requestedMetaType;
         this.metaFunctionCallInfo = metaFunctionCallInfo;
+        this.rangeFilters = rangeFilters;
     }
 
     @Override
@@ -60,10 +65,10 @@ public class QueryColumnTupleProjectorFactory implements ITupleProjectorFactory
              * ignore reading the meta columns (if exist)
              */
             return new QueryColumnTupleProjector(datasetType, numberOfPrimaryKeys, requestedType, functionCallInfo,
-                    warningCollector);
+                    rangeFilters, warningCollector);
         }
         //The query requested some or all of the meta columns
         return new QueryColumnWithMetaTupleProjector(datasetType, metaType, numberOfPrimaryKeys, requestedType,
-                functionCallInfo, requestedMetaType, metaFunctionCallInfo, warningCollector);
+                functionCallInfo, requestedMetaType, metaFunctionCallInfo, rangeFilters, warningCollector);
     }
 }
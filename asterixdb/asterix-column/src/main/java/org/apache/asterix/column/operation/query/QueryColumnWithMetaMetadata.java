@@ -22,15 +22,19 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.assembler.value.IValueGetterFactory;
+import org.apache.asterix.column.filter.ColumnFilterUtil;
+import org.apache.asterix.column.filter.IColumnFilterEvaluator;
 import org.apache.asterix.column.metadata.FieldNamesDictionary;
 import org.apache.asterix.column.metadata.schema.AbstractSchemaNode;
 import org.apache.asterix.column.metadata.schema.ObjectSchemaNode;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.IColumnValuesReaderFactory;
 import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
@@ -47,10 +51,10 @@ public final class QueryColumnWithMetaMetadata extends QueryColumnMetadata {
     private QueryColumnWithMetaMetadata(ARecordType datasetType, ARecordType metaType,
             IColumnValuesReader[] primaryKeyReaders, IValueReference serializedMetadata,
             FieldNamesDictionary fieldNamesDictionary, ObjectSchemaNode root, ObjectSchemaNode metaRoot,
-            IColumnValuesReaderFactory readerFactory, IValueGetterFactory valueGetterFactory)
-            throws HyracksDataException {
+            IColumnValuesReaderFactory readerFactory, IValueGetterFactory valueGetterFactory,
+            IColumnFilterEvaluator filterEvaluator) throws HyracksDataException {
         super(datasetType, metaType, primaryKeyReaders, serializedMetadata, fieldNamesDictionary, root, readerFactory,
-                valueGetterFactory);
+                valueGetterFactory, filterEvaluator);
         metaAssembler = new ColumnAssembler(metaRoot, metaType, this, readerFactory, valueGetterFactory);
     }
 
@@ -97,14 +101,15 @@ public final class QueryColumnWithMetaMetadata extends QueryColumnMetadata {
      * @param readerFactory       column reader factory
      * @param valueGetterFactory  value serializer
      * @param requestedType       the requested schema
+     * @param rangeFilters        pushed down range predicates on the dataset's record
      * @return query metadata
      */
     public static QueryColumnWithMetaMetadata create(ARecordType datasetType, ARecordType metaType,
             int numberOfPrimaryKeys, IValueReference serializedMetadata, IColumnValuesReaderFactory readerFactory,
             IValueGetterFactory valueGetterFactory, ARecordType requestedType,
             Map<String, FunctionCallInformation> functionCallInfo, ARecordType metaRequestedType,
-            Map<String, FunctionCallInformation> metaFunctionCallInfo, IWarningCollector warningCollector)
-            throws IOException {
+            Map<String, FunctionCallInformation> metaFunctionCallInfo, List<ColumnRangeFilterInfo> rangeFilters,
+            IWarningCollector warningCollector) throws IOException {
         byte[] bytes = serializedMetadata.getByteArray();
         int offset = serializedMetadata.getStartOffset();
         int length = serializedMetadata.getLength();
@@ -131,7 +136,11 @@ public final class QueryColumnWithMetaMetadata extends QueryColumnMetadata {
 
         IColumnValuesReader[] primaryKeyReaders = createPrimaryKeyReaders(input, readerFactory, numberOfPrimaryKeys);
 
+        IColumnFilterEvaluator filterEvaluator =
+                ColumnFilterUtil.createEvaluator(rangeFilters, root, fieldNamesDictionary);
+
         return new QueryColumnWithMetaMetadata(datasetType, metaType, primaryKeyReaders, serializedMetadata,
-                fieldNamesDictionary, clippedRoot, metaClippedRoot, readerFactory, valueGetterFactory);
+                fieldNamesDictionary, clippedRoot, metaClippedRoot, readerFactory, valueGetterFactory,
+                filterEvaluator);
     }
 }
@@ -20,12 +20,14 @@ package org.apache.asterix.column.operation.query;
 
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.asterix.column.assembler.value.ValueGetterFactory;
 import org.apache.asterix.column.tuple.QueryColumnWithMetaTupleReference;
 import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
 import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
@@ -42,8 +44,8 @@ class QueryColumnWithMetaTupleProjector extends QueryColumnTupleProjector {
     QueryColumnWithMetaTupleProjector(ARecordType datasetType, ARecordType metaType, int numberOfPrimaryKeys,
             ARecordType requestedType, Map<String, FunctionCallInformation> functionCallInfoMap,
             ARecordType requestedMetaType, Map<String, FunctionCallInformation> metaFunctionCallInfoMap,
-            IWarningCollector warningCollector) {
-        super(datasetType, numberOfPrimaryKeys, requestedType, functionCallInfoMap, warningCollector);
+            List<ColumnRangeFilterInfo> rangeFilters, IWarningCollector warningCollector) {
+        super(datasetType, numberOfPrimaryKeys, requestedType, functionCallInfoMap, rangeFilters, warningCollector);
         this.metaType = metaType;
         this.requestedMetaType = requestedMetaType;
         this.metaFunctionCallInfoMap = metaFunctionCallInfoMap;
@@ -54,7 +56,7 @@ class QueryColumnWithMetaTupleProjector extends QueryColumnTupleProjector {
         try {
             return QueryColumnWithMetaMetadata.create(datasetType, metaType, numberOfPrimaryKeys, serializedMetadata,
                     new ColumnValueReaderFactory(), ValueGetterFactory.INSTANCE, requestedType, functionCallInfoMap,
-                    requestedMetaType, metaFunctionCallInfoMap, warningCollector);
+                    requestedMetaType, metaFunctionCallInfoMap, rangeFilters, warningCollector);
         } catch (IOException e) {
             throw HyracksDataException.create(e);
         }
@@ -85,6 +85,21 @@ public abstract class AbstractAsterixColumnTupleReference extends AbstractColumn
             reader.next();
             primaryKeys[i].set(primaryKeysValueGetters[i].getValue(reader));
         }
+        onNextTuple();
+    }
+
+    /**
+     * Called after the primary keys of the next tuple are read
+     */
+    protected void onNextTuple() {
+        //NoOp
+    }
+
+    /**
+     * @return true if the current (non-anti-matter) tuple does not satisfy the pushed down filter
+     */
+    protected boolean isFilteredTuple() {
+        return false;
     }
 
     @Override
@@ -118,8 +133,12 @@ public abstract class AbstractAsterixColumnTupleReference extends AbstractColumn
          * The primary key cannot be missing, but the actual tuple is missing. There is no need to check other
          * primary key readers (for composite primary keys). One primary key reader is sufficient to determine if a
          * tuple is an anti-matter tuple.
+         *
+         * Tuples of a filtered page are reported as anti-matter tuples. They do not satisfy the pushed down filter,
+         * but they still need to hide their older versions (if any) in older components. The same applies for the
+         * tuples that do not satisfy the filter in a page that was not filtered.
          */
-        return primaryKeyReaders[0].isMissing();
+        return isFilteredPage() || primaryKeyReaders[0].isMissing() || isFilteredTuple();
     }
 
     @Override
@@ -18,8 +18,10 @@
  */
 package org.apache.asterix.column.tuple;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
 import org.apache.asterix.column.operation.lsm.merge.MergeColumnReadMetadata;
 import org.apache.asterix.column.values.IColumnValuesReader;
@@ -32,12 +34,19 @@ import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeRea
 
 public final class MergeColumnTupleReference extends AbstractAsterixColumnTupleReference {
     private final IColumnValuesReader[] columnReaders;
+    private final MultiByteBufferInputStream[] encodedColumnStreams;
+    private ByteBuffer pageZero;
+    private int filtersOffset;
     private int skipCount;
 
     public MergeColumnTupleReference(int componentIndex, ColumnBTreeReadLeafFrame frame,
             MergeColumnReadMetadata columnMetadata, IColumnReadMultiPageOp multiPageOp) {
         super(componentIndex, frame, columnMetadata, multiPageOp);
         this.columnReaders = columnMetadata.getColumnReaders();
+        encodedColumnStreams = new MultiByteBufferInputStream[columnStreams.length];
+        for (int i = primaryKeys.length; i < encodedColumnStreams.length; i++) {
+            encodedColumnStreams[i] = new MultiByteBufferInputStream();
+        }
     }
 
     @Override
@@ -51,6 +60,8 @@ public final class MergeColumnTupleReference extends AbstractAsterixColumnTupleR
 
     @Override
     protected boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples) {
+        this.pageZero = pageZero;
+        filtersOffset = pageZero.position();
         //Skip filters
         pageZero.position(pageZero.position() + numberOfColumns * AbstractColumnFilterWriter.FILTER_SIZE);
         skipCount = 0;
@@ -67,6 +78,12 @@ public final class MergeColumnTupleReference extends AbstractAsterixColumnTupleR
         }
         MultiByteBufferInputStream columnStream = (MultiByteBufferInputStream) columnStreams[ordinal];
         columnStream.reset(buffersProvider);
+        //Keep a view of the encoded column in case the entire leaf can be copied as-is
+        try {
+            encodedColumnStreams[ordinal].resetAt(0, columnStream);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
         IColumnValuesReader reader = columnReaders[ordinal];
         reader.reset(columnStream, numberOfTuples);
         reader.skip(startIndex);
@@ -86,4 +103,20 @@ public final class MergeColumnTupleReference extends AbstractAsterixColumnTupleR
     public IColumnValuesReader getReader(int columnIndex) {
         return columnReaders[columnIndex];
     }
+
+    /**
+     * @return the encoded column of the current leaf as it was written (an empty stream if the column is missing
+     * in the current leaf)
+     */
+    public AbstractBytesInputStream getEncodedColumn(int columnIndex) {
+        return encodedColumnStreams[columnIndex];
+    }
+
+    public long getNormalizedMinValue(int columnIndex) {
+        return pageZero.getLong(filtersOffset + columnIndex * AbstractColumnFilterWriter.FILTER_SIZE);
+    }
+
+    public long getNormalizedMaxValue(int columnIndex) {
+        return pageZero.getLong(filtersOffset + columnIndex * AbstractColumnFilterWriter.FILTER_SIZE + Long.BYTES);
+    }
 }
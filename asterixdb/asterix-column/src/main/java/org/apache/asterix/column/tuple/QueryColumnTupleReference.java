@@ -19,8 +19,12 @@
 package org.apache.asterix.column.tuple;
 
 import java.nio.ByteBuffer;
+import java.util.BitSet;
 
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.filter.IColumnFilterEvaluator;
+import org.apache.asterix.column.filter.IColumnTupleFilterEvaluator;
+import org.apache.asterix.column.filter.NoOpColumnTupleFilterEvaluator;
 import org.apache.asterix.column.operation.query.ColumnAssembler;
 import org.apache.asterix.column.operation.query.QueryColumnMetadata;
 import org.apache.asterix.column.values.IColumnValuesReader;
@@ -33,12 +37,28 @@ import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProj
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
 
 public class QueryColumnTupleReference extends AbstractAsterixColumnTupleReference {
+    private final IColumnFilterEvaluator filterEvaluator;
+    private final IColumnTupleFilterEvaluator tupleFilterEvaluator;
     private final ColumnAssembler assembler;
+    /**
+     * The positions of the non-anti-matter tuples (of the current mega leaf node) that satisfy the pushed down filter.
+     * It is null if none of the filtered columns is projected.
+     */
+    private final BitSet selection;
+    //Position of the current tuple's values
+    private int valuesIndex;
+    //Number of filtered tuples whose values are yet to be skipped by the assembler
+    private int pendingSkips;
+    //Whether the current tuple is filtered and counted in pendingSkips
+    private boolean filteredTuple;
 
     public QueryColumnTupleReference(int componentIndex, ColumnBTreeReadLeafFrame frame,
             QueryColumnMetadata columnMetadata, IColumnReadMultiPageOp multiPageOp) {
         super(componentIndex, frame, columnMetadata, multiPageOp);
+        filterEvaluator = columnMetadata.getFilterEvaluator();
+        tupleFilterEvaluator = columnMetadata.getTupleFilterEvaluator();
         assembler = columnMetadata.getAssembler();
+        selection = tupleFilterEvaluator == NoOpColumnTupleFilterEvaluator.INSTANCE ? null : new BitSet();
     }
 
     @Override
@@ -48,9 +68,22 @@ public class QueryColumnTupleReference extends AbstractAsterixColumnTupleReferen
 
     @Override
     protected boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples) {
+        //Filters are located after the columns' offsets
+        int filtersOffset = pageZero.position() + numberOfColumns * Integer.BYTES;
+        if (!filterEvaluator.evaluate(pageZero, filtersOffset, numberOfColumns)) {
+            //None of the tuples in this mega leaf node satisfy the pushed down filter
+            return false;
+        }
         //Skip filters
         pageZero.position(pageZero.position() + numberOfColumns * AbstractColumnFilterWriter.FILTER_SIZE);
         assembler.reset(numberOfTuples);
+        if (selection != null) {
+            //All tuples are selected until the filtered columns are evaluated
+            selection.set(0, numberOfTuples);
+            valuesIndex = -1;
+            pendingSkips = 0;
+            filteredTuple = false;
+        }
         return true;
     }
 
@@ -59,15 +92,55 @@ public class QueryColumnTupleReference extends AbstractAsterixColumnTupleReferen
             throws HyracksDataException {
         AbstractBytesInputStream columnStream = columnStreams[ordinal];
         columnStream.reset(buffersProvider);
+        //Evaluate the filtered columns' values first to select the tuples that should be assembled
+        tupleFilterEvaluator.evaluate(ordinal, columnStream, startIndex, numberOfTuples, selection);
         assembler.resetColumn(columnStream, startIndex, ordinal);
     }
 
+    @Override
+    protected void onNextTuple() {
+        if (selection != null && !isFilteredPage()) {
+            filteredTuple = false;
+            //Anti-matter tuples do not have values in the non-key columns
+            valuesIndex += primaryKeyReaders[0].isMissing() ? 0 : 1;
+        }
+    }
+
+    @Override
+    protected boolean isFilteredTuple() {
+        if (selection == null || selection.get(valuesIndex)) {
+            return false;
+        }
+
+        if (!filteredTuple) {
+            /*
+             * A filtered tuple is reported as an anti-matter tuple, which is dropped by the search cursor without
+             * skipping its values. Its values are skipped lazily before assembling (or skipping) the next values.
+             */
+            filteredTuple = true;
+            pendingSkips++;
+        }
+        return true;
+    }
+
     @Override
     public void skip(int count) throws HyracksDataException {
-        assembler.skip(count);
+        if (isFilteredPage()) {
+            //The columns of a filtered page were not read
+            return;
+        }
+        //The current tuple's values are already counted in pendingSkips if it is filtered
+        int skipCount = count + pendingSkips - (filteredTuple ? 1 : 0);
+        pendingSkips = 0;
+        filteredTuple = false;
+        assembler.skip(skipCount);
     }
 
     public IValueReference getAssembledValue() throws HyracksDataException {
+        if (pendingSkips > 0) {
+            assembler.skip(pendingSkips);
+            pendingSkips = 0;
+        }
         return assembler.nextValue();
     }
 }
@@ -21,6 +21,7 @@ package org.apache.asterix.column.tuple;
 import java.nio.ByteBuffer;
 
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.filter.IColumnFilterEvaluator;
 import org.apache.asterix.column.operation.query.ColumnAssembler;
 import org.apache.asterix.column.operation.query.QueryColumnMetadata;
 import org.apache.asterix.column.operation.query.QueryColumnWithMetaMetadata;
@@ -34,12 +35,14 @@ import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProj
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
 
 public final class QueryColumnWithMetaTupleReference extends AbstractAsterixColumnTupleReference {
+    private final IColumnFilterEvaluator filterEvaluator;
     private final ColumnAssembler assembler;
     private final ColumnAssembler metaAssembler;
 
     public QueryColumnWithMetaTupleReference(int componentIndex, ColumnBTreeReadLeafFrame frame,
             QueryColumnMetadata columnMetadata, IColumnReadMultiPageOp multiPageOp) {
         super(componentIndex, frame, columnMetadata, multiPageOp);
+        filterEvaluator = columnMetadata.getFilterEvaluator();
         assembler = columnMetadata.getAssembler();
         metaAssembler = ((QueryColumnWithMetaMetadata) columnMetadata).getMetaAssembler();
     }
@@ -51,6 +54,12 @@ public final class QueryColumnWithMetaTupleReference extends AbstractAsterixColu
 
     @Override
     protected boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples) {
+        //Filters are located after the columns' offsets
+        int filtersOffset = pageZero.position() + numberOfColumns * Integer.BYTES;
+        if (!filterEvaluator.evaluate(pageZero, filtersOffset, numberOfColumns)) {
+            //None of the tuples in this mega leaf node satisfy the pushed down filter
+            return false;
+        }
         //Skip filters
         pageZero.position(pageZero.position() + numberOfColumns * AbstractColumnFilterWriter.FILTER_SIZE);
         assembler.reset(numberOfTuples);
@@ -73,6 +82,10 @@ public final class QueryColumnWithMetaTupleReference extends AbstractAsterixColu
 
     @Override
     public void skip(int count) throws HyracksDataException {
+        if (isFilteredPage()) {
+            //The columns of a filtered page were not read
+            return;
+        }
         metaAssembler.skip(count);
         assembler.skip(count);
     }
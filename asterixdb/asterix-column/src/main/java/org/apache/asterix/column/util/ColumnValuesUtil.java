@@ -42,6 +42,38 @@ public class ColumnValuesUtil {
         return level;
     }
 
+    /**
+     * A column's level is written as a negative value if its definition levels have a position index
+     *
+     * @see org.apache.asterix.column.bytes.encoder.ColumnPositionIndexWriter
+     */
+    public static int encodeLevel(int level, boolean indexed) {
+        return indexed ? -level - 1 : level;
+    }
+
+    public static int decodeLevel(int encodedLevel) {
+        return encodedLevel < 0 ? -encodedLevel - 1 : encodedLevel;
+    }
+
+    public static boolean isIndexed(int encodedLevel) {
+        return encodedLevel < 0;
+    }
+
+    /**
+     * A column's values length is written as a negative value if its values are dictionary-encoded. Otherwise, the
+     * values are encoded using the default encoding of their type (e.g., delta encoding for strings), which is also
+     * the layout of the columns written before dictionary encoding was introduced
+     *
+     * @see org.apache.asterix.column.bytes.encoder.DictionaryLongValuesWriter
+     */
+    public static int encodeValuesLength(int length, boolean dictionaryEncoded) {
+        return dictionaryEncoded ? -length : length;
+    }
+
+    public static boolean isDictionaryEncoded(int encodedLength) {
+        return encodedLength < 0;
+    }
+
     public static int clearNullBit(int nullBitMask, int level) {
         return (nullBitMask - 1) & level;
     }
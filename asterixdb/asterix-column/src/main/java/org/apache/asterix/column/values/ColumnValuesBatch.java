@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * A batch of decoded entries of a column, which is filled by
+ * {@link IColumnValuesReader#readBatch(ColumnValuesBatch, int)}.
+ * <p>
+ * The i-th entry of the batch has a definition level, a null flag, and (if {@link #isValue(int)}) a value. For
+ * repeated columns, the entries include the delimiters (i.e., the levels of the arrays' ends). Values are
+ * stored by their entries' positions in primitive arrays depending on the column's type:
+ * - {@link ATypeTag#BIGINT} and {@link ATypeTag#BOOLEAN} values are stored as longs (1 for true and 0 for false)
+ * - {@link ATypeTag#DOUBLE} values are stored as doubles
+ * - {@link ATypeTag#STRING} and {@link ATypeTag#UUID} values are copied into a single buffer and referenced by their
+ * offsets and lengths
+ */
+public final class ColumnValuesBatch {
+    private static final int INITIAL_CAPACITY = 256;
+    private final ArrayBackedValueStorage bytes;
+    private final VoidPointable value;
+    private ATypeTag typeTag;
+    private int maxLevel;
+    private int size;
+    private int[] levels;
+    private long[] nulls;
+    private long[] longs;
+    private double[] doubles;
+    private int[] offsets;
+    private int[] lengths;
+
+    public ColumnValuesBatch() {
+        bytes = new ArrayBackedValueStorage();
+        value = new VoidPointable();
+        levels = new int[INITIAL_CAPACITY];
+        nulls = new long[getNumberOfWords(INITIAL_CAPACITY)];
+    }
+
+    /* ***********************
+     * Batch consumer functions
+     * ***********************
+     */
+
+    public ATypeTag getTypeTag() {
+        return typeTag;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getLevel(int index) {
+        return levels[index];
+    }
+
+    public boolean isNull(int index) {
+        return (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean isMissing(int index) {
+        return levels[index] < maxLevel;
+    }
+
+    public boolean isValue(int index) {
+        return !isNull(index) && levels[index] == maxLevel;
+    }
+
+    public long getLong(int index) {
+        return longs[index];
+    }
+
+    public boolean getBoolean(int index) {
+        return longs[index] != 0;
+    }
+
+    public double getDouble(int index) {
+        return doubles[index];
+    }
+
+    public IValueReference getBytes(int index) {
+        value.set(bytes.getByteArray(), offsets[index], lengths[index]);
+        return value;
+    }
+
+    /* ***********************
+     * Batch producer functions
+     * ***********************
+     */
+
+    /**
+     * Prepare the batch to receive a new set of entries
+     *
+     * @param typeTag  column's type
+     * @param maxLevel column's maximum definition level
+     * @param size     number of entries
+     */
+    public void reset(ATypeTag typeTag, int maxLevel, int size) {
+        this.typeTag = typeTag;
+        this.maxLevel = maxLevel;
+        this.size = size;
+        if (levels.length < size) {
+            levels = new int[Math.max(size, levels.length * 2)];
+            nulls = new long[getNumberOfWords(levels.length)];
+        }
+        Arrays.fill(nulls, 0, getNumberOfWords(size), 0L);
+        bytes.reset();
+    }
+
+    /**
+     * @return the levels array, which has at least {@link #getSize()} elements
+     */
+    public int[] getLevels() {
+        return levels;
+    }
+
+    public void setNull(int index) {
+        nulls[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * @return a long array with at least {@link #getSize()} elements
+     */
+    public long[] getLongs() {
+        longs = ensureCapacity(longs);
+        return longs;
+    }
+
+    /**
+     * @return a double array with at least {@link #getSize()} elements
+     */
+    public double[] getDoubles() {
+        if (doubles == null || doubles.length < levels.length) {
+            doubles = new double[levels.length];
+        }
+        return doubles;
+    }
+
+    /**
+     * Copy a byte-array value to the batch
+     *
+     * @param index index of the value
+     * @param bytesValue the value to copy
+     */
+    public void setBytes(int index, IValueReference bytesValue) throws HyracksDataException {
+        offsets = ensureCapacity(offsets);
+        lengths = ensureCapacity(lengths);
+        offsets[index] = bytes.getStartOffset() + bytes.getLength();
+        lengths[index] = bytesValue.getLength();
+        try {
+            bytes.append(bytesValue);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Values are decoded in a dense form (i.e., the first valueCount positions). This moves each value to the position
+     * of its entry. Moving values starts from the end of the batch so no value is overwritten before it is moved.
+     *
+     * @param valueCount number of decoded values
+     */
+    public void scatterValues(int valueCount) {
+        int valueIndex = valueCount - 1;
+        for (int i = size - 1; i >= 0 && valueIndex >= 0 && valueIndex < i; i--) {
+            if (levels[i] == maxLevel) {
+                moveValue(valueIndex--, i);
+            }
+        }
+    }
+
+    private void moveValue(int from, int to) {
+        switch (typeTag) {
+            case BIGINT:
+            case BOOLEAN:
+                longs[to] = longs[from];
+                break;
+            case DOUBLE:
+                doubles[to] = doubles[from];
+                break;
+            case STRING:
+            case UUID:
+                offsets[to] = offsets[from];
+                lengths[to] = lengths[from];
+                break;
+            default:
+                throw new IllegalStateException("Unsupported type " + typeTag);
+        }
+    }
+
+    private long[] ensureCapacity(long[] array) {
+        if (array == null || array.length < levels.length) {
+            return new long[levels.length];
+        }
+        return array;
+    }
+
+    private int[] ensureCapacity(int[] array) {
+        if (array == null || array.length < levels.length) {
+            return new int[levels.length];
+        }
+        return array;
+    }
+
+    private static int getNumberOfWords(int numberOfBits) {
+        return (numberOfBits + Long.SIZE - 1) >>> 6;
+    }
+}
@@ -34,6 +34,17 @@ public interface IColumnValuesReader extends IValueReader, Comparable<IColumnVal
 
     boolean next() throws HyracksDataException;
 
+    /**
+     * Decode up to {@code maxCount} entries (i.e., definition levels and values) at once. After calling this method,
+     * the reader is positioned at the last decoded entry as if {@link #next()} was called for each entry. However,
+     * the value functions (e.g., {@link #getLong()}) of this reader are undefined until {@link #next()} is called.
+     *
+     * @param batch    the batch to decode the entries into
+     * @param maxCount maximum number of entries to decode
+     * @return number of decoded entries (0 if no entries are left)
+     */
+    int readBatch(ColumnValuesBatch batch, int maxCount) throws HyracksDataException;
+
     /* ***********************
      * Information functions
      * ***********************
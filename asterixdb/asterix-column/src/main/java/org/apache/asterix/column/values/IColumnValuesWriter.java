@@ -22,6 +22,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.util.RunLengthIntArray;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -92,6 +93,25 @@ public interface IColumnValuesWriter {
      */
     void writeValue(IColumnValuesReader reader) throws HyracksDataException;
 
+    /**
+     * @param reader a reader of a column from another component
+     * @return true if the reader's encoded values can be written as-is by this writer (i.e., both have the same
+     * type and level), false otherwise
+     */
+    boolean isCompatible(IColumnValuesReader reader);
+
+    /**
+     * Write an already encoded column (e.g., a column of a leaf from a merged component) as-is without decoding its
+     * values. The column must be encoded by a compatible writer (see {@link #isCompatible(IColumnValuesReader)})
+     * and no other values can be written until the writer is flushed.
+     *
+     * @param encodedColumn      the encoded column bytes
+     * @param normalizedMinValue normalized minimum value of the encoded column
+     * @param normalizedMaxValue normalized maximum value of the encoded column
+     */
+    void writeEncoded(AbstractBytesInputStream encodedColumn, long normalizedMinValue, long normalizedMaxValue)
+            throws HyracksDataException;
+
     /**
      * @return (probably) an overestimated size of the encoded values
      */
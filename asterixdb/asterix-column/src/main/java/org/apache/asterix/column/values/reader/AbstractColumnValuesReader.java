@@ -19,12 +19,15 @@
 package org.apache.asterix.column.values.reader;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+import org.apache.asterix.column.bytes.decoder.ColumnPositionIndexReader;
 import org.apache.asterix.column.bytes.decoder.ParquetRunLengthBitPackingHybridDecoder;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.bytes.stream.in.ByteBufferInputStream;
 import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
 import org.apache.asterix.column.util.ColumnValuesUtil;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.asterix.column.values.reader.value.AbstractValueReader;
@@ -39,6 +42,9 @@ abstract class AbstractColumnValuesReader implements IColumnValuesReader {
     protected final int maxLevel;
     protected final ParquetRunLengthBitPackingHybridDecoder definitionLevels;
     protected final AbstractBytesInputStream valuesStream;
+    private final ColumnPositionIndexReader positionIndex;
+    private final AbstractBytesInputStream levelsStart;
+    private final AbstractBytesInputStream levelsStream;
     protected int level;
     protected int valueCount;
     protected int valueIndex;
@@ -46,18 +52,28 @@ abstract class AbstractColumnValuesReader implements IColumnValuesReader {
     private int nullBitMask;
     private boolean nullLevel;
     private boolean allMissing;
+    private int numberOfReadLevels;
+    private int numberOfReadValues;
 
     AbstractColumnValuesReader(AbstractValueReader valueReader, int columnIndex, int maxLevel, boolean primaryKey) {
         this.valueReader = valueReader;
         this.columnIndex = columnIndex;
         this.maxLevel = maxLevel;
         definitionLevels = new ParquetRunLengthBitPackingHybridDecoder(ColumnValuesUtil.getBitWidth(maxLevel));
-        valuesStream = primaryKey ? new ByteBufferInputStream() : new MultiByteBufferInputStream();
+        valuesStream = createStream(primaryKey);
+        positionIndex = new ColumnPositionIndexReader();
+        levelsStart = createStream(primaryKey);
+        levelsStream = createStream(primaryKey);
+    }
+
+    private static AbstractBytesInputStream createStream(boolean primaryKey) {
+        return primaryKey ? new ByteBufferInputStream() : new MultiByteBufferInputStream();
     }
 
     final void nextLevel() throws HyracksDataException {
         if (allMissing) {
             level = 0;
+            nullLevel = false;
             return;
         }
         try {
@@ -66,16 +82,86 @@ abstract class AbstractColumnValuesReader implements IColumnValuesReader {
             nullLevel = ColumnValuesUtil.isNull(nullBitMask, actualLevel);
             //Clear the null bit to allow repeated value readers determine the correct delimiter for null values
             level = ColumnValuesUtil.clearNullBit(nullBitMask, actualLevel);
+            numberOfReadLevels++;
+            numberOfReadValues += level == maxLevel ? 1 : 0;
         } catch (IOException e) {
             throw HyracksDataException.create(e);
         }
     }
 
+    /**
+     * Decode multiple definition levels at once (with their null bits cleared)
+     *
+     * @param levels destination array
+     * @param nulls  batch to record the null entries in (could be null)
+     * @param count  number of levels to decode (must be greater than 0)
+     * @return number of decoded levels that are equal to {@link #maxLevel}
+     */
+    final int nextLevels(int[] levels, ColumnValuesBatch nulls, int count) throws HyracksDataException {
+        if (allMissing) {
+            Arrays.fill(levels, 0, count, 0);
+            level = 0;
+            nullLevel = false;
+            return 0;
+        }
+        definitionLevels.readInts(levels, 0, count);
+        int numberOfMaxLevels = 0;
+        for (int i = 0; i < count; i++) {
+            int actualLevel = levels[i];
+            nullLevel = ColumnValuesUtil.isNull(nullBitMask, actualLevel);
+            if (nullLevel && nulls != null) {
+                nulls.setNull(i);
+            }
+            levels[i] = ColumnValuesUtil.clearNullBit(nullBitMask, actualLevel);
+            numberOfMaxLevels += levels[i] == maxLevel ? 1 : 0;
+        }
+        //Leave the reader at the last level as if nextLevel() was called for each level
+        level = levels[count - 1];
+        numberOfReadLevels += count;
+        numberOfReadValues += numberOfMaxLevels;
+        return numberOfMaxLevels;
+    }
+
+    /**
+     * Skip multiple definition levels without decoding them one by one. If the column has a position index, the
+     * definition levels are repositioned at the last checkpoint before the skipped levels' end. Unlike
+     * {@link #nextLevel()}, the reader's current level is not changed.
+     *
+     * @param count number of levels to skip
+     * @return number of skipped levels that are equal to {@link #maxLevel}
+     */
+    final int skipLevels(int count) throws HyracksDataException {
+        if (allMissing || count == 0) {
+            return 0;
+        }
+        int target = numberOfReadLevels + count;
+        int numberOfValues = 0;
+        int checkpoint = positionIndex.floor(target);
+        if (checkpoint >= 0 && positionIndex.getPosition(checkpoint) > numberOfReadLevels) {
+            try {
+                levelsStream.resetAt(positionIndex.getOffset(checkpoint), levelsStart);
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            definitionLevels.reset(levelsStream);
+            numberOfValues = positionIndex.getNumberOfValues(checkpoint) - numberOfReadValues;
+            numberOfReadLevels = positionIndex.getPosition(checkpoint);
+        }
+        //Skip the remaining levels from the checkpoint (or from the current position)
+        numberOfValues += definitionLevels.skip(target - numberOfReadLevels, nullBitMask - 1, maxLevel);
+        numberOfReadLevels = target;
+        numberOfReadValues += numberOfValues;
+        return numberOfValues;
+    }
+
     abstract void resetValues();
 
     @Override
     public final void reset(AbstractBytesInputStream in, int tupleCount) throws HyracksDataException {
         valueIndex = 0;
+        numberOfReadLevels = 0;
+        numberOfReadValues = 0;
+        positionIndex.reset();
         if (in.available() == 0) {
             allMissing = true;
             valueCount = tupleCount;
@@ -83,14 +169,20 @@ abstract class AbstractColumnValuesReader implements IColumnValuesReader {
         }
         allMissing = false;
         try {
-            nullBitMask = ColumnValuesUtil.getNullMask(BytesUtils.readZigZagVarInt(in));
+            int encodedLevel = BytesUtils.readZigZagVarInt(in);
+            nullBitMask = ColumnValuesUtil.getNullMask(ColumnValuesUtil.decodeLevel(encodedLevel));
             int defLevelsSize = BytesUtils.readZigZagVarInt(in);
             valueCount = BytesUtils.readZigZagVarInt(in);
+            if (ColumnValuesUtil.isIndexed(encodedLevel)) {
+                positionIndex.read(in);
+                //Keep the start of the definition levels to reposition them at the index's checkpoints
+                levelsStart.resetAt(0, in);
+            }
             definitionLevels.reset(in);
             valuesStream.resetAt(defLevelsSize, in);
             int valueLength = BytesUtils.readZigZagVarInt(valuesStream);
-            if (valueLength > 0) {
-                valueReader.resetValue(valuesStream);
+            if (valueLength != 0) {
+                valueReader.resetValue(valuesStream, ColumnValuesUtil.isDictionaryEncoded(valueLength));
             }
         } catch (IOException e) {
             throw HyracksDataException.create(e);
@@ -158,6 +250,17 @@ abstract class AbstractColumnValuesReader implements IColumnValuesReader {
         return valueReader.compareTo(((AbstractColumnValuesReader) o).valueReader);
     }
 
+    /**
+     * Write the current level to another writer while keeping its null bit (if any)
+     */
+    final void writeLevel(IColumnValuesWriter writer) throws HyracksDataException {
+        if (nullLevel) {
+            writer.writeNull(level);
+        } else {
+            writer.writeLevel(level);
+        }
+    }
+
     @Override
     public final void write(IColumnValuesWriter writer, int count) throws HyracksDataException {
         for (int i = 0; i < count; i++) {
@@ -20,6 +20,7 @@ package org.apache.asterix.column.values.reader;
 
 import java.io.IOException;
 
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.asterix.column.values.reader.value.AbstractValueReader;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -62,6 +63,49 @@ public final class PrimitiveColumnValuesReader extends AbstractColumnValuesReade
         return true;
     }
 
+    @Override
+    public int readBatch(ColumnValuesBatch batch, int maxCount) throws HyracksDataException {
+        int count = Math.min(maxCount, valueCount - valueIndex);
+        batch.reset(getTypeTag(), maxLevel, count);
+        if (count == 0) {
+            return 0;
+        }
+        valueIndex += count;
+
+        int numberOfValues = nextLevels(batch.getLevels(), batch, count);
+        if (primaryKey) {
+            valueReader.readValues(batch, count);
+        } else if (numberOfValues > 0) {
+            valueReader.readValues(batch, numberOfValues);
+            batch.scatterValues(numberOfValues);
+        }
+        return count;
+    }
+
+    @Override
+    public void skip(int count) throws HyracksDataException {
+        int remaining = Math.min(count, valueCount - valueIndex);
+        if (remaining == 0) {
+            return;
+        }
+        valueIndex += remaining;
+
+        //Skip all levels but the last one, which is read as if next() was called
+        int numberOfValues = skipLevels(remaining - 1);
+        nextLevel();
+        if (primaryKey) {
+            valueReader.skipValues(remaining - 1);
+            valueReader.nextValue();
+        } else {
+            if (numberOfValues > 0) {
+                valueReader.skipValues(numberOfValues);
+            }
+            if (level == maxLevel) {
+                valueReader.nextValue();
+            }
+        }
+    }
+
     @Override
     public boolean isRepeated() {
         return false;
@@ -88,7 +132,7 @@ public final class PrimitiveColumnValuesReader extends AbstractColumnValuesReade
             throw new IllegalStateException("No more values");
         }
 
-        writer.writeLevel(level);
+        writeLevel(writer);
         if (primaryKey || isValue()) {
             try {
                 writer.writeValue(this);
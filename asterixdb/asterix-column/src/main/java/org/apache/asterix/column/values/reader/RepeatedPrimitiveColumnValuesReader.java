@@ -21,6 +21,7 @@ package org.apache.asterix.column.values.reader;
 import java.io.IOException;
 
 import org.apache.asterix.column.metadata.schema.collection.ArraySchemaNode;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.asterix.column.values.reader.value.AbstractValueReader;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -70,6 +71,33 @@ public final class RepeatedPrimitiveColumnValuesReader extends AbstractColumnVal
         return true;
     }
 
+    @Override
+    public int readBatch(ColumnValuesBatch batch, int maxCount) throws HyracksDataException {
+        int count = Math.min(maxCount, valueCount - valueIndex);
+        batch.reset(getTypeTag(), maxLevel, count);
+        if (count == 0) {
+            return 0;
+        }
+        valueIndex += count;
+
+        int previousLevel = level;
+        int[] levels = batch.getLevels();
+        int numberOfValues = nextLevels(levels, batch, count);
+        //The delimiter index depends on the previous entries. Replay the levels to position it at the last entry
+        level = previousLevel;
+        for (int i = 0; i < count; i++) {
+            consumeDelimiterIfAny();
+            level = levels[i];
+            setDelimiterIndex();
+        }
+
+        if (numberOfValues > 0) {
+            valueReader.readValues(batch, numberOfValues);
+            batch.scatterValues(numberOfValues);
+        }
+        return count;
+    }
+
     @Override
     public boolean isRepeated() {
         return delimiterIndex < delimiters.length && level > delimiters[delimiterIndex];
@@ -99,7 +127,7 @@ public final class RepeatedPrimitiveColumnValuesReader extends AbstractColumnVal
 
         if (isRepeatedValue()) {
             while (!isLastDelimiter()) {
-                writer.writeLevel(level);
+                writeLevel(writer);
                 if (isValue()) {
                     try {
                         writer.writeValue(this);
@@ -111,7 +139,7 @@ public final class RepeatedPrimitiveColumnValuesReader extends AbstractColumnVal
             }
         }
         //Add last delimiter, or NULL/MISSING
-        writer.writeLevel(level);
+        writeLevel(writer);
     }
 
     private boolean isRepeatedValue() {
@@ -21,6 +21,7 @@ package org.apache.asterix.column.values.reader.value;
 import java.io.IOException;
 
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IValueReference;
@@ -29,8 +30,40 @@ public abstract class AbstractValueReader implements Comparable<AbstractValueRea
 
     public abstract void resetValue(AbstractBytesInputStream in) throws IOException;
 
+    /**
+     * Reset the reader at the values of a column
+     *
+     * @param in                values stream
+     * @param dictionaryEncoded whether the values are dictionary-encoded
+     * @see org.apache.asterix.column.util.ColumnValuesUtil#encodeValuesLength(int, boolean)
+     */
+    public void resetValue(AbstractBytesInputStream in, boolean dictionaryEncoded) throws IOException {
+        resetValue(in);
+    }
+
     public abstract void nextValue() throws HyracksDataException;
 
+    /**
+     * Skip multiple values at once
+     *
+     * @param count number of values to skip
+     */
+    public void skipValues(int count) throws HyracksDataException {
+        for (int i = 0; i < count; i++) {
+            nextValue();
+        }
+    }
+
+    /**
+     * Decode multiple values at once into the first {@code count} positions of the batch
+     *
+     * @param batch destination batch
+     * @param count number of values to decode
+     */
+    public void readValues(ColumnValuesBatch batch, int count) throws HyracksDataException {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
     public abstract ATypeTag getTypeTag();
 
     public boolean getBoolean() {
@@ -22,11 +22,13 @@ import java.io.IOException;
 
 import org.apache.asterix.column.bytes.decoder.ParquetRunLengthBitPackingHybridDecoder;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
 public final class BooleanValueReader extends AbstractValueReader {
     private final ParquetRunLengthBitPackingHybridDecoder booleanReader;
+    private int[] batchValues;
     private boolean nextValue;
 
     public BooleanValueReader() {
@@ -48,6 +50,18 @@ public final class BooleanValueReader extends AbstractValueReader {
 
     }
 
+    @Override
+    public void readValues(ColumnValuesBatch batch, int count) throws HyracksDataException {
+        if (batchValues == null || batchValues.length < count) {
+            batchValues = new int[count];
+        }
+        booleanReader.readInts(batchValues, 0, count);
+        long[] values = batch.getLongs();
+        for (int i = 0; i < count; i++) {
+            values[i] = batchValues[i];
+        }
+    }
+
     @Override
     public boolean getBoolean() {
         return nextValue;
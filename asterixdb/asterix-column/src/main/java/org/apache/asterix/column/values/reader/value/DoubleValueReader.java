@@ -22,6 +22,7 @@ import java.io.IOException;
 
 import org.apache.asterix.column.bytes.decoder.ParquetDoublePlainValuesReader;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.om.types.ATypeTag;
 
 public final class DoubleValueReader extends AbstractValueReader {
@@ -42,6 +43,16 @@ public final class DoubleValueReader extends AbstractValueReader {
         nextValue = doubleReader.readDouble();
     }
 
+    @Override
+    public void skipValues(int count) {
+        doubleReader.skip(count);
+    }
+
+    @Override
+    public void readValues(ColumnValuesBatch batch, int count) {
+        doubleReader.readDoubles(batch.getDoubles(), 0, count);
+    }
+
     @Override
     public double getDouble() {
         return nextValue;
@@ -20,20 +20,32 @@ package org.apache.asterix.column.values.reader.value;
 
 import java.io.IOException;
 
+import org.apache.asterix.column.bytes.decoder.AbstractParquetValuesReader;
+import org.apache.asterix.column.bytes.decoder.DictionaryLongValuesReader;
 import org.apache.asterix.column.bytes.decoder.ParquetDeltaBinaryPackingValuesReader;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.om.types.ATypeTag;
 
 public final class LongValueReader extends AbstractValueReader {
-    private final ParquetDeltaBinaryPackingValuesReader longReader;
+    private final ParquetDeltaBinaryPackingValuesReader deltaReader;
+    private final DictionaryLongValuesReader dictionaryReader;
+    private AbstractParquetValuesReader longReader;
     private long nextValue;
 
     public LongValueReader() {
-        longReader = new ParquetDeltaBinaryPackingValuesReader();
+        deltaReader = new ParquetDeltaBinaryPackingValuesReader();
+        dictionaryReader = new DictionaryLongValuesReader();
     }
 
     @Override
     public void resetValue(AbstractBytesInputStream in) throws IOException {
+        resetValue(in, false);
+    }
+
+    @Override
+    public void resetValue(AbstractBytesInputStream in, boolean dictionaryEncoded) throws IOException {
+        longReader = dictionaryEncoded ? dictionaryReader : deltaReader;
         longReader.initFromPage(in);
     }
 
@@ -42,6 +54,16 @@ public final class LongValueReader extends AbstractValueReader {
         nextValue = longReader.readLong();
     }
 
+    @Override
+    public void skipValues(int count) {
+        longReader.skip(count);
+    }
+
+    @Override
+    public void readValues(ColumnValuesBatch batch, int count) {
+        longReader.readLongs(batch.getLongs(), 0, count);
+    }
+
     @Override
     public long getLong() {
         return nextValue;
@@ -20,22 +20,35 @@ package org.apache.asterix.column.values.reader.value;
 
 import java.io.IOException;
 
+import org.apache.asterix.column.bytes.decoder.AbstractParquetValuesReader;
+import org.apache.asterix.column.bytes.decoder.DictionaryByteArrayValuesReader;
 import org.apache.asterix.column.bytes.decoder.ParquetDeltaByteArrayReader;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IValueReference;
 import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
 
 public final class StringValueReader extends AbstractValueReader {
-    private final ParquetDeltaByteArrayReader stringReader;
+    private final ParquetDeltaByteArrayReader deltaReader;
+    private final DictionaryByteArrayValuesReader dictionaryReader;
+    private AbstractParquetValuesReader stringReader;
     private IValueReference nextValue;
 
     public StringValueReader() {
-        stringReader = new ParquetDeltaByteArrayReader(true);
+        deltaReader = new ParquetDeltaByteArrayReader(true);
+        dictionaryReader = new DictionaryByteArrayValuesReader(true);
     }
 
     @Override
     public void resetValue(AbstractBytesInputStream in) throws IOException {
+        resetValue(in, false);
+    }
+
+    @Override
+    public void resetValue(AbstractBytesInputStream in, boolean dictionaryEncoded) throws IOException {
+        stringReader = dictionaryEncoded ? dictionaryReader : deltaReader;
         stringReader.initFromPage(in);
     }
 
@@ -44,6 +57,18 @@ public final class StringValueReader extends AbstractValueReader {
         nextValue = stringReader.readBytes();
     }
 
+    @Override
+    public void skipValues(int count) {
+        stringReader.skip(count);
+    }
+
+    @Override
+    public void readValues(ColumnValuesBatch batch, int count) throws HyracksDataException {
+        for (int i = 0; i < count; i++) {
+            batch.setBytes(i, stringReader.readBytes());
+        }
+    }
+
     @Override
     public IValueReference getBytes() {
         return nextValue;
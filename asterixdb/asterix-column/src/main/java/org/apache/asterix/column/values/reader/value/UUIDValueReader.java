@@ -22,8 +22,10 @@ import java.io.IOException;
 
 import org.apache.asterix.column.bytes.decoder.ParquetDeltaByteArrayReader;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.dataflow.data.nontagged.comparators.AUUIDPartialBinaryComparatorFactory;
 import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IValueReference;
 
 public final class UUIDValueReader extends AbstractValueReader {
@@ -44,6 +46,18 @@ public final class UUIDValueReader extends AbstractValueReader {
         nextValue = uuidReader.readBytes();
     }
 
+    @Override
+    public void skipValues(int count) {
+        uuidReader.skip(count);
+    }
+
+    @Override
+    public void readValues(ColumnValuesBatch batch, int count) throws HyracksDataException {
+        for (int i = 0; i < count; i++) {
+            batch.setBytes(i, uuidReader.readBytes());
+        }
+    }
+
     @Override
     public IValueReference getBytes() {
         return nextValue;
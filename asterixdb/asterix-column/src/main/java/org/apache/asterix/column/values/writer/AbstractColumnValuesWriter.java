@@ -18,12 +18,16 @@
  */
 package org.apache.asterix.column.values.writer;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.apache.asterix.column.bytes.encoder.ColumnPositionIndexWriter;
 import org.apache.asterix.column.bytes.encoder.ParquetRunLengthBitPackingHybridEncoder;
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.util.ColumnValuesUtil;
 import org.apache.asterix.column.util.RunLengthIntArray;
 import org.apache.asterix.column.values.IColumnValuesReader;
@@ -34,6 +38,7 @@ import org.apache.asterix.column.values.writer.filters.NoOpColumnFilterWriter;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.bytes.BytesUtils;
 
@@ -41,12 +46,20 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
     protected final AbstractColumnFilterWriter filterWriter;
     protected final ParquetRunLengthBitPackingHybridEncoder definitionLevels;
     protected final int level;
+    /**
+     * Position index of the definition levels (null for collection items as they are not skipped by position)
+     */
+    private final ColumnPositionIndexWriter positionIndex;
 
     private final int columnIndex;
     private final boolean collection;
     private final int nullBitMask;
+    private final ArrayBackedValueStorage encodedColumn;
     private int count;
     private boolean writeValues;
+    private boolean encoded;
+    private long encodedMinValue;
+    private long encodedMaxValue;
 
     AbstractColumnValuesWriter(int columnIndex, int level, boolean collection, boolean filtered) {
         this.columnIndex = columnIndex;
@@ -54,8 +67,10 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
         this.collection = collection;
         nullBitMask = ColumnValuesUtil.getNullMask(level);
         int width = ColumnValuesUtil.getBitWidth(level);
-        definitionLevels = new ParquetRunLengthBitPackingHybridEncoder(width);
+        positionIndex = collection ? null : new ColumnPositionIndexWriter(level);
+        definitionLevels = new ParquetRunLengthBitPackingHybridEncoder(width, positionIndex);
         this.filterWriter = filtered ? createFilter() : NoOpColumnFilterWriter.INSTANCE;
+        encodedColumn = new ArrayBackedValueStorage(0);
     }
 
     @Override
@@ -65,12 +80,16 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
 
     @Override
     public final int getEstimatedSize() {
-        return definitionLevels.getEstimatedSize() + getValuesEstimatedSize();
+        if (encoded) {
+            return encodedColumn.getLength();
+        }
+        int positionIndexSize = positionIndex == null ? 0 : positionIndex.getEstimatedSize();
+        return definitionLevels.getEstimatedSize() + positionIndexSize + getValuesEstimatedSize();
     }
 
     @Override
     public final int getAllocatedSpace() {
-        return definitionLevels.getAllocatedSize() + getValuesAllocatedSize();
+        return definitionLevels.getAllocatedSize() + getValuesAllocatedSize() + encodedColumn.getByteArray().length;
     }
 
     @Override
@@ -135,6 +154,34 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
         }
     }
 
+    @Override
+    public final boolean isCompatible(IColumnValuesReader reader) {
+        return reader.getTypeTag() == getTypeTag() && reader.getMaxLevel() == level;
+    }
+
+    @Override
+    public final void writeEncoded(AbstractBytesInputStream encodedColumn, long normalizedMinValue,
+            long normalizedMaxValue) throws HyracksDataException {
+        int length = encodedColumn.available();
+        this.encodedColumn.setSize(length);
+        byte[] bytes = this.encodedColumn.getByteArray();
+        try {
+            if (encodedColumn.read(bytes, 0, length) != length) {
+                throw new EOFException();
+            }
+            //Skip the level and the definition levels' size to get the number of values
+            ByteArrayInputStream header = new ByteArrayInputStream(bytes, 0, length);
+            BytesUtils.readZigZagVarInt(header);
+            BytesUtils.readZigZagVarInt(header);
+            count = BytesUtils.readZigZagVarInt(header);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        encodedMinValue = normalizedMinValue;
+        encodedMaxValue = normalizedMaxValue;
+        encoded = true;
+    }
+
     @Override
     public final void close() {
         definitionLevels.close();
@@ -143,11 +190,17 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
 
     @Override
     public final long getNormalizedMinValue() {
+        if (encoded) {
+            return encodedMinValue;
+        }
         return filterWriter.getMinNormalizedValue();
     }
 
     @Override
     public final long getNormalizedMaxValue() {
+        if (encoded) {
+            return encodedMaxValue;
+        }
         return filterWriter.getMaxNormalizedValue();
     }
 
@@ -156,15 +209,24 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
         BytesInput values;
         BytesInput defLevelBytes;
         try {
-            BytesUtils.writeZigZagVarInt(level, out);
-            filterWriter.writeDecisive(out);
+            if (encoded) {
+                out.write(encodedColumn.getByteArray(), 0, encodedColumn.getLength());
+                reset();
+                return;
+            }
             defLevelBytes = definitionLevels.toBytes();
+            boolean indexed = positionIndex != null && !positionIndex.isEmpty();
+            BytesUtils.writeZigZagVarInt(ColumnValuesUtil.encodeLevel(level, indexed), out);
+            filterWriter.writeDecisive(out);
             BytesUtils.writeZigZagVarInt((int) defLevelBytes.size(), out);
             BytesUtils.writeZigZagVarInt(count, out);
+            if (indexed) {
+                positionIndex.write(out);
+            }
             defLevelBytes.writeAllTo(out);
             if (writeValues || collection) {
                 values = getBytes();
-                int valueSize = (int) values.size();
+                int valueSize = ColumnValuesUtil.encodeValuesLength((int) values.size(), isDictionaryEncoded());
                 BytesUtils.writeZigZagVarInt(valueSize, out);
                 values.writeAllTo(out);
             } else {
@@ -184,6 +246,8 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
         definitionLevels.reset();
         writeValues = false;
         count = 0;
+        encoded = false;
+        encodedColumn.reset();
         filterWriter.reset();
         resetValues();
     }
@@ -225,6 +289,13 @@ public abstract class AbstractColumnValuesWriter implements IColumnValuesWriter
 
     protected abstract BytesInput getBytes() throws IOException;
 
+    /**
+     * @return whether the values returned by {@link #getBytes()} are dictionary-encoded
+     */
+    protected boolean isDictionaryEncoded() {
+        return false;
+    }
+
     protected abstract int getValuesEstimatedSize();
 
     protected abstract int getValuesAllocatedSize();
@@ -21,7 +21,12 @@ package org.apache.asterix.column.values.writer;
 import static org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter.FILTER_SIZE;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.asterix.column.bytes.stream.out.ByteBufferOutputStream;
 import org.apache.asterix.column.bytes.stream.out.MultiPersistentBufferBytesOutputStream;
@@ -30,17 +35,29 @@ import org.apache.asterix.column.values.IColumnBatchWriter;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
 
 /**
  * A writer for a batch columns' values
+ * <p>
+ * If an {@link Executor} is provided, the non-key columns of a batch are encoded (and compressed) in parallel first.
+ * The encoded columns are then written into the columns' pages in the same order and with the same page placement
+ * as if they were encoded one by one.
  */
 public final class ColumnBatchWriter implements IColumnBatchWriter {
+    //The minimum number of columns to encode in parallel
+    private static final int MIN_PARALLEL_COLUMNS = 2;
     private final ByteBufferOutputStream primaryKeys;
     private final MultiPersistentBufferBytesOutputStream columns;
     private final int pageSize;
     private final float tolerance;
     private final IReservedPointer columnLengthPointer;
+    private final ColumnCompression compression;
+    private final EncodedColumn column;
+    private final Executor encodingExecutor;
+    private final List<EncodedColumn> encodedColumns;
+    private CompletableFuture<?>[] encodings;
 
     private ByteBuffer pageZero;
     private int columnsOffset;
@@ -48,12 +65,23 @@ public final class ColumnBatchWriter implements IColumnBatchWriter {
     private int primaryKeysOffset;
     private int nonKeyColumnStartOffset;
 
-    public ColumnBatchWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int pageSize, float tolerance) {
+    public ColumnBatchWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int pageSize, float tolerance,
+            ColumnCompression compression) {
+        this(multiPageOpRef, pageSize, tolerance, compression, null);
+    }
+
+    public ColumnBatchWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int pageSize, float tolerance,
+            ColumnCompression compression, Executor encodingExecutor) {
         this.pageSize = pageSize;
         this.tolerance = tolerance;
+        this.compression = compression;
+        this.encodingExecutor = encodingExecutor;
         primaryKeys = new ByteBufferOutputStream();
         columns = new MultiPersistentBufferBytesOutputStream(multiPageOpRef);
         columnLengthPointer = columns.createPointer();
+        column = new EncodedColumn(compression);
+        encodedColumns = new ArrayList<>();
+        encodings = new CompletableFuture<?>[0];
     }
 
     @Override
@@ -87,18 +115,66 @@ public final class ColumnBatchWriter implements IColumnBatchWriter {
 
     @Override
     public int writeColumns(PriorityQueue<IColumnValuesWriter> nonKeysColumnWriters) throws HyracksDataException {
-        int allocatedSpace = 0;
         columns.reset();
+        if (encodingExecutor != null && nonKeysColumnWriters.size() >= MIN_PARALLEL_COLUMNS) {
+            return writeEncodedColumns(nonKeysColumnWriters);
+        }
+
+        int allocatedSpace = 0;
         while (!nonKeysColumnWriters.isEmpty()) {
-            IColumnValuesWriter writer = nonKeysColumnWriters.poll();
-            writeColumn(writer);
-            allocatedSpace += writer.getAllocatedSpace();
+            column.reset(nonKeysColumnWriters.poll());
+            writeColumn(column);
+            allocatedSpace += column.getAllocatedSpace();
+        }
+        return allocatedSpace;
+    }
+
+    private int writeEncodedColumns(PriorityQueue<IColumnValuesWriter> nonKeysColumnWriters)
+            throws HyracksDataException {
+        int numberOfColumns = nonKeysColumnWriters.size();
+        if (encodings.length < numberOfColumns) {
+            encodings = new CompletableFuture<?>[numberOfColumns];
+        }
+        for (int i = encodedColumns.size(); i < numberOfColumns; i++) {
+            encodedColumns.add(new EncodedColumn(compression));
+        }
+
+        //Encode all columns in parallel (in their written order)
+        for (int i = 0; i < numberOfColumns; i++) {
+            EncodedColumn encodedColumn = encodedColumns.get(i);
+            encodedColumn.reset(nonKeysColumnWriters.poll());
+            encodings[i] = CompletableFuture.runAsync(() -> encode(encodedColumn), encodingExecutor);
+        }
+
+        try {
+            CompletableFuture.allOf(encodings).join();
+        } catch (CompletionException e) {
+            throw HyracksDataException.create(e.getCause());
+        } finally {
+            for (int i = 0; i < numberOfColumns; i++) {
+                encodings[i] = null;
+            }
+        }
+
+        int allocatedSpace = 0;
+        for (int i = 0; i < numberOfColumns; i++) {
+            EncodedColumn encodedColumn = encodedColumns.get(i);
+            writeColumn(encodedColumn);
+            allocatedSpace += encodedColumn.getAllocatedSpace();
         }
         return allocatedSpace;
     }
 
-    private void writeColumn(IColumnValuesWriter writer) throws HyracksDataException {
-        if (!hasEnoughSpace(columns.getCurrentBufferPosition(), writer)) {
+    private static void encode(EncodedColumn encodedColumn) {
+        try {
+            encodedColumn.encode();
+        } catch (HyracksDataException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void writeColumn(EncodedColumn encodedColumn) throws HyracksDataException {
+        if (!hasEnoughSpace(columns.getCurrentBufferPosition(), encodedColumn.getEstimatedSize())) {
             /*
              * We reset the columns stream to write all pages and confiscate a new buffer to minimize splitting
              * the columns value into multiple pages.
@@ -109,18 +185,18 @@ public final class ColumnBatchWriter implements IColumnBatchWriter {
 
         int columnRelativeOffset = columns.size();
         columns.reserveInteger(columnLengthPointer);
-        setColumnOffset(writer.getColumnIndex(), nonKeyColumnStartOffset + columnRelativeOffset);
+        setColumnOffset(encodedColumn.getColumnIndex(), nonKeyColumnStartOffset + columnRelativeOffset);
 
-        writeFilter(writer);
-        writer.flush(columns);
+        writeFilter(encodedColumn);
+        encodedColumn.write(columns);
 
         int length = columns.size() - columnRelativeOffset;
-        columnLengthPointer.setInteger(length);
+        //A negative length indicates a compressed column
+        columnLengthPointer.setInteger(encodedColumn.isCompressed() ? -length : length);
     }
 
-    private boolean hasEnoughSpace(int bufferPosition, IColumnValuesWriter columnWriter) {
+    private boolean hasEnoughSpace(int bufferPosition, int columnSize) {
         //Estimated size mostly overestimate the size
-        int columnSize = columnWriter.getEstimatedSize();
         float remainingPercentage = (pageSize - bufferPosition) / (float) pageSize;
         if (columnSize > pageSize) {
             /*
@@ -146,9 +222,9 @@ public final class ColumnBatchWriter implements IColumnBatchWriter {
         pageZero.putInt(columnsOffset + Integer.BYTES * columnIndex, offset);
     }
 
-    private void writeFilter(IColumnValuesWriter writer) {
-        int offset = filtersOffset + writer.getColumnIndex() * FILTER_SIZE;
-        pageZero.putLong(offset, writer.getNormalizedMinValue());
-        pageZero.putLong(offset + Long.BYTES, writer.getNormalizedMaxValue());
+    private void writeFilter(EncodedColumn encodedColumn) {
+        int offset = filtersOffset + encodedColumn.getColumnIndex() * FILTER_SIZE;
+        pageZero.putLong(offset, encodedColumn.getNormalizedMinValue());
+        pageZero.putLong(offset + Long.BYTES, encodedColumn.getNormalizedMaxValue());
     }
 }
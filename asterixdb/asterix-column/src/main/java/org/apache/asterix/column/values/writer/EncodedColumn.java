@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.column.bytes.stream.out.GrowableBytesOutputStream;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
+
+/**
+ * A column's encoded (and possibly compressed) bytes. A column can be encoded ahead of writing it into the columns'
+ * pages, which allows encoding the columns of a batch in parallel (see {@link ColumnBatchWriter}).
+ * <p>
+ * Compressed columns are written as: scheme id (1-byte), uncompressed length (4-bytes), and the compressed bytes.
+ * If compression does not reduce the column's size, the column is written uncompressed
+ */
+final class EncodedColumn {
+    private static final int COMPRESSION_HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+    private final ColumnCompression compression;
+    private final GrowableBytesOutputStream uncompressedColumn;
+    private ByteBuffer compressedColumn;
+    private ByteBuffer compressedResult;
+
+    private IColumnValuesWriter writer;
+    private int estimatedSize;
+    private long normalizedMinValue;
+    private long normalizedMaxValue;
+    private int allocatedSpace;
+    private boolean encoded;
+    private boolean compressed;
+
+    EncodedColumn(ColumnCompression compression) {
+        this.compression = compression;
+        uncompressedColumn = new GrowableBytesOutputStream();
+    }
+
+    /**
+     * Set the column's writer. The writer's state (e.g., its filter) is captured as the writer is reset once the
+     * column is encoded
+     */
+    void reset(IColumnValuesWriter writer) {
+        this.writer = writer;
+        estimatedSize = writer.getEstimatedSize();
+        normalizedMinValue = writer.getNormalizedMinValue();
+        normalizedMaxValue = writer.getNormalizedMaxValue();
+        allocatedSpace = 0;
+        encoded = false;
+        compressed = false;
+    }
+
+    /**
+     * Encode (and compress) the column
+     */
+    void encode() throws HyracksDataException {
+        uncompressedColumn.reset();
+        flushWriter(uncompressedColumn);
+        compressed = compression != ColumnCompression.NONE && compress();
+        encoded = true;
+    }
+
+    /**
+     * Write the column. The column is encoded first if it has not been encoded yet
+     */
+    void write(OutputStream out) throws HyracksDataException {
+        if (!encoded) {
+            if (compression == ColumnCompression.NONE) {
+                //Nothing to compress, write the column as is
+                flushWriter(out);
+                return;
+            }
+            encode();
+        }
+
+        try {
+            if (compressed) {
+                out.write(compressedResult.array(), 0, compressedResult.limit());
+            } else {
+                uncompressedColumn.writeTo(out);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    int getColumnIndex() {
+        return writer.getColumnIndex();
+    }
+
+    int getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    long getNormalizedMinValue() {
+        return normalizedMinValue;
+    }
+
+    long getNormalizedMaxValue() {
+        return normalizedMaxValue;
+    }
+
+    int getAllocatedSpace() {
+        return allocatedSpace;
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    private void flushWriter(OutputStream out) throws HyracksDataException {
+        writer.flush(out);
+        allocatedSpace = writer.getAllocatedSpace();
+    }
+
+    private boolean compress() throws HyracksDataException {
+        int uncompressedLength = uncompressedColumn.size();
+        ICompressorDecompressor compressor = compression.getCompressorDecompressor();
+        int requiredSize = COMPRESSION_HEADER_SIZE + compressor.computeCompressedBufferSize(uncompressedLength);
+        if (compressedColumn == null || compressedColumn.capacity() < requiredSize) {
+            compressedColumn = ByteBuffer.allocate(requiredSize);
+        }
+        compressedColumn.clear();
+        compressedColumn.put(compression.getId());
+        compressedColumn.putInt(uncompressedLength);
+        compressedResult = compressor.compress(uncompressedColumn.toByteBuffer(), compressedColumn);
+        return compressedResult.limit() < uncompressedLength;
+    }
+}
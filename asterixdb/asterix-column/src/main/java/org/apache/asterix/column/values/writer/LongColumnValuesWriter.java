@@ -20,6 +20,7 @@ package org.apache.asterix.column.values.writer;
 
 import java.io.IOException;
 
+import org.apache.asterix.column.bytes.encoder.DictionaryLongValuesWriter;
 import org.apache.asterix.column.bytes.encoder.ParquetDeltaBinaryPackingValuesWriterForLong;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter;
@@ -34,17 +35,22 @@ import org.apache.parquet.bytes.BytesInput;
 
 final class LongColumnValuesWriter extends AbstractColumnValuesWriter {
     private final ParquetDeltaBinaryPackingValuesWriterForLong longWriter;
+    private final DictionaryLongValuesWriter dictionaryWriter;
+    private boolean dictionaryEncoded;
 
     public LongColumnValuesWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int columnIndex, int level,
             boolean collection, boolean filtered) {
         super(columnIndex, level, collection, filtered);
         longWriter = new ParquetDeltaBinaryPackingValuesWriterForLong(multiPageOpRef);
+        //Primary keys (the only unfiltered columns) are unique and would always fall back to the default encoding
+        dictionaryWriter = filtered ? new DictionaryLongValuesWriter() : null;
+        dictionaryEncoded = filtered;
     }
 
     @Override
     protected void addValue(ATypeTag tag, IValueReference value) throws IOException {
         final long normalizedInt = getValue(tag, value.getByteArray(), value.getStartOffset());
-        longWriter.writeLong(normalizedInt);
+        writeLong(normalizedInt);
         filterWriter.addLong(normalizedInt);
     }
 
@@ -66,27 +72,48 @@ final class LongColumnValuesWriter extends AbstractColumnValuesWriter {
     @Override
     protected void resetValues() throws HyracksDataException {
         longWriter.reset();
+        if (dictionaryWriter != null) {
+            dictionaryWriter.reset();
+            dictionaryEncoded = true;
+        }
     }
 
     @Override
     protected BytesInput getBytes() throws IOException {
+        if (dictionaryWriter == null) {
+            return longWriter.getBytes();
+        }
+
+        if (dictionaryEncoded && !dictionaryWriter.isWorthwhile()) {
+            fallBackToDefaultEncoding();
+        }
+
+        if (dictionaryEncoded) {
+            return dictionaryWriter.getBytes();
+        }
         return longWriter.getBytes();
     }
 
+    @Override
+    protected boolean isDictionaryEncoded() {
+        return dictionaryEncoded;
+    }
+
     @Override
     protected int getValuesEstimatedSize() {
-        return longWriter.getEstimatedSize();
+        return dictionaryEncoded ? dictionaryWriter.getEstimatedSize() : longWriter.getEstimatedSize();
     }
 
     @Override
     protected int getValuesAllocatedSize() {
-        return longWriter.getAllocatedSize();
+        int dictionaryAllocatedSize = dictionaryWriter == null ? 0 : dictionaryWriter.getAllocatedSize();
+        return longWriter.getAllocatedSize() + dictionaryAllocatedSize;
     }
 
     @Override
     protected void addValue(IColumnValuesReader reader) throws IOException {
         long value = reader.getLong();
-        longWriter.writeLong(value);
+        writeLong(value);
         filterWriter.addLong(value);
     }
 
@@ -98,10 +125,29 @@ final class LongColumnValuesWriter extends AbstractColumnValuesWriter {
     @Override
     protected void closeValues() {
         longWriter.close();
+        if (dictionaryWriter != null) {
+            dictionaryWriter.close();
+        }
     }
 
     @Override
     protected ATypeTag getTypeTag() {
         return ATypeTag.BIGINT;
     }
+
+    private void writeLong(long value) {
+        if (dictionaryEncoded && !dictionaryWriter.tryWriteLong(value)) {
+            fallBackToDefaultEncoding();
+        }
+
+        if (!dictionaryEncoded) {
+            longWriter.writeLong(value);
+        }
+    }
+
+    private void fallBackToDefaultEncoding() {
+        dictionaryWriter.writeTo(longWriter);
+        dictionaryWriter.reset();
+        dictionaryEncoded = false;
+    }
 }
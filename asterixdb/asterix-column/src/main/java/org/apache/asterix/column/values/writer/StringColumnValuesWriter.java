@@ -20,6 +20,7 @@ package org.apache.asterix.column.values.writer;
 
 import java.io.IOException;
 
+import org.apache.asterix.column.bytes.encoder.DictionaryByteArrayValuesWriter;
 import org.apache.asterix.column.bytes.encoder.ParquetDeltaByteArrayWriter;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter;
@@ -33,50 +34,76 @@ import org.apache.parquet.bytes.BytesInput;
 
 public class StringColumnValuesWriter extends AbstractColumnValuesWriter {
     private final ParquetDeltaByteArrayWriter stringWriter;
+    private final DictionaryByteArrayValuesWriter dictionaryWriter;
     private final boolean skipLengthBytes;
+    private boolean dictionaryEncoded;
 
     public StringColumnValuesWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int columnIndex, int level,
             boolean collection, boolean filtered) {
-        this(multiPageOpRef, columnIndex, level, collection, filtered, true);
+        //Primary keys (the only unfiltered columns) are unique and would always fall back to the default encoding
+        this(multiPageOpRef, columnIndex, level, collection, filtered, true, filtered);
     }
 
     protected StringColumnValuesWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int columnIndex, int level,
-            boolean collection, boolean filtered, boolean skipLengthBytes) {
+            boolean collection, boolean filtered, boolean skipLengthBytes, boolean dictionarySupported) {
         super(columnIndex, level, collection, filtered);
         stringWriter = new ParquetDeltaByteArrayWriter(multiPageOpRef);
+        dictionaryWriter = dictionarySupported ? new DictionaryByteArrayValuesWriter() : null;
         this.skipLengthBytes = skipLengthBytes;
+        dictionaryEncoded = dictionarySupported;
     }
 
     @Override
     protected final void addValue(ATypeTag tag, IValueReference value) throws IOException {
-        stringWriter.writeBytes(value, skipLengthBytes);
+        writeBytes(value);
         filterWriter.addValue(value);
     }
 
     @Override
     protected final void resetValues() throws HyracksDataException {
         stringWriter.reset();
+        if (dictionaryWriter != null) {
+            dictionaryWriter.reset();
+            dictionaryEncoded = true;
+        }
     }
 
     @Override
     protected final BytesInput getBytes() throws IOException {
+        if (dictionaryWriter == null) {
+            return stringWriter.getBytes();
+        }
+
+        if (dictionaryEncoded && !dictionaryWriter.isWorthwhile()) {
+            fallBackToDefaultEncoding();
+        }
+
+        if (dictionaryEncoded) {
+            return dictionaryWriter.getBytes();
+        }
         return stringWriter.getBytes();
     }
 
+    @Override
+    protected final boolean isDictionaryEncoded() {
+        return dictionaryEncoded;
+    }
+
     @Override
     protected final int getValuesEstimatedSize() {
-        return stringWriter.getEstimatedSize();
+        return dictionaryEncoded ? dictionaryWriter.getEstimatedSize() : stringWriter.getEstimatedSize();
     }
 
     @Override
     protected final int getValuesAllocatedSize() {
-        return stringWriter.getAllocatedSize();
+        int dictionaryAllocatedSize = dictionaryWriter == null ? 0 : dictionaryWriter.getAllocatedSize();
+        return stringWriter.getAllocatedSize() + dictionaryAllocatedSize;
     }
 
     @Override
     protected final void addValue(IColumnValuesReader reader) throws IOException {
         IValueReference value = reader.getBytes();
-        stringWriter.writeBytes(value, skipLengthBytes);
+        writeBytes(value);
         filterWriter.addValue(value);
     }
 
@@ -88,10 +115,33 @@ public class StringColumnValuesWriter extends AbstractColumnValuesWriter {
     @Override
     protected final void closeValues() {
         stringWriter.close();
+        if (dictionaryWriter != null) {
+            dictionaryWriter.close();
+        }
     }
 
     @Override
     protected ATypeTag getTypeTag() {
         return ATypeTag.STRING;
     }
+
+    private void writeBytes(IValueReference value) {
+        if (dictionaryEncoded && !dictionaryWriter.tryWriteBytes(value, skipLengthBytes)) {
+            fallBackToDefaultEncoding();
+        }
+
+        if (!dictionaryEncoded) {
+            stringWriter.writeBytes(value, skipLengthBytes);
+        }
+    }
+
+    /**
+     * Too many distinct values (or too few repetitions). Re-encode the values written so far using the
+     * delta encoding and continue with it until the next reset
+     */
+    private void fallBackToDefaultEncoding() {
+        dictionaryWriter.writeTo(stringWriter);
+        dictionaryWriter.reset();
+        dictionaryEncoded = false;
+    }
 }
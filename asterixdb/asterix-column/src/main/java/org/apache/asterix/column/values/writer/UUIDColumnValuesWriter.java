@@ -26,7 +26,7 @@ final class UUIDColumnValuesWriter extends StringColumnValuesWriter {
 
     public UUIDColumnValuesWriter(Mutable<IColumnWriteMultiPageOp> multiPageOpRef, int columnIndex, int level,
             boolean collection, boolean filtered) {
-        super(multiPageOpRef, columnIndex, level, collection, filtered, false);
+        super(multiPageOpRef, columnIndex, level, collection, filtered, false, false);
     }
 
     @Override
@@ -33,11 +33,12 @@ public class DoubleColumnFilterWriter extends AbstractColumnFilterWriter {
 
     @Override
     public void addDouble(double value) {
-        if (min > value) {
+        //Double.compare() orders -0.0 and NaN the same way normalize() does
+        if (Double.compare(min, value) > 0) {
             min = value;
         }
 
-        if (max < value) {
+        if (Double.compare(max, value) < 0) {
             max = value;
         }
     }
@@ -59,8 +60,8 @@ public class DoubleColumnFilterWriter extends AbstractColumnFilterWriter {
 
     @Override
     public void reset() {
-        min = Double.MIN_VALUE;
-        max = Double.MAX_VALUE;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
     }
 
     @Override
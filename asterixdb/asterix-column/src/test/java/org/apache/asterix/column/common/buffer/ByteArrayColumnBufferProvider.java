@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.common.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
+import org.apache.asterix.column.bytes.stream.in.ByteBufferInputStream;
+import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
+
+/**
+ * Provides a single column that was flushed into a byte array
+ */
+public class ByteArrayColumnBufferProvider implements IColumnBufferProvider {
+    private final byte[] column;
+
+    public ByteArrayColumnBufferProvider(byte[] column) {
+        this.column = column;
+    }
+
+    /**
+     * @return a stream of the column of the same kind as the one a column reader expects
+     */
+    public static AbstractBytesInputStream createStream(byte[] column, boolean primaryKey)
+            throws HyracksDataException {
+        AbstractBytesInputStream in = primaryKey ? new ByteBufferInputStream() : new MultiByteBufferInputStream();
+        in.reset(new ByteArrayColumnBufferProvider(column));
+        return in;
+    }
+
+    @Override
+    public void reset(ColumnBTreeReadLeafFrame frame) {
+        //NoOp
+    }
+
+    @Override
+    public void readAll(Queue<ByteBuffer> buffers) {
+        buffers.add(getBuffer());
+    }
+
+    @Override
+    public void releaseAll() {
+        //NoOp
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        return ByteBuffer.wrap(column);
+    }
+
+    @Override
+    public int getLength() {
+        return column.length;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return 0;
+    }
+}
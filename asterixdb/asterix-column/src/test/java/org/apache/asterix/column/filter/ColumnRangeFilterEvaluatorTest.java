@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import static org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter.FILTER_SIZE;
+
+import java.nio.ByteBuffer;
+
+import org.apache.asterix.column.values.writer.filters.AbstractColumnFilterWriter;
+import org.apache.asterix.column.values.writer.filters.DoubleColumnFilterWriter;
+import org.apache.asterix.column.values.writer.filters.LongColumnFilterWriter;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo.Comparison;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnRangeFilterEvaluatorTest {
+    private static final int NUMBER_OF_COLUMNS = 2;
+
+    @Test
+    public void testLongFilter() {
+        LongColumnFilterWriter writer = new LongColumnFilterWriter();
+        writer.addLong(10);
+        writer.addLong(20);
+        ByteBuffer pageZero = createPageZero(writer);
+
+        Assert.assertTrue(evaluateLong(pageZero, Comparison.EQ, 15));
+        Assert.assertFalse(evaluateLong(pageZero, Comparison.EQ, 21));
+        Assert.assertFalse(evaluateLong(pageZero, Comparison.LT, 5));
+        Assert.assertTrue(evaluateLong(pageZero, Comparison.LE, 10));
+        Assert.assertFalse(evaluateLong(pageZero, Comparison.GT, 25));
+        Assert.assertTrue(evaluateLong(pageZero, Comparison.GE, 20));
+        Assert.assertTrue(evaluateLong(pageZero, Comparison.GT, -100));
+    }
+
+    @Test
+    public void testDoubleFilter() {
+        DoubleColumnFilterWriter writer = new DoubleColumnFilterWriter();
+        writer.addDouble(-1.5);
+        writer.addDouble(-0.0);
+        ByteBuffer pageZero = createPageZero(writer);
+
+        Assert.assertTrue(evaluateDouble(pageZero, Comparison.EQ, -1.0));
+        Assert.assertTrue(evaluateDouble(pageZero, Comparison.EQ, 0.0));
+        Assert.assertFalse(evaluateDouble(pageZero, Comparison.GT, 1.0));
+        Assert.assertFalse(evaluateDouble(pageZero, Comparison.LT, -2.0));
+        Assert.assertTrue(evaluateDouble(pageZero, Comparison.LE, -1.5));
+    }
+
+    @Test
+    public void testUnknownColumn() {
+        LongColumnFilterWriter writer = new LongColumnFilterWriter();
+        writer.addLong(10);
+        ByteBuffer pageZero = createPageZero(writer);
+
+        //The column did not exist when the page was written
+        IColumnFilterEvaluator evaluator =
+                new ColumnRangeFilterEvaluator(NUMBER_OF_COLUMNS, ATypeTag.BIGINT, Comparison.EQ, 0, 0, false);
+        Assert.assertTrue(evaluator.evaluate(pageZero, 0, NUMBER_OF_COLUMNS));
+    }
+
+    private static boolean evaluateLong(ByteBuffer pageZero, Comparison comparison, long value) {
+        return new ColumnRangeFilterEvaluator(1, ATypeTag.BIGINT, comparison, value, value, false).evaluate(pageZero, 0,
+                NUMBER_OF_COLUMNS);
+    }
+
+    private static boolean evaluateDouble(ByteBuffer pageZero, Comparison comparison, double value) {
+        double low = value == 0.0d ? -0.0d : value;
+        double high = value == 0.0d ? 0.0d : value;
+        return new ColumnRangeFilterEvaluator(1, ATypeTag.DOUBLE, comparison, DoubleColumnFilterWriter.normalize(low),
+                DoubleColumnFilterWriter.normalize(high), true).evaluate(pageZero, 0, NUMBER_OF_COLUMNS);
+    }
+
+    private static ByteBuffer createPageZero(AbstractColumnFilterWriter writer) {
+        //Column 0 has no filter, column 1 has the writer's min/max values
+        ByteBuffer pageZero = ByteBuffer.allocate(NUMBER_OF_COLUMNS * FILTER_SIZE);
+        pageZero.putLong(FILTER_SIZE, writer.getMinNormalizedValue());
+        pageZero.putLong(FILTER_SIZE + Long.BYTES, writer.getMaxNormalizedValue());
+        return pageZero;
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.filter;
+
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.HEADER_SIZE;
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMNS_OFFSET;
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMN_PAGES;
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.TUPLE_COUNT_OFFSET;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.column.assembler.value.ValueGetterFactory;
+import org.apache.asterix.column.common.buffer.ByteArrayColumnBufferProvider;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.DummyPage;
+import org.apache.asterix.column.common.buffer.TestReadMultiPageOp;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.common.row.DummyLSMBTreeTupleReference;
+import org.apache.asterix.column.common.row.NoOpRowTupleWriter;
+import org.apache.asterix.column.operation.lsm.flush.FlushColumnMetadata;
+import org.apache.asterix.column.operation.lsm.flush.FlushColumnTupleWriter;
+import org.apache.asterix.column.operation.query.QueryColumnMetadata;
+import org.apache.asterix.column.operation.query.QueryColumnTupleReader;
+import org.apache.asterix.column.tuple.QueryColumnTupleReference;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.column.values.writer.ColumnValuesWriterFactory;
+import org.apache.asterix.column.values.writer.filters.DoubleColumnFilterWriter;
+import org.apache.asterix.common.exceptions.NoOpWarningCollector;
+import org.apache.asterix.external.parser.JSONDataParser;
+import org.apache.asterix.om.pointables.ARecordVisitablePointable;
+import org.apache.asterix.om.pointables.base.DefaultOpenFieldType;
+import org.apache.asterix.om.pointables.printer.json.clean.APrintVisitor;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo;
+import org.apache.asterix.runtime.projection.ColumnRangeFilterInfo.Comparison;
+import org.apache.asterix.runtime.projection.DataProjectionInfo;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Checks the tuple-level evaluation of the pushed down range predicates, i.e., tuples of a mega leaf node that do not
+ * satisfy the predicates are reported as anti-matter tuples (see {@link QueryColumnTupleReference})
+ */
+public class ColumnRangeTupleFilterEvaluatorTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    private static final float TOLERANCE = 0.15f;
+    private static final int NUMBER_OF_ENTRIES = 1000;
+    //A field of a record: 0 = missing record, 1 = missing field or null, 2 = value
+    private static final int MAX_LEVEL = 2;
+    private static final double[] DOUBLE_VALUES =
+            { Double.NaN, -0.0d, 0.0d, -1.5d, 1.5d, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY };
+    private static final ARecordType DATASET_TYPE =
+            new ARecordType("DatasetType", new String[] { "id" }, new IAType[] { BuiltinType.AINT64 }, true);
+    private static final List<List<String>> PRIMARY_KEYS = Collections.singletonList(Collections.singletonList("id"));
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private DummyBufferCache bufferCache;
+    private ColumnValuesWriterFactory writerFactory;
+
+    @Before
+    public void setUp() {
+        bufferCache = new DummyBufferCache(PAGE_SIZE);
+        writerFactory = new ColumnValuesWriterFactory(
+                new MutableObject<>(new TestWriteMultiPageOp(bufferCache, bufferCache.createFile())));
+    }
+
+    @Test
+    public void testNullAndMissingValues() throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(ATypeTag.BIGINT, 0, MAX_LEVEL, false, true);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            if (i % 5 == 0) {
+                writer.writeNull(1);
+            } else if (i % 7 == 0) {
+                //Missing field
+                writer.writeLevel(1);
+            } else {
+                storage.reset();
+                storage.getDataOutput().writeLong(i);
+                writer.writeValue(ATypeTag.BIGINT, storage);
+            }
+        }
+        byte[] column = flush(writer);
+
+        BitSet selection = evaluate(ATypeTag.BIGINT, Comparison.GE, 100, 100, false, column, NUMBER_OF_ENTRIES);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            boolean isValue = i % 5 != 0 && i % 7 != 0;
+            Assert.assertEquals("entry " + i, isValue && i >= 100, selection.get(i));
+        }
+
+        //NULL and MISSING do not satisfy any comparison, not even a negated one
+        selection = evaluate(ATypeTag.BIGINT, Comparison.LT, 100, 100, false, column, NUMBER_OF_ENTRIES);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            boolean isValue = i % 5 != 0 && i % 7 != 0;
+            Assert.assertEquals("entry " + i, isValue && i < 100, selection.get(i));
+        }
+    }
+
+    @Test
+    public void testDoubleNaNAndZeros() throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(ATypeTag.DOUBLE, 0, MAX_LEVEL, false, true);
+        for (int i = 0; i < DOUBLE_VALUES.length; i++) {
+            storage.reset();
+            storage.getDataOutput().writeDouble(DOUBLE_VALUES[i]);
+            writer.writeValue(ATypeTag.DOUBLE, storage);
+        }
+        byte[] column = flush(writer);
+
+        //NaN is left to the query's filter, -0.0 and 0.0 are equal
+        assertSelection(new boolean[] { true, true, true, false, false, false, false },
+                evaluateDouble(Comparison.EQ, 0.0d, column));
+        assertSelection(new boolean[] { true, true, true, false, false, false, false },
+                evaluateDouble(Comparison.EQ, -0.0d, column));
+        assertSelection(new boolean[] { true, false, false, false, true, false, true },
+                evaluateDouble(Comparison.GT, 0.0d, column));
+        assertSelection(new boolean[] { true, true, true, false, true, false, true },
+                evaluateDouble(Comparison.GE, -0.0d, column));
+        assertSelection(new boolean[] { true, false, false, true, false, true, false },
+                evaluateDouble(Comparison.LT, 0.0d, column));
+        assertSelection(new boolean[] { true, true, true, true, false, true, false },
+                evaluateDouble(Comparison.LE, 0.0d, column));
+    }
+
+    @Test
+    public void testFilterOnlyProjectedColumns() throws IOException {
+        Component component = writeComponent("{\"id\": 1, \"a\": 5, \"b\": 1}", "{\"id\": 2, \"a\": 15, \"b\": 2}",
+                "{\"id\": 3, \"a\": 25, \"b\": 3}");
+        List<ColumnRangeFilterInfo> filters =
+                Collections.singletonList(ColumnRangeFilterInfo.createLong(Collections.singletonList("a"),
+                        Comparison.GE, 10));
+
+        //The filtered column is projected. Tuples that do not satisfy the filter are reported as anti-matter
+        QueryColumnMetadata projected = component.createQueryMetadata(requestFields("a", "b"), filters);
+        Assert.assertNotSame(NoOpColumnTupleFilterEvaluator.INSTANCE, projected.getTupleFilterEvaluator());
+        Assert.assertEquals(2, readAll(component.createTupleReference(0, projected)).size());
+
+        //The filtered column is not projected. It is only used to filter mega leaf nodes
+        QueryColumnMetadata notProjected = component.createQueryMetadata(requestFields("b"), filters);
+        Assert.assertNotSame(NoOpColumnFilterEvaluator.INSTANCE, notProjected.getFilterEvaluator());
+        Assert.assertSame(NoOpColumnTupleFilterEvaluator.INSTANCE, notProjected.getTupleFilterEvaluator());
+        Assert.assertEquals(3, readAll(component.createTupleReference(0, notProjected)).size());
+    }
+
+    @Test
+    public void testFilteredNewerVersionHidesOlderVersion() throws IOException {
+        //Record 2 was updated. Only its older version satisfies the filter
+        Component newer = writeComponent("{\"id\": 1, \"a\": 20, \"v\": 2}", "{\"id\": 2, \"a\": 1, \"v\": 2}",
+                "{\"id\": 4, \"a\": 40, \"v\": 2}");
+        Component older = writeComponent("{\"id\": 2, \"a\": 50, \"v\": 1}", "{\"id\": 3, \"a\": 30, \"v\": 1}");
+        List<ColumnRangeFilterInfo> filters =
+                Collections.singletonList(ColumnRangeFilterInfo.createLong(Collections.singletonList("a"),
+                        Comparison.GE, 10));
+
+        QueryColumnTupleReference newerTuple =
+                newer.createTupleReference(0, newer.createQueryMetadata(DataProjectionInfo.ALL_FIELDS_TYPE, filters));
+        QueryColumnTupleReference olderTuple =
+                older.createTupleReference(1, older.createQueryMetadata(DataProjectionInfo.ALL_FIELDS_TYPE, filters));
+
+        List<String> result = reconcile(newerTuple, olderTuple);
+        Assert.assertEquals(result.toString(), 3, result.size());
+        Assert.assertTrue(result.get(0), result.get(0).contains("\"a\": 20"));
+        //The older version of record 2 must not be brought back and the values of the filtered newer version must
+        //not be assembled in place of other records' values
+        Assert.assertTrue(result.get(1), result.get(1).contains("\"a\": 30"));
+        Assert.assertTrue(result.get(2), result.get(2).contains("\"a\": 40"));
+    }
+
+    /* *************************************************
+     * Column-level evaluation
+     * *************************************************
+     */
+
+    private BitSet evaluateDouble(Comparison comparison, double value, byte[] column) throws HyracksDataException {
+        double low = value == 0.0d ? -0.0d : value;
+        double high = value == 0.0d ? 0.0d : value;
+        return evaluate(ATypeTag.DOUBLE, comparison, DoubleColumnFilterWriter.normalize(low),
+                DoubleColumnFilterWriter.normalize(high), true, column, DOUBLE_VALUES.length);
+    }
+
+    private BitSet evaluate(ATypeTag typeTag, Comparison comparison, long low, long high, boolean unsigned,
+            byte[] column, int numberOfEntries) throws HyracksDataException {
+        ColumnRangeFilterEvaluator rangeEvaluator =
+                new ColumnRangeFilterEvaluator(0, typeTag, comparison, low, high, unsigned);
+        IColumnTupleFilterEvaluator evaluator = new ColumnRangeTupleFilterEvaluator(0,
+                readerFactory.createValueReader(typeTag, 0, MAX_LEVEL, false), rangeEvaluator);
+        BitSet selection = new BitSet();
+        selection.set(0, numberOfEntries);
+        evaluator.evaluate(0, ByteArrayColumnBufferProvider.createStream(column, false), 0, numberOfEntries,
+                selection);
+        return selection;
+    }
+
+    private static void assertSelection(boolean[] expected, BitSet selection) {
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("entry " + i, expected[i], selection.get(i));
+        }
+    }
+
+    private static byte[] flush(IColumnValuesWriter writer) throws HyracksDataException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /* *************************************************
+     * Tuple-level evaluation
+     * *************************************************
+     */
+
+    private Component writeComponent(String... records) throws IOException {
+        int fileId = bufferCache.createFile();
+        Mutable<IColumnWriteMultiPageOp> multiPageOpRef = new MutableObject<>();
+        FlushColumnMetadata columnMetadata = new FlushColumnMetadata(DATASET_TYPE, null, PRIMARY_KEYS, null,
+                new ColumnValuesWriterFactory(multiPageOpRef), multiPageOpRef);
+        IColumnWriteMultiPageOp multiPageOp = new TestWriteMultiPageOp(bufferCache, fileId);
+        columnMetadata.init(multiPageOp);
+        FlushColumnTupleWriter writer = new FlushColumnTupleWriter(columnMetadata, PAGE_SIZE, records.length,
+                TOLERANCE, ColumnCompression.NONE);
+
+        //A single mega leaf node: page zero is followed by the columns' pages
+        DummyPage pageZero = bufferCache.allocate(fileId);
+        JSONDataParser parser = new JSONDataParser(DATASET_TYPE, new JsonFactory());
+        parser.reset(new ByteArrayInputStream(String.join("\n", records).getBytes(StandardCharsets.UTF_8)));
+        DummyLSMBTreeTupleReference tuple = new DummyLSMBTreeTupleReference();
+        ArrayBackedValueStorage record = new ArrayBackedValueStorage();
+        while (parser.parse(record.getDataOutput())) {
+            tuple.set(record);
+            writer.writeTuple(tuple);
+            record.reset();
+        }
+
+        ByteBuffer buffer = pageZero.getBuffer();
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+        writer.flush(buffer);
+        buffer.putInt(TUPLE_COUNT_OFFSET, records.length);
+        buffer.putInt(NUMBER_OF_COLUMNS_OFFSET, writer.getNumberOfColumns());
+        buffer.putInt(NUMBER_OF_COLUMN_PAGES, multiPageOp.getNumberOfPersistentBuffers() - 1);
+        writer.close();
+        return new Component(fileId, pageZero, columnMetadata);
+    }
+
+    private static ARecordType requestFields(String... fieldNames) {
+        IAType[] fieldTypes = new IAType[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldTypes[i] = BuiltinType.ANY;
+        }
+        return new ARecordType("RequestedType", fieldNames, fieldTypes, true);
+    }
+
+    /**
+     * Reconcile the tuples of two components the same way the LSM search cursor does: a newer version of a record
+     * hides its older versions, and anti-matter tuples are not returned
+     */
+    private static List<String> reconcile(QueryColumnTupleReference newer, QueryColumnTupleReference older)
+            throws HyracksDataException {
+        List<String> result = new ArrayList<>();
+        boolean hasNewer = advance(newer);
+        boolean hasOlder = advance(older);
+        while (hasNewer || hasOlder) {
+            int compare = !hasOlder ? -1 : !hasNewer ? 1 : newer.compareTo(older);
+            if (compare <= 0) {
+                if (compare == 0) {
+                    //Skip the values of the hidden older version
+                    older.skip(1);
+                    hasOlder = advance(older);
+                }
+                if (!newer.isAntimatter()) {
+                    result.add(toString(newer.getAssembledValue()));
+                }
+                hasNewer = advance(newer);
+            } else {
+                if (!older.isAntimatter()) {
+                    result.add(toString(older.getAssembledValue()));
+                }
+                hasOlder = advance(older);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> readAll(QueryColumnTupleReference tuple) throws HyracksDataException {
+        List<String> result = new ArrayList<>();
+        while (advance(tuple)) {
+            if (!tuple.isAntimatter()) {
+                Assert.assertTrue(LongPointable.getLong(tuple.getFieldData(0), tuple.getFieldStart(0) + 1) > 0);
+                result.add(toString(tuple.getAssembledValue()));
+            }
+        }
+        return result;
+    }
+
+    private static boolean advance(QueryColumnTupleReference tuple) throws HyracksDataException {
+        if (tuple.isConsumed()) {
+            return false;
+        }
+        tuple.next();
+        return true;
+    }
+
+    private static String toString(IValueReference record) throws HyracksDataException {
+        ARecordVisitablePointable recordPointable =
+                new ARecordVisitablePointable(DefaultOpenFieldType.NESTED_OPEN_RECORD_TYPE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PrintStream ps = new PrintStream(out, true, StandardCharsets.UTF_8.name())) {
+            recordPointable.set(record);
+            recordPointable.accept(new APrintVisitor(), new Pair<>(ps, ATypeTag.OBJECT));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private class Component {
+        private final int fileId;
+        private final DummyPage pageZero;
+        private final FlushColumnMetadata columnMetadata;
+
+        Component(int fileId, DummyPage pageZero, FlushColumnMetadata columnMetadata) {
+            this.fileId = fileId;
+            this.pageZero = pageZero;
+            this.columnMetadata = columnMetadata;
+        }
+
+        QueryColumnMetadata createQueryMetadata(ARecordType requestedType, List<ColumnRangeFilterInfo> filters)
+                throws IOException {
+            return QueryColumnMetadata.create(columnMetadata.getDatasetType(), columnMetadata.getNumberOfPrimaryKeys(),
+                    columnMetadata.serializeColumnsMetadata(), readerFactory, ValueGetterFactory.INSTANCE,
+                    requestedType, Collections.emptyMap(), filters, NoOpWarningCollector.INSTANCE);
+        }
+
+        QueryColumnTupleReference createTupleReference(int componentIndex, QueryColumnMetadata queryMetadata)
+                throws HyracksDataException {
+            ColumnBTreeReadLeafFrame frame =
+                    new ColumnBTreeReadLeafFrame(new NoOpRowTupleWriter(), new QueryColumnTupleReader(queryMetadata));
+            frame.setPage(pageZero);
+            QueryColumnTupleReference tuple = (QueryColumnTupleReference) frame.createTupleReference(componentIndex,
+                    new TestReadMultiPageOp(fileId, bufferCache, PAGE_SIZE));
+            tuple.reset(0);
+            return tuple;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.util.ColumnValuesUtil;
 import org.apache.asterix.column.util.RunLengthIntArray;
+import org.apache.asterix.column.values.ColumnValuesBatch;
 import org.apache.asterix.column.values.IColumnValuesReader;
 import org.apache.asterix.column.values.IColumnValuesWriter;
 import org.apache.asterix.om.types.ATypeTag;
@@ -153,6 +154,11 @@ public abstract class AbstractDummyColumnValuesReader implements IColumnValuesRe
         //NoOp
     }
 
+    @Override
+    public int readBatch(ColumnValuesBatch batch, int maxCount) {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
     @Override
     public final void skip(int count) throws HyracksDataException {
         for (int i = 0; i < count; i++) {
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.reader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.asterix.column.common.buffer.ByteArrayColumnBufferProvider;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.values.ColumnValuesBatch;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.writer.ColumnValuesWriterFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that {@link IColumnValuesReader#readBatch(ColumnValuesBatch, int)} decodes the same entries as calling
+ * {@link IColumnValuesReader#next()} for each entry
+ */
+public class ReadBatchTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    private static final int NUMBER_OF_ENTRIES = 3000;
+    //Not a divisor of the number of entries, so the last batch is partial
+    private static final int BATCH_SIZE = 97;
+    //A field of a record: 0 = missing record, 1 = missing field or null, 2 = value
+    private static final int MAX_LEVEL = 2;
+    //An array of a record: 0 = end of the array, 1 = item is missing or null, 2 = item's value
+    private static final int[] DELIMITERS = { 0 };
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private ColumnValuesWriterFactory writerFactory;
+
+    @Before
+    public void setUp() {
+        DummyBufferCache bufferCache = new DummyBufferCache(PAGE_SIZE);
+        writerFactory = new ColumnValuesWriterFactory(
+                new MutableObject<>(new TestWriteMultiPageOp(bufferCache, bufferCache.createFile())));
+    }
+
+    @Test
+    public void testLongsWithNulls() throws IOException {
+        assertBatches(ATypeTag.BIGINT, writePrimitive(ATypeTag.BIGINT), false);
+    }
+
+    @Test
+    public void testDoublesWithNulls() throws IOException {
+        assertBatches(ATypeTag.DOUBLE, writePrimitive(ATypeTag.DOUBLE), false);
+    }
+
+    @Test
+    public void testStringsWithNulls() throws IOException {
+        assertBatches(ATypeTag.STRING, writePrimitive(ATypeTag.STRING), false);
+    }
+
+    @Test
+    public void testAllNulls() throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(ATypeTag.BIGINT, 0, MAX_LEVEL, false, true);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            writer.writeNull(1);
+        }
+        assertBatches(ATypeTag.BIGINT, flush(writer), false);
+    }
+
+    @Test
+    public void testRepeatedLongsWithNulls() throws IOException {
+        assertBatches(ATypeTag.BIGINT, writeRepeated(ATypeTag.BIGINT), true);
+    }
+
+    @Test
+    public void testRepeatedStringsWithNulls() throws IOException {
+        assertBatches(ATypeTag.STRING, writeRepeated(ATypeTag.STRING), true);
+    }
+
+    private byte[] writePrimitive(ATypeTag typeTag) throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(typeTag, 0, MAX_LEVEL, false, true);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            if (i % 5 == 0) {
+                writer.writeNull(1);
+            } else if (i % 7 == 0) {
+                writer.writeLevel(1);
+            } else if (i % 11 == 0) {
+                writer.writeLevel(0);
+            } else {
+                writeValue(writer, typeTag, i);
+            }
+        }
+        return flush(writer);
+    }
+
+    private byte[] writeRepeated(ATypeTag typeTag) throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(typeTag, 0, MAX_LEVEL, true, true);
+        int numberOfEntries = 0;
+        for (int i = 0; numberOfEntries < NUMBER_OF_ENTRIES; i++) {
+            //Arrays of 0 to 5 items
+            for (int j = 0; j < i % 6; j++) {
+                if (j % 3 == 2) {
+                    writer.writeNull(1);
+                } else {
+                    writeValue(writer, typeTag, i + j);
+                }
+                numberOfEntries++;
+            }
+            writer.writeLevel(0);
+            numberOfEntries++;
+        }
+        return flush(writer);
+    }
+
+    private void writeValue(IColumnValuesWriter writer, ATypeTag typeTag, int i) throws IOException {
+        storage.reset();
+        switch (typeTag) {
+            case BIGINT:
+                storage.getDataOutput().writeLong(i * 31L);
+                break;
+            case DOUBLE:
+                storage.getDataOutput().writeDouble(i / 3.0);
+                break;
+            default:
+                UTF8StringUtil.writeUTF8("value-" + i, storage.getDataOutput());
+        }
+        writer.writeValue(typeTag, storage);
+    }
+
+    /**
+     * Decode the column in batches and compare each entry against a reader that calls next() for each entry
+     */
+    private void assertBatches(ATypeTag typeTag, byte[] column, boolean repeated) throws HyracksDataException {
+        IColumnValuesReader batchReader = createReader(typeTag, column, repeated);
+        IColumnValuesReader expectedReader = createReader(typeTag, column, repeated);
+        ColumnValuesBatch batch = new ColumnValuesBatch();
+        int numberOfEntries = 0;
+        int count;
+        while ((count = batchReader.readBatch(batch, BATCH_SIZE)) > 0) {
+            Assert.assertEquals(count, batch.getSize());
+            for (int i = 0; i < count; i++) {
+                Assert.assertTrue(expectedReader.next());
+                Assert.assertEquals(expectedReader.getLevel(), batch.getLevel(i));
+                Assert.assertEquals(expectedReader.isNull(), batch.isNull(i));
+                Assert.assertEquals(expectedReader.isValue(), batch.isValue(i));
+                if (batch.isValue(i)) {
+                    assertValue(typeTag, expectedReader, batch, i);
+                }
+            }
+            //The batch reader must be positioned at the batch's last entry
+            Assert.assertEquals(expectedReader.getLevel(), batchReader.getLevel());
+            Assert.assertEquals(expectedReader.isNull(), batchReader.isNull());
+            Assert.assertEquals(expectedReader.isDelimiter(), batchReader.isDelimiter());
+            Assert.assertEquals(expectedReader.isRepeated(), batchReader.isRepeated());
+            if (repeated) {
+                Assert.assertEquals(expectedReader.getDelimiterIndex(), batchReader.getDelimiterIndex());
+            }
+            numberOfEntries += count;
+        }
+        Assert.assertFalse(expectedReader.next());
+        Assert.assertTrue(numberOfEntries >= NUMBER_OF_ENTRIES);
+    }
+
+    private static void assertValue(ATypeTag typeTag, IColumnValuesReader expectedReader, ColumnValuesBatch batch,
+            int i) {
+        switch (typeTag) {
+            case BIGINT:
+                Assert.assertEquals(expectedReader.getLong(), batch.getLong(i));
+                break;
+            case DOUBLE:
+                Assert.assertEquals(expectedReader.getDouble(), batch.getDouble(i), 0.0);
+                break;
+            default:
+                Assert.assertEquals(toString(expectedReader.getBytes()), toString(batch.getBytes(i)));
+        }
+    }
+
+    private static String toString(IValueReference value) {
+        return UTF8StringUtil.toString(value.getByteArray(), value.getStartOffset());
+    }
+
+    private IColumnValuesReader createReader(ATypeTag typeTag, byte[] column, boolean repeated)
+            throws HyracksDataException {
+        IColumnValuesReader reader = repeated ? readerFactory.createValueReader(typeTag, 0, MAX_LEVEL, DELIMITERS)
+                : readerFactory.createValueReader(typeTag, 0, MAX_LEVEL, false);
+        reader.reset(ByteArrayColumnBufferProvider.createStream(column, false), NUMBER_OF_ENTRIES);
+        return reader;
+    }
+
+    private static byte[] flush(IColumnValuesWriter writer) throws HyracksDataException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        writer.close();
+        return out.toByteArray();
+    }
+}
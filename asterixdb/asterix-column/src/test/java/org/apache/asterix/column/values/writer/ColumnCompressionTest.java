@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.HEADER_SIZE;
+import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMNS_OFFSET;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import org.apache.asterix.column.bytes.stream.in.MultiByteBufferInputStream;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.DummyPage;
+import org.apache.asterix.column.common.buffer.TestReadMultiPageOp;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.common.row.NoOpRowTupleWriter;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReadMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.ColumnMultiBufferProvider;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Writes columns using {@link ColumnBatchWriter} and reads them back using {@link ColumnMultiBufferProvider}
+ */
+public class ColumnCompressionTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    private static final float TOLERANCE = 0.15f;
+    private static final int NUMBER_OF_ENTRIES = 20000;
+    //A field of a record: 0 = missing record, 1 = missing field or null, 2 = value
+    private static final int MAX_LEVEL = 2;
+    //Strings with a long common suffix are compressed well
+    private static final int STRING_COLUMN = 0;
+    //Random doubles are not compressible
+    private static final int DOUBLE_COLUMN = 1;
+    private static final int NUMBER_OF_COLUMNS = 2;
+    private static final String SUFFIX = "-a-long-suffix-that-is-shared-by-all-the-values-of-the-column";
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private final double[] doubles = new double[NUMBER_OF_ENTRIES];
+    private DummyBufferCache bufferCache;
+    private int fileId;
+    private ColumnValuesWriterFactory writerFactory;
+
+    @Before
+    public void setUp() {
+        bufferCache = new DummyBufferCache(PAGE_SIZE);
+        fileId = bufferCache.createFile();
+        writerFactory =
+                new ColumnValuesWriterFactory(new MutableObject<>(new TestWriteMultiPageOp(bufferCache, fileId)));
+        Random random = new Random(0);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            doubles[i] = random.nextDouble();
+        }
+    }
+
+    @Test
+    public void testCompressedColumnSpansMultiplePages() throws IOException {
+        DummyPage pageZero = writeBatch(ColumnCompression.SNAPPY);
+
+        int length = getStoredLength(pageZero, STRING_COLUMN);
+        Assert.assertTrue("The column is not compressed", length < 0);
+        Assert.assertTrue("The compressed column fits in a single page", -length > 2 * PAGE_SIZE);
+        assertStrings(read(pageZero, STRING_COLUMN));
+    }
+
+    @Test
+    public void testIncompressibleColumnIsStoredUncompressed() throws IOException {
+        DummyPage pageZero = writeBatch(ColumnCompression.SNAPPY);
+
+        //Compression does not make the column smaller, hence it is stored as is
+        Assert.assertTrue(getStoredLength(pageZero, DOUBLE_COLUMN) > 0);
+        assertDoubles(read(pageZero, DOUBLE_COLUMN));
+        //The compressed column before it does not affect reading it
+        assertStrings(read(pageZero, STRING_COLUMN));
+        assertDoubles(read(pageZero, DOUBLE_COLUMN));
+    }
+
+    @Test
+    public void testUncompressedColumnsKeepTheirLayout() throws IOException {
+        //Components written before the columns' compression was introduced are read as uncompressed columns
+        DummyPage pageZero = writeBatch(ColumnCompression.NONE);
+
+        for (int columnIndex = 0; columnIndex < NUMBER_OF_COLUMNS; columnIndex++) {
+            //A column is stored as its length (including the length itself) followed by the encoded values
+            byte[] expected = flush(createWriter(columnIndex));
+            Assert.assertEquals(expected.length + Integer.BYTES, getStoredLength(pageZero, columnIndex));
+
+            ColumnMultiBufferProvider provider = createProvider(pageZero, columnIndex);
+            Assert.assertEquals(expected.length, provider.getLength());
+            Queue<ByteBuffer> buffers = new ArrayDeque<>();
+            provider.readAll(buffers);
+            ByteBuffer actual = ByteBuffer.allocate(expected.length);
+            for (ByteBuffer buffer : buffers) {
+                buffer.limit(buffer.position() + Math.min(buffer.remaining(), actual.remaining()));
+                actual.put(buffer);
+            }
+            Assert.assertArrayEquals(expected, actual.array());
+            provider.releaseAll();
+        }
+        assertStrings(read(pageZero, STRING_COLUMN));
+        assertDoubles(read(pageZero, DOUBLE_COLUMN));
+    }
+
+    @Test
+    public void testParallelEncodingWritesTheSameBytes() throws IOException {
+        for (ColumnCompression compression : ColumnCompression.values()) {
+            int sequentialFileId = bufferCache.createFile();
+            int parallelFileId = bufferCache.createFile();
+            writeBatch(compression, null, sequentialFileId);
+            writeBatch(compression, ColumnEncodingExecutor.get(), parallelFileId);
+
+            int numberOfPages = bufferCache.getNumberOfBuffers(sequentialFileId);
+            Assert.assertEquals(numberOfPages, bufferCache.getNumberOfBuffers(parallelFileId));
+            for (int pageId = 0; pageId < numberOfPages; pageId++) {
+                Assert.assertArrayEquals(compression + " page " + pageId,
+                        bufferCache.getBuffer(sequentialFileId, pageId).getBuffer().array(),
+                        bufferCache.getBuffer(parallelFileId, pageId).getBuffer().array());
+            }
+        }
+    }
+
+    /* *************************************************
+     * Write
+     * *************************************************
+     */
+
+    private DummyPage writeBatch(ColumnCompression compression) throws IOException {
+        return writeBatch(compression, null, fileId);
+    }
+
+    /**
+     * @param encodingExecutor encodes the columns in parallel if not null
+     * @param targetFileId     the file of the batch's pages
+     */
+    private DummyPage writeBatch(ColumnCompression compression, Executor encodingExecutor, int targetFileId)
+            throws IOException {
+        //Page zero is followed by the columns' pages
+        DummyPage pageZero = bufferCache.allocate(targetFileId);
+        ByteBuffer buffer = pageZero.getBuffer();
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+
+        Mutable<IColumnWriteMultiPageOp> multiPageOpRef =
+                new MutableObject<>(new TestWriteMultiPageOp(bufferCache, targetFileId));
+        ColumnBatchWriter batchWriter =
+                new ColumnBatchWriter(multiPageOpRef, PAGE_SIZE, TOLERANCE, compression, encodingExecutor);
+        batchWriter.setPageZeroBuffer(buffer, NUMBER_OF_COLUMNS, 0);
+        batchWriter.writePrimaryKeyColumns(new IColumnValuesWriter[0]);
+        PriorityQueue<IColumnValuesWriter> writers =
+                new PriorityQueue<>(Comparator.comparingInt(IColumnValuesWriter::getColumnIndex));
+        for (int columnIndex = 0; columnIndex < NUMBER_OF_COLUMNS; columnIndex++) {
+            writers.add(createWriter(columnIndex));
+        }
+        batchWriter.writeColumns(writers);
+        buffer.putInt(NUMBER_OF_COLUMNS_OFFSET, NUMBER_OF_COLUMNS);
+        return pageZero;
+    }
+
+    private IColumnValuesWriter createWriter(int columnIndex) throws IOException {
+        ATypeTag typeTag = columnIndex == STRING_COLUMN ? ATypeTag.STRING : ATypeTag.DOUBLE;
+        IColumnValuesWriter writer = writerFactory.createValueWriter(typeTag, columnIndex, MAX_LEVEL, false, true);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            storage.reset();
+            if (typeTag == ATypeTag.STRING) {
+                UTF8StringUtil.writeUTF8(getString(i), storage.getDataOutput());
+            } else {
+                storage.getDataOutput().writeDouble(doubles[i]);
+            }
+            writer.writeValue(typeTag, storage);
+        }
+        return writer;
+    }
+
+    private static byte[] flush(IColumnValuesWriter writer) throws HyracksDataException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static String getString(int i) {
+        return "value-" + i + SUFFIX;
+    }
+
+    /* *************************************************
+     * Read
+     * *************************************************
+     */
+
+    private int getStoredLength(DummyPage pageZero, int columnIndex) {
+        int offset = pageZero.getBuffer().getInt(HEADER_SIZE + columnIndex * Integer.BYTES);
+        DummyPage firstPage = bufferCache.getBuffer(fileId, pageZero.getPageId() + offset / PAGE_SIZE);
+        return firstPage.getBuffer().getInt(offset % PAGE_SIZE);
+    }
+
+    private ColumnMultiBufferProvider createProvider(DummyPage pageZero, int columnIndex)
+            throws HyracksDataException {
+        IColumnReadMultiPageOp multiPageOp = new TestReadMultiPageOp(fileId, bufferCache, PAGE_SIZE);
+        ColumnBTreeReadLeafFrame frame = new ColumnBTreeReadLeafFrame(new NoOpRowTupleWriter(), new TestTupleReader());
+        frame.setPage(pageZero);
+        ColumnMultiBufferProvider provider = new ColumnMultiBufferProvider(columnIndex, multiPageOp);
+        provider.reset(frame);
+        return provider;
+    }
+
+    private IColumnValuesReader read(DummyPage pageZero, int columnIndex) throws HyracksDataException {
+        ATypeTag typeTag = columnIndex == STRING_COLUMN ? ATypeTag.STRING : ATypeTag.DOUBLE;
+        MultiByteBufferInputStream stream = new MultiByteBufferInputStream();
+        stream.reset(createProvider(pageZero, columnIndex));
+        IColumnValuesReader reader = readerFactory.createValueReader(typeTag, columnIndex, MAX_LEVEL, false);
+        reader.reset(stream, NUMBER_OF_ENTRIES);
+        return reader;
+    }
+
+    private static void assertStrings(IColumnValuesReader reader) throws HyracksDataException {
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            Assert.assertTrue(reader.next());
+            IValueReference value = reader.getBytes();
+            Assert.assertEquals(getString(i), UTF8StringUtil.toString(value.getByteArray(), value.getStartOffset()));
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    private void assertDoubles(IColumnValuesReader reader) throws HyracksDataException {
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(doubles[i], reader.getDouble(), 0.0);
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    /**
+     * Only used to locate the columns' offsets in page zero
+     */
+    private static class TestTupleReader extends AbstractColumnTupleReader {
+        @Override
+        public AbstractColumnTupleReference createTupleReference(ColumnBTreeReadLeafFrame frame, int index,
+                IColumnReadMultiPageOp multiPageOp) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
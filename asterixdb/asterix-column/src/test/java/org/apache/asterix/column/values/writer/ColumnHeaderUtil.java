@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.decoder.ColumnPositionIndexReader;
+import org.apache.asterix.column.util.ColumnValuesUtil;
+import org.apache.parquet.bytes.BytesUtils;
+import org.junit.Assert;
+
+/**
+ * Inspects the header of a flushed column (see {@link AbstractColumnValuesWriter#flush(java.io.OutputStream)})
+ */
+class ColumnHeaderUtil {
+    private ColumnHeaderUtil() {
+    }
+
+    static boolean isIndexed(byte[] column) throws IOException {
+        return ColumnValuesUtil.isIndexed(BytesUtils.readZigZagVarInt(new ByteArrayInputStream(column)));
+    }
+
+    static boolean isDictionaryEncoded(byte[] column) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(column);
+        int encodedLevel = BytesUtils.readZigZagVarInt(in);
+        int defLevelsSize = BytesUtils.readZigZagVarInt(in);
+        //Number of values
+        BytesUtils.readZigZagVarInt(in);
+        if (ColumnValuesUtil.isIndexed(encodedLevel)) {
+            new ColumnPositionIndexReader().read(in);
+        }
+        Assert.assertEquals(defLevelsSize, in.skip(defLevelsSize));
+        return ColumnValuesUtil.isDictionaryEncoded(BytesUtils.readZigZagVarInt(in));
+    }
+}
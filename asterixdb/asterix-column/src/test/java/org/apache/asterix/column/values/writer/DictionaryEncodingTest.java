@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.encoder.ParquetDeltaBinaryPackingValuesWriterForLong;
+import org.apache.asterix.column.bytes.encoder.ParquetRunLengthBitPackingHybridEncoder;
+import org.apache.asterix.column.common.buffer.ByteArrayColumnBufferProvider;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.util.ColumnValuesUtil;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.BytesUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round-trips long and string columns through {@link ColumnValuesWriterFactory}'s writers and
+ * {@link ColumnValueReaderFactory}'s readers
+ */
+public class DictionaryEncodingTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    private static final int NUMBER_OF_VALUES = 4096;
+    private static final int LOW_CARDINALITY = 8;
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private ColumnValuesWriterFactory writerFactory;
+    private MutableObject<IColumnWriteMultiPageOp> multiPageOpRef;
+
+    @Before
+    public void setUp() {
+        DummyBufferCache bufferCache = new DummyBufferCache(PAGE_SIZE);
+        multiPageOpRef = new MutableObject<>(new TestWriteMultiPageOp(bufferCache, bufferCache.createFile()));
+        writerFactory = new ColumnValuesWriterFactory(multiPageOpRef);
+    }
+
+    @Test
+    public void testLowCardinalityLongs() throws IOException {
+        long[] values = createLongs(LOW_CARDINALITY);
+        byte[] column = writeLongs(values, false);
+        Assert.assertTrue(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertLongs(values, column, false);
+    }
+
+    @Test
+    public void testHighCardinalityLongsFallBack() throws IOException {
+        long[] values = createLongs(NUMBER_OF_VALUES);
+        byte[] column = writeLongs(values, false);
+        Assert.assertFalse(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertLongs(values, column, false);
+    }
+
+    @Test
+    public void testPrimaryKeyLongsAreNotDictionaryEncoded() throws IOException {
+        long[] values = createLongs(LOW_CARDINALITY);
+        byte[] column = writeLongs(values, true);
+        Assert.assertFalse(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertLongs(values, column, true);
+    }
+
+    @Test
+    public void testLowCardinalityStrings() throws IOException {
+        String[] values = createStrings(LOW_CARDINALITY);
+        byte[] column = writeStrings(values, false);
+        Assert.assertTrue(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertStrings(values, column, false);
+    }
+
+    @Test
+    public void testHighCardinalityStringsFallBack() throws IOException {
+        String[] values = createStrings(NUMBER_OF_VALUES);
+        byte[] column = writeStrings(values, false);
+        Assert.assertFalse(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertStrings(values, column, false);
+    }
+
+    @Test
+    public void testPrimaryKeyStringsAreNotDictionaryEncoded() throws IOException {
+        String[] values = createStrings(LOW_CARDINALITY);
+        byte[] column = writeStrings(values, true);
+        Assert.assertFalse(ColumnHeaderUtil.isDictionaryEncoded(column));
+        assertStrings(values, column, true);
+    }
+
+    /**
+     * Columns written before dictionary encoding was introduced have no marker and must still be readable
+     */
+    @Test
+    public void testReadLegacyLayout() throws IOException {
+        long[] values = createLongs(LOW_CARDINALITY);
+        ParquetRunLengthBitPackingHybridEncoder levels =
+                new ParquetRunLengthBitPackingHybridEncoder(ColumnValuesUtil.getBitWidth(1));
+        ParquetDeltaBinaryPackingValuesWriterForLong longWriter =
+                new ParquetDeltaBinaryPackingValuesWriterForLong(multiPageOpRef);
+        for (long value : values) {
+            levels.writeInt(1);
+            longWriter.writeLong(value);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BytesInput levelBytes = levels.toBytes();
+        BytesInput valueBytes = longWriter.getBytes();
+        BytesUtils.writeZigZagVarInt(1, out);
+        BytesUtils.writeZigZagVarInt((int) levelBytes.size(), out);
+        BytesUtils.writeZigZagVarInt(values.length, out);
+        levelBytes.writeAllTo(out);
+        BytesUtils.writeZigZagVarInt((int) valueBytes.size(), out);
+        valueBytes.writeAllTo(out);
+
+        assertLongs(values, out.toByteArray(), false);
+    }
+
+    private byte[] writeLongs(long[] values, boolean primaryKey) throws IOException {
+        IColumnValuesWriter writer = createWriter(ATypeTag.BIGINT, primaryKey);
+        for (long value : values) {
+            storage.reset();
+            storage.getDataOutput().writeLong(value);
+            writer.writeValue(ATypeTag.BIGINT, storage);
+        }
+        return flush(writer);
+    }
+
+    private byte[] writeStrings(String[] values, boolean primaryKey) throws IOException {
+        IColumnValuesWriter writer = createWriter(ATypeTag.STRING, primaryKey);
+        for (String value : values) {
+            storage.reset();
+            UTF8StringUtil.writeUTF8(value, storage.getDataOutput());
+            writer.writeValue(ATypeTag.STRING, storage);
+        }
+        return flush(writer);
+    }
+
+    private void assertLongs(long[] expected, byte[] column, boolean primaryKey) throws HyracksDataException {
+        IColumnValuesReader reader = createReader(ATypeTag.BIGINT, column, expected.length, primaryKey);
+        for (long value : expected) {
+            Assert.assertTrue(reader.next());
+            Assert.assertTrue(reader.isValue());
+            Assert.assertEquals(value, reader.getLong());
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    private void assertStrings(String[] expected, byte[] column, boolean primaryKey) throws HyracksDataException {
+        IColumnValuesReader reader = createReader(ATypeTag.STRING, column, expected.length, primaryKey);
+        for (String value : expected) {
+            Assert.assertTrue(reader.next());
+            Assert.assertTrue(reader.isValue());
+            IValueReference bytes = reader.getBytes();
+            Assert.assertEquals(value, UTF8StringUtil.toString(bytes.getByteArray(), bytes.getStartOffset()));
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    private IColumnValuesWriter createWriter(ATypeTag typeTag, boolean primaryKey) {
+        //Same as FlushColumnMetadata: primary keys are always written and never filtered
+        return writerFactory.createValueWriter(typeTag, 0, 1, primaryKey, !primaryKey);
+    }
+
+    private IColumnValuesReader createReader(ATypeTag typeTag, byte[] column, int tupleCount, boolean primaryKey)
+            throws HyracksDataException {
+        IColumnValuesReader reader = readerFactory.createValueReader(typeTag, 0, 1, primaryKey);
+        reader.reset(ByteArrayColumnBufferProvider.createStream(column, primaryKey), tupleCount);
+        return reader;
+    }
+
+    private static byte[] flush(IColumnValuesWriter writer) throws HyracksDataException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static long[] createLongs(int cardinality) {
+        long[] values = new long[NUMBER_OF_VALUES];
+        for (int i = 0; i < values.length; i++) {
+            //Spread the values so that the delta encoding cannot be mistaken for the dictionary one
+            values[i] = (i % cardinality) * 1_000_003L - 7;
+        }
+        return values;
+    }
+
+    private static String[] createStrings(int cardinality) {
+        String[] values = new String[NUMBER_OF_VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value-" + (i % cardinality);
+        }
+        return values;
+    }
+}
@@ -24,6 +24,7 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.asterix.column.bytes.stream.in.AbstractBytesInputStream;
 import org.apache.asterix.column.util.ColumnValuesUtil;
 import org.apache.asterix.column.util.RunLengthIntArray;
 import org.apache.asterix.column.values.IColumnValuesReader;
@@ -103,6 +104,17 @@ public class DummyColumnValuesWriter implements IColumnValuesWriter {
         //NoOp
     }
 
+    @Override
+    public boolean isCompatible(IColumnValuesReader reader) {
+        return false;
+    }
+
+    @Override
+    public void writeEncoded(AbstractBytesInputStream encodedColumn, long normalizedMinValue,
+            long normalizedMaxValue) {
+        throw new UnsupportedOperationException("Not supported by the dummy writer");
+    }
+
     @Override
     public int getEstimatedSize() {
         return 0;
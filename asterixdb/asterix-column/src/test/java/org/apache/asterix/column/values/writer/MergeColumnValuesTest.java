@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.asterix.column.common.buffer.ByteArrayColumnBufferProvider;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the two ways a merge writes the non-key columns of a leaf (see
+ * {@link org.apache.asterix.column.operation.lsm.merge.MergeColumnTupleWriter}): copying the encoded column as-is
+ * and re-encoding its values while skipping the values of anti-matter tuples
+ */
+public class MergeColumnValuesTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    //Large enough for the definition levels to have a position index
+    private static final int NUMBER_OF_ENTRIES = 3000;
+    //A field of a record: 0 = missing record, 1 = missing field or null, 2 = value
+    private static final int MAX_LEVEL = 2;
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private ColumnValuesWriterFactory writerFactory;
+
+    @Before
+    public void setUp() {
+        DummyBufferCache bufferCache = new DummyBufferCache(PAGE_SIZE);
+        writerFactory = new ColumnValuesWriterFactory(
+                new MutableObject<>(new TestWriteMultiPageOp(bufferCache, bufferCache.createFile())));
+    }
+
+    @Test
+    public void testCopyLongs() throws IOException {
+        assertCopy(ATypeTag.BIGINT);
+    }
+
+    @Test
+    public void testCopyStrings() throws IOException {
+        assertCopy(ATypeTag.STRING);
+    }
+
+    @Test
+    public void testReencodeLongsWithAntimatter() throws IOException {
+        assertReencode(ATypeTag.BIGINT);
+    }
+
+    @Test
+    public void testReencodeStringsWithAntimatter() throws IOException {
+        assertReencode(ATypeTag.STRING);
+    }
+
+    @Test
+    public void testIncompatibleColumnsAreNotCopied() throws IOException {
+        IColumnValuesReader reader = createReader(ATypeTag.BIGINT, write(ATypeTag.BIGINT));
+        Assert.assertTrue(createWriter(ATypeTag.BIGINT).isCompatible(reader));
+        //The column's type has changed
+        Assert.assertFalse(createWriter(ATypeTag.DOUBLE).isCompatible(reader));
+        //The column's level has changed
+        Assert.assertFalse(writerFactory.createValueWriter(ATypeTag.BIGINT, 0, MAX_LEVEL + 1, false, true)
+                .isCompatible(reader));
+    }
+
+    /**
+     * The whole leaf is written to the new component. The column is copied as-is
+     */
+    private void assertCopy(ATypeTag typeTag) throws IOException {
+        IColumnValuesWriter sourceWriter = createWriter(typeTag);
+        writeEntries(typeTag, sourceWriter);
+        long minValue = sourceWriter.getNormalizedMinValue();
+        long maxValue = sourceWriter.getNormalizedMaxValue();
+        byte[] source = flush(sourceWriter);
+        Assert.assertTrue(ColumnHeaderUtil.isIndexed(source));
+        Assert.assertTrue(ColumnHeaderUtil.isDictionaryEncoded(source));
+
+        IColumnValuesWriter writer = createWriter(typeTag);
+        Assert.assertTrue(writer.isCompatible(createReader(typeTag, source)));
+        writer.writeEncoded(ByteArrayColumnBufferProvider.createStream(source, false), minValue, maxValue);
+        Assert.assertEquals(NUMBER_OF_ENTRIES, writer.getCount());
+        Assert.assertEquals(minValue, writer.getNormalizedMinValue());
+        Assert.assertEquals(maxValue, writer.getNormalizedMaxValue());
+        byte[] copied = flush(writer);
+
+        Assert.assertArrayEquals(source, copied);
+        assertEntries(typeTag, source, copied, 0, 0);
+    }
+
+    /**
+     * Some tuples of the leaf are anti-matter (or were reconciled). The column's values are re-encoded without them
+     */
+    private void assertReencode(ATypeTag typeTag) throws IOException {
+        byte[] source = write(typeTag);
+        int skipStart = 1000;
+        int skipCount = 200;
+
+        IColumnValuesReader reader = createReader(typeTag, source);
+        IColumnValuesWriter writer = createWriter(typeTag);
+        reader.write(writer, skipStart);
+        reader.skip(skipCount);
+        reader.write(writer, NUMBER_OF_ENTRIES - skipStart - skipCount);
+        Assert.assertEquals(NUMBER_OF_ENTRIES - skipCount, writer.getCount());
+        byte[] reencoded = flush(writer);
+
+        Assert.assertTrue(ColumnHeaderUtil.isIndexed(reencoded));
+        Assert.assertTrue(ColumnHeaderUtil.isDictionaryEncoded(reencoded));
+        assertEntries(typeTag, source, reencoded, skipStart, skipCount);
+    }
+
+    /**
+     * Compare the entries of the source column (without the skipped ones) against the entries of the merged column
+     */
+    private void assertEntries(ATypeTag typeTag, byte[] source, byte[] merged, int skipStart, int skipCount)
+            throws HyracksDataException {
+        IColumnValuesReader expectedReader = createReader(typeTag, source);
+        IColumnValuesReader reader = createReader(typeTag, merged);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            Assert.assertTrue(expectedReader.next());
+            if (i >= skipStart && i < skipStart + skipCount) {
+                continue;
+            }
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(expectedReader.getLevel(), reader.getLevel());
+            Assert.assertEquals(expectedReader.isNull(), reader.isNull());
+            Assert.assertEquals(expectedReader.isValue(), reader.isValue());
+            if (reader.isValue()) {
+                if (typeTag == ATypeTag.BIGINT) {
+                    Assert.assertEquals(expectedReader.getLong(), reader.getLong());
+                } else {
+                    Assert.assertEquals(toString(expectedReader.getBytes()), toString(reader.getBytes()));
+                }
+            }
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    private byte[] write(ATypeTag typeTag) throws IOException {
+        IColumnValuesWriter writer = createWriter(typeTag);
+        writeEntries(typeTag, writer);
+        return flush(writer);
+    }
+
+    private void writeEntries(ATypeTag typeTag, IColumnValuesWriter writer) throws IOException {
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            if (i % 5 == 0) {
+                writer.writeNull(1);
+            } else if (i % 7 == 0) {
+                writer.writeLevel(1);
+            } else if (i % 11 == 0) {
+                writer.writeLevel(0);
+            } else {
+                //Few distinct values to be dictionary-encoded
+                storage.reset();
+                if (typeTag == ATypeTag.BIGINT) {
+                    storage.getDataOutput().writeLong(i % 6 * 1000L);
+                } else {
+                    UTF8StringUtil.writeUTF8("value-" + i % 6, storage.getDataOutput());
+                }
+                writer.writeValue(typeTag, storage);
+            }
+        }
+    }
+
+    private IColumnValuesWriter createWriter(ATypeTag typeTag) {
+        return writerFactory.createValueWriter(typeTag, 0, MAX_LEVEL, false, true);
+    }
+
+    private IColumnValuesReader createReader(ATypeTag typeTag, byte[] column) throws HyracksDataException {
+        IColumnValuesReader reader = readerFactory.createValueReader(typeTag, 0, MAX_LEVEL, false);
+        reader.reset(ByteArrayColumnBufferProvider.createStream(column, false), NUMBER_OF_ENTRIES);
+        return reader;
+    }
+
+    private static String toString(IValueReference value) {
+        return UTF8StringUtil.toString(value.getByteArray(), value.getStartOffset());
+    }
+
+    private static byte[] flush(IColumnValuesWriter writer) throws HyracksDataException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        return out.toByteArray();
+    }
+}
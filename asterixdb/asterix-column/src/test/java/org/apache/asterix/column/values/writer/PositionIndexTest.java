@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.column.values.writer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.asterix.column.bytes.decoder.ColumnPositionIndexReader;
+import org.apache.asterix.column.bytes.decoder.ParquetRunLengthBitPackingHybridDecoder;
+import org.apache.asterix.column.bytes.encoder.ColumnPositionIndexWriter;
+import org.apache.asterix.column.bytes.encoder.ParquetDeltaBinaryPackingValuesWriterForLong;
+import org.apache.asterix.column.bytes.encoder.ParquetRunLengthBitPackingHybridEncoder;
+import org.apache.asterix.column.common.buffer.ByteArrayColumnBufferProvider;
+import org.apache.asterix.column.common.buffer.DummyBufferCache;
+import org.apache.asterix.column.common.buffer.TestWriteMultiPageOp;
+import org.apache.asterix.column.util.ColumnValuesUtil;
+import org.apache.asterix.column.values.IColumnValuesReader;
+import org.apache.asterix.column.values.IColumnValuesWriter;
+import org.apache.asterix.column.values.reader.ColumnValueReaderFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriteMultiPageOp;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.BytesUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round-trips columns with a position index of their definition levels (see {@link ColumnPositionIndexWriter}) and
+ * columns written before the position index was introduced
+ */
+public class PositionIndexTest {
+    private static final int PAGE_SIZE = 4 * 1024;
+    private static final int NUMBER_OF_ENTRIES = 20000;
+    //A field of a record: 0 = missing record, 1 = missing field or null, 2 = value
+    private static final int MAX_LEVEL = 2;
+    private static final int NULL_LEVEL = ColumnValuesUtil.getNullMask(MAX_LEVEL) | 1;
+    //Skip distances around and across the index's interval
+    private static final int[] SKIP_DISTANCES = { 1, 2, 7, ColumnPositionIndexWriter.INTERVAL - 1,
+            ColumnPositionIndexWriter.INTERVAL, ColumnPositionIndexWriter.INTERVAL + 1, 1300, 3 };
+    private final ColumnValueReaderFactory readerFactory = new ColumnValueReaderFactory();
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    //The encoded definition level of each entry
+    private final int[] levels = new int[NUMBER_OF_ENTRIES];
+    private ColumnValuesWriterFactory writerFactory;
+    private MutableObject<IColumnWriteMultiPageOp> multiPageOpRef;
+
+    @Before
+    public void setUp() {
+        DummyBufferCache bufferCache = new DummyBufferCache(PAGE_SIZE);
+        multiPageOpRef = new MutableObject<>(new TestWriteMultiPageOp(bufferCache, bufferCache.createFile()));
+        writerFactory = new ColumnValuesWriterFactory(multiPageOpRef);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            if (i / 700 % 3 == 1) {
+                //Long runs of missing records, which are run-length encoded
+                levels[i] = 0;
+            } else if (i % 13 == 0) {
+                levels[i] = NULL_LEVEL;
+            } else if (i % 17 == 0) {
+                levels[i] = 1;
+            } else {
+                levels[i] = MAX_LEVEL;
+            }
+        }
+    }
+
+    /**
+     * The level in the column's header is negative and the index's checkpoints point at the start of the runs of
+     * the definition levels
+     */
+    @Test
+    public void testIndexLayout() throws IOException {
+        byte[] column = write(NUMBER_OF_ENTRIES);
+        ByteArrayInputStream in = new ByteArrayInputStream(column);
+        int encodedLevel = BytesUtils.readZigZagVarInt(in);
+        Assert.assertTrue(ColumnValuesUtil.isIndexed(encodedLevel));
+        Assert.assertEquals(MAX_LEVEL, ColumnValuesUtil.decodeLevel(encodedLevel));
+        BytesUtils.readZigZagVarInt(in);
+        Assert.assertEquals(NUMBER_OF_ENTRIES, BytesUtils.readZigZagVarInt(in));
+        ColumnPositionIndexReader positionIndex = new ColumnPositionIndexReader();
+        positionIndex.read(in);
+        int levelsStart = column.length - in.available();
+
+        int lastCheckpoint = positionIndex.floor(NUMBER_OF_ENTRIES);
+        Assert.assertTrue(lastCheckpoint > 0);
+        int previousPosition = 0;
+        for (int i = 0; i <= lastCheckpoint; i++) {
+            int position = positionIndex.getPosition(i);
+            Assert.assertTrue(position >= previousPosition + ColumnPositionIndexWriter.INTERVAL);
+            Assert.assertEquals(countValues(position), positionIndex.getNumberOfValues(i));
+
+            //Decoding from the checkpoint's offset starts at the checkpoint's level
+            ByteArrayInputStream levelsIn = new ByteArrayInputStream(column);
+            Assert.assertEquals(levelsStart + positionIndex.getOffset(i),
+                    levelsIn.skip(levelsStart + positionIndex.getOffset(i)));
+            ParquetRunLengthBitPackingHybridDecoder decoder =
+                    new ParquetRunLengthBitPackingHybridDecoder(ColumnValuesUtil.getBitWidth(MAX_LEVEL));
+            decoder.reset(levelsIn);
+            int end = Math.min(position + ColumnPositionIndexWriter.INTERVAL, NUMBER_OF_ENTRIES);
+            for (int j = position; j < end; j++) {
+                Assert.assertEquals(levels[j], decoder.readInt());
+            }
+            previousPosition = position;
+        }
+    }
+
+    @Test
+    public void testShortColumnIsNotIndexed() throws IOException {
+        int numberOfEntries = ColumnPositionIndexWriter.INTERVAL / 2;
+        byte[] column = write(numberOfEntries);
+        Assert.assertFalse(ColumnHeaderUtil.isIndexed(column));
+        assertEntries(column, numberOfEntries);
+    }
+
+    @Test
+    public void testIndexedColumn() throws IOException {
+        byte[] column = write(NUMBER_OF_ENTRIES);
+        Assert.assertTrue(ColumnHeaderUtil.isIndexed(column));
+        assertEntries(column, NUMBER_OF_ENTRIES);
+        assertSkip(column);
+    }
+
+    /**
+     * Columns written before the position index was introduced have a non-negative level in their headers and no
+     * index. They must still be readable and skippable
+     */
+    @Test
+    public void testPreIndexLayout() throws IOException {
+        ParquetRunLengthBitPackingHybridEncoder levelsEncoder =
+                new ParquetRunLengthBitPackingHybridEncoder(ColumnValuesUtil.getBitWidth(MAX_LEVEL));
+        ParquetDeltaBinaryPackingValuesWriterForLong valuesWriter =
+                new ParquetDeltaBinaryPackingValuesWriterForLong(multiPageOpRef);
+        for (int i = 0; i < NUMBER_OF_ENTRIES; i++) {
+            levelsEncoder.writeInt(levels[i]);
+            if (levels[i] == MAX_LEVEL) {
+                valuesWriter.writeLong(getValue(i));
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BytesInput levelBytes = levelsEncoder.toBytes();
+        BytesInput valueBytes = valuesWriter.getBytes();
+        BytesUtils.writeZigZagVarInt(MAX_LEVEL, out);
+        BytesUtils.writeZigZagVarInt((int) levelBytes.size(), out);
+        BytesUtils.writeZigZagVarInt(NUMBER_OF_ENTRIES, out);
+        levelBytes.writeAllTo(out);
+        BytesUtils.writeZigZagVarInt((int) valueBytes.size(), out);
+        valueBytes.writeAllTo(out);
+        byte[] column = out.toByteArray();
+
+        Assert.assertFalse(ColumnHeaderUtil.isIndexed(column));
+        assertEntries(column, NUMBER_OF_ENTRIES);
+        assertSkip(column);
+    }
+
+    private void assertEntries(byte[] column, int numberOfEntries) throws HyracksDataException {
+        IColumnValuesReader reader = createReader(column, numberOfEntries);
+        for (int i = 0; i < numberOfEntries; i++) {
+            Assert.assertTrue(reader.next());
+            assertEntry(i, reader);
+        }
+        Assert.assertFalse(reader.next());
+    }
+
+    /**
+     * Alternate between skipping (which leaves the reader at the last skipped entry) and reading entries
+     */
+    private void assertSkip(byte[] column) throws HyracksDataException {
+        IColumnValuesReader reader = createReader(column, NUMBER_OF_ENTRIES);
+        int index = -1;
+        int i = 0;
+        while (index + SKIP_DISTANCES[i % SKIP_DISTANCES.length] + 1 < NUMBER_OF_ENTRIES) {
+            int distance = SKIP_DISTANCES[i++ % SKIP_DISTANCES.length];
+            reader.skip(distance);
+            index += distance;
+            assertEntry(index, reader);
+
+            Assert.assertTrue(reader.next());
+            assertEntry(++index, reader);
+        }
+    }
+
+    private void assertEntry(int index, IColumnValuesReader reader) throws HyracksDataException {
+        int level = levels[index];
+        Assert.assertEquals("entry " + index, level == NULL_LEVEL ? 1 : level, reader.getLevel());
+        Assert.assertEquals("entry " + index, level == NULL_LEVEL, reader.isNull());
+        Assert.assertEquals("entry " + index, level == MAX_LEVEL, reader.isValue());
+        if (reader.isValue()) {
+            Assert.assertEquals("entry " + index, getValue(index), reader.getLong());
+        }
+    }
+
+    private byte[] write(int numberOfEntries) throws IOException {
+        IColumnValuesWriter writer = writerFactory.createValueWriter(ATypeTag.BIGINT, 0, MAX_LEVEL, false, true);
+        for (int i = 0; i < numberOfEntries; i++) {
+            if (levels[i] == NULL_LEVEL) {
+                writer.writeNull(1);
+            } else if (levels[i] == MAX_LEVEL) {
+                storage.reset();
+                storage.getDataOutput().writeLong(getValue(i));
+                writer.writeValue(ATypeTag.BIGINT, storage);
+            } else {
+                writer.writeLevel(levels[i]);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.flush(out);
+        return out.toByteArray();
+    }
+
+    private IColumnValuesReader createReader(byte[] column, int numberOfEntries) throws HyracksDataException {
+        IColumnValuesReader reader = readerFactory.createValueReader(ATypeTag.BIGINT, 0, MAX_LEVEL, false);
+        reader.reset(ByteArrayColumnBufferProvider.createStream(column, false), numberOfEntries);
+        return reader;
+    }
+
+    private int countValues(int position) {
+        int count = 0;
+        for (int i = 0; i < position; i++) {
+            count += levels[i] == MAX_LEVEL ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static long getValue(int index) {
+        return index * 3L - 1000;
+    }
+}
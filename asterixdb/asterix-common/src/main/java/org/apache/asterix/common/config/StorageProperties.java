@@ -46,6 +46,7 @@ public class StorageProperties extends AbstractProperties {
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
         STORAGE_BUFFERCACHE_SIZE(LONG_BYTE_UNIT, MAX_HEAP_BYTES / 4),
         STORAGE_BUFFERCACHE_MAXOPENFILES(NONNEGATIVE_INTEGER, Integer.MAX_VALUE),
+        STORAGE_BUFFERCACHE_REPLACEMENT_POLICY(STRING, "clock"),
         STORAGE_MEMORYCOMPONENT_GLOBALBUDGET(LONG_BYTE_UNIT, MAX_HEAP_BYTES / 4),
         STORAGE_MEMORYCOMPONENT_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS(POSITIVE_INTEGER, 2),
@@ -63,7 +64,9 @@ public class StorageProperties extends AbstractProperties {
         STORAGE_GLOBAL_CLEANUP(BOOLEAN, true),
         STORAGE_GLOBAL_CLEANUP_TIMEOUT(POSITIVE_INTEGER, (int) TimeUnit.MINUTES.toSeconds(10)),
         STORAGE_COLUMN_MAX_TUPLE_COUNT(NONNEGATIVE_INTEGER, 15000),
-        STORAGE_COLUMN_FREE_SPACE_TOLERANCE(DOUBLE, 0.15);
+        STORAGE_COLUMN_FREE_SPACE_TOLERANCE(DOUBLE, 0.15),
+        STORAGE_COLUMN_LEAF_KEYS_CACHE_SIZE(LONG_BYTE_UNIT, MAX_HEAP_BYTES / 64),
+        STORAGE_COLUMN_SCAN_PARALLELISM(NONNEGATIVE_INTEGER, 0);
 
         private final IOptionType interpreter;
         private final Object defaultValue;
@@ -96,6 +99,9 @@ public class StorageProperties extends AbstractProperties {
                             + " of the buffer cache page size.";
                 case STORAGE_BUFFERCACHE_MAXOPENFILES:
                     return "The maximum number of open files in the buffer cache";
+                case STORAGE_BUFFERCACHE_REPLACEMENT_POLICY:
+                    return "The page replacement policy of the buffer cache (clock or 2q). 2q protects frequently "
+                            + "accessed pages from being evicted by scans and merges";
                 case STORAGE_MEMORYCOMPONENT_GLOBALBUDGET:
                     return "The size of memory allocated to the memory components.  The value should be a multiple "
                             + "of the memory component page size";
@@ -136,6 +142,13 @@ public class StorageProperties extends AbstractProperties {
                 case STORAGE_COLUMN_FREE_SPACE_TOLERANCE:
                     return "The percentage of the maximum tolerable empty space for a physical mega leaf page (e.g.,"
                             + " 0.15 means a physical page with 15% or less empty space is tolerable)";
+                case STORAGE_COLUMN_LEAF_KEYS_CACHE_SIZE:
+                    return "The size of memory allocated to cache the decoded primary keys of columnar leaves for "
+                            + "point lookups. The cache is shared by all columnar indexes of a node (0 disables it)";
+                case STORAGE_COLUMN_SCAN_PARALLELISM:
+                    return "The maximum number of key ranges of a columnar storage partition that a compiled "
+                            + "aggregation scans concurrently (0 means the node's cores divided by its storage "
+                            + "partitions)";
                 default:
                     throw new IllegalStateException("NYI: " + this);
             }
@@ -181,6 +194,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_BUFFERCACHE_MAXOPENFILES);
     }
 
+    public String getBufferCacheReplacementPolicy() {
+        return accessor.getString(Option.STORAGE_BUFFERCACHE_REPLACEMENT_POLICY);
+    }
+
     public int getMemoryComponentPageSize() {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_PAGESIZE);
     }
@@ -281,4 +298,12 @@ public class StorageProperties extends AbstractProperties {
     public float getColumnFreeSpaceTolerance() {
         return (float) accessor.getDouble(Option.STORAGE_COLUMN_FREE_SPACE_TOLERANCE);
     }
+
+    public long getColumnLeafKeysCacheSize() {
+        return accessor.getLong(Option.STORAGE_COLUMN_LEAF_KEYS_CACHE_SIZE);
+    }
+
+    public int getColumnScanParallelism() {
+        return accessor.getInt(Option.STORAGE_COLUMN_SCAN_PARALLELISM);
+    }
 }
@@ -25,6 +25,7 @@ import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.NONNEGATIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
+import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
 import static org.apache.hyracks.util.StorageUtil.StorageUnit.MEGABYTE;
 
 import java.util.Map;
@@ -65,6 +66,26 @@ public class TransactionProperties extends AbstractProperties {
                 "The frequency (in seconds) the checkpoint thread should check to see if a checkpoint should be "
                         + "written"),
         TXN_LOG_CHECKPOINT_HISTORY(NONNEGATIVE_INTEGER, 2, "The number of checkpoints to keep in the transaction log"),
+        TXN_LOG_CHECKPOINT_MAXFLUSHES(
+                NONNEGATIVE_INTEGER,
+                8,
+                "The maximum number of " + dataset() + " partitions a checkpoint attempt flushes. The "
+                        + "partitions holding the oldest transaction log records are flushed first. 0 for no limit"),
+        TXN_LOG_GROUPCOMMIT_MAXWAIT(
+                NONNEGATIVE_INTEGER,
+                0,
+                "The maximum time (in microseconds) the log flusher waits for more log records before forcing them "
+                        + "to disk. 0 forces log records to disk as soon as they are appended"),
+        TXN_LOG_GROUPCOMMIT_MAXBATCH(
+                INTEGER_BYTE_UNIT,
+                StorageUtil.getIntSizeInBytes(256, KILOBYTE),
+                "The size (in bytes) of appended log records that forces them to disk without waiting for the "
+                        + "group commit maximum wait time"),
+        TXN_RECOVERY_REDOTHREADS(
+                NONNEGATIVE_INTEGER,
+                0,
+                "The number of threads redoing the transaction log during recovery. 0 uses one thread per available "
+                        + "processor"),
         TXN_LOCK_ESCALATIONTHRESHOLD(
                 NONNEGATIVE_INTEGER,
                 1000,
@@ -177,6 +198,22 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getInt(Option.TXN_LOG_CHECKPOINT_HISTORY);
     }
 
+    public int getCheckpointMaxFlushes() {
+        return accessor.getInt(Option.TXN_LOG_CHECKPOINT_MAXFLUSHES);
+    }
+
+    public int getLogGroupCommitMaxWait() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_MAXWAIT);
+    }
+
+    public int getLogGroupCommitMaxBatch() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_MAXBATCH);
+    }
+
+    public int getRecoveryRedoThreads() {
+        return accessor.getInt(Option.TXN_RECOVERY_REDOTHREADS);
+    }
+
     public int getEntityToDatasetLockEscalationThreshold() {
         return accessor.getInt(Option.TXN_LOCK_ESCALATIONTHRESHOLD);
     }
@@ -23,6 +23,11 @@ import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 
 public interface ICheckpointManager extends ILifeCycleComponent {
 
+    /**
+     * The LSN returned by {@link #tryCheckpoint(long)} when no checkpoint was captured
+     */
+    long NO_CHECKPOINT_LSN = -1L;
+
     /**
      * @return The latest checkpoint on disk if any exists. Otherwise null.
      */
@@ -39,7 +44,7 @@ public interface ICheckpointManager extends ILifeCycleComponent {
      * Attempts to perform a soft checkpoint at the specified {@code checkpointTargetLSN}.
      *
      * @param checkpointTargetLSN
-     * @return The LSN recorded on the captured checkpoint.
+     * @return The LSN recorded on the captured checkpoint or {@link #NO_CHECKPOINT_LSN} if no checkpoint was captured.
      * @throws HyracksDataException
      */
     long tryCheckpoint(long checkpointTargetLSN) throws HyracksDataException;
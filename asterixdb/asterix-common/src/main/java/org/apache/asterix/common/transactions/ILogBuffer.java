@@ -23,7 +23,20 @@ import java.nio.channels.FileChannel;
 public interface ILogBuffer {
 
     /**
-     * append a log record
+     * Reserves space for a log record in the buffer. Space can be reserved (and records can be appended) by
+     * multiple threads concurrently.
+     *
+     * @param logSize
+     *            the size of the log record
+     * @return the lsn of the reserved space or -1 if the buffer does not have enough space or is full
+     */
+    long reserve(int logSize);
+
+    /**
+     * append a log record into space that was reserved by {@link #reserve(int)}. Records are copied into the buffer
+     * concurrently, but they are handed to the flusher in lsn order. The reserved space is handed to the flusher
+     * even if the record fails to be written, in which case neither the record nor the records following it are
+     * flushed and their appenders fail.
      *
      * @param logRecord
      *            the log record to be appended
@@ -39,15 +52,16 @@ public interface ILogBuffer {
     void flush(boolean stopping);
 
     /**
-     * @param logSize
-     * @return true if buffer has enough space to append log of size logSize, false otherwise
+     * Set buffer to be full. No space can be reserved in the buffer afterwards.
+     *
+     * @return the lsn following the last reserved space in the buffer
      */
-    boolean hasSpace(int logSize);
+    long setFull();
 
     /**
-     * Set buffer to be full
+     * @return the lsn of the next log record that would be appended to this buffer
      */
-    void setFull();
+    long getNextLsn();
 
     /**
      * Associate the buffer with a file channel
@@ -58,8 +72,13 @@ public interface ILogBuffer {
 
     /**
      * reset the buffer for re-use
+     *
+     * @param beginLsn
+     *            the lsn of the first log record in the buffer
+     * @param capacity
+     *            the maximum number of bytes that can be reserved in the buffer
      */
-    void reset();
+    void reset(long beginLsn, int capacity);
 
     /**
      * stops the log buffer
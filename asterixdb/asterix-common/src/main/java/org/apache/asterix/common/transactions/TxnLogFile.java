@@ -49,6 +49,13 @@ public class TxnLogFile {
         return fileChannel.read(readBuffer);
     }
 
+    /**
+     * Reads from the given file position without changing the current position of the file
+     */
+    public int read(ByteBuffer readBuffer, long position) throws IOException {
+        return fileChannel.read(readBuffer, position);
+    }
+
     public long getLogFileId() {
         return logFileId;
     }
@@ -147,8 +147,11 @@ public class DatasetDecl extends AbstractStatement {
         float freeSpaceTolerance = datasetFormatNode.getOptionalFloat(
                 DatasetDeclParametersUtil.DATASET_FORMAT_FREE_SPACE_TOLERANCE_PARAMETER_NAME,
                 defaultFreeSpaceTolerance);
+        String columnCompression = datasetFormatNode
+                .getOptionalString(DatasetDeclParametersUtil.DATASET_FORMAT_COLUMN_COMPRESSION_PARAMETER_NAME);
 
-        return new DatasetFormatInfo(datasetFormat, maxTupleCount, freeSpaceTolerance);
+        return new DatasetFormatInfo(datasetFormat, maxTupleCount, freeSpaceTolerance,
+                columnCompression == null ? CompressionManager.NONE : columnCompression);
     }
 
     public Map<String, String> getHints() {
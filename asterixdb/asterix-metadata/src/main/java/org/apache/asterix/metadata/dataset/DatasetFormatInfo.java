@@ -21,6 +21,7 @@ package org.apache.asterix.metadata.dataset;
 import java.io.Serializable;
 
 import org.apache.asterix.common.config.DatasetConfig.DatasetFormat;
+import org.apache.asterix.runtime.compression.CompressionManager;
 
 public class DatasetFormatInfo implements Serializable {
     private static final long serialVersionUID = 7656132322813253435L;
@@ -28,15 +29,18 @@ public class DatasetFormatInfo implements Serializable {
     private final DatasetFormat format;
     private final int maxTupleCount;
     private final float freeSpaceTolerance;
+    private final String columnCompression;
 
     private DatasetFormatInfo() {
-        this(DatasetFormat.ROW, -1, 0.0f);
+        this(DatasetFormat.ROW, -1, 0.0f, CompressionManager.NONE);
     }
 
-    public DatasetFormatInfo(DatasetFormat format, int maxTupleCount, float freeSpaceTolerance) {
+    public DatasetFormatInfo(DatasetFormat format, int maxTupleCount, float freeSpaceTolerance,
+            String columnCompression) {
         this.format = format;
         this.maxTupleCount = maxTupleCount == 0 ? Integer.MAX_VALUE : maxTupleCount;
         this.freeSpaceTolerance = freeSpaceTolerance;
+        this.columnCompression = columnCompression;
     }
 
     public DatasetFormat getFormat() {
@@ -51,8 +55,16 @@ public class DatasetFormatInfo implements Serializable {
         return freeSpaceTolerance;
     }
 
+    /**
+     * @return the compression scheme of the (non-key) columns
+     */
+    public String getColumnCompression() {
+        return columnCompression;
+    }
+
     @Override
     public String toString() {
-        return "(format:" + format + ", maxTupleCount:" + maxTupleCount + ')';
+        return "(format:" + format + ", maxTupleCount:" + maxTupleCount + ", columnCompression:" + columnCompression
+                + ')';
     }
 }
@@ -443,6 +443,8 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
                 datasetFormatType.getFieldIndex(MetadataRecordTypes.DATASET_ARECORD_DATASET_MAX_TUPLE_COUNT_FIELD_NAME);
         int freeSpaceToleranceIndex = datasetFormatType
                 .getFieldIndex(MetadataRecordTypes.DATASET_ARECORD_DATASET_FREE_SPACE_TOLERANCE_FIELD_NAME);
+        int columnCompressionIndex = datasetFormatType
+                .getFieldIndex(MetadataRecordTypes.DATASET_ARECORD_DATASET_COLUMN_COMPRESSION_FIELD_NAME);
 
         ARecord datasetFormatRecord = (ARecord) datasetRecord.getValueByPos(datasetFormatIndex);
 
@@ -458,7 +460,13 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
         ADouble freeSpaceToleranceDouble = (ADouble) datasetFormatRecord.getValueByPos(freeSpaceToleranceIndex);
         float freeSpaceTolerance = (float) freeSpaceToleranceDouble.getDoubleValue();
 
-        return new DatasetFormatInfo(format, maxTupleCount, freeSpaceTolerance);
+        //ColumnCompression (optional as it was not stored for datasets created before introducing it)
+        String columnCompression = CompressionManager.NONE;
+        if (columnCompressionIndex >= 0) {
+            columnCompression = ((AString) datasetFormatRecord.getValueByPos(columnCompressionIndex)).getStringValue();
+        }
+
+        return new DatasetFormatInfo(format, maxTupleCount, freeSpaceTolerance, columnCompression);
     }
 
     @Override
@@ -707,6 +715,14 @@ public class DatasetTupleTranslator extends AbstractTupleTranslator<Dataset> {
         doubleSerde.serialize(aDouble, fieldValue.getDataOutput());
         datasetFormatObject.addField(fieldName, fieldValue);
 
+        fieldName.reset();
+        aString.setValue(MetadataRecordTypes.DATASET_ARECORD_DATASET_COLUMN_COMPRESSION_FIELD_NAME);
+        stringSerde.serialize(aString, fieldName.getDataOutput());
+        fieldValue.reset();
+        aString.setValue(info.getColumnCompression());
+        stringSerde.serialize(aString, fieldValue.getDataOutput());
+        datasetFormatObject.addField(fieldName, fieldValue);
+
         fieldName.reset();
         aString.setValue(MetadataRecordTypes.DATASET_ARECORD_DATASET_FORMAT_FIELD_NAME);
         stringSerde.serialize(aString, fieldName.getDataOutput());
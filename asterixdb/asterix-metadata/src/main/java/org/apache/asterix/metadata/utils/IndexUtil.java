@@ -271,7 +271,8 @@ public class IndexUtil {
                 metaProjectionInfo == null ? null : metaDataProjectionInfo.getFunctionCallInfoMap();
 
         return new QueryColumnTupleProjectorFactory(datasetType, metaItemType, numberOfPrimaryKeys,
-                datasetRequestedType, datasetFunctionCallInfo, metaRequestedType, metaFunctionCallInfo);
+                datasetRequestedType, datasetFunctionCallInfo, metaRequestedType, metaFunctionCallInfo,
+                dataProjectionInfo.getRangeFilters());
     }
 
     public static ICodeGenerationExecutorFactory createCodeGenerationExecutorFactory(IProjectionInfo<?> projectionInfo,
@@ -279,7 +280,7 @@ public class IndexUtil {
         CodeGenerationProjectionInfo codeGenInfo = (CodeGenerationProjectionInfo) projectionInfo;
         return new ColumnCodeGenerationExecutorFactory(datasetType, numberOfPrimaryKeys,
                 codeGenInfo.getProjectionInfo(), codeGenInfo.getFunctionCallInfoMap(), codeGenInfo.getFunctionName(),
-                codeGenInfo.getCode());
+                codeGenInfo.getBatchFunctionName(), codeGenInfo.getCode(), codeGenInfo.isParallelScan());
     }
 
 }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.projection;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * A range predicate (e.g., {@code $$t.getField("ts") >= 10}) that was pushed down to a columnar dataset scan. The
+ * predicate is used to skip the mega leaf nodes whose min/max values (in Page0) cannot satisfy the predicate. It is
+ * only a hint; the predicate is still evaluated by the operator that originally had it.
+ */
+public final class ColumnRangeFilterInfo implements Serializable {
+    private static final long serialVersionUID = -2583157716405423374L;
+
+    public enum Comparison {
+        EQ,
+        LT,
+        LE,
+        GT,
+        GE;
+
+        /**
+         * @return the comparison after swapping its operands (e.g., {@code c < x} to {@code x > c})
+         */
+        public Comparison flip() {
+            switch (this) {
+                case LT:
+                    return GT;
+                case LE:
+                    return GE;
+                case GT:
+                    return LT;
+                case GE:
+                    return LE;
+                default:
+                    return this;
+            }
+        }
+    }
+
+    private final List<String> path;
+    private final Comparison comparison;
+    private final ATypeTag typeTag;
+    private final long value;
+
+    private ColumnRangeFilterInfo(List<String> path, Comparison comparison, ATypeTag typeTag, long value) {
+        this.path = path;
+        this.comparison = comparison;
+        this.typeTag = typeTag;
+        this.value = value;
+    }
+
+    public static ColumnRangeFilterInfo createLong(List<String> path, Comparison comparison, long value) {
+        return new ColumnRangeFilterInfo(path, comparison, ATypeTag.BIGINT, value);
+    }
+
+    public static ColumnRangeFilterInfo createDouble(List<String> path, Comparison comparison, double value) {
+        return new ColumnRangeFilterInfo(path, comparison, ATypeTag.DOUBLE, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * @return field names from the record's root to the filtered value
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    public Comparison getComparison() {
+        return comparison;
+    }
+
+    /**
+     * @return the constant's type, either {@link ATypeTag#BIGINT} or {@link ATypeTag#DOUBLE}
+     */
+    public ATypeTag getTypeTag() {
+        return typeTag;
+    }
+
+    public long getLongValue() {
+        return value;
+    }
+
+    public double getDoubleValue() {
+        return Double.longBitsToDouble(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, comparison, typeTag, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ColumnRangeFilterInfo that = (ColumnRangeFilterInfo) o;
+        return value == that.value && comparison == that.comparison && typeTag == that.typeTag
+                && Objects.equals(path, that.path);
+    }
+
+    @Override
+    public String toString() {
+        String constant = typeTag == ATypeTag.DOUBLE ? String.valueOf(getDoubleValue()) : String.valueOf(value);
+        return String.join(".", path) + " " + comparison + " " + constant;
+    }
+}
@@ -21,7 +21,10 @@ package org.apache.asterix.runtime.projection;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -40,10 +43,17 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
 
     private final ARecordType root;
     private final Map<String, FunctionCallInformation> functionCallInfoMap;
+    private final List<ColumnRangeFilterInfo> rangeFilters;
 
     public DataProjectionInfo(ARecordType root, Map<String, FunctionCallInformation> sourceInformationMap) {
+        this(root, sourceInformationMap, Collections.emptyList());
+    }
+
+    public DataProjectionInfo(ARecordType root, Map<String, FunctionCallInformation> sourceInformationMap,
+            List<ColumnRangeFilterInfo> rangeFilters) {
         this.root = root;
         this.functionCallInfoMap = sourceInformationMap;
+        this.rangeFilters = rangeFilters;
     }
 
     private DataProjectionInfo(DataProjectionInfo other) {
@@ -55,6 +65,7 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
             root = other.root.deepCopy(other.root);
         }
         functionCallInfoMap = new HashMap<>(other.functionCallInfoMap);
+        rangeFilters = new ArrayList<>(other.rangeFilters);
     }
 
     @Override
@@ -76,6 +87,13 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
         return functionCallInfoMap;
     }
 
+    /**
+     * @return the pushed down range predicates (if any) that could be used to skip reading irrelevant pages
+     */
+    public List<ColumnRangeFilterInfo> getRangeFilters() {
+        return rangeFilters;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -85,7 +103,8 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
             return false;
         }
         DataProjectionInfo otherInfo = (DataProjectionInfo) o;
-        return root.deepEqual(otherInfo.root) && Objects.equals(functionCallInfoMap, otherInfo.functionCallInfoMap);
+        return root.deepEqual(otherInfo.root) && Objects.equals(functionCallInfoMap, otherInfo.functionCallInfoMap)
+                && Objects.equals(rangeFilters, otherInfo.rangeFilters);
     }
 
     @Override
@@ -21,8 +21,11 @@ package org.apache.asterix.transaction.management.service.logging;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+import org.apache.asterix.common.config.TransactionProperties;
 import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.DatasetId;
@@ -46,13 +49,24 @@ public class LogBuffer implements ILogBuffer {
 
     public static final boolean IS_DEBUG_MODE = false;//true
     private static final Logger LOGGER = LogManager.getLogger();
+    // set in reservedOffset once no more space can be reserved in the buffer
+    private static final int FULL = Integer.MIN_VALUE;
+    private static final int SPINS_BEFORE_YIELD = 64;
     private final ITransactionSubsystem txnSubsystem;
     private final LogBufferTailReader logBufferTailReader;
     private final int logPageSize;
     private final MutableLong flushLSN;
-    private final AtomicBoolean full;
-    protected int appendOffset;
-    private int flushOffset;
+    private final LsnSequence committedLSN;
+    private final long groupCommitMaxWaitNanos;
+    private final int groupCommitMaxBatch;
+    private final AtomicInteger reservedOffset;
+    // the end of the log records that were completely appended, which only moves forward in lsn order
+    protected volatile int appendOffset;
+    // the offset of the first log record that could not be written (-1 if none), where the log cannot be continued
+    private volatile int failedOffset;
+    private volatile int flushOffset;
+    private long beginLsn;
+    private int capacity;
     protected final ByteBuffer appendBuffer;
     private final ByteBuffer flushBuffer;
     private final ByteBuffer unlockBuffer;
@@ -60,21 +74,36 @@ public class LogBuffer implements ILogBuffer {
     protected final LinkedBlockingQueue<ILogRecord> flushQ;
     protected final LinkedBlockingQueue<ILogRecord> remoteJobsQ;
     private FileChannel fileChannel;
-    private boolean stop;
+    private volatile boolean stop;
+    private volatile Thread flusher;
+    // the number of bytes waiting to be flushed that wakes up the parked flusher (0 if the flusher is not parked)
+    private volatile int flusherWakeUpBytes;
     private final MutableTxnId reusableTxnId;
     private final DatasetId reusableDatasetId;
 
-    public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN) {
+    public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN,
+            LsnSequence committedLSN) {
         this.txnSubsystem = txnSubsystem;
         this.logPageSize = logPageSize;
         this.flushLSN = flushLSN;
+        this.committedLSN = committedLSN;
+        if (txnSubsystem != null) {
+            TransactionProperties txnProperties = txnSubsystem.getTransactionProperties();
+            groupCommitMaxWaitNanos = TimeUnit.MICROSECONDS.toNanos(txnProperties.getLogGroupCommitMaxWait());
+            groupCommitMaxBatch = txnProperties.getLogGroupCommitMaxBatch();
+        } else {
+            groupCommitMaxWaitNanos = 0;
+            groupCommitMaxBatch = 0;
+        }
         appendBuffer = ByteBuffer.allocate(logPageSize);
         flushBuffer = appendBuffer.duplicate();
         unlockBuffer = appendBuffer.duplicate();
         logBufferTailReader = getLogBufferTailReader();
-        full = new AtomicBoolean(false);
+        reservedOffset = new AtomicInteger();
         appendOffset = 0;
+        failedOffset = -1;
         flushOffset = 0;
+        capacity = logPageSize;
         syncCommitQ = new LinkedBlockingQueue<>(logPageSize / LogConstants.JOB_TERMINATE_LOG_SIZE);
         flushQ = new LinkedBlockingQueue<>();
         remoteJobsQ = new LinkedBlockingQueue<>();
@@ -87,36 +116,103 @@ public class LogBuffer implements ILogBuffer {
     ////////////////////////////////////
 
     @Override
-    public void append(ILogRecord logRecord, long appendLsn) {
-        logRecord.writeLogRecord(appendBuffer);
-
-        if (isLocalTransactionLog(logRecord)) {
-            logRecord.getTxnCtx().setLastLSN(appendLsn);
+    public long reserve(int logSize) {
+        while (true) {
+            final int reserved = reservedOffset.get();
+            if (reserved < 0 || reserved + logSize > capacity) {
+                return -1;
+            }
+            if (reservedOffset.compareAndSet(reserved, reserved + logSize)) {
+                return beginLsn + reserved;
+            }
         }
+    }
 
-        synchronized (this) {
-            appendOffset += logRecord.getLogSize();
-            if (IS_DEBUG_MODE) {
-                LOGGER.info("append()| appendOffset: " + appendOffset);
+    @Override
+    public void append(ILogRecord logRecord, long appendLsn) {
+        final int beginOffset = (int) (appendLsn - beginLsn);
+        final int endOffset = beginOffset + logRecord.getLogSize();
+        boolean appended = false;
+        try {
+            // appenders write concurrently, each into the space it reserved
+            final ByteBuffer recordBuffer = appendBuffer.duplicate();
+            recordBuffer.position(beginOffset);
+            logRecord.writeLogRecord(recordBuffer);
+
+            if (isLocalTransactionLog(logRecord)) {
+                logRecord.getTxnCtx().setLastLSN(appendLsn);
             }
-            if (logRecord.getLogSource() == LogSource.LOCAL) {
-                if (syncPendingNonFlushLog(logRecord)) {
-                    logRecord.isFlushed(false);
-                    syncCommitQ.add(logRecord);
-                } else if (logRecord.getLogType() == LogType.FLUSH) {
-                    flushQ.add(logRecord);
+
+            if (requiresOrderedAppend(logRecord)) {
+                if (logRecord.getLogSource() == LogSource.LOCAL) {
+                    if (logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES) {
+                        logRecord.isFlushed(false);
+                        syncCommitQ.add(logRecord);
+                    } else {
+                        flushQ.add(logRecord);
+                    }
+                } else {
+                    remoteJobsQ.add(logRecord);
                 }
-            } else if (logRecord.getLogSource() == LogSource.REMOTE && (logRecord.getLogType() == LogType.JOB_COMMIT
-                    || logRecord.getLogType() == LogType.ABORT || logRecord.getLogType() == LogType.FLUSH)) {
-                remoteJobsQ.add(logRecord);
             }
-            this.notify();
+            appended = true;
+        } finally {
+            // the reserved space is published even if the log record could not be written. Otherwise, the appenders
+            // of the following log records would wait for it forever
+            publish(beginOffset, endOffset, appended);
+        }
+        final int failed = failedOffset;
+        if (failed >= 0) {
+            throw new ACIDException("Log record at LSN " + appendLsn
+                    + " cannot be flushed. The log record at LSN " + (beginLsn + failed) + " failed to be appended");
+        }
+    }
+
+    /**
+     * Log records that are handed to the flusher through the buffer's queues are matched with their queue entries in
+     * lsn order. Hence, they must be reserved and appended serially.
+     *
+     * @return true if the log record must be appended serially
+     */
+    public static boolean requiresOrderedAppend(ILogRecord logRecord) {
+        final byte logType = logRecord.getLogType();
+        if (logRecord.getLogSource() == LogSource.LOCAL) {
+            return logType == LogType.FLUSH || logType == LogType.WAIT_FOR_FLUSHES;
         }
+        return logRecord.getLogSource() == LogSource.REMOTE
+                && (logType == LogType.JOB_COMMIT || logType == LogType.ABORT || logType == LogType.FLUSH);
     }
 
-    private boolean syncPendingNonFlushLog(ILogRecord logRecord) {
-        return logRecord.getLogType() == LogType.JOB_COMMIT || logRecord.getLogType() == LogType.ABORT
-                || logRecord.getLogType() == LogType.WAIT || logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES;
+    /**
+     * Publishes the log record in [beginOffset, endOffset) to the flusher once all the log records preceding it are
+     * published
+     *
+     * @param appended
+     *            false if the log record could not be written. Log readers cannot skip a partially written log
+     *            record, so the flusher forces the log records preceding it to disk and then fails the log
+     */
+    private void publish(int beginOffset, int endOffset, boolean appended) {
+        // the preceding log records are being copied by other appenders, which do not block
+        int spins = 0;
+        while (appendOffset != beginOffset) {
+            if (++spins % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        if (!appended && failedOffset < 0) {
+            // set before the offset is published, so the flusher never flushes the failed log record
+            failedOffset = beginOffset;
+        }
+        appendOffset = endOffset;
+        if (IS_DEBUG_MODE) {
+            LOGGER.info("append()| appendOffset: " + endOffset);
+        }
+        final int wakeUpBytes = flusherWakeUpBytes;
+        if (wakeUpBytes > 0 && (endOffset - flushOffset >= wakeUpBytes || failedOffset >= 0)) {
+            LockSupport.unpark(flusher);
+        }
     }
 
     private boolean isLocalTransactionLog(ILogRecord logRecord) {
@@ -130,28 +226,37 @@ public class LogBuffer implements ILogBuffer {
     }
 
     @Override
-    public synchronized void setFull() {
-        this.full.set(true);
-        this.notify();
+    public long setFull() {
+        int reserved;
+        do {
+            reserved = reservedOffset.get();
+        } while (reserved >= 0 && !reservedOffset.compareAndSet(reserved, reserved | FULL));
+        wakeUpFlusher();
+        return beginLsn + (reserved & ~FULL);
     }
 
     @Override
-    public boolean hasSpace(int logSize) {
-        return appendOffset + logSize <= logPageSize && !full.get();
+    public long getNextLsn() {
+        return beginLsn + (reservedOffset.get() & ~FULL);
     }
 
     @Override
-    public void reset() {
+    public void reset(long beginLsn, int capacity) {
         appendBuffer.position(0);
         appendBuffer.limit(logPageSize);
         flushBuffer.position(0);
         flushBuffer.limit(logPageSize);
         unlockBuffer.position(0);
         unlockBuffer.limit(logPageSize);
-        full.set(false);
+        this.beginLsn = beginLsn;
+        this.capacity = capacity;
         appendOffset = 0;
+        failedOffset = -1;
         flushOffset = 0;
         stop = false;
+        // appenders that still reference a recycled page can reserve its space as soon as it is not full anymore,
+        // so it is reopened for reservations only after everything else is reset
+        reservedOffset.set(0);
     }
 
     ////////////////////////////////////
@@ -160,30 +265,43 @@ public class LogBuffer implements ILogBuffer {
 
     @Override
     public void flush(boolean stopping) {
+        flusher = Thread.currentThread();
         boolean interrupted = false;
         try {
-            int endOffset;
-            while (!full.get()) {
-                try {
-                    synchronized (this) {
-                        if (appendOffset - flushOffset == 0 && !full.get()) {
-                            if (IS_DEBUG_MODE) {
-                                LOGGER.info("flush()| appendOffset: " + appendOffset + ", flushOffset: " + flushOffset
-                                        + ", full: " + full.get());
-                            }
-                            if (stopping || stop) {
-                                return;
-                            }
-                            wait();
-                        }
-                        endOffset = appendOffset;
+            while (true) {
+                final int reserved = reservedOffset.get();
+                final int endOffset = appendOffset;
+                final int failed = failedOffset;
+                if (failed >= 0) {
+                    // force the log records preceding the failed one to disk and then fail the log (see LogFlusher)
+                    internalFlush(flushOffset, failed);
+                    throw new ACIDException("Failed to append the log record at LSN " + (beginLsn + failed));
+                }
+                if (reserved < 0 && endOffset == (reserved & ~FULL)) {
+                    // the buffer is full and all of its log records were appended
+                    internalFlush(flushOffset, endOffset);
+                    return;
+                }
+                if (endOffset == flushOffset) {
+                    if (IS_DEBUG_MODE) {
+                        LOGGER.info("flush()| appendOffset: " + endOffset + ", flushOffset: " + flushOffset
+                                + ", full: " + (reserved < 0));
                     }
+                    if (stopping || stop) {
+                        return;
+                    }
+                    interrupted = parkFlusher(1, 0) || interrupted;
+                } else if (reserved >= 0 && groupCommitMaxWaitNanos > 0
+                        && endOffset - flushOffset < groupCommitMaxBatch) {
+                    interrupted = awaitGroupCommit() || interrupted;
+                    final int groupEndOffset = appendOffset;
+                    if (failedOffset < 0) {
+                        internalFlush(flushOffset, groupEndOffset);
+                    }
+                } else {
                     internalFlush(flushOffset, endOffset);
-                } catch (InterruptedException e) {
-                    interrupted = true;
                 }
             }
-            internalFlush(flushOffset, appendOffset);
         } finally {
             if (interrupted) {
                 Thread.currentThread().interrupt();
@@ -191,6 +309,55 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
+    /**
+     * Gives concurrent transactions the chance to append their log records, so that they are forced to disk
+     * together, until either the group commit maximum batch is reached or its maximum wait time has elapsed.
+     *
+     * @return true if the flusher was interrupted
+     */
+    private boolean awaitGroupCommit() {
+        final long deadline = System.nanoTime() + groupCommitMaxWaitNanos;
+        boolean interrupted = false;
+        long remaining = groupCommitMaxWaitNanos;
+        while (remaining > 0 && appendOffset - flushOffset < groupCommitMaxBatch && reservedOffset.get() >= 0
+                && failedOffset < 0 && !stop) {
+            interrupted = parkFlusher(groupCommitMaxBatch, remaining) || interrupted;
+            remaining = deadline - System.nanoTime();
+        }
+        return interrupted;
+    }
+
+    /**
+     * Parks the flusher until {@code wakeUpBytes} are waiting to be flushed, the buffer becomes full, a log record
+     * fails to be appended, or the buffer is stopped
+     *
+     * @param timeoutNanos
+     *            the maximum time to park or 0 to park without a timeout
+     * @return true if the flusher was interrupted
+     */
+    private boolean parkFlusher(int wakeUpBytes, long timeoutNanos) {
+        flusherWakeUpBytes = wakeUpBytes;
+        try {
+            // check again after announcing the wake up condition, so that no wake up is missed
+            if (!stop && appendOffset - flushOffset < wakeUpBytes && reservedOffset.get() >= 0 && failedOffset < 0) {
+                if (timeoutNanos > 0) {
+                    LockSupport.parkNanos(this, timeoutNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            flusherWakeUpBytes = 0;
+        }
+        return Thread.interrupted();
+    }
+
+    private void wakeUpFlusher() {
+        if (flusherWakeUpBytes > 0) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
     private void internalFlush(int beginOffset, int endOffset) {
         try {
             if (endOffset > beginOffset) {
@@ -206,6 +373,8 @@ public class LogBuffer implements ILogBuffer {
                     LOGGER.info("internalFlush()| flushOffset: " + flushOffset + ", flushLSN: " + flushLSN.get());
                 }
                 batchUnlock(beginOffset, endOffset);
+                // wakes up the appenders of commits (and waits) once the log records preceding them are processed
+                committedLSN.set(beginLsn + endOffset);
             }
         } catch (Exception e) {
             throw new IllegalStateException(e);
@@ -233,14 +402,10 @@ public class LogBuffer implements ILogBuffer {
                         if (txnSubsystem.getTransactionProperties().isCommitProfilerEnabled()) {
                             txnSubsystem.incrementEntityCommitCount();
                         }
-                    } else if (logRecord.getLogType() == LogType.JOB_COMMIT
-                            || logRecord.getLogType() == LogType.ABORT) {
-                        notifyJobTermination();
                     } else if (logRecord.getLogType() == LogType.FLUSH) {
                         notifyFlushTermination();
-                    } else if (logRecord.getLogType() == LogType.WAIT
-                            || logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES) {
-                        notifyWaitTermination();
+                    } else if (logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES) {
+                        notifyToSyncCommitQWaiter();
                     }
                 } else if (logRecord.getLogSource() == LogSource.REMOTE && (logRecord.getLogType() == LogType.JOB_COMMIT
                         || logRecord.getLogType() == LogType.ABORT || logRecord.getLogType() == LogType.FLUSH)) {
@@ -251,14 +416,6 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
-    public void notifyJobTermination() {
-        notifyToSyncCommitQWaiter();
-    }
-
-    public void notifyWaitTermination() {
-        notifyToSyncCommitQWaiter();
-    }
-
     public void notifyToSyncCommitQWaiter() {
         ILogRecord logRecord = null;
         while (logRecord == null) {
@@ -314,9 +471,9 @@ public class LogBuffer implements ILogBuffer {
     }
 
     @Override
-    public synchronized void stop() {
+    public void stop() {
         stop = true;
-        notifyAll();
+        wakeUpFlusher();
     }
 
     @Override
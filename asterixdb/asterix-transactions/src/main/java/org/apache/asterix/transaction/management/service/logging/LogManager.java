@@ -31,11 +31,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.replication.IReplicationManager;
@@ -71,17 +71,19 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private final String logDir;
     private final String logFilePrefix;
     private final MutableLong flushLSN;
+    // the end of the log records that were flushed and processed by the flusher (see LogBuffer#batchUnlock)
+    private final LsnSequence committedLSN;
     private final String nodeId;
     private final long logFileSize;
     private final int logPageSize;
-    private final AtomicLong appendLSN;
     private final long maxLogRecordSize;
 
     private LinkedBlockingQueue<ILogBuffer> emptyQ;
     private LinkedBlockingQueue<ILogBuffer> flushQ;
     private LinkedBlockingQueue<ILogBuffer> stashQ;
     private FileChannel appendChannel;
-    private ILogBuffer appendPage;
+    // replaced (under this log manager's monitor) only after it is full
+    private volatile ILogBuffer appendPage;
     private LogFlusher logFlusher;
     private Future<?> futureLogFlusher;
     private LinkedBlockingQueue<ILogRecord> flushLogsQ;
@@ -98,7 +100,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         logDir = logManagerProperties.getLogDir();
         logFilePrefix = logManagerProperties.getLogFilePrefix();
         flushLSN = new MutableLong();
-        appendLSN = new AtomicLong();
+        committedLSN = new LsnSequence();
         nodeId = txnSubsystem.getId();
         flushLogsQ = new LinkedBlockingQueue<>();
         txnSubsystem.getApplicationContext().getThreadExecutor().execute(new FlushLogsLogger());
@@ -111,19 +113,20 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         flushQ = new LinkedBlockingQueue<>(numLogPages);
         stashQ = new LinkedBlockingQueue<>(numLogPages);
         for (int i = 0; i < numLogPages; i++) {
-            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN));
+            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN, committedLSN));
         }
-        appendLSN.set(initializeLogAnchor(nextLogFileId));
-        flushLSN.set(appendLSN.get());
+        final long appendLsn = initializeLogAnchor(nextLogFileId);
+        flushLSN.set(appendLsn);
+        committedLSN.set(appendLsn);
         if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("LogManager starts logging in LSN: " + appendLSN);
+            LOGGER.info("LogManager starts logging in LSN: " + appendLsn);
         }
         try {
-            setLogPosition(appendLSN.get());
+            setLogPosition(appendLsn);
         } catch (IOException e) {
             throw new ACIDException(e);
         }
-        initNewPage(INITIAL_LOG_SIZE);
+        setAppendPage(initNewPage(appendLsn, INITIAL_LOG_SIZE));
         logFlusher = new LogFlusher(this, emptyQ, flushQ, stashQ);
         futureLogFlusher =
                 ((ExecutorService) txnSubsystem.getApplicationContext().getThreadExecutor()).submit(logFlusher);
@@ -157,26 +160,33 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         return false;
     }
 
-    @SuppressWarnings("squid:S2445")
     protected void appendToLogTail(ILogRecord logRecord) {
-        syncAppendToLogTail(logRecord);
-        if (waitForFlush(logRecord) && !logRecord.isFlushed()) {
-            InvokeUtil.doUninterruptibly(() -> {
-                synchronized (logRecord) {
-                    while (!logRecord.isFlushed()) {
-                        logRecord.wait();
-                    }
-                }
-            });
+        final long endLsn = appendToLogBuffer(logRecord);
+        if (waitForFlush(logRecord)) {
+            awaitCommitted(endLsn);
+            logRecord.isFlushed(true);
         }
     }
 
+    /**
+     * Waits until the log records preceding {@code lsn} are flushed and processed by the flusher
+     */
+    protected void awaitCommitted(long lsn) {
+        committedLSN.await(lsn);
+    }
+
     protected static boolean waitForFlush(ILogRecord logRecord) {
         final byte logType = logRecord.getLogType();
         return logType == LogType.JOB_COMMIT || logType == LogType.ABORT || logType == LogType.WAIT;
     }
 
-    synchronized void syncAppendToLogTail(ILogRecord logRecord) {
+    /**
+     * Appends the log record to the log tail. Appenders reserve the space of their log records in the current log
+     * page and copy them concurrently. Only switching to the next log page (or log file) is done serially.
+     *
+     * @return the lsn following the appended log record
+     */
+    protected long appendToLogBuffer(ILogRecord logRecord) {
         if (logRecord.getLogSource() == LogSource.LOCAL && logRecord.getLogType() != LogType.FLUSH
                 && logRecord.getLogType() != LogType.WAIT && logRecord.getLogType() != LogType.WAIT_FOR_FLUSHES) {
             ITransactionContext txnCtx = logRecord.getTxnCtx();
@@ -186,116 +196,131 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
             }
         }
         final int logSize = logRecord.getLogSize();
-        ensureSpace(logSize);
-        if (logRecord.getLogType() == LogType.FLUSH) {
-            logRecord.setLSN(appendLSN.get());
+        if (logSize > maxLogRecordSize) {
+            throw new ACIDException("Maximum log record size of (" + maxLogRecordSize + ") exceeded");
         }
-        appendPage.append(logRecord, appendLSN.get());
-        if (logRecord.isMarker()) {
-            logRecord.logAppended(appendLSN.get());
+        if (!LogBuffer.requiresOrderedAppend(logRecord)) {
+            final ILogBuffer page = appendPage;
+            final long lsn = page.reserve(logSize);
+            if (lsn >= 0) {
+                append(page, logRecord, lsn);
+                return lsn + logSize;
+            }
         }
-        appendLSN.addAndGet(logSize);
+        return syncAppendToLogTail(logRecord);
     }
 
-    private void ensureSpace(int logSize) {
-        if (!fileHasSpace(logSize)) {
-            ensureLastPageFlushed();
-            prepareNextLogFile();
-        }
-        if (!appendPage.hasSpace(logSize)) {
-            prepareNextPage(logSize);
+    private synchronized long syncAppendToLogTail(ILogRecord logRecord) {
+        final int logSize = logRecord.getLogSize();
+        long lsn = appendPage.reserve(logSize);
+        while (lsn < 0) {
+            final ILogBuffer nextPage = prepareNextPage(logSize);
+            // reserve before the page becomes the append page. However, appenders that still reference a recycled
+            // page might reserve its space first
+            lsn = nextPage.reserve(logSize);
+            setAppendPage(nextPage);
         }
+        append(appendPage, logRecord, lsn);
+        return lsn + logSize;
     }
 
-    private boolean fileHasSpace(int logSize) {
-        if (logSize > maxLogRecordSize) {
-            throw new ACIDException("Maximum log record size of (" + maxLogRecordSize + ") exceeded");
+    private static void append(ILogBuffer page, ILogRecord logRecord, long lsn) {
+        if (logRecord.getLogType() == LogType.FLUSH) {
+            logRecord.setLSN(lsn);
+        }
+        page.append(logRecord, lsn);
+        if (logRecord.isMarker()) {
+            logRecord.logAppended(lsn);
         }
+    }
+
+    private boolean fileHasSpace(long lsn, int logSize) {
         /*
          * To eliminate the case where the modulo of the next appendLSN = 0 (the next
          * appendLSN = the first LSN of the next log file), we do not allow a log to be
          * written at the last offset of the current file.
          */
-        return getLogFileOffset(appendLSN.get()) + logSize < logFileSize;
+        return getLogFileOffset(lsn) + logSize < logFileSize;
     }
 
-    private void prepareNextPage(int logSize) {
-        appendPage.setFull();
-        initNewPage(logSize);
+    private ILogBuffer prepareNextPage(int logSize) {
+        long nextLsn = appendPage.setFull();
+        if (!fileHasSpace(nextLsn, logSize)) {
+            ensureLastPageFlushed(nextLsn);
+            nextLsn = prepareNextLogFile(nextLsn);
+        }
+        return initNewPage(nextLsn, logSize);
     }
 
-    private void initNewPage(int logSize) {
+    private ILogBuffer initNewPage(long beginLsn, int logSize) {
         boolean largePage = logSize > logPageSize;
         // if a new large page will be allocated, we need to stash a normal sized page
         // since our queues have fixed capacity
-        ensureAvailablePage(largePage);
+        ILogBuffer page = takeEmptyPage(largePage);
         if (largePage) {
             // for now, alloc a new buffer for each large page
             // TODO: pool large pages??
-            appendPage = new LogBuffer(txnSubsystem, logSize, flushLSN);
-        } else {
-            appendPage.reset();
+            page = new LogBuffer(txnSubsystem, logSize, flushLSN, committedLSN);
         }
-        appendPage.setFileChannel(appendChannel);
-        flushQ.add(appendPage);
+        // the page must not span log files (see fileHasSpace(long, int))
+        final long fileSpace = logFileSize - 1 - getLogFileOffset(beginLsn);
+        page.reset(beginLsn, (int) Math.min(page.getLogPageSize(), fileSpace));
+        page.setFileChannel(appendChannel);
+        return page;
     }
 
-    private void ensureAvailablePage(boolean stash) {
-        final ILogBuffer currentPage = appendPage;
-        appendPage = null;
+    private void setAppendPage(ILogBuffer page) {
+        flushQ.add(page);
+        appendPage = page;
+    }
+
+    private ILogBuffer takeEmptyPage(boolean stash) {
         try {
-            appendPage = emptyQ.take();
+            final ILogBuffer page = emptyQ.take();
             if (stash) {
-                stashQ.add(appendPage);
+                stashQ.add(page);
             }
+            return page;
         } catch (InterruptedException e) {
-            appendPage = currentPage;
             Thread.currentThread().interrupt();
             throw new ACIDException(e);
         }
     }
 
-    private void prepareNextLogFile() {
-        final long nextFileBeginLsn = getNextFileFirstLsn();
+    private long prepareNextLogFile(long appendLsn) {
+        final long nextFileBeginLsn = getNextFileFirstLsn(appendLsn);
         try {
             closeCurrentLogFile();
-            createNextLogFile();
+            createNextLogFile(nextFileBeginLsn);
             InvokeUtil.doIoUninterruptibly(() -> setLogPosition(nextFileBeginLsn));
-            // move appendLSN and flushLSN to the first LSN of the next log file
+            // move flushLSN to the first LSN of the next log file
             // only after the file was created and the channel was positioned successfully
-            appendLSN.set(nextFileBeginLsn);
             flushLSN.set(nextFileBeginLsn);
+            committedLSN.set(nextFileBeginLsn);
             LOGGER.info("Created new txn log file with id({}) starting with LSN = {}", currentLogFileId,
                     nextFileBeginLsn);
+            return nextFileBeginLsn;
         } catch (IOException e) {
             throw new ACIDException(e);
         }
     }
 
-    private long getNextFileFirstLsn() {
+    private long getNextFileFirstLsn(long appendLsn) {
         // add the remaining space in the current file
-        return appendLSN.get() + (logFileSize - getLogFileOffset(appendLSN.get()));
+        return appendLsn + (logFileSize - getLogFileOffset(appendLsn));
     }
 
-    private void ensureLastPageFlushed() {
-        // Make sure to flush whatever left in the log tail.
-        appendPage.setFull();
-        synchronized (flushLSN) {
-            while (flushLSN.get() != appendLSN.get()) {
-                // notification will come from LogBuffer.internalFlush(.)
-                try {
-                    flushLSN.wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new ACIDException(e);
-                }
-            }
-        }
+    private void ensureLastPageFlushed(long appendLsn) {
+        // Make sure to flush whatever left in the log tail. The last page was set to full by the caller.
+        awaitCommitted(appendLsn);
     }
 
     @Override
     public ILogReader getLogReader(boolean isRecoveryMode) {
-        return new LogReader(this, logFileSize, logPageSize, flushLSN, isRecoveryMode);
+        // recovery scans the log sequentially, so the next log page is read ahead of the log records
+        final Executor prefetchExecutor =
+                isRecoveryMode ? txnSubsystem.getApplicationContext().getThreadExecutor() : null;
+        return new LogReader(this, logFileSize, logPageSize, flushLSN, isRecoveryMode, prefetchExecutor);
     }
 
     public LogManagerProperties getLogManagerProperties() {
@@ -308,7 +333,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
     @Override
     public long getAppendLSN() {
-        return appendLSN.get();
+        return appendPage.getNextLsn();
     }
 
     @Override
@@ -353,8 +378,9 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         try {
             StringBuilder sb = new StringBuilder();
             sb.append("\n>>dump_begin\t>>----- [LSNInfo] -----");
-            sb.append("\nappendLsn: " + appendLSN);
+            sb.append("\nappendLsn: " + getAppendLSN());
             sb.append("\nflushLsn: " + flushLSN.get());
+            sb.append("\ncommittedLsn: " + committedLSN.get());
             sb.append("\n>>dump_end\t>>----- [LSNInfo] -----\n");
             os.write(sb.toString().getBytes());
         } catch (Exception e) {
@@ -494,8 +520,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         }
     }
 
-    private void createNextLogFile() throws IOException {
-        final long nextFileBeginLsn = getNextFileFirstLsn();
+    private void createNextLogFile(long nextFileBeginLsn) throws IOException {
         final long fileId = getLogFileId(nextFileBeginLsn);
         final Path nextFilePath = Paths.get(getLogFilePath(fileId));
         if (nextFilePath.toFile().exists()) {
@@ -619,7 +644,8 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
 class LogFlusher implements Callable<Boolean> {
     private static final Logger LOGGER = org.apache.logging.log4j.LogManager.getLogger();
-    private static final ILogBuffer POISON_PILL = new LogBuffer(null, LogConstants.JOB_TERMINATE_LOG_SIZE, null);
+    private static final ILogBuffer POISON_PILL =
+            new LogBuffer(null, LogConstants.JOB_TERMINATE_LOG_SIZE, null, null);
     private final LogManager logMgr;//for debugging
     private final LinkedBlockingQueue<ILogBuffer> emptyQ;
     private final LinkedBlockingQueue<ILogBuffer> flushQ;
@@ -74,7 +74,7 @@ public class LogManagerWithReplication extends LogManager {
     @SuppressWarnings("squid:S2445")
     @Override
     protected void appendToLogTail(ILogRecord logRecord) {
-        syncAppendToLogTail(logRecord);
+        final long endLsn = appendToLogBuffer(logRecord);
 
         if (logRecord.isReplicate()) {
             try {
@@ -85,21 +85,20 @@ public class LogManagerWithReplication extends LogManager {
             }
         }
 
-        if (logRecord.getLogSource() == LogSource.LOCAL && waitForFlush(logRecord) && !logRecord.isFlushed()) {
-            InvokeUtil.doUninterruptibly(() -> {
-                synchronized (logRecord) {
-                    while (!logRecord.isFlushed()) {
-                        logRecord.wait();
-                    }
-                    //wait for job Commit/Abort ACK from replicas
-                    if (logRecord.isReplicate() && (logRecord.getLogType() == LogType.JOB_COMMIT
-                            || logRecord.getLogType() == LogType.ABORT)) {
+        if (logRecord.getLogSource() == LogSource.LOCAL && waitForFlush(logRecord)) {
+            awaitCommitted(endLsn);
+            logRecord.isFlushed(true);
+            //wait for job Commit/Abort ACK from replicas
+            if (logRecord.isReplicate() && (logRecord.getLogType() == LogType.JOB_COMMIT
+                    || logRecord.getLogType() == LogType.ABORT)) {
+                InvokeUtil.doUninterruptibly(() -> {
+                    synchronized (logRecord) {
                         while (!logRecord.isReplicated()) {
                             logRecord.wait();
                         }
                     }
-                }
-            });
+                });
+            }
         }
     }
 
@@ -20,6 +20,9 @@ package org.apache.asterix.transaction.management.service.logging;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.ILogManager;
@@ -48,6 +51,12 @@ public class LogReader implements ILogReader {
     private long bufferBeginLSN;
     private long fileBeginLSN;
     private TxnLogFile logFile;
+    // reads the log page following the read buffer while the records of the read buffer are processed
+    private final Executor prefetchExecutor;
+    private final ByteBuffer prefetchBuffer;
+    private CompletableFuture<Integer> prefetch;
+    private TxnLogFile prefetchFile;
+    private long prefetchLSN;
 
     private enum ReturnState {
         FLUSH,
@@ -56,6 +65,15 @@ public class LogReader implements ILogReader {
 
     public LogReader(ILogManager logMgr, long logFileSize, int logPageSize, MutableLong flushLSN,
             boolean isRecoveryMode) {
+        this(logMgr, logFileSize, logPageSize, flushLSN, isRecoveryMode, null);
+    }
+
+    /**
+     * @param prefetchExecutor
+     *            the executor reading the next log page ahead, or null to read log pages only on demand
+     */
+    public LogReader(ILogManager logMgr, long logFileSize, int logPageSize, MutableLong flushLSN,
+            boolean isRecoveryMode, Executor prefetchExecutor) {
         this.logMgr = logMgr;
         this.logFileSize = logFileSize;
         this.logPageSize = logPageSize;
@@ -63,6 +81,8 @@ public class LogReader implements ILogReader {
         this.isRecoveryMode = isRecoveryMode;
         this.readBuffer = ByteBuffer.allocate(logPageSize);
         this.logRecord = new LogRecord();
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetchBuffer = prefetchExecutor != null ? ByteBuffer.allocate(logPageSize) : null;
     }
 
     @Override
@@ -179,7 +199,88 @@ public class LogReader implements ILogReader {
      * @return false if EOF, true otherwise
      */
     private boolean fillLogReadBuffer() {
-        return fillLogReadBuffer(logPageSize, readBuffer);
+        if (prefetchExecutor == null) {
+            return fillLogReadBuffer(logPageSize, readBuffer);
+        }
+        final boolean filled = fillFromPrefetch() || fillLogReadBuffer(logPageSize, readBuffer);
+        if (filled) {
+            startPrefetch();
+        }
+        return filled;
+    }
+
+    /**
+     * Fills the log buffer with the unread bytes of the read buffer followed by the prefetched log page
+     *
+     * @return true if the buffer was filled, false if it has to be read from the log file
+     */
+    private boolean fillFromPrefetch() {
+        if (prefetch == null) {
+            return false;
+        }
+        final int prefetched = awaitPrefetch();
+        // the read buffer was not refilled since the prefetch started, i.e., it ends at the prefetch LSN
+        final long readBufferLSN = prefetchLSN - readBuffer.limit();
+        if (prefetched < 0 || prefetchFile != logFile || readLSN < readBufferLSN || readLSN > prefetchLSN) {
+            return false;
+        }
+        final int unread = (int) (prefetchLSN - readLSN);
+        final int size = Math.min(prefetched, logPageSize - unread);
+        if (unread + size == 0) {
+            return false;
+        }
+        final byte[] array = readBuffer.array();
+        System.arraycopy(array, readBuffer.limit() - unread, array, 0, unread);
+        System.arraycopy(prefetchBuffer.array(), 0, array, unread, size);
+        readBuffer.position(0);
+        readBuffer.limit(unread + size);
+        bufferBeginLSN = readLSN;
+        return true;
+    }
+
+    private void startPrefetch() {
+        final long nextLSN = bufferBeginLSN + readBuffer.limit();
+        final long position = nextLSN - fileBeginLSN;
+        if (position >= logFileSize) {
+            // the next page is in the next log file
+            return;
+        }
+        final TxnLogFile file = logFile;
+        final ByteBuffer buffer = prefetchBuffer;
+        prefetchFile = file;
+        prefetchLSN = nextLSN;
+        buffer.clear();
+        prefetch = CompletableFuture.supplyAsync(() -> {
+            int size = 0;
+            int read = 0;
+            try {
+                while (buffer.hasRemaining() && read != -1) {
+                    read = file.read(buffer, position + size);
+                    if (read > 0) {
+                        size += read;
+                    }
+                }
+            } catch (IOException e) {
+                throw new ACIDException(e);
+            }
+            return size;
+        }, prefetchExecutor);
+    }
+
+    /**
+     * @return the number of prefetched bytes, or -1 if the prefetch failed
+     */
+    private int awaitPrefetch() {
+        try {
+            return prefetch.join();
+        } catch (CompletionException e) {
+            // the log page is read again (and the failure is reported) by the reader itself
+            LOGGER.warn("Failed to prefetch log page at LSN {}", prefetchLSN, e);
+            return -1;
+        } finally {
+            prefetch = null;
+            prefetchFile = null;
+        }
     }
 
     private boolean fillLogReadBuffer(int readSize, ByteBuffer readBuffer) {
@@ -286,6 +387,10 @@ public class LogReader implements ILogReader {
     @Override
     public void close() {
         try {
+            if (prefetch != null) {
+                // the prefetch must not read from a closed log file
+                awaitPrefetch();
+            }
             if (logFile != null) {
                 logFile.close();
                 logFile = null;
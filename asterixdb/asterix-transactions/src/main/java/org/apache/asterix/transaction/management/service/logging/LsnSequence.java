@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A monotonically increasing log sequence number that threads can wait on. Waiting threads are parked until the
+ * sequence reaches the LSN they wait for, so no per-log-record monitors are needed to wake them up.
+ */
+final class LsnSequence {
+    private static final Comparator<Waiter> WAITER_ORDER =
+            Comparator.comparingLong((Waiter waiter) -> waiter.targetLsn).thenComparingLong(waiter -> waiter.id);
+    // ordered by the LSN each thread waits for
+    private final ConcurrentSkipListSet<Waiter> waiters = new ConcurrentSkipListSet<>(WAITER_ORDER);
+    private final AtomicLong waiterIds = new AtomicLong();
+    private volatile long lsn;
+
+    long get() {
+        return lsn;
+    }
+
+    void set(long newLsn) {
+        lsn = newLsn;
+        // wake up only the threads waiting for an LSN the sequence reached
+        for (Waiter waiter : waiters) {
+            if (waiter.targetLsn > newLsn) {
+                break;
+            }
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    /**
+     * Waits (uninterruptibly) until the sequence reaches {@code targetLsn}
+     */
+    void await(long targetLsn) {
+        if (lsn >= targetLsn) {
+            return;
+        }
+        final Waiter waiter = new Waiter(Thread.currentThread(), targetLsn, waiterIds.getAndIncrement());
+        // register before checking again so a concurrent set(long) cannot miss this thread
+        waiters.add(waiter);
+        boolean interrupted = false;
+        try {
+            while (lsn < targetLsn) {
+                LockSupport.park(this);
+                interrupted = Thread.interrupted() || interrupted;
+            }
+        } finally {
+            waiters.remove(waiter);
+            if (interrupted) {
+                waiter.thread.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(lsn);
+    }
+
+    private static final class Waiter {
+        private final Thread thread;
+        private final long targetLsn;
+        // distinguishes threads waiting for the same LSN
+        private final long id;
+
+        private Waiter(Thread thread, long targetLsn, long id) {
+            this.thread = thread;
+            this.targetLsn = targetLsn;
+            this.id = id;
+        }
+    }
+}
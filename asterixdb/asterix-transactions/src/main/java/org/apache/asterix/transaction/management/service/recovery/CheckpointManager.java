@@ -18,9 +18,14 @@
  */
 package org.apache.asterix.transaction.management.service.recovery;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -33,6 +38,8 @@ import org.apache.asterix.common.transactions.ITransactionSubsystem;
 import org.apache.asterix.common.transactions.TxnId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
+import org.apache.hyracks.storage.common.IIndex;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -45,6 +52,7 @@ public class CheckpointManager extends AbstractCheckpointManager {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final long NO_SECURED_LSN = -1L;
     private final long datasetCheckpointIntervalNanos;
+    private final int maxFlushes;
     private final Map<TxnId, Long> securedLSNs;
     private int suspendCount = 0;
 
@@ -52,6 +60,7 @@ public class CheckpointManager extends AbstractCheckpointManager {
         super(txnSubsystem, checkpointProperties);
         datasetCheckpointIntervalNanos = TimeUnit.SECONDS.toNanos(checkpointProperties.getDatasetCheckpointInterval());
         securedLSNs = new HashMap<>();
+        maxFlushes = checkpointProperties.getMaxFlushes();
     }
 
     /**
@@ -72,26 +81,29 @@ public class CheckpointManager extends AbstractCheckpointManager {
     /***
      * Attempts to perform a soft checkpoint at the specified {@code checkpointTargetLSN}.
      * If a checkpoint cannot be captured due to datasets having LSN < {@code checkpointTargetLSN},
-     * an asynchronous flush is triggered on them. When a checkpoint is successful, all transaction
-     * log files that end with LSN < {@code checkpointTargetLSN} are deleted.
+     * an asynchronous flush is triggered on them (limited to the ones with the oldest LSNs if a
+     * maximum number of flushes is configured). The checkpoint is captured at the current minimum
+     * first LSN either way, and all transaction log files that end with LSN < the captured LSN are deleted.
+     * No checkpoint is captured while a transaction secures an LSN <= {@code checkpointTargetLSN}.
      */
     @Override
     public synchronized long tryCheckpoint(long checkpointTargetLSN) throws HyracksDataException {
         LOGGER.info("Attemping soft checkpoint...");
         final long minSecuredLSN = getMinSecuredLSN();
         if (minSecuredLSN != NO_SECURED_LSN && checkpointTargetLSN >= minSecuredLSN) {
-            return minSecuredLSN;
+            return NO_CHECKPOINT_LSN;
         }
         final long minFirstLSN = txnSubsystem.getRecoveryManager().getMinFirstLSN();
         boolean checkpointSucceeded = minFirstLSN >= checkpointTargetLSN;
         if (!checkpointSucceeded && !isSuspended()) {
             // Flush datasets with indexes behind target checkpoint LSN
             final IDatasetLifecycleManager dlcm = txnSubsystem.getApplicationContext().getDatasetLifecycleManager();
-            dlcm.asyncFlushMatchingIndexes(newLaggingDatasetPredicate(checkpointTargetLSN));
+            dlcm.asyncFlushMatchingIndexes(limitToOldest(newLaggingDatasetPredicate(checkpointTargetLSN)));
         }
         capture(minFirstLSN, false);
+        // no log record before the min first LSN is needed for recovery, even if the target was not reached
+        txnSubsystem.getLogManager().deleteOldLogFiles(minFirstLSN);
         if (checkpointSucceeded) {
-            txnSubsystem.getLogManager().deleteOldLogFiles(minFirstLSN);
             LOGGER.info(String.format("soft checkpoint succeeded at LSN(%s)", minFirstLSN));
         }
         return minFirstLSN;
@@ -113,7 +125,7 @@ public class CheckpointManager extends AbstractCheckpointManager {
             return;
         }
         final IDatasetLifecycleManager dlcm = txnSubsystem.getApplicationContext().getDatasetLifecycleManager();
-        dlcm.asyncFlushMatchingIndexes(newIdleDatasetPredicate());
+        dlcm.asyncFlushMatchingIndexes(limitToOldest(newIdleDatasetPredicate()));
     }
 
     private synchronized boolean isSuspended() {
@@ -146,9 +158,41 @@ public class CheckpointManager extends AbstractCheckpointManager {
     }
 
     private Predicate<ILSMIndex> newLaggingDatasetPredicate(long checkpointTargetLSN) {
-        return lsmIndex -> {
-            final LSMIOOperationCallback ioCallback = (LSMIOOperationCallback) lsmIndex.getIOOperationCallback();
-            return ioCallback.getPersistenceLsn() < checkpointTargetLSN;
-        };
+        return lsmIndex -> getPersistenceLsn(lsmIndex) < checkpointTargetLSN;
+    }
+
+    /**
+     * Restricts {@code indexPredicate} to the indexes of at most {@link #maxFlushes} dataset partitions, choosing the
+     * ones whose memory components hold the oldest log records (i.e., the ones keeping the oldest log files).
+     */
+    private Predicate<ILSMIndex> limitToOldest(Predicate<ILSMIndex> indexPredicate) throws HyracksDataException {
+        if (maxFlushes == 0) {
+            return indexPredicate;
+        }
+        final IDatasetLifecycleManager dlcm = txnSubsystem.getApplicationContext().getDatasetLifecycleManager();
+        final List<ILSMIndex> candidates = new ArrayList<>();
+        for (IIndex index : dlcm.getOpenResources()) {
+            final ILSMIndex lsmIndex = (ILSMIndex) index;
+            if (!lsmIndex.isCurrentMutableComponentEmpty() && indexPredicate.test(lsmIndex)) {
+                candidates.add(lsmIndex);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(CheckpointManager::getPersistenceLsn));
+        // the indexes of a dataset partition are flushed together
+        final Set<ILSMOperationTracker> partitions = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<ILSMIndex> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ILSMIndex candidate : candidates) {
+            if (partitions.size() == maxFlushes) {
+                break;
+            }
+            if (partitions.add(candidate.getOperationTracker())) {
+                selected.add(candidate);
+            }
+        }
+        return selected::contains;
+    }
+
+    private static long getPersistenceLsn(ILSMIndex lsmIndex) {
+        return ((LSMIOOperationCallback) lsmIndex.getIOOperationCallback()).getPersistenceLsn();
     }
 }
@@ -20,6 +20,7 @@ package org.apache.asterix.transaction.management.service.recovery;
 
 import org.apache.asterix.common.transactions.ICheckpointManager;
 import org.apache.asterix.common.transactions.ILogManager;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -37,6 +38,7 @@ public class CheckpointThread extends Thread {
     private final ILogManager logManager;
     private final ICheckpointManager checkpointManager;
     private volatile boolean shouldRun = true;
+    private long lastCheckpointLSN = -1;
 
     public CheckpointThread(ICheckpointManager checkpointManager, ILogManager logManager, long lsnThreshold,
             long checkpointTermInSecs) {
@@ -50,42 +52,13 @@ public class CheckpointThread extends Thread {
     @Override
     public void run() {
         Thread.currentThread().setName("Checkpoint Thread (" + Thread.currentThread().getId() + ")");
-        long currentCheckpointAttemptMinLSN;
-        long lastCheckpointLSN = -1;
-        long currentLogLSN;
-        long targetCheckpointLSN;
         while (shouldRun) {
             try {
                 sleep(checkpointTermInSecs * 1000);
                 if (!shouldRun) {
                     return;
                 }
-                if (lastCheckpointLSN == -1) {
-                    //Since the system just started up after sharp checkpoint,
-                    //last checkpoint LSN is considered as the min LSN of the current log partition
-                    lastCheckpointLSN = logManager.getReadableSmallestLSN();
-                }
-                checkpointManager.checkpointIdleDatasets();
-
-                //1. get current log LSN
-                currentLogLSN = logManager.getAppendLSN();
-
-                //2. if current log LSN - previous checkpoint > threshold, do checkpoint
-                if (currentLogLSN - lastCheckpointLSN > lsnThreshold) {
-
-                    // in check point:
-                    //1. get minimum first LSN (MFL) from open indexes.
-                    //2. if current MinFirstLSN < targetCheckpointLSN, schedule async flush for any open index witch has first LSN < force flush delta
-                    //3. next time checkpoint comes, it will be able to remove log files which have end range less than current targetCheckpointLSN
-
-                    targetCheckpointLSN = lastCheckpointLSN + lsnThreshold;
-                    currentCheckpointAttemptMinLSN = checkpointManager.tryCheckpoint(targetCheckpointLSN);
-
-                    //checkpoint was completed at target LSN or above
-                    if (currentCheckpointAttemptMinLSN >= targetCheckpointLSN) {
-                        lastCheckpointLSN = currentCheckpointAttemptMinLSN;
-                    }
-                }
+                checkpoint();
             } catch (InterruptedException e) {
                 LOGGER.info("Checkpoint thread interrupted", e);
                 Thread.currentThread().interrupt();
@@ -95,6 +68,41 @@ public class CheckpointThread extends Thread {
         }
     }
 
+    /**
+     * Attempts a checkpoint if the volume of transaction logs written since the last checkpoint exceeds the threshold
+     *
+     * @throws HyracksDataException
+     */
+    void checkpoint() throws HyracksDataException {
+        if (lastCheckpointLSN == -1) {
+            //Since the system just started up after sharp checkpoint,
+            //last checkpoint LSN is considered as the min LSN of the current log partition
+            lastCheckpointLSN = logManager.getReadableSmallestLSN();
+        }
+        checkpointManager.checkpointIdleDatasets();
+
+        //1. get current log LSN
+        long currentLogLSN = logManager.getAppendLSN();
+
+        //2. if current log LSN - previous checkpoint > threshold, do checkpoint
+        if (currentLogLSN - lastCheckpointLSN > lsnThreshold) {
+
+            // in check point:
+            //1. get minimum first LSN (MFL) from open indexes.
+            //2. if current MinFirstLSN < targetCheckpointLSN, schedule async flush for any open index witch has first LSN < force flush delta
+            //3. next time checkpoint comes, it will be able to remove log files which have end range less than current targetCheckpointLSN
+
+            long targetCheckpointLSN = lastCheckpointLSN + lsnThreshold;
+            long checkpointLSN = checkpointManager.tryCheckpoint(targetCheckpointLSN);
+
+            //a fuzzy checkpoint below the target LSN is still captured and the log before it deleted,
+            //but nothing is captured while a transaction secures an LSN <= the target
+            if (checkpointLSN != ICheckpointManager.NO_CHECKPOINT_LSN && checkpointLSN > lastCheckpointLSN) {
+                lastCheckpointLSN = checkpointLSN;
+            }
+        }
+    }
+
     public void shutdown() {
         shouldRun = false;
     }
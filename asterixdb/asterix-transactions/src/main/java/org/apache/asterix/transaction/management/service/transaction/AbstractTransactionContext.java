@@ -60,8 +60,9 @@ public abstract class AbstractTransactionContext implements ITransactionContext
 
     @Override
     public void setLastLSN(long newValue) {
-        firstLSN.compareAndSet(-1, newValue);
-        lastLSN.set(Math.max(lastLSN.get(), newValue));
+        // log records of the same transaction can be appended concurrently and out of lsn order
+        firstLSN.accumulateAndGet(newValue, (first, lsn) -> first == -1 ? lsn : Math.min(first, lsn));
+        lastLSN.accumulateAndGet(newValue, Math::max);
     }
 
     @Override
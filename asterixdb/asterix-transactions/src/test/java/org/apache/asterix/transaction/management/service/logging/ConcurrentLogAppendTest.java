@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.asterix.common.exceptions.ACIDException;
+import org.apache.asterix.common.transactions.ILogReader;
+import org.apache.asterix.common.transactions.ILogRecord;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.ITransactionManager;
+import org.apache.asterix.common.transactions.LogConstants;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.MutableLong;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.common.utils.TransactionUtil;
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Appends log records of concurrent transactions and checks that every appended log record is flushed at the LSN
+ * that was reserved for it, while appenders switch log pages and log files
+ */
+public class ConcurrentLogAppendTest {
+    private static final int LOG_PAGE_SIZE = 1024;
+    private static final int NUM_LOG_PAGES = 4;
+    // a few log buffers per log file, so appenders switch both log pages and log files
+    private static final long LOG_PARTITION_SIZE = 4L * LOG_PAGE_SIZE * NUM_LOG_PAGES;
+    private static final int NUM_APPENDERS = 8;
+    private static final int NUM_TXNS = 100;
+    private static final int ENTITY_COMMITS_PER_TXN = 3;
+    private static final int DATASET_ID = 1;
+    private static final int NUM_RESETS = 1000;
+    private ExecutorService executor;
+    private File logDir;
+    private LogManager logManager;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        logDir = Files.createTempDirectory("txnlog").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (logManager != null) {
+            logManager.stop(false, null);
+        }
+        executor.shutdownNow();
+        FileUtils.deleteQuietly(logDir);
+    }
+
+    @Test(timeout = 60000)
+    public void concurrentAppendTest() throws Exception {
+        logManager = new LogManager(LogTestUtils.mockTxnSubsystem(logDir, executor, LOG_PAGE_SIZE, NUM_LOG_PAGES,
+                LOG_PARTITION_SIZE, 0, 0));
+        appendAndCheck();
+    }
+
+    @Test(timeout = 60000)
+    public void groupCommitTest() throws Exception {
+        // commits wait up to 1ms for more log records, which are forced to disk together
+        logManager = new LogManager(LogTestUtils.mockTxnSubsystem(logDir, executor, LOG_PAGE_SIZE, NUM_LOG_PAGES,
+                LOG_PARTITION_SIZE, 1000, LOG_PAGE_SIZE / 2));
+        appendAndCheck();
+    }
+
+    @Test(timeout = 60000)
+    public void appendFailureTest() throws Exception {
+        final MutableLong flushLSN = new MutableLong();
+        final LsnSequence committedLSN = new LsnSequence();
+        final LogBuffer buffer = new LogBuffer(null, LOG_PAGE_SIZE, flushLSN, committedLSN);
+        buffer.reset(0, LOG_PAGE_SIZE);
+        try (RandomAccessFile file = new RandomAccessFile(new File(logDir, "log"), "rw")) {
+            buffer.setFileChannel(file.getChannel());
+            final ILogRecord before = createWaitLogRecord();
+            final ILogRecord failing = mock(ILogRecord.class);
+            when(failing.getLogSize()).thenReturn(LogConstants.WAIT_LOG_SIZE);
+            doThrow(new IllegalStateException("write failure")).when(failing).writeLogRecord(any(ByteBuffer.class));
+            final ILogRecord after = createWaitLogRecord();
+            final long beforeLsn = buffer.reserve(before.getLogSize());
+            final long failingLsn = buffer.reserve(failing.getLogSize());
+            final long afterLsn = buffer.reserve(after.getLogSize());
+
+            // the appender of the last log record waits for the log records preceding it
+            final Future<?> afterAppend = executor.submit(() -> buffer.append(after, afterLsn));
+            buffer.append(before, beforeLsn);
+            try {
+                buffer.append(failing, failingLsn);
+                Assert.fail("the log record must fail to be appended");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("write failure", e.getMessage());
+            }
+            try {
+                afterAppend.get(10, TimeUnit.SECONDS);
+                Assert.fail("a log record following a failed log record must not be appended");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof ACIDException);
+            }
+
+            // only the log record preceding the failed one is flushed
+            try {
+                buffer.flush(false);
+                Assert.fail("the log must fail");
+            } catch (ACIDException e) {
+                // expected
+            }
+            Assert.assertEquals(before.getLogSize(), flushLSN.get());
+            Assert.assertEquals(failingLsn, committedLSN.get());
+            Assert.assertEquals(before.getLogSize(), file.getChannel().size());
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void appendDuringResetTest() throws Exception {
+        final LogBuffer buffer = new LogBuffer(null, LOG_PAGE_SIZE, new MutableLong(), new LsnSequence());
+        // a recycled page is full and all of its log records were appended
+        buffer.setFull();
+        final AtomicBoolean done = new AtomicBoolean();
+        final List<Future<?>> appenders = new ArrayList<>();
+        for (int i = 0; i < NUM_APPENDERS; i++) {
+            // the appenders keep referencing the page while it is recycled
+            appenders.add(executor.submit(() -> {
+                final ILogRecord logRecord = createWaitLogRecord();
+                while (!done.get()) {
+                    final long lsn = buffer.reserve(logRecord.getLogSize());
+                    if (lsn >= 0) {
+                        buffer.append(logRecord, lsn);
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < NUM_RESETS; i++) {
+            final long beginLsn = (long) i * LOG_PAGE_SIZE;
+            buffer.reset(beginLsn, LOG_PAGE_SIZE);
+            while (buffer.getNextLsn() - beginLsn < LOG_PAGE_SIZE / 2) {
+                Thread.yield();
+            }
+            final int endOffset = (int) (buffer.setFull() - beginLsn);
+            // no log record that was reserved right after the reset is erased by it
+            while (buffer.appendOffset != endOffset) {
+                for (Future<?> appender : appenders) {
+                    Assert.assertFalse(appender.isDone());
+                }
+                Thread.yield();
+            }
+        }
+        done.set(true);
+        for (Future<?> appender : appenders) {
+            appender.get();
+        }
+    }
+
+    private void appendAndCheck() throws Exception {
+        final long beginLsn = logManager.getAppendLSN();
+        final List<List<Long>> appendedLsns = new ArrayList<>();
+        final List<Future<?>> appenders = new ArrayList<>();
+        for (int i = 0; i < NUM_APPENDERS; i++) {
+            final int appender = i;
+            final List<Long> lsns = Collections.synchronizedList(new ArrayList<>());
+            appendedLsns.add(lsns);
+            appenders.add(executor.submit(() -> {
+                append(appender, lsns);
+                return null;
+            }));
+        }
+        for (Future<?> appender : appenders) {
+            appender.get();
+        }
+
+        // each appender's last log record is a commit, which returns only after all preceding log records are flushed
+        final List<List<String>> flushedRecords = new ArrayList<>();
+        final List<List<Long>> flushedLsns = new ArrayList<>();
+        for (int i = 0; i < NUM_APPENDERS; i++) {
+            flushedRecords.add(new ArrayList<>());
+            flushedLsns.add(new ArrayList<>());
+        }
+        final ILogReader reader = logManager.getLogReader(true);
+        try {
+            reader.setPosition(beginLsn);
+            long expectedLsn = beginLsn;
+            ILogRecord logRecord;
+            while ((logRecord = reader.next()) != null) {
+                if (logRecord.getLSN() != expectedLsn) {
+                    // log records are appended without gaps except for the unused end of a log file
+                    Assert.assertEquals(0, logRecord.getLSN() % LOG_PARTITION_SIZE);
+                    Assert.assertTrue(logRecord.getLSN() > expectedLsn);
+                }
+                final int appender = (int) (logRecord.getTxnId() / NUM_TXNS);
+                flushedRecords.get(appender).add(toString(logRecord));
+                flushedLsns.get(appender).add(logRecord.getLSN());
+                expectedLsn = logRecord.getLSN() + logRecord.getLogSize();
+            }
+            Assert.assertTrue(expectedLsn - beginLsn > 2 * LOG_PARTITION_SIZE);
+        } finally {
+            reader.close();
+        }
+
+        for (int i = 0; i < NUM_APPENDERS; i++) {
+            // each appender's log records are flushed in the order they were appended at their reserved LSNs
+            Assert.assertEquals(getExpectedRecords(i), flushedRecords.get(i));
+            Assert.assertEquals(appendedLsns.get(i), flushedLsns.get(i));
+        }
+    }
+
+    private void append(int appender, List<Long> lsns) throws Exception {
+        for (int i = 0; i < NUM_TXNS; i++) {
+            final long txnId = (long) appender * NUM_TXNS + i;
+            final ITransactionContext txnCtx = mock(ITransactionContext.class);
+            when(txnCtx.getTxnId()).thenReturn(new TxnId(txnId));
+            when(txnCtx.getTxnState()).thenReturn(ITransactionManager.ACTIVE);
+            doAnswer(invocation -> lsns.add(invocation.getArgument(0))).when(txnCtx).setLastLSN(anyLong());
+            for (int j = 0; j < ENTITY_COMMITS_PER_TXN; j++) {
+                // primary keys of different sizes
+                final int[] pkFields = new int[j + 1];
+                final int[] pkValues = new int[j + 1];
+                for (int k = 0; k <= j; k++) {
+                    pkFields[k] = k;
+                    pkValues[k] = i;
+                }
+                final LogRecord logRecord = new LogRecord();
+                logRecord.setLogSource(LogSource.LOCAL);
+                TransactionUtil.formEntityCommitLogRecord(logRecord, txnCtx, DATASET_ID, j,
+                        TupleUtils.createIntegerTuple(pkValues), pkFields, 0, LogType.ENTITY_COMMIT);
+                logManager.log(logRecord);
+            }
+            final LogRecord commit = new LogRecord();
+            commit.setLogSource(LogSource.LOCAL);
+            TransactionUtil.formJobTerminateLogRecord(txnCtx, commit, true);
+            logManager.log(commit);
+            Assert.assertTrue(commit.isFlushed());
+        }
+    }
+
+    private static List<String> getExpectedRecords(int appender) {
+        final List<String> records = new ArrayList<>();
+        for (int i = 0; i < NUM_TXNS; i++) {
+            final long txnId = (long) appender * NUM_TXNS + i;
+            for (int j = 0; j < ENTITY_COMMITS_PER_TXN; j++) {
+                records.add(txnId + ":" + LogType.toString(LogType.ENTITY_COMMIT) + ":" + j);
+            }
+            records.add(txnId + ":" + LogType.toString(LogType.JOB_COMMIT) + ":-1");
+        }
+        return records;
+    }
+
+    private static String toString(ILogRecord logRecord) {
+        return logRecord.getTxnId() + ":" + LogType.toString(logRecord.getLogType()) + ":"
+                + logRecord.getPKHashValue();
+    }
+
+    private static ILogRecord createWaitLogRecord() {
+        final LogRecord logRecord = new LogRecord();
+        logRecord.setLogSource(LogSource.LOCAL);
+        logRecord.setLogType(LogType.WAIT);
+        logRecord.computeAndSetLogSize();
+        return logRecord;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.asterix.common.transactions.ILogReader;
+import org.apache.asterix.common.transactions.ILogRecord;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.common.utils.TransactionUtil;
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Reads log records that cross log page and log file boundaries, with and without prefetching the next log page
+ */
+public class LogReaderTest {
+    private static final int LOG_PAGE_SIZE = 512;
+    private static final int NUM_LOG_PAGES = 4;
+    private static final long LOG_PARTITION_SIZE = 4L * LOG_PAGE_SIZE * NUM_LOG_PAGES;
+    private static final int NUM_LOG_RECORDS = 1000;
+    private static final int RECORDS_PER_TXN = 10;
+    // log records that are larger than a log page
+    private static final int LARGE_RECORD_FREQUENCY = 97;
+    private static final int LARGE_RECORD_PK_FIELDS = 200;
+    private ExecutorService executor;
+    private File logDir;
+    private LogManager logManager;
+    private long beginLsn;
+    private List<String> expectedRecords;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        logDir = Files.createTempDirectory("txnlog").toFile();
+        logManager = new LogManager(LogTestUtils.mockTxnSubsystem(logDir, executor, LOG_PAGE_SIZE, NUM_LOG_PAGES,
+                LOG_PARTITION_SIZE, 0, 0));
+        beginLsn = logManager.getAppendLSN();
+        expectedRecords = appendLogRecords();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        logManager.stop(false, null);
+        executor.shutdownNow();
+        FileUtils.deleteQuietly(logDir);
+    }
+
+    @Test
+    public void prefetchReadTest() {
+        // recovery readers prefetch the next log page
+        final ILogReader reader = logManager.getLogReader(true);
+        try {
+            reader.setPosition(beginLsn);
+            final List<String> records = new ArrayList<>();
+            ILogRecord logRecord;
+            while ((logRecord = reader.next()) != null) {
+                records.add(toString(logRecord));
+            }
+            Assert.assertEquals(expectedRecords, records);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void readTest() {
+        final ILogReader reader = logManager.getLogReader(false);
+        try {
+            reader.setPosition(beginLsn);
+            final List<String> records = new ArrayList<>();
+            // a non-recovery reader waits for more log records at the end of the log
+            for (int i = 0; i < expectedRecords.size(); i++) {
+                records.add(toString(reader.next()));
+            }
+            Assert.assertEquals(expectedRecords, records);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void prefetchRandomReadTest() {
+        final ILogReader reader = logManager.getLogReader(true);
+        try {
+            // random reads discard the prefetched log page when it does not follow the read log record
+            for (int i = expectedRecords.size() - 1; i >= 0; i -= 3) {
+                Assert.assertEquals(expectedRecords.get(i), toString(reader.read(getLsn(expectedRecords.get(i)))));
+            }
+            // sequential reads continue from the last random read
+            reader.setPosition(beginLsn);
+            for (int i = 0; i < expectedRecords.size(); i++) {
+                final String expected = expectedRecords.get(i);
+                final ILogRecord logRecord = i % 5 == 0 ? reader.read(getLsn(expected)) : reader.next();
+                Assert.assertEquals(expected, toString(logRecord));
+            }
+            Assert.assertNull(reader.next());
+        } finally {
+            reader.close();
+        }
+    }
+
+    private List<String> appendLogRecords() throws Exception {
+        final List<String> records = new ArrayList<>();
+        final List<Long> lsns = new ArrayList<>();
+        ITransactionContext txnCtx = null;
+        for (int i = 0; i < NUM_LOG_RECORDS; i++) {
+            final long txnId = i / RECORDS_PER_TXN;
+            if (i % RECORDS_PER_TXN == 0) {
+                txnCtx = mock(ITransactionContext.class);
+                when(txnCtx.getTxnId()).thenReturn(new TxnId(txnId));
+                doAnswer(invocation -> lsns.add(invocation.getArgument(0))).when(txnCtx).setLastLSN(anyLong());
+            }
+            final LogRecord logRecord = new LogRecord();
+            logRecord.setLogSource(LogSource.LOCAL);
+            if (i % RECORDS_PER_TXN == RECORDS_PER_TXN - 1 || i == NUM_LOG_RECORDS - 1) {
+                // the last commit returns once all log records are flushed
+                TransactionUtil.formJobTerminateLogRecord(txnCtx, logRecord, true);
+            } else {
+                final int numPkFields = i % LARGE_RECORD_FREQUENCY == 0 ? LARGE_RECORD_PK_FIELDS : 1 + i % 7;
+                final int[] pkFields = new int[numPkFields];
+                final int[] pkValues = new int[numPkFields];
+                for (int j = 0; j < numPkFields; j++) {
+                    pkFields[j] = j;
+                    pkValues[j] = i;
+                }
+                TransactionUtil.formEntityCommitLogRecord(logRecord, txnCtx, 1, i,
+                        TupleUtils.createIntegerTuple(pkValues), pkFields, 0, LogType.ENTITY_COMMIT);
+            }
+            logManager.log(logRecord);
+            logRecord.setLSN(lsns.get(i));
+            records.add(toString(logRecord));
+        }
+
+        // the first log record is larger than a log page and others are split between log pages
+        boolean crossesPage = false;
+        for (int i = 0; i < NUM_LOG_RECORDS; i++) {
+            final long lsn = getLsn(records.get(i));
+            final long endLsn = i + 1 < NUM_LOG_RECORDS ? getLsn(records.get(i + 1)) : logManager.getAppendLSN();
+            crossesPage |= lsn / LOG_PAGE_SIZE != (endLsn - 1) / LOG_PAGE_SIZE && endLsn - lsn <= LOG_PAGE_SIZE;
+        }
+        Assert.assertTrue(crossesPage);
+        // the log records span multiple log files
+        Assert.assertTrue(logManager.getLogFileId(logManager.getAppendLSN()) - logManager.getLogFileId(beginLsn) > 2);
+        return records;
+    }
+
+    private static long getLsn(String record) {
+        return Long.parseLong(record.substring(0, record.indexOf(':')));
+    }
+
+    private static String toString(ILogRecord logRecord) {
+        return logRecord.getLSN() + ":" + logRecord.getTxnId() + ":" + LogType.toString(logRecord.getLogType()) + ":"
+                + logRecord.getPKHashValue();
+    }
+}
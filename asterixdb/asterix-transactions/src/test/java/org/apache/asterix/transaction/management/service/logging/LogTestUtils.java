@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.TransactionProperties;
+import org.apache.asterix.common.transactions.ILockManager;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.ITransactionManager;
+import org.apache.asterix.common.transactions.ITransactionSubsystem;
+
+class LogTestUtils {
+    static final String NODE_ID = "nc1";
+
+    private LogTestUtils() {
+    }
+
+    /**
+     * @return a transaction subsystem that is enough to create a {@link LogManager} and to append local log records
+     */
+    static ITransactionSubsystem mockTxnSubsystem(File logDir, ExecutorService executor, int logPageSize,
+            int numLogPages, long logPartitionSize, int groupCommitMaxWait, int groupCommitMaxBatch) {
+        final TransactionProperties txnProperties = mock(TransactionProperties.class);
+        when(txnProperties.getLogBufferPageSize()).thenReturn(logPageSize);
+        when(txnProperties.getLogBufferNumPages()).thenReturn(numLogPages);
+        when(txnProperties.getLogPartitionSize()).thenReturn(logPartitionSize);
+        when(txnProperties.getLogDirectory(NODE_ID)).thenReturn(logDir.getAbsolutePath());
+        when(txnProperties.getLogGroupCommitMaxWait()).thenReturn(groupCommitMaxWait);
+        when(txnProperties.getLogGroupCommitMaxBatch()).thenReturn(groupCommitMaxBatch);
+        final INcApplicationContext appCtx = mock(INcApplicationContext.class);
+        when(appCtx.getThreadExecutor()).thenReturn(executor);
+        // entity commits are unlocked by the flusher
+        final ITransactionManager txnManager = mock(ITransactionManager.class);
+        when(txnManager.getTransactionContext(any())).thenReturn(mock(ITransactionContext.class));
+        final ITransactionSubsystem txnSubsystem = mock(ITransactionSubsystem.class);
+        when(txnSubsystem.getId()).thenReturn(NODE_ID);
+        when(txnSubsystem.getTransactionProperties()).thenReturn(txnProperties);
+        when(txnSubsystem.getApplicationContext()).thenReturn(appCtx);
+        when(txnSubsystem.getTransactionManager()).thenReturn(txnManager);
+        when(txnSubsystem.getLockManager()).thenReturn(mock(ILockManager.class));
+        return txnSubsystem;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LsnSequenceTest {
+
+    @Test
+    public void awaitTest() throws Exception {
+        final LsnSequence sequence = new LsnSequence();
+        sequence.set(10);
+        // already reached
+        sequence.await(10);
+
+        final int numWaiters = 8;
+        final CountDownLatch released = new CountDownLatch(numWaiters);
+        final List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < numWaiters; i++) {
+            final long targetLsn = 20 + i * 10;
+            Thread waiter = new Thread(() -> {
+                sequence.await(targetLsn);
+                Assert.assertTrue(sequence.get() >= targetLsn);
+                released.countDown();
+            });
+            waiter.start();
+            waiters.add(waiter);
+        }
+        // wake up the first half of the waiters only
+        sequence.set(50);
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assert.assertEquals(numWaiters - 4, released.getCount());
+        sequence.set(100);
+        Assert.assertTrue(released.await(10, TimeUnit.SECONDS));
+        for (Thread waiter : waiters) {
+            waiter.join();
+        }
+    }
+
+    @Test
+    public void interruptedAwaitTest() throws Exception {
+        final LsnSequence sequence = new LsnSequence();
+        final boolean[] interrupted = new boolean[1];
+        Thread waiter = new Thread(() -> {
+            sequence.await(1);
+            interrupted[0] = Thread.currentThread().isInterrupted();
+        });
+        waiter.start();
+        waiter.interrupt();
+        TimeUnit.MILLISECONDS.sleep(50);
+        // the waiter keeps waiting after it is interrupted, but preserves its interrupt status
+        Assert.assertTrue(waiter.isAlive());
+        sequence.set(1);
+        waiter.join();
+        Assert.assertTrue(interrupted[0]);
+    }
+}
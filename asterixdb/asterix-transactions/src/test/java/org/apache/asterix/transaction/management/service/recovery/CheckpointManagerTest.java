@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.recovery;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.asterix.common.api.IDatasetLifecycleManager;
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.ioopcallbacks.LSMIOOperationCallback;
+import org.apache.asterix.common.transactions.CheckpointProperties;
+import org.apache.asterix.common.transactions.ICheckpointManager;
+import org.apache.asterix.common.transactions.ILogManager;
+import org.apache.asterix.common.transactions.IRecoveryManager;
+import org.apache.asterix.common.transactions.ITransactionSubsystem;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
+import org.apache.hyracks.storage.common.IIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Checks the soft checkpoints captured by {@link CheckpointManager#tryCheckpoint(long)} and the flushes they request
+ */
+public class CheckpointManagerTest {
+    private File checkpointDir;
+    private IRecoveryManager recoveryManager;
+    private ILogManager logManager;
+    private IDatasetLifecycleManager dlcm;
+    private ITransactionSubsystem txnSubsystem;
+    private List<Long> captured;
+
+    @Before
+    public void setUp() throws Exception {
+        checkpointDir = Files.createTempDirectory("checkpoint").toFile();
+        recoveryManager = mock(IRecoveryManager.class);
+        logManager = mock(ILogManager.class);
+        dlcm = mock(IDatasetLifecycleManager.class);
+        INcApplicationContext appCtx = mock(INcApplicationContext.class);
+        when(appCtx.getDatasetLifecycleManager()).thenReturn(dlcm);
+        txnSubsystem = mock(ITransactionSubsystem.class);
+        when(txnSubsystem.getRecoveryManager()).thenReturn(recoveryManager);
+        when(txnSubsystem.getLogManager()).thenReturn(logManager);
+        when(txnSubsystem.getApplicationContext()).thenReturn(appCtx);
+        captured = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(checkpointDir);
+    }
+
+    @Test
+    public void checkpointReachedTest() throws Exception {
+        CheckpointManager checkpointManager = newCheckpointManager(0);
+        when(recoveryManager.getMinFirstLSN()).thenReturn(300L);
+        Assert.assertEquals(300L, checkpointManager.tryCheckpoint(200));
+        Assert.assertEquals(Arrays.asList(300L), captured);
+        verify(logManager).deleteOldLogFiles(300);
+        verify(dlcm, never()).asyncFlushMatchingIndexes(any());
+    }
+
+    @Test
+    public void fuzzyCheckpointTest() throws Exception {
+        CheckpointManager checkpointManager = newCheckpointManager(0);
+        when(recoveryManager.getMinFirstLSN()).thenReturn(100L);
+        // the checkpoint is captured below the target and the lagging datasets are flushed for the next attempt
+        Assert.assertEquals(100L, checkpointManager.tryCheckpoint(200));
+        Assert.assertEquals(Arrays.asList(100L), captured);
+        verify(logManager).deleteOldLogFiles(100);
+        verify(dlcm).asyncFlushMatchingIndexes(any());
+    }
+
+    @Test
+    public void securedLSNTest() throws Exception {
+        CheckpointManager checkpointManager = newCheckpointManager(0);
+        when(recoveryManager.getMinFirstLSN()).thenReturn(100L);
+        TxnId txnId = new TxnId(1);
+        checkpointManager.secure(txnId);
+        Assert.assertEquals(ICheckpointManager.NO_CHECKPOINT_LSN, checkpointManager.tryCheckpoint(200));
+        Assert.assertTrue(captured.isEmpty());
+        verify(logManager, never()).deleteOldLogFiles(anyLong());
+        verify(dlcm, never()).asyncFlushMatchingIndexes(any());
+        checkpointManager.completed(txnId);
+        Assert.assertEquals(100L, checkpointManager.tryCheckpoint(200));
+        Assert.assertEquals(Arrays.asList(100L), captured);
+    }
+
+    @Test
+    public void maxFlushesTest() throws Exception {
+        CheckpointManager checkpointManager = newCheckpointManager(2);
+        when(recoveryManager.getMinFirstLSN()).thenReturn(10L);
+        ILSMOperationTracker partition1 = mock(ILSMOperationTracker.class);
+        ILSMOperationTracker partition2 = mock(ILSMOperationTracker.class);
+        ILSMOperationTracker partition3 = mock(ILSMOperationTracker.class);
+        ILSMIndex primary1 = mockIndex(partition1, 50, false);
+        ILSMIndex secondary1 = mockIndex(partition1, 20, false);
+        ILSMIndex primary2 = mockIndex(partition2, 10, false);
+        ILSMIndex primary3 = mockIndex(partition3, 30, false);
+        ILSMIndex empty = mockIndex(mock(ILSMOperationTracker.class), 0, true);
+        ILSMIndex upToDate = mockIndex(mock(ILSMOperationTracker.class), 250, false);
+        List<IIndex> openIndexes = Arrays.asList(primary1, secondary1, primary2, primary3, empty, upToDate);
+        when(dlcm.getOpenResources()).thenReturn(openIndexes);
+        Assert.assertEquals(10L, checkpointManager.tryCheckpoint(200));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Predicate<ILSMIndex>> predicate = ArgumentCaptor.forClass(Predicate.class);
+        verify(dlcm).asyncFlushMatchingIndexes(predicate.capture());
+        // the two partitions holding the oldest log records are selected
+        Assert.assertTrue(predicate.getValue().test(primary2));
+        Assert.assertTrue(predicate.getValue().test(secondary1));
+        Assert.assertFalse(predicate.getValue().test(primary3));
+        Assert.assertFalse(predicate.getValue().test(empty));
+        Assert.assertFalse(predicate.getValue().test(upToDate));
+    }
+
+    private CheckpointManager newCheckpointManager(int maxFlushes) {
+        CheckpointProperties checkpointProperties = mock(CheckpointProperties.class);
+        when(checkpointProperties.getCheckpointDirPath()).thenReturn(checkpointDir.getAbsolutePath());
+        when(checkpointProperties.getMaxFlushes()).thenReturn(maxFlushes);
+        return new CheckpointManager(txnSubsystem, checkpointProperties) {
+            @Override
+            protected void capture(long minMCTFirstLSN, boolean sharp) {
+                captured.add(minMCTFirstLSN);
+            }
+        };
+    }
+
+    private static ILSMIndex mockIndex(ILSMOperationTracker partition, long persistenceLsn, boolean empty)
+            throws HyracksDataException {
+        LSMIOOperationCallback ioCallback = mock(LSMIOOperationCallback.class);
+        when(ioCallback.getPersistenceLsn()).thenReturn(persistenceLsn);
+        ILSMIndex index = mock(ILSMIndex.class);
+        when(index.getOperationTracker()).thenReturn(partition);
+        when(index.getIOOperationCallback()).thenReturn(ioCallback);
+        when(index.isCurrentMutableComponentEmpty()).thenReturn(empty);
+        return index;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.recovery;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.asterix.common.transactions.ICheckpointManager;
+import org.apache.asterix.common.transactions.ILogManager;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks which checkpoint attempts advance the LSN the checkpoint thread computes its next target from
+ */
+public class CheckpointThreadTest {
+    private static final long LSN_THRESHOLD = 100;
+    private ICheckpointManager checkpointManager;
+    private ILogManager logManager;
+    private CheckpointThread checkpointThread;
+
+    @Before
+    public void setUp() {
+        checkpointManager = mock(ICheckpointManager.class);
+        logManager = mock(ILogManager.class);
+        when(logManager.getReadableSmallestLSN()).thenReturn(0L);
+        checkpointThread = new CheckpointThread(checkpointManager, logManager, LSN_THRESHOLD, 1);
+    }
+
+    @Test
+    public void belowThresholdTest() throws Exception {
+        when(logManager.getAppendLSN()).thenReturn(LSN_THRESHOLD);
+        checkpointThread.checkpoint();
+        verify(checkpointManager).checkpointIdleDatasets();
+        verify(checkpointManager, never()).tryCheckpoint(anyLong());
+    }
+
+    @Test
+    public void fuzzyCheckpointTest() throws Exception {
+        // the captured checkpoint did not reach the target, but the log before it is gone
+        when(checkpointManager.tryCheckpoint(100)).thenReturn(60L);
+        when(checkpointManager.tryCheckpoint(160)).thenReturn(200L);
+        when(logManager.getAppendLSN()).thenReturn(150L);
+        checkpointThread.checkpoint();
+        verify(checkpointManager).tryCheckpoint(100);
+        // the log written since the fuzzy checkpoint is still below the threshold
+        checkpointThread.checkpoint();
+        verify(checkpointManager, times(1)).tryCheckpoint(anyLong());
+        when(logManager.getAppendLSN()).thenReturn(250L);
+        checkpointThread.checkpoint();
+        verify(checkpointManager).tryCheckpoint(160);
+        checkpointThread.checkpoint();
+        verify(checkpointManager, times(2)).tryCheckpoint(anyLong());
+    }
+
+    @Test
+    public void noCheckpointTest() throws Exception {
+        // a transaction secures an LSN <= the target, so the first attempt captures no checkpoint
+        when(checkpointManager.tryCheckpoint(100)).thenReturn(ICheckpointManager.NO_CHECKPOINT_LSN, 120L);
+        when(logManager.getAppendLSN()).thenReturn(150L);
+        checkpointThread.checkpoint();
+        checkpointThread.checkpoint();
+        verify(checkpointManager, times(2)).tryCheckpoint(100);
+        checkpointThread.checkpoint();
+        verify(checkpointManager, times(2)).tryCheckpoint(anyLong());
+    }
+}
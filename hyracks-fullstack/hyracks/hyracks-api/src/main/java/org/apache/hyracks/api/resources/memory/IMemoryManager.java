@@ -26,4 +26,24 @@ public interface IMemoryManager {
     public boolean allocate(long memory);
 
     public void deallocate(long memory);
+
+    /**
+     * Reserve off-heap memory (e.g., the pages of an off-heap hash table)
+     *
+     * @param memory in bytes
+     * @return true if the memory was reserved, false otherwise
+     */
+    public boolean allocateOffHeap(long memory);
+
+    /**
+     * Release off-heap memory that was reserved by {@link #allocateOffHeap(long)}
+     *
+     * @param memory in bytes
+     */
+    public void deallocateOffHeap(long memory);
+
+    /**
+     * @return the currently reserved off-heap memory in bytes
+     */
+    public long getOffHeapMemoryUsed();
 }
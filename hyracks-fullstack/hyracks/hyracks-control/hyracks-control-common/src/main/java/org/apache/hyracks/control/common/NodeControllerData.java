@@ -101,6 +101,8 @@ public class NodeControllerData {
 
     private final long[] nonheapMaxSize;
 
+    private final long[] offheapUsedSize;
+
     private final int[] threadCount;
 
     private final int[] peakThreadCount;
@@ -181,6 +183,7 @@ public class NodeControllerData {
         nonheapUsedSize = new long[RRD_SIZE];
         nonheapCommittedSize = new long[RRD_SIZE];
         nonheapMaxSize = new long[RRD_SIZE];
+        offheapUsedSize = new long[RRD_SIZE];
         threadCount = new int[RRD_SIZE];
         peakThreadCount = new int[RRD_SIZE];
         systemLoadAverage = new double[RRD_SIZE];
@@ -224,6 +227,7 @@ public class NodeControllerData {
         nonheapUsedSize[rrdPtr] = hbData.nonheapUsedSize;
         nonheapCommittedSize[rrdPtr] = hbData.nonheapCommittedSize;
         nonheapMaxSize[rrdPtr] = hbData.nonheapMaxSize;
+        offheapUsedSize[rrdPtr] = hbData.offheapUsedSize;
         threadCount[rrdPtr] = hbData.threadCount;
         peakThreadCount[rrdPtr] = hbData.peakThreadCount;
         systemLoadAverage[rrdPtr] = hbData.systemLoadAverage;
@@ -325,6 +329,7 @@ public class NodeControllerData {
             put(o, "nonheap-used-sizes", nonheapUsedSize);
             put(o, "nonheap-committed-sizes", nonheapCommittedSize);
             put(o, "nonheap-max-sizes", nonheapMaxSize);
+            put(o, "offheap-used-sizes", offheapUsedSize);
             put(o, "application-memory-budget", capacity.getMemoryByteSize());
             put(o, "application-cpu-core-budget", capacity.getCores());
             put(o, "thread-counts", threadCount);
@@ -22,6 +22,7 @@ import static org.apache.hyracks.control.common.config.OptionTypes.BOOLEAN;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG;
+import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.NONNEGATIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.STRING;
@@ -82,6 +83,10 @@ public class NCConfig extends ControllerConfig {
         RESULT_TTL(LONG, 86400000L),
         RESULT_SWEEP_THRESHOLD(LONG, 60000L),
         RESULT_MANAGER_MEMORY(INTEGER_BYTE_UNIT, -1),
+        OFFHEAP_MEMORY_LIMIT(
+                LONG_BYTE_UNIT,
+                appConfig -> Runtime.getRuntime().maxMemory() / 4,
+                "25% of the JVM max heap size"),
         @SuppressWarnings("RedundantCast") // not redundant- false positive from IDEA
         APP_CLASS(STRING, (String) null),
         NCSERVICE_PID(INTEGER, -1),
@@ -216,6 +221,9 @@ public class NCConfig extends ControllerConfig {
                             + "milliseconds";
                 case RESULT_MANAGER_MEMORY:
                     return "Memory usable for result caching at this Node Controller in bytes";
+                case OFFHEAP_MEMORY_LIMIT:
+                    return "Maximum off-heap memory (e.g., the pages of off-heap hash tables) usable at this Node "
+                            + "Controller in bytes";
                 case APP_CLASS:
                     return "Application NC Main Class";
                 case NCSERVICE_PID:
@@ -569,6 +577,14 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.RESULT_MANAGER_MEMORY, resultManagerMemory);
     }
 
+    public long getOffHeapMemoryLimit() {
+        return appConfig.getLong(Option.OFFHEAP_MEMORY_LIMIT);
+    }
+
+    public void setOffHeapMemoryLimit(long offHeapMemoryLimit) {
+        configManager.set(nodeId, Option.OFFHEAP_MEMORY_LIMIT, offHeapMemoryLimit);
+    }
+
     public String getAppClass() {
         return appConfig.getString(Option.APP_CLASS);
     }
@@ -34,6 +34,7 @@ public class HeartbeatData {
     public long nonheapUsedSize;
     public long nonheapCommittedSize;
     public long nonheapMaxSize;
+    public long offheapUsedSize;
     public int threadCount;
     public int peakThreadCount;
     public long totalStartedThreadCount;
@@ -100,6 +101,7 @@ public class HeartbeatData {
         for (int i = 0; i < gcCollectionTimes.length; i++) {
             gcCollectionTimes[i] = dis.readLong();
         }
+        offheapUsedSize = dis.readLong();
     }
 
     public void write(DataOutput dos) throws IOException {
@@ -139,6 +141,7 @@ public class HeartbeatData {
         for (int i = 0; i < gcCollectionTimes.length; i++) {
             dos.writeLong(gcCollectionTimes[i]);
         }
+        dos.writeLong(offheapUsedSize);
     }
 
 }
@@ -219,8 +219,8 @@ public class NodeControllerService implements IControllerService {
             File ncBaseDir = ioManager.getWorkspacePath(0);
             serverCtx = new ServerContext(ServerContext.ServerType.NODE_CONTROLLER, ncBaseDir);
             getNodeControllerInfosAcceptor = new MutableObject<>();
-            memoryManager =
-                    new MemoryManager((long) (memoryMXBean.getHeapMemoryUsage().getMax() * MEMORY_FUDGE_FACTOR));
+            memoryManager = new MemoryManager((long) (memoryMXBean.getHeapMemoryUsage().getMax() * MEMORY_FUDGE_FACTOR),
+                    ncConfig.getOffHeapMemoryLimit());
         } catch (Throwable th) { // NOSONAR will be re-thrown
             CleanupUtils.close(ioManager, th);
             throw th;
@@ -67,6 +67,7 @@ public class HeartbeatComputeTask extends TimerTask {
             hbData.nonheapUsedSize = nonheapUsage.getUsed();
             hbData.nonheapCommittedSize = nonheapUsage.getCommitted();
             hbData.nonheapMaxSize = nonheapUsage.getMax();
+            hbData.offheapUsedSize = ncs.getContext().getMemoryManager().getOffHeapMemoryUsed();
             hbData.threadCount = threadMXBean.getThreadCount();
             hbData.peakThreadCount = threadMXBean.getPeakThreadCount();
             hbData.totalStartedThreadCount = threadMXBean.getTotalStartedThreadCount();
@@ -27,9 +27,15 @@ public class MemoryManager implements IMemoryManager {
 
     private final AtomicLong memory;
 
-    public MemoryManager(long maxMemory) {
+    private final long maxOffHeapMemory;
+
+    private final AtomicLong offHeapMemory;
+
+    public MemoryManager(long maxMemory, long maxOffHeapMemory) {
         this.maxMemory = maxMemory;
         this.memory = new AtomicLong(maxMemory);
+        this.maxOffHeapMemory = maxOffHeapMemory;
+        this.offHeapMemory = new AtomicLong();
     }
 
     @Override
@@ -56,4 +62,30 @@ public class MemoryManager implements IMemoryManager {
     public void deallocate(long memory) {
         this.memory.addAndGet(memory);
     }
+
+    @Override
+    public boolean allocateOffHeap(long memory) {
+        long used;
+        do {
+            used = offHeapMemory.get();
+            if (used + memory > maxOffHeapMemory) {
+                return false;
+            }
+        } while (!offHeapMemory.compareAndSet(used, used + memory));
+        return true;
+    }
+
+    @Override
+    public void deallocateOffHeap(long memory) {
+        offHeapMemory.addAndGet(-memory);
+    }
+
+    public long getMaximumOffHeapMemory() {
+        return maxOffHeapMemory;
+    }
+
+    @Override
+    public long getOffHeapMemoryUsed() {
+        return offHeapMemory.get();
+    }
 }
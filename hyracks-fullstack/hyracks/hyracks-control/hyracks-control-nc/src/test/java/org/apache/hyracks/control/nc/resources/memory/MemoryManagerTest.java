@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.resources.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemoryManagerTest {
+    private static final long PAGE_SIZE = 1024;
+
+    @Test
+    public void testOffHeapAccounting() {
+        MemoryManager memoryManager = new MemoryManager(PAGE_SIZE, 4 * PAGE_SIZE);
+        Assert.assertEquals(4 * PAGE_SIZE, memoryManager.getMaximumOffHeapMemory());
+        Assert.assertEquals(0, memoryManager.getOffHeapMemoryUsed());
+
+        Assert.assertTrue(memoryManager.allocateOffHeap(PAGE_SIZE));
+        Assert.assertTrue(memoryManager.allocateOffHeap(2 * PAGE_SIZE));
+        Assert.assertEquals(3 * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+
+        memoryManager.deallocateOffHeap(PAGE_SIZE);
+        Assert.assertEquals(2 * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+        memoryManager.deallocateOffHeap(2 * PAGE_SIZE);
+        Assert.assertEquals(0, memoryManager.getOffHeapMemoryUsed());
+    }
+
+    @Test
+    public void testOffHeapLimit() {
+        MemoryManager memoryManager = new MemoryManager(PAGE_SIZE, 4 * PAGE_SIZE);
+        Assert.assertTrue(memoryManager.allocateOffHeap(3 * PAGE_SIZE));
+        // a rejected reservation must not be accounted
+        Assert.assertFalse(memoryManager.allocateOffHeap(2 * PAGE_SIZE));
+        Assert.assertEquals(3 * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+        // the limit itself can be reached
+        Assert.assertTrue(memoryManager.allocateOffHeap(PAGE_SIZE));
+        Assert.assertFalse(memoryManager.allocateOffHeap(1));
+        Assert.assertEquals(4 * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+
+        // released memory can be reserved again
+        memoryManager.deallocateOffHeap(2 * PAGE_SIZE);
+        Assert.assertTrue(memoryManager.allocateOffHeap(2 * PAGE_SIZE));
+        Assert.assertEquals(4 * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+    }
+
+    @Test
+    public void testConcurrentOffHeapAllocations() throws InterruptedException {
+        final int numThreads = 8;
+        final int pagesPerThread = 1000;
+        final int maxPages = numThreads * pagesPerThread / 2;
+        MemoryManager memoryManager = new MemoryManager(PAGE_SIZE, maxPages * PAGE_SIZE);
+        AtomicInteger allocatedPages = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < pagesPerThread; j++) {
+                    if (memoryManager.allocateOffHeap(PAGE_SIZE)) {
+                        allocatedPages.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // exactly the limit is reserved, never more
+        Assert.assertEquals(maxPages, allocatedPages.get());
+        Assert.assertEquals(maxPages * PAGE_SIZE, memoryManager.getOffHeapMemoryUsed());
+
+        for (int i = 0; i < maxPages; i++) {
+            memoryManager.deallocateOffHeap(PAGE_SIZE);
+        }
+        Assert.assertEquals(0, memoryManager.getOffHeapMemoryUsed());
+    }
+}
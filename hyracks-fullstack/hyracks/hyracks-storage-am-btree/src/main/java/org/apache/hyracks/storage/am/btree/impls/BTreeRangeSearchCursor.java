@@ -302,8 +302,11 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
         bufferCache.unpin(page);
     }
 
+    /**
+     * Pin the next leaf of the range. Leaves reached by following the leaves' chain are pinned as sequential
+     */
     protected ICachedPage acquirePage(int pageId) throws HyracksDataException {
-        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        ICachedPage nextPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, true);
         if (exclusiveLatchNodes) {
             nextPage.acquireWriteLatch();
         } else {
@@ -31,6 +31,7 @@ public abstract class AbstractColumnTupleReaderWriterFactory implements ITreeInd
     protected final int pageSize;
     protected final int maxNumberOfTuples;
     protected final float tolerance;
+    protected final ColumnCompression compression;
 
     /**
      * Tuple reader writer factory
@@ -38,11 +39,14 @@ public abstract class AbstractColumnTupleReaderWriterFactory implements ITreeInd
      * @param pageSize          {@link IBufferCache} page size
      * @param maxNumberOfTuples maximum number of tuples stored per a mega leaf page
      * @param tolerance         percentage of tolerated empty space
+     * @param compression       compression scheme of non-key columns
      */
-    protected AbstractColumnTupleReaderWriterFactory(int pageSize, int maxNumberOfTuples, float tolerance) {
+    protected AbstractColumnTupleReaderWriterFactory(int pageSize, int maxNumberOfTuples, float tolerance,
+            ColumnCompression compression) {
         this.pageSize = pageSize;
         this.maxNumberOfTuples = maxNumberOfTuples;
         this.tolerance = tolerance;
+        this.compression = compression;
     }
 
     /**
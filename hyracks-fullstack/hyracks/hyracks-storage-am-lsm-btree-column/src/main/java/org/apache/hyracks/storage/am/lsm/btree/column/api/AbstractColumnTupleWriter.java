@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
 
 /**
  * Columnar Tuple Writer:
@@ -79,6 +80,18 @@ public abstract class AbstractColumnTupleWriter extends AbstractTupleWriterDisab
      */
     public abstract int getOccupiedSpace();
 
+    /**
+     * Allows the writer to start a new page before writing the given tuple even if the current page can still
+     * accommodate it (e.g., to align the written pages with the pages of the input as in merge)
+     *
+     * @param tuple the next tuple to be written
+     * @param cmp   the keys' comparator
+     * @return true if the current page should be flushed before writing the tuple, false otherwise
+     */
+    public boolean startNewPage(ITupleReference tuple, MultiComparator cmp) throws HyracksDataException {
+        return false;
+    }
+
     /**
      * Writes the tuple into a temporary internal buffers
      *
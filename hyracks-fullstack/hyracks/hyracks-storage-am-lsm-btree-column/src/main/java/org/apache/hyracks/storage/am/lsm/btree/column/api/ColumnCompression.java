@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.api;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+
+/**
+ * Compression schemes for the non-key columns of columnar components. Unlike the file-level compression, each
+ * column is compressed separately. Thus, only the projected columns are decompressed when read.
+ * <p>
+ * A compressed column stores the {@link #getId()} of its scheme. Hence, the scheme of a dataset can be changed
+ * without affecting the readability of previously written columns. New schemes must be appended to keep the ids
+ * of the existing ones.
+ */
+public enum ColumnCompression {
+    NONE("none", NoOpCompressorDecompressorFactory.INSTANCE.createInstance()),
+    SNAPPY("snappy", new SnappyCompressorDecompressorFactory().createInstance());
+
+    private static final ColumnCompression[] VALUES = values();
+    private final String scheme;
+    private final ICompressorDecompressor compressorDecompressor;
+
+    ColumnCompression(String scheme, ICompressorDecompressor compressorDecompressor) {
+        this.scheme = scheme;
+        this.compressorDecompressor = compressorDecompressor;
+    }
+
+    public byte getId() {
+        return (byte) ordinal();
+    }
+
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * @return a stateless (i.e., thread-safe) compressor/decompressor
+     */
+    public ICompressorDecompressor getCompressorDecompressor() {
+        return compressorDecompressor;
+    }
+
+    public static ColumnCompression fromId(byte id) {
+        return VALUES[id];
+    }
+
+    public static ColumnCompression fromScheme(String scheme) {
+        for (ColumnCompression compression : VALUES) {
+            if (compression.scheme.equalsIgnoreCase(scheme)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported column compression scheme: " + scheme);
+    }
+
+    public static boolean isSupported(String scheme) {
+        return Arrays.stream(VALUES).anyMatch(compression -> compression.scheme.equalsIgnoreCase(scheme));
+    }
+
+    public static String getSupportedSchemes() {
+        return Arrays.stream(VALUES).map(ColumnCompression::getScheme).collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -19,20 +19,36 @@
 package org.apache.hyracks.storage.am.lsm.btree.column.dataflow;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.CleanupUtils;
 import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IndexSearchOperatorNodePushable;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.common.impls.NoOpTupleProjectorFactory;
+import org.apache.hyracks.storage.am.common.util.ResourceReleaseUtils;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.LSMColumnBTree;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.LSMColumnBTreeOpContext;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.LSMColumnBTreeRangeSearchCursor;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeCursorInitialState;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.ISearchOperationCallback;
 import org.apache.hyracks.storage.common.ISearchPredicate;
 import org.apache.hyracks.storage.common.projection.ICodeGenerationExecutor;
 import org.apache.hyracks.storage.common.projection.ICodeGenerationExecutorFactory;
+import org.apache.hyracks.storage.common.projection.ICodeGenerationScanRange;
 
 public class LSMColumnBTreeScanOperatorNodePushable extends IndexSearchOperatorNodePushable {
     private static final RangePredicate SCAN_PREDICATE = new RangePredicate();
@@ -49,7 +65,54 @@ public class LSMColumnBTreeScanOperatorNodePushable extends IndexSearchOperatorN
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
         indexAccessor.search(cursor, searchPred);
-        codeGenExecutor.execute(cursor, dos, tb, writer, appender);
+        int maxParallelism = codeGenExecutor.getMaxParallelism();
+        if (maxParallelism <= 1) {
+            codeGenExecutor.execute(cursor, dos, tb, writer, appender);
+            return;
+        }
+
+        LSMColumnBTreeRangeSearchCursor columnCursor =
+                (LSMColumnBTreeRangeSearchCursor) ((LSMBTreeSearchCursor) cursor).getCurrentCursor();
+        List<ITupleReference> splitKeys = columnCursor.getSplitKeys(maxParallelism);
+        if (splitKeys.isEmpty()) {
+            codeGenExecutor.execute(cursor, dos, tb, writer, appender);
+            return;
+        }
+
+        /*
+         * All ranges are searched over the components entered by the partition's cursor. The cursor is left open
+         * (and hence, the components cannot be deleted) until this operator is closed
+         */
+        codeGenExecutor.execute(createRanges(splitKeys, columnCursor.getOperationalComponents()),
+                recordDesc.getFieldCount(), writer);
+    }
+
+    static List<RangePredicate> createRangePredicates(List<ITupleReference> splitKeys) {
+        List<RangePredicate> predicates = new ArrayList<>(splitKeys.size() + 1);
+        for (int i = 0; i <= splitKeys.size(); i++) {
+            ITupleReference lowKey = i == 0 ? null : splitKeys.get(i - 1);
+            ITupleReference highKey = i == splitKeys.size() ? null : splitKeys.get(i);
+            predicates.add(new RangePredicate(lowKey, highKey, true, false, null, null));
+        }
+        return predicates;
+    }
+
+    private List<ICodeGenerationScanRange> createRanges(List<ITupleReference> splitKeys,
+            List<ILSMComponent> operationalComponents) {
+        List<ILSMComponent> components = new ArrayList<>(operationalComponents);
+        List<ICodeGenerationScanRange> ranges = new ArrayList<>(splitKeys.size() + 1);
+        for (RangePredicate predicate : createRangePredicates(splitKeys)) {
+            ranges.add(new KeyRange(predicate, components));
+        }
+        return ranges;
+    }
+
+    private IIndexAccessParameters createAccessParameters() throws HyracksDataException {
+        ISearchOperationCallback searchCallback =
+                searchCallbackFactory.createSearchOperationCallback(indexHelper.getResource().getId(), ctx, null);
+        IIndexAccessParameters iap = new IndexAccessParameters(NoOpOperationCallback.INSTANCE, searchCallback);
+        addAdditionalIndexAccessorParams(iap);
+        return iap;
     }
 
     @Override
@@ -74,4 +137,46 @@ public class LSMColumnBTreeScanOperatorNodePushable extends IndexSearchOperatorN
         iap.getParameters().put(HyracksConstants.PROJECTION_INFO_PROVIDER, codeGenExecutor);
     }
 
+    /**
+     * A key range [lowKey, highKey) of this partition, which has its own operation context and cursor
+     */
+    private class KeyRange implements ICodeGenerationScanRange {
+        private final RangePredicate predicate;
+        private final List<ILSMComponent> components;
+        private LSMColumnBTreeOpContext rangeOpCtx;
+        private LSMColumnBTreeRangeSearchCursor rangeCursor;
+
+        private KeyRange(RangePredicate predicate, List<ILSMComponent> components) {
+            this.predicate = predicate;
+            this.components = components;
+        }
+
+        @Override
+        public IIndexCursor search() throws HyracksDataException {
+            rangeOpCtx = ((LSMColumnBTree) index).createOpContext(createAccessParameters());
+            //The projection info is created from the components' metadata
+            rangeOpCtx.getComponentHolder().addAll(components);
+            rangeCursor = new LSMColumnBTreeRangeSearchCursor(rangeOpCtx);
+            //No LSM harness: the components are entered (and exited) by the partition's cursor
+            LSMBTreeCursorInitialState initialState = new LSMBTreeCursorInitialState(null, rangeOpCtx.getCmp(), null,
+                    null, predicate, rangeOpCtx.getSearchOperationCallback(), components);
+            rangeCursor.open(initialState, predicate);
+            return rangeCursor;
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            Throwable failure = null;
+            if (rangeCursor != null) {
+                failure = ResourceReleaseUtils.close(rangeCursor, null);
+                failure = CleanupUtils.destroy(failure, rangeCursor);
+            }
+            if (rangeOpCtx != null) {
+                failure = CleanupUtils.destroy(failure, rangeOpCtx);
+            }
+            if (failure != null) {
+                throw HyracksDataException.create(failure);
+            }
+        }
+    }
 }
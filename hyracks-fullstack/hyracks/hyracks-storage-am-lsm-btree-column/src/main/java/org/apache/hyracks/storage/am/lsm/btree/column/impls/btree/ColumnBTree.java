@@ -18,14 +18,23 @@
  */
 package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnMetadata;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProjectionInfo;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
@@ -33,13 +42,64 @@ import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.IIndexCursorStats;
 import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public class ColumnBTree extends DiskBTree {
+    //Null if the leaves' keys are not cached
+    private final ColumnLeafKeysCache keysCache;
+
     public ColumnBTree(IBufferCache bufferCache, IPageManager freePageManager,
             ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory leafFrameFactory,
-            IBinaryComparatorFactory[] cmpFactories, int fieldCount, FileReference file) {
+            IBinaryComparatorFactory[] cmpFactories, int fieldCount, FileReference file,
+            ColumnLeafKeysCache keysCache) {
         super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
+        this.keysCache = keysCache;
+    }
+
+    @Override
+    public synchronized void deactivate() throws HyracksDataException {
+        if (keysCache != null) {
+            //The file ID could be reused by another file once this file is closed
+            keysCache.invalidate(getFileId());
+        }
+        super.deactivate();
+    }
+
+    /**
+     * Get the keys that split this tree into (at most) the given number of key ranges. The keys are taken from the
+     * root's separators, and hence, each range covers one or more of the root's subtrees
+     *
+     * @param numberOfRanges the requested number of ranges
+     * @return sorted split keys, which is empty if the root is a leaf (i.e., the tree cannot be split)
+     */
+    public List<ITupleReference> getSplitKeys(int numberOfRanges) throws HyracksDataException {
+        List<ITupleReference> splitKeys = new ArrayList<>();
+        ITreeIndexFrame frame = interiorFrameFactory.createFrame();
+        //Disk components are immutable, no latches are needed
+        ICachedPage rootNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
+        try {
+            frame.setPage(rootNode);
+            if (frame.isLeaf()) {
+                return splitKeys;
+            }
+            int numberOfChildren = frame.getTupleCount() + 1;
+            int ranges = Math.min(numberOfRanges, numberOfChildren);
+            ITreeIndexTupleReference separator = frame.createTupleReference();
+            ArrayTupleBuilder keyBuilder = new ArrayTupleBuilder(cmpFactories.length);
+            for (int i = 1; i < ranges; i++) {
+                //The separator before the first child of the i-th range
+                separator.resetByTupleIndex(frame, i * numberOfChildren / ranges - 1);
+                TupleUtils.copyTuple(keyBuilder, separator, cmpFactories.length);
+                ArrayTupleReference splitKey = new ArrayTupleReference();
+                splitKey.reset(keyBuilder.getFieldEndOffsets().clone(), keyBuilder.getByteArray().clone());
+                splitKeys.add(splitKey);
+            }
+        } finally {
+            bufferCache.unpin(rootNode);
+        }
+        return splitKeys;
     }
 
     @Override
@@ -88,7 +148,8 @@ public class ColumnBTree extends DiskBTree {
             ColumnBTreeLeafFrameFactory columnLeafFrameFactory = (ColumnBTreeLeafFrameFactory) leafFrameFactory;
             ColumnBTreeReadLeafFrame readLeafFrame = columnLeafFrameFactory.createReadFrame(projectionInfo);
             return new ColumnBTreePointSearchCursor(readLeafFrame, (IIndexCursorStats) iap.getParameters()
-                    .getOrDefault(HyracksConstants.INDEX_CURSOR_STATS, NoOpIndexCursorStats.INSTANCE), index);
+                    .getOrDefault(HyracksConstants.INDEX_CURSOR_STATS, NoOpIndexCursorStats.INSTANCE), index,
+                    keysCache);
         }
     }
 }
\ No newline at end of file
@@ -80,12 +80,15 @@ public final class ColumnBTreeBulkloader extends BTreeNSMBulkLoader implements I
         return tupleWriter.createTupleReference();
     }
 
-    private boolean isFull(ITupleReference tuple) {
+    private boolean isFull(ITupleReference tuple) throws HyracksDataException {
         if (tupleCount == 0) {
             return false;
         } else if (tupleCount >= columnWriter.getMaxNumberOfTuples()) {
             //We reached the maximum number of tuples
             return true;
+        } else if (columnWriter.startNewPage(tuple, cmp)) {
+            //The writer requested a new page
+            return true;
         }
         int requiredFreeSpace = AbstractColumnBTreeLeafFrame.HEADER_SIZE;
         //Columns' Offsets
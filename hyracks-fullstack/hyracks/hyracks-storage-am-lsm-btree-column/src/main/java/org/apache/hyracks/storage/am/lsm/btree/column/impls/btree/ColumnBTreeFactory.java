@@ -28,16 +28,20 @@ import org.apache.hyracks.storage.am.lsm.common.impls.TreeIndexFactory;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 
 public class ColumnBTreeFactory extends TreeIndexFactory<ColumnBTree> {
+    private final ColumnLeafKeysCache keysCache;
+
     public ColumnBTreeFactory(IIOManager ioManager, IBufferCache bufferCache,
             IPageManagerFactory freePageManagerFactory, ITreeIndexFrameFactory interiorFrameFactory,
-            ITreeIndexFrameFactory leafFrameFactory, IBinaryComparatorFactory[] cmpFactories, int fieldCount) {
+            ITreeIndexFrameFactory leafFrameFactory, IBinaryComparatorFactory[] cmpFactories, int fieldCount,
+            ColumnLeafKeysCache keysCache) {
         super(ioManager, bufferCache, freePageManagerFactory, interiorFrameFactory, leafFrameFactory, cmpFactories,
                 fieldCount);
+        this.keysCache = keysCache;
     }
 
     @Override
     public ColumnBTree createIndexInstance(FileReference file) throws HyracksDataException {
         return new ColumnBTree(bufferCache, freePageManagerFactory.createPageManager(bufferCache), interiorFrameFactory,
-                leafFrameFactory, cmpFactories, fieldCount, file);
+                leafFrameFactory, cmpFactories, fieldCount, file, keysCache);
     }
 }
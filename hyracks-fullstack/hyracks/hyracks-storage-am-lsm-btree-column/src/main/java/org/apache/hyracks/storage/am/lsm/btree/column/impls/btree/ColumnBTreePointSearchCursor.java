@@ -19,7 +19,9 @@
 package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.api.IDiskBTreeStatefulPointSearchCursor;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
 import org.apache.hyracks.storage.common.IIndexCursorStats;
 import org.apache.hyracks.storage.common.ISearchPredicate;
@@ -27,9 +29,24 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 
 public class ColumnBTreePointSearchCursor extends ColumnBTreeRangeSearchCursor
         implements IDiskBTreeStatefulPointSearchCursor {
+    private final ColumnLeafKeysCache keysCache;
+    private final ColumnLeafKeys.KeyReference keyReference;
+    //Whether the columns of the current leaf were started
+    private boolean leafStarted;
+    //Whether the current search key does not exist in the current leaf
+    private boolean keyNotFound;
 
-    public ColumnBTreePointSearchCursor(ColumnBTreeReadLeafFrame frame, IIndexCursorStats stats, int index) {
-        super(frame, stats, index);
+    public ColumnBTreePointSearchCursor(ColumnBTreeReadLeafFrame frame, IIndexCursorStats stats, int index,
+            ColumnLeafKeysCache keysCache) {
+        //A point lookup reads a single leaf, there is nothing to read ahead
+        super(frame, stats, index, false);
+        this.keysCache = keysCache;
+        keyReference = new ColumnLeafKeys.KeyReference();
+    }
+
+    @Override
+    public boolean doHasNext() throws HyracksDataException {
+        return !keyNotFound && super.doHasNext();
     }
 
     @Override
@@ -43,9 +60,22 @@ public class ColumnBTreePointSearchCursor extends ColumnBTreeRangeSearchCursor
         return pageId;
     }
 
+    @Override
+    protected void openLeaf(ISearchPredicate searchPred) throws HyracksDataException {
+        leafStarted = false;
+        keyNotFound = false;
+        if (!searchCachedKeys(searchPred)) {
+            super.openLeaf(searchPred);
+            leafStarted = true;
+        }
+    }
+
     @Override
     public void setCursorToNextKey(ISearchPredicate searchPred) throws HyracksDataException {
-        initCursorPosition(searchPred);
+        keyNotFound = false;
+        if (!searchCachedKeys(searchPred)) {
+            initCursorPosition(searchPred);
+        }
     }
 
     @Override
@@ -57,4 +87,56 @@ public class ColumnBTreePointSearchCursor extends ColumnBTreeRangeSearchCursor
     public ITreeIndexFrame getFrame() {
         return frame;
     }
+
+    /**
+     * Find the search key's position using the leaf's cached keys. The leaf's columns are started only if the key
+     * exists in the leaf.
+     *
+     * @return true if the cursor was positioned using the cached keys, false otherwise
+     */
+    private boolean searchCachedKeys(ISearchPredicate searchPred) throws HyracksDataException {
+        RangePredicate predicate = (RangePredicate) searchPred;
+        ITupleReference searchKey = predicate.getLowKey();
+        if (keysCache == null || searchKey == null || !predicate.isLowKeyInclusive()) {
+            return false;
+        }
+
+        ColumnLeafKeys leafKeys = getLeafKeys();
+        int tupleIndex = leafKeys.search(searchKey, originalKeyCmp, keyReference);
+        if (tupleIndex == leafKeys.getTupleCount() || !isIncluded(leafKeys, tupleIndex, predicate)) {
+            //Neither the columns of this leaf nor the next leaf need to be read
+            keyNotFound = true;
+            return true;
+        }
+
+        if (!leafStarted || frameTuple.getNextTupleIndex() > tupleIndex) {
+            //Start the leaf's columns at the key's position (e.g., the same key was requested twice)
+            frameTuple.reset(tupleIndex);
+            leafStarted = true;
+        }
+        initCursorPosition(searchPred);
+        return true;
+    }
+
+    private ColumnLeafKeys getLeafKeys() throws HyracksDataException {
+        ColumnLeafKeys leafKeys = keysCache.get(fileId, pageId);
+        if (leafKeys == null) {
+            leafKeys = ColumnLeafKeys.decode(frameTuple, frame.getTupleCount());
+            keysCache.put(fileId, pageId, leafKeys);
+            //Decoding the keys moved the primary keys' readers. The columns must be started again
+            leafStarted = false;
+        }
+        return leafKeys;
+    }
+
+    private boolean isIncluded(ColumnLeafKeys leafKeys, int tupleIndex, RangePredicate predicate)
+            throws HyracksDataException {
+        ITupleReference highKey = predicate.getHighKey();
+        if (highKey == null) {
+            return true;
+        }
+        keyReference.reset(leafKeys, tupleIndex);
+        int cmp = originalKeyCmp.compare(keyReference, highKey);
+        return cmp < 0 || cmp == 0 && predicate.isHighKeyInclusive();
+    }
 }
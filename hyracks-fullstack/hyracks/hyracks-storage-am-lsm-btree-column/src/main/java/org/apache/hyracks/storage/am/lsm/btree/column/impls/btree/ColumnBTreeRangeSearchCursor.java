@@ -56,14 +56,29 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
     protected boolean firstNextCall;
 
     protected final IIndexCursorStats stats;
+    private final ColumnPagePrefetcher prefetcher;
+    //Range cursors scan (or merge) the leaves and their columns' pages, unlike point cursors
+    private final boolean sequential;
 
     public ColumnBTreeRangeSearchCursor(ColumnBTreeReadLeafFrame frame, IIndexCursorStats stats, int index) {
+        this(frame, stats, index, true);
+    }
+
+    /**
+     * @param readAhead whether to read ahead the projected columns' pages of the next leaves (i.e., the cursor
+     *                  scans the leaves sequentially)
+     */
+    protected ColumnBTreeRangeSearchCursor(ColumnBTreeReadLeafFrame frame, IIndexCursorStats stats, int index,
+            boolean readAhead) {
         this.frame = frame;
         this.frameTuple = frame.createTupleReference(index, this);
         this.reusablePredicate = new RangePredicate();
         this.stats = stats;
         fileId = -1;
         pageId = IBufferCache.INVALID_PAGEID;
+        prefetcher = readAhead ? new ColumnPagePrefetcher(frame, frameTuple,
+                ColumnPagePrefetcher.DEFAULT_MAX_LEAVES_AHEAD, ColumnPagePrefetcher.DEFAULT_PAGE_BUDGET) : null;
+        sequential = readAhead;
     }
 
     @Override
@@ -79,22 +94,42 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
     private void fetchNextLeafPage(int leafPage) throws HyracksDataException {
         int nextLeafPage = leafPage;
         do {
-            ICachedPage nextLeaf = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, nextLeafPage), false);
+            ICachedPage nextLeaf =
+                    bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, nextLeafPage), false, sequential);
             stats.getPageCounter().update(1);
             bufferCache.unpin(page0);
             page0 = nextLeaf;
             frame.setPage(page0);
+            onNewLeaf();
             frameTuple.reset(0);
             nextLeafPage = frame.getNextLeaf();
-        } while (frame.getTupleCount() == 0 && nextLeafPage > 0);
+            //Keep going if the leaf is empty or was skipped entirely by the tuple's filter
+        } while (frameTuple.isConsumed() && !isLeafAfterHighKey() && hasNextLeaf(nextLeafPage));
+    }
+
+    private static boolean hasNextLeaf(int nextLeafPage) {
+        return nextLeafPage >= 0;
+    }
+
+    /**
+     * @return true if the smallest key of the current leaf is greater than the high key (i.e., neither this leaf nor
+     * the following ones have a tuple within the search range)
+     */
+    private boolean isLeafAfterHighKey() throws HyracksDataException {
+        ITupleReference leftmostTuple = frame.getLeftmostTuple();
+        return highKey != null && leftmostTuple != null
+                && isLessOrEqual(highKey, leftmostTuple, !pred.isHighKeyInclusive());
     }
 
     @Override
     public boolean doHasNext() throws HyracksDataException {
+        if (prefetcher != null) {
+            prefetcher.advance();
+        }
         int nextLeafPage;
         if (frameTuple.isConsumed() && !firstNextCall) {
             nextLeafPage = frame.getNextLeaf();
-            if (nextLeafPage >= 0) {
+            if (hasNextLeaf(nextLeafPage) && !isLeafAfterHighKey()) {
                 fetchNextLeafPage(nextLeafPage);
             } else {
                 return false;
@@ -119,6 +154,19 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
         pageId = ((BTreeCursorInitialState) initialState).getPageId();
         frame.setPage(page0);
         frame.setMultiComparator(originalKeyCmp);
+        if (prefetcher != null) {
+            prefetcher.reset(bufferCache, fileId);
+        }
+        onNewLeaf();
+        openLeaf(searchPred);
+    }
+
+    /**
+     * Start reading the leaf that was found by the search and position the cursor at the search key
+     *
+     * @param searchPred search predicate
+     */
+    protected void openLeaf(ISearchPredicate searchPred) throws HyracksDataException {
         frameTuple.reset(0);
         initCursorPosition(searchPred);
     }
@@ -132,6 +180,11 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
         reusablePredicate.setHighKeyComparator(pred.getHighKeyComparator());
         reusablePredicate.setHighKey(pred.getHighKey(), pred.isHighKeyInclusive());
         firstNextCall = true;
+        if (frameTuple.isConsumed()) {
+            //The entire leaf was skipped (e.g., filtered out). The next call of hasNext() moves to the next leaf
+            firstNextCall = false;
+            return;
+        }
         advanceTupleToLowKey();
     }
 
@@ -150,6 +203,32 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
         return highKey == null || isLessOrEqual(frameTuple, highKey, pred.isHighKeyInclusive());
     }
 
+    /**
+     * Consume the tuples of the current leaf that follow the current tuple and are within the search range without
+     * reading their non-key columns, so that the caller can read their values in bulk. Only the primary keys of the
+     * leaf that contains the high key are read to find it.
+     *
+     * @return the number of consumed tuples
+     */
+    public int consumeLeaf() throws HyracksDataException {
+        int nextTupleIndex = frameTuple.getNextTupleIndex();
+        if (highKey == null || isLessOrEqual(frame.getRightmostTuple(), highKey, pred.isHighKeyInclusive())) {
+            //All the remaining tuples of the leaf are within the range
+            frameTuple.consume();
+            return frame.getTupleCount() - nextTupleIndex;
+        }
+        int count = 0;
+        while (!frameTuple.isConsumed()) {
+            frameTuple.next();
+            if (!isLessOrEqual(frameTuple, highKey, pred.isHighKeyInclusive())) {
+                break;
+            }
+            count++;
+        }
+        frameTuple.consume();
+        return count;
+    }
+
     protected void advanceTupleToLowKey() throws HyracksDataException {
         if (highKey != null && isLessOrEqual(highKey, frame.getLeftmostTuple(), !pred.isHighKeyInclusive())) {
             /*
@@ -177,7 +256,18 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
         frameTuple.skip(counter - 1);
     }
 
+    private void onNewLeaf() throws HyracksDataException {
+        if (prefetcher != null) {
+            //Request the pages of the projected columns before they are pinned (one by one) by frameTuple
+            prefetcher.onLeaf();
+        }
+    }
+
     protected void releasePages() throws HyracksDataException {
+        if (prefetcher != null) {
+            //Stop reading ahead pages that will not be needed
+            prefetcher.cancel();
+        }
         //Unpin all column pages first
         frameTuple.unpinColumnsPages();
         if (page0 != null) {
@@ -216,7 +306,7 @@ public class ColumnBTreeRangeSearchCursor extends EnforcedIndexCursor
     @Override
     public ICachedPage pin(int pageId) throws HyracksDataException {
         stats.getPageCounter().update(1);
-        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        return bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequential);
     }
 
     @Override
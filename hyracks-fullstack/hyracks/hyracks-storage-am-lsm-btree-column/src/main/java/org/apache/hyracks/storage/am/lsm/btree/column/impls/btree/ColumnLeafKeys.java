@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * The decoded primary keys of a columnar leaf. Leaves are immutable, and hence, the decoded keys can be shared (and
+ * searched) by multiple cursors concurrently.
+ *
+ * @see ColumnLeafKeysCache
+ */
+public final class ColumnLeafKeys {
+    private final byte[] keys;
+    //The end offset of each key field of each tuple
+    private final int[] fieldEnds;
+    private final int numberOfKeyFields;
+    private final int tupleCount;
+
+    ColumnLeafKeys(byte[] keys, int[] fieldEnds, int numberOfKeyFields, int tupleCount) {
+        this.keys = keys;
+        this.fieldEnds = fieldEnds;
+        this.numberOfKeyFields = numberOfKeyFields;
+        this.tupleCount = tupleCount;
+    }
+
+    /**
+     * Decode the primary keys of all tuples of the current leaf of the given tuple reference. Only the primary keys'
+     * columns are read.
+     *
+     * @param tuple      the leaf's tuple reference
+     * @param tupleCount number of tuples in the leaf
+     * @return the decoded keys
+     */
+    public static ColumnLeafKeys decode(AbstractColumnTupleReference tuple, int tupleCount)
+            throws HyracksDataException {
+        tuple.resetPrimaryKeys();
+        int numberOfKeyFields = tuple.getFieldCount();
+        int[] fieldEnds = new int[tupleCount * numberOfKeyFields];
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        int fieldIndex = 0;
+        while (!tuple.isConsumed()) {
+            tuple.next();
+            for (int i = 0; i < numberOfKeyFields; i++) {
+                storage.append(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+                fieldEnds[fieldIndex++] = storage.getLength();
+            }
+        }
+        byte[] keys = new byte[storage.getLength()];
+        System.arraycopy(storage.getByteArray(), 0, keys, 0, keys.length);
+        return new ColumnLeafKeys(keys, fieldEnds, numberOfKeyFields, tupleCount);
+    }
+
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    /**
+     * @return the approximate number of bytes occupied by the decoded keys
+     */
+    public int getSize() {
+        return keys.length + fieldEnds.length * Integer.BYTES;
+    }
+
+    /**
+     * Find the index of the first tuple that is greater than or equal to the given key
+     *
+     * @param key       search key
+     * @param cmp       key comparator
+     * @param reference a reusable reference to access the keys
+     * @return the index of the first tuple that is greater than or equal to the key or {@link #getTupleCount()} if
+     * all tuples are less than the key
+     */
+    public int search(ITupleReference key, MultiComparator cmp, KeyReference reference) throws HyracksDataException {
+        int low = 0;
+        int high = tupleCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            reference.reset(this, mid);
+            if (cmp.compare(reference, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A reference to the key of a tuple in {@link ColumnLeafKeys}
+     */
+    public static final class KeyReference implements ITupleReference {
+        private ColumnLeafKeys leafKeys;
+        private int firstField;
+
+        public void reset(ColumnLeafKeys leafKeys, int tupleIndex) {
+            this.leafKeys = leafKeys;
+            firstField = tupleIndex * leafKeys.numberOfKeyFields;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return leafKeys.numberOfKeyFields;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return leafKeys.keys;
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            int field = firstField + fIdx;
+            return field == 0 ? 0 : leafKeys.fieldEnds[field - 1];
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return leafKeys.fieldEnds[firstField + fIdx] - getFieldStart(fIdx);
+        }
+    }
+}
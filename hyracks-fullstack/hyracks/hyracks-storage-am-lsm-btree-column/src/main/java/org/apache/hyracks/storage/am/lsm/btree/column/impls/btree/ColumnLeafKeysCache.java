@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * A node-wide memory-bounded LRU cache of the decoded primary keys of columnar leaves, which are keyed by their files
+ * and page IDs. Point lookups use the cached keys to find the position of a key in a leaf (or to determine that the key
+ * does not exist in the leaf) without decoding the leaf's primary keys again. The entries of a file are invalidated
+ * once the file is closed.
+ * <p>
+ * The cache is split into segments, each of which is an LRU cache with an equal share of the budget, to reduce the
+ * contention between concurrent lookups. The memory of the cached entries is charged against the node's
+ * {@link IMemoryManager}.
+ */
+public final class ColumnLeafKeysCache {
+    //Must be a power of 2
+    private static final int NUMBER_OF_SEGMENTS = 16;
+    //Approximate overhead of a cached leaf (the map's entry, the boxed key, and the ColumnLeafKeys object)
+    private static final int ENTRY_OVERHEAD = 128;
+    private final IMemoryManager memoryManager;
+    private final Segment[] segments;
+
+    public ColumnLeafKeysCache(long budget, IMemoryManager memoryManager) {
+        this.memoryManager = memoryManager;
+        segments = new Segment[NUMBER_OF_SEGMENTS];
+        for (int i = 0; i < NUMBER_OF_SEGMENTS; i++) {
+            segments[i] = new Segment(budget / NUMBER_OF_SEGMENTS);
+        }
+    }
+
+    /**
+     * @return the cached keys of the leaf or null if they are not cached
+     */
+    public ColumnLeafKeys get(int fileId, int pageId) {
+        long dpid = BufferedFileHandle.getDiskPageId(fileId, pageId);
+        return getSegment(dpid).get(dpid);
+    }
+
+    /**
+     * Cache the keys of a leaf and evict the least recently used leaves of the leaf's segment if the segment's budget
+     * is exceeded. The keys are not cached if the memory manager cannot grant their memory.
+     */
+    public void put(int fileId, int pageId, ColumnLeafKeys keys) {
+        long dpid = BufferedFileHandle.getDiskPageId(fileId, pageId);
+        getSegment(dpid).put(dpid, keys);
+    }
+
+    /**
+     * Remove the cached leaves of a file
+     */
+    public void invalidate(int fileId) {
+        for (int i = 0; i < NUMBER_OF_SEGMENTS; i++) {
+            segments[i].invalidate(fileId);
+        }
+    }
+
+    /**
+     * @return the approximate number of bytes occupied by the cached leaves
+     */
+    public long getSize() {
+        long size = 0;
+        for (int i = 0; i < NUMBER_OF_SEGMENTS; i++) {
+            size += segments[i].getSize();
+        }
+        return size;
+    }
+
+    private Segment getSegment(long dpid) {
+        int hash = Long.hashCode(dpid);
+        return segments[(hash ^ (hash >>> 16)) & (NUMBER_OF_SEGMENTS - 1)];
+    }
+
+    private static long sizeOf(ColumnLeafKeys keys) {
+        return keys.getSize() + ENTRY_OVERHEAD;
+    }
+
+    private final class Segment {
+        private final long budget;
+        private final LinkedHashMap<Long, ColumnLeafKeys> leaves;
+        private long size;
+
+        Segment(long budget) {
+            this.budget = budget;
+            leaves = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        synchronized ColumnLeafKeys get(long dpid) {
+            return leaves.get(dpid);
+        }
+
+        synchronized void put(long dpid, ColumnLeafKeys keys) {
+            long entrySize = sizeOf(keys);
+            if (entrySize > budget || leaves.containsKey(dpid) || !memoryManager.allocate(entrySize)) {
+                //Leaves are immutable, a cached leaf does not need to be replaced
+                return;
+            }
+            leaves.put(dpid, keys);
+            size += entrySize;
+            Iterator<ColumnLeafKeys> iterator = leaves.values().iterator();
+            while (size > budget) {
+                release(iterator.next());
+                iterator.remove();
+            }
+        }
+
+        synchronized void invalidate(int fileId) {
+            Iterator<Map.Entry<Long, ColumnLeafKeys>> iterator = leaves.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, ColumnLeafKeys> entry = iterator.next();
+                if (BufferedFileHandle.getFileId(entry.getKey()) == fileId) {
+                    release(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized long getSize() {
+            return size;
+        }
+
+        private void release(ColumnLeafKeys keys) {
+            long entrySize = sizeOf(keys);
+            size -= entrySize;
+            memoryManager.deallocate(entrySize);
+        }
+    }
+}
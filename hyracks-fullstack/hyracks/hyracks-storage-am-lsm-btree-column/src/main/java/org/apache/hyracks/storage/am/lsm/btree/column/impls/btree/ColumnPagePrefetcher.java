@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.concurrent.Future;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Reads ahead the pages of the projected columns for the current and the next leaves of a
+ * {@link ColumnBTreeRangeSearchCursor}. Pages are read asynchronously into the buffer cache
+ * (see {@link IBufferCache#prefetch(long)}) so that pinning them later (when the columns are first touched) does not
+ * wait for the disk.
+ * <p>
+ * The leaves to read ahead are discovered by following the next-leaf pointers of their Page0s. A Page0 is inspected
+ * (i.e., pinned) only after its read-ahead is completed, so the cursor never waits for a leaf it has not reached yet.
+ * The number of leaves and pages read ahead are bounded by {@link #maxLeavesAhead} and {@link #pageBudget}.
+ */
+final class ColumnPagePrefetcher {
+    static final int DEFAULT_MAX_LEAVES_AHEAD = 2;
+    static final int DEFAULT_PAGE_BUDGET = 256;
+    private final ColumnBTreeReadLeafFrame frame;
+    private final AbstractColumnTupleReference tuple;
+    private final int maxLeavesAhead;
+    private final int pageBudget;
+    private final Deque<Future<Void>> pendingReads;
+    private final Deque<int[]> leavesAhead;
+    private final BitSet requestedPages;
+    private int[] sortedOffsets;
+    private IBufferCache bufferCache;
+    private int fileId;
+    private int pagesAhead;
+    private int nextLeaf;
+    private Future<Void> nextLeafRead;
+
+    ColumnPagePrefetcher(ColumnBTreeReadLeafFrame frame, AbstractColumnTupleReference tuple, int maxLeavesAhead,
+            int pageBudget) {
+        this.frame = frame;
+        this.tuple = tuple;
+        this.maxLeavesAhead = maxLeavesAhead;
+        this.pageBudget = pageBudget;
+        pendingReads = new ArrayDeque<>();
+        leavesAhead = new ArrayDeque<>();
+        requestedPages = new BitSet();
+        sortedOffsets = new int[0];
+        nextLeaf = -1;
+    }
+
+    void reset(IBufferCache bufferCache, int fileId) {
+        cancel();
+        this.bufferCache = bufferCache;
+        this.fileId = fileId;
+    }
+
+    /**
+     * Called once the cursor moves to a new leaf (i.e., the frame is set to the new leaf's Page0) and before any of
+     * the leaf's columns are read
+     */
+    void onLeaf() throws HyracksDataException {
+        while (!pendingReads.isEmpty() && pendingReads.peekFirst().isDone()) {
+            pendingReads.pollFirst();
+        }
+
+        int pageId = frame.getPageId();
+        while (!leavesAhead.isEmpty() && leavesAhead.peekFirst()[0] != pageId) {
+            pagesAhead -= leavesAhead.pollFirst()[1];
+        }
+
+        if (leavesAhead.isEmpty()) {
+            //The current leaf was not read ahead (e.g., first leaf). Read its columns' pages all at once
+            cancelNextLeafRead();
+            schedule(frame.getBuffer(), pageId);
+            nextLeaf = frame.getNextLeaf();
+        } else {
+            pagesAhead -= leavesAhead.pollFirst()[1];
+        }
+        advance();
+    }
+
+    /**
+     * Read ahead the following leaves (if possible). This is cheap to call when no read-ahead can be done.
+     */
+    void advance() throws HyracksDataException {
+        while (nextLeaf >= 0 && leavesAhead.size() < maxLeavesAhead && pagesAhead < pageBudget) {
+            if (nextLeafRead == null) {
+                nextLeafRead = prefetch(nextLeaf);
+            }
+
+            if (nextLeafRead.isCancelled()) {
+                //The read-ahead was dropped by the buffer cache. Try again later instead of waiting for the leaf
+                nextLeafRead = null;
+                return;
+            } else if (!nextLeafRead.isDone()) {
+                //Check again later
+                return;
+            }
+
+            ICachedPage leafPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, nextLeaf), false, true);
+            int followingLeaf;
+            try {
+                ByteBuffer leafBuffer = leafPage.getBuffer();
+                int numberOfPages = schedule(leafBuffer, nextLeaf);
+                leavesAhead.addLast(new int[] { nextLeaf, numberOfPages });
+                pagesAhead += numberOfPages;
+                followingLeaf = leafBuffer.getInt(AbstractColumnBTreeLeafFrame.NEXT_LEAF_OFFSET);
+            } finally {
+                bufferCache.unpin(leafPage);
+            }
+            nextLeaf = followingLeaf;
+            nextLeafRead = null;
+        }
+    }
+
+    /**
+     * Cancel all the pending reads (e.g., when the cursor is closed before reaching the end)
+     */
+    void cancel() {
+        for (Future<Void> read : pendingReads) {
+            read.cancel(false);
+        }
+        pendingReads.clear();
+        leavesAhead.clear();
+        pagesAhead = 0;
+        nextLeaf = -1;
+        nextLeafRead = null;
+    }
+
+    private void cancelNextLeafRead() {
+        if (nextLeafRead != null) {
+            nextLeafRead.cancel(false);
+            nextLeafRead = null;
+        }
+    }
+
+    /**
+     * Read ahead the pages of the projected columns of a leaf
+     *
+     * @param pageZero Page0 of the leaf
+     * @param leafPageId Page0's page ID
+     * @return number of requested pages
+     */
+    private int schedule(ByteBuffer pageZero, int leafPageId) {
+        int numberOfColumns = pageZero.getInt(AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMNS_OFFSET);
+        int numberOfColumnPages = pageZero.getInt(AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMN_PAGES);
+        if (numberOfColumnPages == 0) {
+            //All columns are in Page0
+            return 0;
+        }
+
+        /*
+         * The extent of a column is not stored in Page0 (only its length, which is stored in the column's first
+         * page). A column ends where the next column (in the order they were written) starts.
+         */
+        AbstractColumnTupleReader columnReader = frame.getColumnarTupleReader();
+        if (sortedOffsets.length < numberOfColumns) {
+            sortedOffsets = new int[numberOfColumns];
+        }
+        for (int i = 0; i < numberOfColumns; i++) {
+            sortedOffsets[i] = columnReader.getColumnOffset(pageZero, i);
+        }
+        Arrays.sort(sortedOffsets, 0, numberOfColumns);
+
+        int pageSize = bufferCache.getPageSize();
+        int leafEnd = (numberOfColumnPages + 1) * pageSize;
+        requestedPages.clear();
+        int numberOfRequestedPages = 0;
+        for (int i = 0; i < tuple.getNumberOfProjectedColumns(); i++) {
+            int columnIndex = tuple.getProjectedColumnIndex(i);
+            if (columnIndex >= numberOfColumns) {
+                continue;
+            }
+            int start = columnReader.getColumnOffset(pageZero, columnIndex);
+            int nextIndex = upperBound(sortedOffsets, numberOfColumns, start);
+            int end = nextIndex < numberOfColumns ? sortedOffsets[nextIndex] : leafEnd;
+            //Page0 (index 0) is already pinned
+            for (int page = Math.max(1, start / pageSize); page <= (end - 1) / pageSize; page++) {
+                if (!requestedPages.get(page)) {
+                    requestedPages.set(page);
+                    prefetch(leafPageId + page);
+                    numberOfRequestedPages++;
+                }
+            }
+        }
+        return numberOfRequestedPages;
+    }
+
+    private Future<Void> prefetch(int pageId) {
+        Future<Void> read = bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, pageId));
+        if (!read.isDone()) {
+            pendingReads.addLast(read);
+        }
+        return read;
+    }
+
+    private static int upperBound(int[] sorted, int length, int value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -34,7 +35,9 @@ import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCur
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponentFactory;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexFileManager;
@@ -51,8 +54,13 @@ import org.apache.hyracks.storage.common.IIndexCursorStats;
 import org.apache.hyracks.storage.common.ISearchPredicate;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.util.trace.ITracer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class LSMColumnBTree extends LSMBTree {
+    private static final Logger LOGGER = LogManager.getLogger();
     private static final ICursorFactory CURSOR_FACTORY = LSMColumnBTreeSearchCursor::new;
     private final IColumnManager columnManager;
     private final ILSMDiskComponentFactory mergeComponentFactory;
@@ -62,6 +70,12 @@ public class LSMColumnBTree extends LSMBTree {
      * metadata of the operational disk components.
      */
     private IColumnMetadata columnMetadata;
+    //Guards the flush statistics (see addStats(ObjectNode)) without blocking on the index's monitor
+    private final Object flushStatsLock = new Object();
+    private long numberOfFlushes;
+    private long flushedBytes;
+    private long flushNanos;
+    private long lastFlushThroughput;
 
     public LSMColumnBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
             ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
@@ -91,6 +105,45 @@ public class LSMColumnBTree extends LSMBTree {
         }
     }
 
+    @Override
+    public ILSMDiskComponent doFlush(ILSMIOOperation operation) throws HyracksDataException {
+        long startTime = System.nanoTime();
+        ILSMDiskComponent component = super.doFlush(operation);
+        long elapsedNanos = System.nanoTime() - startTime;
+        long componentSize = component.getComponentSize();
+        long throughput = getThroughput(componentSize, elapsedNanos);
+        synchronized (flushStatsLock) {
+            numberOfFlushes++;
+            flushedBytes += componentSize;
+            flushNanos += elapsedNanos;
+            lastFlushThroughput = throughput;
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Flushed {} bytes of {} in {} ms ({} KB/s)", componentSize, operation.getIndexIdentifier(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput / 1024);
+        }
+        return component;
+    }
+
+    @Override
+    public void addStats(ObjectNode stats) {
+        synchronized (flushStatsLock) {
+            stats.put("flushes", numberOfFlushes);
+            stats.put("flushedBytes", flushedBytes);
+            stats.put("flushTimeMs", TimeUnit.NANOSECONDS.toMillis(flushNanos));
+            stats.put("flushThroughputBytesPerSec", getThroughput(flushedBytes, flushNanos));
+            stats.put("lastFlushThroughputBytesPerSec", lastFlushThroughput);
+        }
+    }
+
+    /**
+     * @return the throughput (in bytes per second) of writing the given number of bytes in the given time. Flushes
+     * that take less than a nanosecond (i.e., the clock did not advance) are considered to take a nanosecond
+     */
+    static long getThroughput(long bytes, long elapsedNanos) {
+        return (long) ((double) bytes * TimeUnit.SECONDS.toNanos(1) / Math.max(1L, elapsedNanos));
+    }
+
     @Override
     public void search(ILSMIndexOperationContext ictx, IIndexCursor cursor, ISearchPredicate pred)
             throws HyracksDataException {
@@ -19,9 +19,11 @@
 package org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTree;
@@ -29,7 +31,9 @@ import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeRan
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.ColumnAwareDiskOnlyMultiComparator;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeRangeSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.IIndexCursorStats;
@@ -64,7 +68,14 @@ public final class LSMColumnBTreeRangeSearchCursor extends LSMBTreeRangeSearchCu
             return super.createCursor(type, accessor);
         }
         ColumnBTreeRangeSearchCursor cursor = (ColumnBTreeRangeSearchCursor) accessor.createSearchCursor(false);
-        componentTupleList.add((AbstractColumnTupleReference) cursor.doGetTuple());
+        AbstractColumnTupleReference columnTuple = (AbstractColumnTupleReference) cursor.doGetTuple();
+        /*
+         * Tuples of the oldest component do not reconcile (i.e., hide) any tuple of other components. Hence, leaves
+         * that do not satisfy the projection's filter can be skipped entirely. For other components, the primary
+         * keys of the filtered leaves are still needed to hide older versions of the same records.
+         */
+        columnTuple.setSkipFilteredPages(columnTuple.getComponentIndex() == operationalComponents.size() - 1);
+        componentTupleList.add(columnTuple);
         return cursor;
     }
 
@@ -101,6 +112,51 @@ public final class LSMColumnBTreeRangeSearchCursor extends LSMBTreeRangeSearchCu
         return -1;
     }
 
+    /**
+     * Get keys that split the key space of the operational components into (at most) the given number of ranges.
+     * The split keys are taken from the largest disk component. Each range can then be searched independently over
+     * the operational components of this cursor (see {@link #getOperationalComponents()}), as all versions of a
+     * record fall into the same range. Memory components are not split, as they are mutable and their readers
+     * must go through the LSM harness.
+     *
+     * @param numberOfRanges the requested number of ranges
+     * @return sorted split keys or an empty list if the components cannot be split
+     */
+    public List<ITupleReference> getSplitKeys(int numberOfRanges) throws HyracksDataException {
+        ILSMDiskComponent largest = null;
+        for (ILSMComponent component : operationalComponents) {
+            if (component.getType() == LSMComponentType.MEMORY) {
+                return Collections.emptyList();
+            }
+            ILSMDiskComponent diskComponent = (ILSMDiskComponent) component;
+            if (largest == null || diskComponent.getComponentSize() > largest.getComponentSize()) {
+                largest = diskComponent;
+            }
+        }
+        if (largest == null) {
+            return Collections.emptyList();
+        }
+        return ((ColumnBTree) largest.getIndex()).getSplitKeys(numberOfRanges);
+    }
+
+    /**
+     * Consume the tuples that follow the current tuple in the current leaf of its (disk) component and are within
+     * the search range. Their non-key columns are not read, which allows reading them in bulk.
+     *
+     * @return the number of consumed tuples
+     * @see ColumnBTreeRangeSearchCursor#consumeLeaf()
+     */
+    public int consumeLeaf() throws HyracksDataException {
+        return ((ColumnBTreeRangeSearchCursor) rangeCursors[outputElement.getCursorIndex()]).consumeLeaf();
+    }
+
+    /**
+     * @return the operational components this cursor has entered. They remain entered until this cursor is closed
+     */
+    public List<ILSMComponent> getOperationalComponents() {
+        return operationalComponents;
+    }
+
     /**
      * @return we need the tuple references for vertical merges
      */
@@ -23,6 +23,7 @@ import static org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.Abstrac
 import java.nio.ByteBuffer;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReadMultiPageOp;
@@ -38,6 +39,8 @@ public abstract class AbstractColumnTupleReference
     private final IColumnBufferProvider[] primaryKeyBufferProviders;
     private final IColumnBufferProvider[] buffersProviders;
     private final int numberOfPrimaryKeys;
+    private boolean skipFilteredPages;
+    private boolean filteredPage;
     protected int tupleIndex;
 
     /**
@@ -83,6 +86,17 @@ public abstract class AbstractColumnTupleReference
         int numberOfTuples = frame.getTupleCount();
         //Start new page and check whether we should skip reading non-key columns or not
         boolean readColumnPages = startNewPage(pageZero, frame.getNumberOfColumns(), numberOfTuples);
+        filteredPage = !readColumnPages;
+
+        if (filteredPage) {
+            //Release pinned pages of the previous leaf (if any) as none of this leaf's columns will be read
+            unpinColumnsPages();
+            if (skipFilteredPages) {
+                //No tuple in this page is needed, not even for reconciliation. Skip the entire page
+                consume();
+                return;
+            }
+        }
 
         //Start primary keys
         for (int i = 0; i < numberOfPrimaryKeys; i++) {
@@ -102,6 +116,49 @@ public abstract class AbstractColumnTupleReference
         }
     }
 
+    /**
+     * Start reading the primary keys of the current leaf from its first tuple. The non-key columns are not started,
+     * and hence, {@link #reset(int)} must be called before accessing them.
+     */
+    public final void resetPrimaryKeys() throws HyracksDataException {
+        tupleIndex = 0;
+        if (frame.getTupleCount() == 0) {
+            return;
+        }
+        for (int i = 0; i < numberOfPrimaryKeys; i++) {
+            IColumnBufferProvider provider = primaryKeyBufferProviders[i];
+            provider.reset(frame);
+            startPrimaryKey(provider, tupleIndex, i, frame.getTupleCount());
+        }
+    }
+
+    /**
+     * Allow skipping the entire page (including its primary keys) when {@link #startNewPage(ByteBuffer, int, int)}
+     * returns false. This is only safe when the tuples of this component cannot be used to reconcile tuples of other
+     * (older) components, i.e., when this tuple reference belongs to the oldest component of a search.
+     *
+     * @param skipFilteredPages whether filtered pages can be skipped entirely
+     */
+    public final void setSkipFilteredPages(boolean skipFilteredPages) {
+        this.skipFilteredPages = skipFilteredPages;
+    }
+
+    /**
+     * @return true if the current page was filtered out and none of its non-key columns were read
+     */
+    public final boolean isFilteredPage() {
+        return filteredPage;
+    }
+
+    /**
+     * Start a new page
+     *
+     * @param pageZero        page0 buffer positioned at the columns' offsets
+     * @param numberOfColumns number of columns in the page
+     * @param numberOfTuples  number of tuples in the page
+     * @return true if the non-key columns should be read, false if none of the tuples in the page satisfy the
+     * projection's filter (i.e., the page can be skipped)
+     */
     protected abstract boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples);
 
     protected abstract void startPrimaryKey(IColumnBufferProvider bufferProvider, int startIndex, int ordinal,
@@ -127,10 +184,28 @@ public abstract class AbstractColumnTupleReference
         return tupleIndex >= frame.getTupleCount();
     }
 
+    /**
+     * @return the index of the tuple that will be read by the next call of {@link #next()}
+     */
+    public final int getNextTupleIndex() {
+        return tupleIndex;
+    }
+
+    public final boolean isFirstTuple() {
+        return tupleIndex == 1;
+    }
+
     public final boolean isLastTuple() {
         return tupleIndex == frame.getTupleCount();
     }
 
+    /**
+     * @return the largest key of the current leaf
+     */
+    public final ITupleReference getLastKey() {
+        return frame.getRightmostTuple();
+    }
+
     public final int getComponentIndex() {
         return componentIndex;
     }
@@ -145,6 +220,14 @@ public abstract class AbstractColumnTupleReference
         return frame.getTupleCount();
     }
 
+    public final int getNumberOfProjectedColumns() {
+        return buffersProviders.length;
+    }
+
+    public final int getProjectedColumnIndex(int ordinal) {
+        return buffersProviders[ordinal].getColumnIndex();
+    }
+
     /* *************************************************************
      * Unsupported Operations
      * *************************************************************
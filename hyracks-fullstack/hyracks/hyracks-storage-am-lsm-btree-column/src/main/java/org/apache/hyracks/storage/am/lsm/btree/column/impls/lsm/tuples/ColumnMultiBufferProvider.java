@@ -23,6 +23,7 @@ import java.util.ArrayDeque;
 import java.util.Queue;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.ColumnCompression;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
 import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReadMultiPageOp;
 import org.apache.hyracks.storage.am.lsm.btree.column.impls.btree.ColumnBTreeReadLeafFrame;
@@ -36,6 +37,9 @@ public final class ColumnMultiBufferProvider implements IColumnBufferProvider {
     private int startPage;
     private int startOffset;
     private int length;
+    private boolean compressed;
+    private ByteBuffer compressedBuffer;
+    private ByteBuffer uncompressedBuffer;
 
     public ColumnMultiBufferProvider(int columnIndex, IColumnReadMultiPageOp multiPageOp) {
         this.columnIndex = columnIndex;
@@ -48,6 +52,7 @@ public final class ColumnMultiBufferProvider implements IColumnBufferProvider {
         if (columnIndex >= frame.getNumberOfColumns()) {
             numberOfPages = 0;
             length = 0;
+            compressed = false;
             return;
         }
 
@@ -56,16 +61,25 @@ public final class ColumnMultiBufferProvider implements IColumnBufferProvider {
         startOffset = offset % multiPageOp.getPageSize();
         ByteBuffer firstPage = readNext().duplicate();
         firstPage.position(startOffset);
-        //Read the length
+        //Read the length (a negative length indicates a compressed column)
         length = firstPage.getInt();
+        compressed = length < 0;
+        length = Math.abs(length);
         double remainingLength = length - (double) firstPage.remaining();
         numberOfPages = (int) Math.ceil(remainingLength / multiPageOp.getPageSize());
         startOffset += Integer.BYTES;
         length -= Integer.BYTES;
+        if (compressed) {
+            decompress();
+        }
     }
 
     @Override
     public void readAll(Queue<ByteBuffer> buffers) throws HyracksDataException {
+        if (compressed) {
+            buffers.add(uncompressedBuffer.duplicate());
+            return;
+        }
         ByteBuffer buffer = pages.peek().getBuffer().duplicate();
         buffer.clear();
         buffer.position(startOffset);
@@ -107,6 +121,47 @@ public final class ColumnMultiBufferProvider implements IColumnBufferProvider {
         return columnPage.getBuffer();
     }
 
+    /**
+     * Decompress the column into {@link #uncompressedBuffer} and unpin the column's pages as they are not needed
+     * anymore
+     */
+    private void decompress() throws HyracksDataException {
+        //A compressed column may span multiple pages. Gather all of its bytes first
+        compressedBuffer = ensureCapacity(compressedBuffer, length);
+        ByteBuffer buffer = pages.peek().getBuffer().duplicate();
+        buffer.clear();
+        buffer.position(startOffset);
+        copy(buffer, compressedBuffer);
+        for (int i = 0; i < numberOfPages; i++) {
+            buffer = readNext().duplicate();
+            buffer.clear();
+            copy(buffer, compressedBuffer);
+        }
+        numberOfPages = 0;
+        releaseAll();
+
+        compressedBuffer.flip();
+        ColumnCompression compression = ColumnCompression.fromId(compressedBuffer.get());
+        length = compressedBuffer.getInt();
+        uncompressedBuffer = ensureCapacity(uncompressedBuffer, length);
+        compression.getCompressorDecompressor().uncompress(compressedBuffer, uncompressedBuffer);
+    }
+
+    private static void copy(ByteBuffer source, ByteBuffer destination) {
+        source.limit(source.position() + Math.min(source.remaining(), destination.remaining()));
+        destination.put(source);
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int size) {
+        ByteBuffer newBuffer = buffer;
+        if (newBuffer == null || newBuffer.capacity() < size) {
+            newBuffer = ByteBuffer.allocate(size);
+        }
+        newBuffer.clear();
+        newBuffer.limit(size);
+        return newBuffer;
+    }
+
     private int getColumnPageIndex(int columnOffset) {
         return (int) Math.floor((double) columnOffset / multiPageOp.getPageSize());
     }
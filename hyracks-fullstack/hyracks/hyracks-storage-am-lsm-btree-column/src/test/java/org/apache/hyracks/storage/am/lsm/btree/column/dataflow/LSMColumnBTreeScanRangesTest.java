@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.dataflow;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LSMColumnBTreeScanRangesTest {
+
+    @Test
+    public void noSplitKeysScanTheWholePartition() {
+        List<RangePredicate> predicates =
+                LSMColumnBTreeScanOperatorNodePushable.createRangePredicates(Collections.emptyList());
+        Assert.assertEquals(1, predicates.size());
+        Assert.assertNull(predicates.get(0).getLowKey());
+        Assert.assertNull(predicates.get(0).getHighKey());
+    }
+
+    @Test
+    public void rangesAreDisjointAndCoverThePartition() throws HyracksDataException {
+        List<ITupleReference> splitKeys = Arrays.asList(TupleUtils.createIntegerTuple(10),
+                TupleUtils.createIntegerTuple(20), TupleUtils.createIntegerTuple(30));
+        List<RangePredicate> predicates = LSMColumnBTreeScanOperatorNodePushable.createRangePredicates(splitKeys);
+        Assert.assertEquals(4, predicates.size());
+
+        //(-inf, 10), [10, 20), [20, 30), [30, +inf)
+        Assert.assertNull(predicates.get(0).getLowKey());
+        Assert.assertNull(predicates.get(predicates.size() - 1).getHighKey());
+        for (int i = 0; i < predicates.size(); i++) {
+            RangePredicate predicate = predicates.get(i);
+            if (i > 0) {
+                Assert.assertTrue(predicate.isLowKeyInclusive());
+                Assert.assertEquals(i * 10, getKey(predicate.getLowKey()));
+                //Each range starts where the previous one ends
+                Assert.assertSame(predicates.get(i - 1).getHighKey(), predicate.getLowKey());
+            }
+            if (i < predicates.size() - 1) {
+                Assert.assertFalse(predicate.isHighKeyInclusive());
+                Assert.assertEquals((i + 1) * 10, getKey(predicate.getHighKey()));
+            }
+        }
+    }
+
+    private static int getKey(ITupleReference key) {
+        return IntegerPointable.getInteger(key.getFieldData(0), key.getFieldStart(0));
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.BTreeCursorInitialState;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleWriter;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReadMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProjectionInfo;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnBTreeRangeSearchCursorTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int FILE_ID = 1;
+    private static final int FIRST_LEAF = 1;
+    private static final int TUPLES_PER_LEAF = 10;
+    //Where the test tuple reference reads whether a leaf is filtered out
+    private static final int FILTERED_OFFSET = AbstractColumnBTreeLeafFrame.HEADER_SIZE;
+    private static final int LEFTMOST_KEY_OFFSET = FILTERED_OFFSET + Integer.BYTES;
+
+    private final Map<Integer, ICachedPage> leaves = new HashMap<>();
+    private final List<Integer> pinnedLeaves = new ArrayList<>();
+    private MultiComparator cmp;
+    private IBufferCache bufferCache;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        leaves.clear();
+        pinnedLeaves.clear();
+        cmp = MultiComparator.create(new IBinaryComparatorFactory[] { IntegerBinaryComparatorFactory.INSTANCE });
+        bufferCache = mock(IBufferCache.class);
+        when(bufferCache.pin(anyLong(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+            int pageId = BufferedFileHandle.getPageId(invocation.<Long> getArgument(0));
+            pinnedLeaves.add(pageId);
+            return leaves.get(pageId);
+        });
+    }
+
+    @Test
+    public void stopAtHighKeyWhenUpperLeavesAreFiltered() throws HyracksDataException {
+        //Leaves 1 and 2 (keys 0-19) are read, leaves 3 to 8 (keys 20-79) are filtered out
+        createLeaves(8, 2);
+        Assert.assertEquals(keys(0, 19), search(25, true));
+        //Leaf 3 may have keys <= 25 and leaf 4 starts after the high key. Leaves 5 to 8 must not be pinned
+        Assert.assertEquals(Arrays.asList(2, 3, 4), pinnedLeaves);
+    }
+
+    @Test
+    public void stopAtExclusiveHighKeyOfFilteredLeaf() throws HyracksDataException {
+        createLeaves(8, 2);
+        //Leaf 4 starts at the (exclusive) high key
+        Assert.assertEquals(keys(0, 19), search(30, false));
+        Assert.assertEquals(Arrays.asList(2, 3, 4), pinnedLeaves);
+    }
+
+    @Test
+    public void skipFilteredLeavesToTheEndWithoutHighKey() throws HyracksDataException {
+        createLeaves(8, 2);
+        Assert.assertEquals(keys(0, 19), search(null, true));
+        Assert.assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8), pinnedLeaves);
+    }
+
+    @Test
+    public void skipFilteredLeavesWithinRange() throws HyracksDataException {
+        //Leaf 2 (keys 10-19) is filtered out, leaf 3 (keys 20-29) is not
+        createLeaf(1, 0, false, 2);
+        createLeaf(2, 10, true, 3);
+        createLeaf(3, 20, false, -1);
+        List<Integer> expected = keys(0, 9);
+        expected.addAll(keys(20, 25));
+        Assert.assertEquals(expected, search(25, true));
+        Assert.assertEquals(Arrays.asList(2, 3), pinnedLeaves);
+    }
+
+    @Test
+    public void leafAtATimeRangesReturnEachTupleOnce() throws HyracksDataException {
+        //Three components of the same keys with different leaf sizes
+        int numberOfKeys = 200;
+        int[] leafSizes = { 10, 7, 13 };
+        int[] firstLeaves = new int[leafSizes.length];
+        int pageId = FIRST_LEAF;
+        for (int i = 0; i < leafSizes.length; i++) {
+            firstLeaves[i] = pageId;
+            pageId = createComponent(pageId, numberOfKeys, leafSizes[i]);
+        }
+        /*
+         * The split keys are separators of the largest component, i.e., the last keys of some of its leaves. The
+         * ranges are [split, nextSplit) as created by the scan operator. The first tuple of a range is in the leaf
+         * that ends with the previous range's high key (largest component) or in the middle of a leaf (others)
+         */
+        Integer[] splitKeys = { 49, 99, 149 };
+        for (int i = 0; i < leafSizes.length; i++) {
+            List<Integer> serial = scan(firstLeaves[i], null, null, true);
+            Assert.assertEquals(keys(0, numberOfKeys - 1), serial);
+            Assert.assertEquals(serial, scan(firstLeaves[i], null, null, false));
+            List<Integer> ranges = new ArrayList<>();
+            for (int j = 0; j <= splitKeys.length; j++) {
+                Integer lowKey = j == 0 ? null : splitKeys[j - 1];
+                Integer highKey = j == splitKeys.length ? null : splitKeys[j];
+                int firstLeaf = lowKey == null ? firstLeaves[i] : firstLeaves[i] + lowKey / leafSizes[i];
+                List<Integer> range = scan(firstLeaf, lowKey, highKey, true);
+                Assert.assertEquals(range, scan(firstLeaf, lowKey, highKey, false));
+                ranges.addAll(range);
+            }
+            Assert.assertEquals(serial, ranges);
+        }
+    }
+
+    /**
+     * @return the page id that follows the component's last leaf
+     */
+    private int createComponent(int firstLeaf, int numberOfKeys, int leafSize) throws HyracksDataException {
+        int pageId = firstLeaf;
+        for (int firstKey = 0; firstKey < numberOfKeys; firstKey += leafSize) {
+            int tupleCount = Math.min(leafSize, numberOfKeys - firstKey);
+            int nextLeaf = firstKey + leafSize < numberOfKeys ? pageId + 1 : -1;
+            createLeaf(pageId++, firstKey, tupleCount, false, nextLeaf);
+        }
+        return pageId;
+    }
+
+    private void createLeaves(int numberOfLeaves, int numberOfReadLeaves) throws HyracksDataException {
+        for (int i = 1; i <= numberOfLeaves; i++) {
+            int nextLeaf = i < numberOfLeaves ? i + 1 : -1;
+            createLeaf(i, (i - 1) * TUPLES_PER_LEAF, i > numberOfReadLeaves, nextLeaf);
+        }
+    }
+
+    private void createLeaf(int pageId, int firstKey, boolean filtered, int nextLeaf) throws HyracksDataException {
+        createLeaf(pageId, firstKey, TUPLES_PER_LEAF, filtered, nextLeaf);
+    }
+
+    private void createLeaf(int pageId, int firstKey, int tupleCount, boolean filtered, int nextLeaf)
+            throws HyracksDataException {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.TUPLE_COUNT_OFFSET, tupleCount);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMNS_OFFSET, 0);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.NEXT_LEAF_OFFSET, nextLeaf);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.LEFT_MOST_KEY_OFFSET, LEFTMOST_KEY_OFFSET);
+        buffer.putInt(FILTERED_OFFSET, filtered ? 1 : 0);
+        ITupleReference leftmostKey = TupleUtils.createIntegerTuple(firstKey);
+        SimpleTupleWriter.INSTANCE.writeTuple(leftmostKey, buffer.array(), LEFTMOST_KEY_OFFSET);
+        int rightmostKeyOffset = LEFTMOST_KEY_OFFSET + SimpleTupleWriter.INSTANCE.bytesRequired(leftmostKey);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.RIGHT_MOST_KEY_OFFSET, rightmostKeyOffset);
+        SimpleTupleWriter.INSTANCE.writeTuple(TupleUtils.createIntegerTuple(firstKey + tupleCount - 1),
+                buffer.array(), rightmostKeyOffset);
+        ICachedPage page = mock(ICachedPage.class);
+        when(page.getBuffer()).thenReturn(buffer);
+        leaves.put(pageId, page);
+    }
+
+    private List<Integer> search(Integer highKey, boolean highKeyInclusive) throws HyracksDataException {
+        return search(FIRST_LEAF, null, highKey, highKeyInclusive, false);
+    }
+
+    /**
+     * Scan [lowKey, highKey) starting from the given leaf
+     *
+     * @param leafAtATime whether to read the remaining tuples of each leaf at once (as the generated code does)
+     */
+    private List<Integer> scan(int firstLeaf, Integer lowKey, Integer highKey, boolean leafAtATime)
+            throws HyracksDataException {
+        return search(firstLeaf, lowKey, highKey, false, leafAtATime);
+    }
+
+    private List<Integer> search(int firstLeaf, Integer lowKey, Integer highKey, boolean highKeyInclusive,
+            boolean leafAtATime) throws HyracksDataException {
+        ColumnBTreeReadLeafFrame frame = new ColumnBTreeReadLeafFrame(SimpleTupleWriter.INSTANCE, new TestReader());
+        ColumnBTreeRangeSearchCursor cursor =
+                new ColumnBTreeRangeSearchCursor(frame, NoOpIndexCursorStats.INSTANCE, 0, false);
+        cursor.setBufferCache(bufferCache);
+        cursor.setFileId(FILE_ID);
+        BTreeCursorInitialState initialState = new BTreeCursorInitialState(null, null);
+        initialState.setPage(leaves.get(firstLeaf));
+        initialState.setPageId(firstLeaf);
+        initialState.setOriginialKeyComparator(cmp);
+        ITupleReference lowKeyTuple = lowKey == null ? null : TupleUtils.createIntegerTuple(lowKey);
+        ITupleReference highKeyTuple = highKey == null ? null : TupleUtils.createIntegerTuple(highKey);
+        RangePredicate predicate = new RangePredicate(lowKeyTuple, highKeyTuple, true, highKeyInclusive, cmp, cmp);
+
+        List<Integer> keys = new ArrayList<>();
+        cursor.open(initialState, predicate);
+        try {
+            while (cursor.hasNext()) {
+                cursor.next();
+                ITupleReference tuple = cursor.getTuple();
+                int key = IntegerPointable.getInteger(tuple.getFieldData(0), tuple.getFieldStart(0));
+                keys.add(key);
+                //The keys of a leaf are consecutive
+                int count = leafAtATime ? cursor.consumeLeaf() : 0;
+                for (int i = 1; i <= count; i++) {
+                    keys.add(key + i);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return keys;
+    }
+
+    private static List<Integer> keys(int from, int to) {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    private static class TestReader extends AbstractColumnTupleReader {
+        @Override
+        public AbstractColumnTupleReference createTupleReference(ColumnBTreeReadLeafFrame frame, int componentIndex,
+                IColumnReadMultiPageOp multiPageOp) {
+            return new TestColumnTupleReference(frame, multiPageOp);
+        }
+    }
+
+    /**
+     * A tuple reference of a single integer key column. The keys of a leaf are consecutive starting from the leaf's
+     * leftmost key, and filtered leaves are skipped entirely (i.e., as in the oldest component)
+     */
+    private static class TestColumnTupleReference extends AbstractColumnTupleReference {
+        private static final IColumnProjectionInfo NO_COLUMNS = new IColumnProjectionInfo() {
+            @Override
+            public int getColumnIndex(int ordinal) {
+                throw new IndexOutOfBoundsException();
+            }
+
+            @Override
+            public int getNumberOfProjectedColumns() {
+                return 0;
+            }
+
+            @Override
+            public int getNumberOfPrimaryKeys() {
+                return 0;
+            }
+        };
+        private final ColumnBTreeReadLeafFrame frame;
+        private final byte[] key;
+
+        TestColumnTupleReference(ColumnBTreeReadLeafFrame frame, IColumnReadMultiPageOp multiPageOp) {
+            super(0, frame, NO_COLUMNS, multiPageOp);
+            this.frame = frame;
+            key = new byte[Integer.BYTES];
+            setSkipFilteredPages(true);
+        }
+
+        @Override
+        protected boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples) {
+            return pageZero.getInt(FILTERED_OFFSET) == 0;
+        }
+
+        @Override
+        protected void startPrimaryKey(IColumnBufferProvider bufferProvider, int startIndex, int ordinal,
+                int numberOfTuples) {
+            //NoOp
+        }
+
+        @Override
+        protected void startColumn(IColumnBufferProvider buffersProvider, int startIndex, int ordinal,
+                int numberOfTuples) {
+            //NoOp
+        }
+
+        @Override
+        public void skip(int count) {
+            //NoOp: the key is computed from the tuple index
+        }
+
+        @Override
+        protected void onNext() {
+            ITupleReference leftmostTuple = frame.getLeftmostTuple();
+            int firstKey = IntegerPointable.getInteger(leftmostTuple.getFieldData(0), leftmostTuple.getFieldStart(0));
+            IntegerPointable.setInteger(key, 0, firstKey + tupleIndex);
+        }
+
+        @Override
+        public boolean isAntimatter() {
+            return false;
+        }
+
+        @Override
+        public int getTupleSize() {
+            return key.length;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return 1;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return key;
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return 0;
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return key.length;
+        }
+
+        @Override
+        public int compareTo(AbstractColumnTupleReference o) {
+            return Integer.compare(getComponentIndex(), o.getComponentIndex());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeFrame;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrameFactory;
+import org.apache.hyracks.storage.am.btree.tuples.BTreeTypeAwareTupleWriterFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnBTreeSplitKeysTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final ITreeIndexFrameFactory INTERIOR_FRAME_FACTORY = new BTreeNSMInteriorFrameFactory(
+            new BTreeTypeAwareTupleWriterFactory(new ITypeTraits[] { IntegerPointable.TYPE_TRAITS }, false, null,
+                    null));
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+
+    private ICachedPage root;
+    private IBufferCache bufferCache;
+    private ColumnBTree btree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        root = mock(ICachedPage.class);
+        when(root.getBuffer()).thenReturn(ByteBuffer.allocate(PAGE_SIZE));
+        bufferCache = mock(IBufferCache.class);
+        when(bufferCache.getPageSize()).thenReturn(PAGE_SIZE);
+        when(bufferCache.pin(anyLong(), anyBoolean())).thenReturn(root);
+        btree = new ColumnBTree(bufferCache, null, INTERIOR_FRAME_FACTORY, INTERIOR_FRAME_FACTORY, CMP_FACTORIES, 1,
+                null, null);
+    }
+
+    @Test
+    public void leafRootCannotBeSplit() throws HyracksDataException {
+        createRoot(0, 0);
+        Assert.assertTrue(btree.getSplitKeys(4).isEmpty());
+        verify(bufferCache).unpin(root);
+    }
+
+    @Test
+    public void splitRootChildrenEvenly() throws HyracksDataException {
+        //10 children separated by the keys 10, 20, ..., 90
+        createRoot(1, 9);
+        //Ranges of children [0, 1], [2, 4], [5, 6], [7, 9]
+        Assert.assertEquals(Arrays.asList(20, 50, 70), toIntegers(btree.getSplitKeys(4)));
+        Assert.assertEquals(Arrays.asList(50), toIntegers(btree.getSplitKeys(2)));
+        Assert.assertTrue(btree.getSplitKeys(1).isEmpty());
+        verify(bufferCache, times(3)).unpin(root);
+    }
+
+    @Test
+    public void rangesAreBoundedByRootChildren() throws HyracksDataException {
+        createRoot(2, 3);
+        //4 children at most
+        Assert.assertEquals(Arrays.asList(10, 20, 30), toIntegers(btree.getSplitKeys(16)));
+    }
+
+    private void createRoot(int level, int numberOfSeparators) throws HyracksDataException {
+        IBTreeFrame frame = (IBTreeFrame) INTERIOR_FRAME_FACTORY.createFrame();
+        frame.setPage(root);
+        frame.initBuffer((byte) level);
+        for (int i = 1; i <= numberOfSeparators; i++) {
+            frame.insertSorted(createSeparator(i * 10, i));
+        }
+    }
+
+    private static ITupleReference createSeparator(int key, int leftChild) {
+        //An interior tuple is followed by the pointers of its left and right children
+        byte[] data = new byte[Integer.BYTES * 3];
+        IntegerPointable.setInteger(data, 0, key);
+        IntegerPointable.setInteger(data, Integer.BYTES, leftChild);
+        IntegerPointable.setInteger(data, Integer.BYTES * 2, leftChild + 1);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        tuple.reset(new int[] { Integer.BYTES }, data);
+        return tuple;
+    }
+
+    private static List<Integer> toIntegers(List<ITupleReference> keys) {
+        List<Integer> values = new ArrayList<>();
+        for (ITupleReference key : keys) {
+            Assert.assertEquals(1, key.getFieldCount());
+            values.add(IntegerPointable.getInteger(key.getFieldData(0), key.getFieldStart(0)));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnLeafKeysCacheTest {
+    private static final int KEYS_SIZE = 1000;
+    //Each segment can hold two leaves
+    private static final long BUDGET = 16 * 3000;
+    private TestMemoryManager memoryManager;
+    private ColumnLeafKeysCache cache;
+
+    @Before
+    public void setUp() {
+        memoryManager = new TestMemoryManager();
+        cache = new ColumnLeafKeysCache(BUDGET, memoryManager);
+    }
+
+    @Test
+    public void testHit() {
+        ColumnLeafKeys keys = createKeys(KEYS_SIZE);
+        Assert.assertNull(cache.get(1, 1));
+        cache.put(1, 1, keys);
+        Assert.assertSame(keys, cache.get(1, 1));
+        Assert.assertNull(cache.get(1, 2));
+        Assert.assertNull(cache.get(2, 1));
+
+        //Leaves are immutable, the first cached keys are kept
+        cache.put(1, 1, createKeys(KEYS_SIZE));
+        Assert.assertSame(keys, cache.get(1, 1));
+        Assert.assertEquals(cache.getSize(), memoryManager.allocated);
+    }
+
+    @Test
+    public void testEviction() {
+        ColumnLeafKeys hotKeys = createKeys(KEYS_SIZE);
+        cache.put(1, 0, hotKeys);
+        int numberOfLeaves = 1000;
+        for (int i = 1; i < numberOfLeaves; i++) {
+            //Accessing the hot leaf makes it the most recently used leaf of its segment
+            Assert.assertSame(hotKeys, cache.get(1, 0));
+            cache.put(1, i, createKeys(KEYS_SIZE));
+            Assert.assertTrue(cache.getSize() <= BUDGET);
+        }
+
+        int cachedLeaves = 0;
+        for (int i = 0; i < numberOfLeaves; i++) {
+            cachedLeaves += cache.get(1, i) == null ? 0 : 1;
+        }
+        Assert.assertTrue(cachedLeaves < numberOfLeaves);
+        Assert.assertSame(hotKeys, cache.get(1, 0));
+        //Evicted leaves released their memory
+        Assert.assertEquals(cache.getSize(), memoryManager.allocated);
+    }
+
+    @Test
+    public void testInvalidate() {
+        for (int i = 0; i < 4; i++) {
+            cache.put(1, i, createKeys(10));
+            cache.put(2, i, createKeys(10));
+        }
+
+        //The components' files are closed when they are deleted
+        cache.invalidate(1);
+        for (int i = 0; i < 4; i++) {
+            Assert.assertNull(cache.get(1, i));
+            Assert.assertNotNull(cache.get(2, i));
+        }
+        Assert.assertEquals(cache.getSize(), memoryManager.allocated);
+
+        cache.invalidate(2);
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertEquals(0, memoryManager.allocated);
+    }
+
+    @Test
+    public void testNotCached() {
+        //Larger than a segment's budget
+        cache.put(1, 1, createKeys((int) BUDGET));
+        Assert.assertNull(cache.get(1, 1));
+
+        //The memory manager cannot grant the memory
+        memoryManager.available = false;
+        cache.put(1, 2, createKeys(KEYS_SIZE));
+        Assert.assertNull(cache.get(1, 2));
+        Assert.assertEquals(0, memoryManager.allocated);
+
+        //A disabled cache
+        ColumnLeafKeysCache disabledCache = new ColumnLeafKeysCache(0, memoryManager);
+        memoryManager.available = true;
+        disabledCache.put(1, 1, createKeys(1));
+        Assert.assertNull(disabledCache.get(1, 1));
+        Assert.assertEquals(0, memoryManager.allocated);
+    }
+
+    private static ColumnLeafKeys createKeys(int size) {
+        return new ColumnLeafKeys(new byte[size], new int[0], 1, 0);
+    }
+
+    private static class TestMemoryManager implements IMemoryManager {
+        private long allocated;
+        private boolean available = true;
+
+        @Override
+        public long getMaximumMemory() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long getAvailableMemory() {
+            return Long.MAX_VALUE - allocated;
+        }
+
+        @Override
+        public boolean allocate(long memory) {
+            if (available) {
+                allocated += memory;
+            }
+            return available;
+        }
+
+        @Override
+        public void deallocate(long memory) {
+            allocated -= memory;
+        }
+
+        @Override
+        public boolean allocateOffHeap(long memory) {
+            return false;
+        }
+
+        @Override
+        public void deallocateOffHeap(long memory) {
+            //NoOp
+        }
+
+        @Override
+        public long getOffHeapMemoryUsed() {
+            return 0;
+        }
+    }
+}
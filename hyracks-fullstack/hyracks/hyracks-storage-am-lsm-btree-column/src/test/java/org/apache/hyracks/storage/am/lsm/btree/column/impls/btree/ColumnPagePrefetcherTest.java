@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.btree;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.storage.am.btree.impls.BTreeCursorInitialState;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleWriter;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.AbstractColumnTupleReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnBufferProvider;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReadMultiPageOp;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.projection.IColumnProjectionInfo;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm.tuples.AbstractColumnTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+import org.apache.hyracks.storage.common.buffercache.CachedPage;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnPagePrefetcherTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int FILE_ID = 1;
+    private static final int FIRST_LEAF = 1;
+    //Page0 followed by 4 column pages
+    private static final int PAGES_PER_LEAF = 5;
+    private static final int PRIMARY_KEY_OFFSET = 128;
+
+    private final Map<Integer, CachedPage> leaves = new HashMap<>();
+    private final List<Integer> pinnedPages = new ArrayList<>();
+    private final List<Integer> prefetchedPages = new ArrayList<>();
+    private final List<CompletableFuture<Void>> pendingReads = new ArrayList<>();
+    private IBufferCache bufferCache;
+    private boolean completeReads;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        leaves.clear();
+        pinnedPages.clear();
+        prefetchedPages.clear();
+        pendingReads.clear();
+        completeReads = true;
+        bufferCache = mock(IBufferCache.class);
+        when(bufferCache.getPageSize()).thenReturn(PAGE_SIZE);
+        when(bufferCache.pin(anyLong(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+            int pageId = BufferedFileHandle.getPageId(invocation.<Long> getArgument(0));
+            pinnedPages.add(pageId);
+            return leaves.get(pageId);
+        });
+        when(bufferCache.prefetch(anyLong())).thenAnswer(invocation -> {
+            prefetchedPages.add(BufferedFileHandle.getPageId(invocation.<Long> getArgument(0)));
+            if (completeReads) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> read = new CompletableFuture<>();
+            pendingReads.add(read);
+            return read;
+        });
+    }
+
+    @Test
+    public void columnExtentEndsAtTheNextWrittenColumn() throws HyracksDataException {
+        /*
+         * Column 2 was written before column 1. The extents (in write order) are:
+         * column 0 (primary key): Page0, column 2: pages 1-3, column 1: pages 3-4, and column 3: page 4 to the end
+         * of the leaf (page 5)
+         */
+        createLeaf(FIRST_LEAF, -1, 5, PRIMARY_KEY_OFFSET, 3 * PAGE_SIZE + 16, PAGE_SIZE, 4 * PAGE_SIZE + 32);
+        Assert.assertEquals(pages(2, 4), readFirstLeaf(2));
+        Assert.assertEquals(pages(4, 5), readFirstLeaf(1));
+        Assert.assertEquals(pages(5, 6), readFirstLeaf(3));
+        //Page 4 is shared by columns 2 and 1, and it is requested once
+        Assert.assertEquals(pages(2, 5), readFirstLeaf(2, 1));
+        //The primary key is in Page0, which is already pinned
+        Assert.assertTrue(readFirstLeaf(0).isEmpty());
+        Assert.assertTrue(pinnedPages.isEmpty());
+    }
+
+    @Test
+    public void noReadAheadWhenAllColumnsAreInPageZero() throws HyracksDataException {
+        createLeaf(FIRST_LEAF, -1, 0, PRIMARY_KEY_OFFSET, PRIMARY_KEY_OFFSET + 16);
+        Assert.assertTrue(readFirstLeaf(1).isEmpty());
+    }
+
+    @Test
+    public void readAheadIsBoundedByPageBudget() throws HyracksDataException {
+        createLeaves(6);
+        ColumnBTreeReadLeafFrame frame = createFrame();
+        //Each leaf requires 4 pages
+        ColumnPagePrefetcher prefetcher = createPrefetcher(frame, 4, 6, 1);
+        onLeaf(frame, prefetcher, FIRST_LEAF);
+        //The second leaf (4 pages) is within the budget. The third leaf exceeds it (8 pages) and the fourth is not read
+        Assert.assertEquals(pages(2, 15), prefetchedPages);
+        Assert.assertEquals(Arrays.asList(6, 11), pinnedPages);
+
+        //Reaching the second leaf releases its pages from the budget
+        prefetchedPages.clear();
+        onLeaf(frame, prefetcher, 6);
+        Assert.assertEquals(pages(16, 20), prefetchedPages);
+        Assert.assertEquals(Arrays.asList(6, 11, 16), pinnedPages);
+    }
+
+    @Test
+    public void readAheadIsBoundedByNumberOfLeaves() throws HyracksDataException {
+        createLeaves(6);
+        ColumnBTreeReadLeafFrame frame = createFrame();
+        ColumnPagePrefetcher prefetcher = createPrefetcher(frame, 2, ColumnPagePrefetcher.DEFAULT_PAGE_BUDGET, 1);
+        onLeaf(frame, prefetcher, FIRST_LEAF);
+        Assert.assertEquals(pages(2, 15), prefetchedPages);
+        Assert.assertEquals(Arrays.asList(6, 11), pinnedPages);
+        //Nothing to do until the cursor moves to the next leaf
+        prefetcher.advance();
+        Assert.assertEquals(Arrays.asList(6, 11), pinnedPages);
+    }
+
+    @Test
+    public void doNotPinLeafBeforeItsReadAheadIsCompleted() throws HyracksDataException {
+        createLeaves(3);
+        completeReads = false;
+        ColumnBTreeReadLeafFrame frame = createFrame();
+        ColumnPagePrefetcher prefetcher = createPrefetcher(frame, 2, ColumnPagePrefetcher.DEFAULT_PAGE_BUDGET, 1);
+        onLeaf(frame, prefetcher, FIRST_LEAF);
+        prefetcher.advance();
+        Assert.assertEquals(pages(2, 6), prefetchedPages);
+        Assert.assertTrue(pinnedPages.isEmpty());
+
+        completeAll();
+        prefetcher.advance();
+        Assert.assertEquals(pages(2, 11), prefetchedPages);
+        Assert.assertEquals(Arrays.asList(6), pinnedPages);
+    }
+
+    @Test
+    public void droppedReadAheadIsRequestedAgain() throws HyracksDataException {
+        createLeaves(2);
+        completeReads = false;
+        ColumnBTreeReadLeafFrame frame = createFrame();
+        ColumnPagePrefetcher prefetcher = createPrefetcher(frame, 2, ColumnPagePrefetcher.DEFAULT_PAGE_BUDGET, 1);
+        onLeaf(frame, prefetcher, FIRST_LEAF);
+        //The buffer cache dropped the next leaf's read-ahead
+        pendingReads.get(pendingReads.size() - 1).cancel(false);
+        prefetcher.advance();
+        Assert.assertTrue(pinnedPages.isEmpty());
+
+        completeReads = true;
+        prefetcher.advance();
+        Assert.assertEquals(Arrays.asList(2, 3, 4, 5, 6, 6, 7, 8, 9, 10), prefetchedPages);
+        Assert.assertEquals(Arrays.asList(6), pinnedPages);
+    }
+
+    @Test
+    public void cancelPendingReadsOnCursorClose() throws HyracksDataException {
+        createLeaves(3);
+        completeReads = false;
+        ColumnBTreeReadLeafFrame frame = new ColumnBTreeReadLeafFrame(SimpleTupleWriter.INSTANCE, new TestReader(1));
+        ColumnBTreeRangeSearchCursor cursor =
+                new ColumnBTreeRangeSearchCursor(frame, NoOpIndexCursorStats.INSTANCE, 0, true);
+        cursor.setBufferCache(bufferCache);
+        cursor.setFileId(FILE_ID);
+        MultiComparator cmp =
+                MultiComparator.create(new IBinaryComparatorFactory[] { IntegerBinaryComparatorFactory.INSTANCE });
+        BTreeCursorInitialState initialState = new BTreeCursorInitialState(null, null);
+        initialState.setPage(leaves.get(FIRST_LEAF));
+        initialState.setPageId(FIRST_LEAF);
+        initialState.setOriginialKeyComparator(cmp);
+        cursor.open(initialState, new RangePredicate(null, null, true, true, cmp, cmp));
+        //The current leaf's column pages and the next leaf's Page0
+        Assert.assertEquals(pages(2, 6), prefetchedPages);
+        Assert.assertTrue(pendingReads.stream().noneMatch(CompletableFuture::isCancelled));
+
+        //e.g., LIMIT is reached
+        cursor.close();
+        Assert.assertEquals(5, pendingReads.size());
+        Assert.assertTrue(pendingReads.stream().allMatch(CompletableFuture::isCancelled));
+        Assert.assertTrue(pinnedPages.isEmpty());
+    }
+
+    /**
+     * @return the pages requested when reading the given columns of the first leaf
+     */
+    private List<Integer> readFirstLeaf(int... columns) throws HyracksDataException {
+        prefetchedPages.clear();
+        ColumnBTreeReadLeafFrame frame = createFrame();
+        onLeaf(frame, createPrefetcher(frame, 2, ColumnPagePrefetcher.DEFAULT_PAGE_BUDGET, columns), FIRST_LEAF);
+        return new ArrayList<>(prefetchedPages);
+    }
+
+    private void onLeaf(ColumnBTreeReadLeafFrame frame, ColumnPagePrefetcher prefetcher, int leaf)
+            throws HyracksDataException {
+        frame.setPage(leaves.get(leaf));
+        prefetcher.onLeaf();
+    }
+
+    private ColumnBTreeReadLeafFrame createFrame() {
+        return new ColumnBTreeReadLeafFrame(SimpleTupleWriter.INSTANCE, new TestReader());
+    }
+
+    private ColumnPagePrefetcher createPrefetcher(ColumnBTreeReadLeafFrame frame, int maxLeavesAhead, int pageBudget,
+            int... columns) {
+        ColumnPagePrefetcher prefetcher =
+                new ColumnPagePrefetcher(frame, new TestColumnTupleReference(frame, null, columns), maxLeavesAhead,
+                        pageBudget);
+        prefetcher.reset(bufferCache, FILE_ID);
+        return prefetcher;
+    }
+
+    private void completeAll() {
+        for (CompletableFuture<Void> read : pendingReads) {
+            read.complete(null);
+        }
+        pendingReads.clear();
+    }
+
+    /**
+     * Create consecutive leaves of a primary key (in Page0) and a column that occupies the remaining pages
+     */
+    private void createLeaves(int numberOfLeaves) {
+        for (int i = 0; i < numberOfLeaves; i++) {
+            int pageId = FIRST_LEAF + i * PAGES_PER_LEAF;
+            int nextLeaf = i < numberOfLeaves - 1 ? pageId + PAGES_PER_LEAF : -1;
+            createLeaf(pageId, nextLeaf, PAGES_PER_LEAF - 1, PRIMARY_KEY_OFFSET, PAGE_SIZE);
+        }
+    }
+
+    private void createLeaf(int pageId, int nextLeaf, int numberOfColumnPages, int... columnOffsets) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.TUPLE_COUNT_OFFSET, 1);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMNS_OFFSET, columnOffsets.length);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.NUMBER_OF_COLUMN_PAGES, numberOfColumnPages);
+        buffer.putInt(AbstractColumnBTreeLeafFrame.NEXT_LEAF_OFFSET, nextLeaf);
+        for (int i = 0; i < columnOffsets.length; i++) {
+            buffer.putInt(AbstractColumnBTreeLeafFrame.HEADER_SIZE + i * Integer.BYTES, columnOffsets[i]);
+        }
+        CachedPage page = mock(CachedPage.class);
+        when(page.getBuffer()).thenReturn(buffer);
+        when(page.getDiskPageId()).thenReturn(BufferedFileHandle.getDiskPageId(FILE_ID, pageId));
+        leaves.put(pageId, page);
+    }
+
+    private static List<Integer> pages(int from, int to) {
+        List<Integer> pages = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            pages.add(i);
+        }
+        return pages;
+    }
+
+    private static class TestReader extends AbstractColumnTupleReader {
+        private final int[] columns;
+
+        TestReader(int... columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public AbstractColumnTupleReference createTupleReference(ColumnBTreeReadLeafFrame frame, int componentIndex,
+                IColumnReadMultiPageOp multiPageOp) {
+            return new TestColumnTupleReference(frame, multiPageOp, columns);
+        }
+    }
+
+    /**
+     * A tuple reference of a primary key (column 0) that projects the given columns. Its leaves are filtered out, so
+     * the columns' pages are only read ahead
+     */
+    private static class TestColumnTupleReference extends AbstractColumnTupleReference {
+        TestColumnTupleReference(ColumnBTreeReadLeafFrame frame, IColumnReadMultiPageOp multiPageOp, int[] columns) {
+            super(0, frame, new IColumnProjectionInfo() {
+                @Override
+                public int getColumnIndex(int ordinal) {
+                    return columns[ordinal];
+                }
+
+                @Override
+                public int getNumberOfProjectedColumns() {
+                    return columns.length;
+                }
+
+                @Override
+                public int getNumberOfPrimaryKeys() {
+                    return 1;
+                }
+            }, multiPageOp);
+            setSkipFilteredPages(true);
+        }
+
+        @Override
+        protected boolean startNewPage(ByteBuffer pageZero, int numberOfColumns, int numberOfTuples) {
+            return false;
+        }
+
+        @Override
+        protected void startPrimaryKey(IColumnBufferProvider bufferProvider, int startIndex, int ordinal,
+                int numberOfTuples) {
+            //NoOp
+        }
+
+        @Override
+        protected void startColumn(IColumnBufferProvider buffersProvider, int startIndex, int ordinal,
+                int numberOfTuples) {
+            //NoOp
+        }
+
+        @Override
+        public void skip(int count) {
+            //NoOp
+        }
+
+        @Override
+        protected void onNext() {
+            //NoOp
+        }
+
+        @Override
+        public boolean isAntimatter() {
+            return false;
+        }
+
+        @Override
+        public int getTupleSize() {
+            return 0;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return 0;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int compareTo(AbstractColumnTupleReference o) {
+            return Integer.compare(getComponentIndex(), o.getComponentIndex());
+        }
+    }
+}
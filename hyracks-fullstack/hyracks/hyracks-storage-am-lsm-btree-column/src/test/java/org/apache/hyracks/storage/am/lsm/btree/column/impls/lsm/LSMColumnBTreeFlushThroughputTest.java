@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls.lsm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LSMColumnBTreeFlushThroughputTest {
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void throughputIsInBytesPerSecond() {
+        Assert.assertEquals(MB, LSMColumnBTree.getThroughput(MB, TimeUnit.SECONDS.toNanos(1)));
+        Assert.assertEquals(2 * MB, LSMColumnBTree.getThroughput(MB, TimeUnit.MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    public void flushUnderOneMillisecond() {
+        //Previously, the elapsed time was truncated to milliseconds
+        Assert.assertEquals(MB * 10_000, LSMColumnBTree.getThroughput(MB, TimeUnit.MICROSECONDS.toNanos(100)));
+        //The clock did not advance
+        Assert.assertEquals(MB * TimeUnit.SECONDS.toNanos(1), LSMColumnBTree.getThroughput(MB, 0));
+    }
+
+    @Test
+    public void largeComponentDoesNotOverflow() {
+        long bytes = 100L * 1024 * MB;
+        //bytes * 10^9 does not fit in a long
+        Assert.assertEquals(bytes / 10, LSMColumnBTree.getThroughput(bytes, TimeUnit.SECONDS.toNanos(10)), 1);
+    }
+}
@@ -33,6 +33,8 @@ import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.ISearchPredicate;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * Methods to be implemented by an LSM index, which are called from {@link LSMHarness}.
  * The implementations of the methods below should be thread agnostic.
@@ -208,4 +210,14 @@ public interface ILSMIndex extends IIndex {
      */
     void resetCurrentComponentIndex();
 
+    /**
+     * Add the statistics of the index's components (e.g., the throughput of their flushes)
+     *
+     * @param stats
+     *            the object to add the statistics to
+     */
+    default void addStats(ObjectNode stats) {
+        //NoOp
+    }
+
 }
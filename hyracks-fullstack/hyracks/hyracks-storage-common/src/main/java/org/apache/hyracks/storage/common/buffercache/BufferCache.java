@@ -21,18 +21,23 @@ package org.apache.hyracks.storage.common.buffercache;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -53,6 +58,8 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, IThreadStatsCollector {
 
     private static final Logger LOGGER = LogManager.getLogger();
@@ -64,6 +71,10 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     private static final int MAX_PIN_ATTEMPT_CYCLES = 1000;
     private static final int MAX_PAGE_READ_ATTEMPTS = 5;
     private static final long PERIOD_BETWEEN_READ_ATTEMPTS = 100;
+    //Maximum number of threads reading pages ahead (see prefetch(long))
+    private static final int MAX_PREFETCH_THREADS = 8;
+    //Maximum number of pages waiting to be read ahead. Further read-aheads are dropped
+    private static final int MAX_PENDING_PREFETCHES = 1024;
     public static final boolean DEBUG = false;
 
     private final int pageSize;
@@ -74,13 +85,17 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     private final IPageCleanerPolicy pageCleanerPolicy;
     private final IFileMapManager fileMapManager;
     private final CleanerThread cleanerThread;
+    private final ThreadPoolExecutor prefetchExecutor;
     private final Map<Integer, BufferedFileHandle> fileInfoMap;
     private final BlockingQueue<BufferCacheHeaderHelper> headerPageCache;
 
     private IIOReplicationManager ioReplicationManager;
-    private final List<ICachedPageInternal> cachedPages = new ArrayList<>();
+    //Indexed by the cached page id. Modified under cachedPagesLock and read (e.g., by the clock) without locking
+    private volatile AtomicReferenceArray<ICachedPageInternal> cachedPages;
+    private final Object cachedPagesLock = new Object();
     private final AtomicLong masterPinCount = new AtomicLong();
-    private final Map<Thread, IThreadStats> statsSubscribers = new ConcurrentHashMap<>();
+    private final AtomicLong droppedPrefetches = new AtomicLong();
+    private final ThreadLocal<IThreadStats> statsSubscriber = new ThreadLocal<>();
 
     private boolean closed;
 
@@ -108,9 +123,14 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         this.fileMapManager = fileMapManager;
 
         Executor executor = Executors.newCachedThreadPool(threadFactory);
-        fileInfoMap = new HashMap<>();
+        //Modified under the map's monitor and read (e.g., when a page is read) without locking
+        fileInfoMap = new ConcurrentHashMap<>();
+        cachedPages = new AtomicReferenceArray<>(pageReplacementStrategy.getMaxAllowedNumPages());
         cleanerThread = new CleanerThread();
         executor.execute(cleanerThread);
+        prefetchExecutor = new ThreadPoolExecutor(MAX_PREFETCH_THREADS, MAX_PREFETCH_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_PREFETCHES), threadFactory);
+        prefetchExecutor.allowCoreThreadTimeOut(true);
         closed = false;
 
         if (DEBUG) {
@@ -153,10 +173,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
         // check whether file has been created and opened
         int fileId = BufferedFileHandle.getFileId(dpid);
-        BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         if (fInfo == null || fInfo.hasBeenDeleted() || !fInfo.hasBeenOpened()) {
             throw new HyracksDataException("pin called on a fileId " + fileId + " that has not been created.");
         } else if (fInfo.getReferenceCount() <= 0) {
@@ -166,12 +183,15 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
-        // Calling the pinSanityCheck should be used only for debugging, since
-        // the synchronized block over the fileInfoMap is a hot spot.
+        return pin(dpid, newPage, false);
+    }
+
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
         if (DEBUG) {
             pinSanityCheck(dpid);
         }
-        final IThreadStats threadStats = statsSubscribers.get(Thread.currentThread());
+        final IThreadStats threadStats = statsSubscriber.get();
         if (threadStats != null) {
             threadStats.pagePinned();
         }
@@ -210,7 +230,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         } else {
             cPage.valid = true;
         }
-        pageReplacementStrategy.notifyCachePageAccess(cPage);
+        pageReplacementStrategy.notifyCachePageAccess(cPage, sequential);
         if (DEBUG) {
             pinnedPageOwner.put(cPage, Thread.currentThread().getStackTrace());
         }
@@ -229,6 +249,10 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
          */
         int hash = hash(dpid);
         CacheBucket bucket = pageMap[hash];
+        cPage = findPageOptimistically(dpid, bucket);
+        if (cPage != null) {
+            return cPage;
+        }
         bucket.bucketLock.lock();
         try {
             cPage = bucket.cachedPage;
@@ -289,7 +313,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             /*
              * Case 1.
              */
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             try {
                 if (!victim.pinCount.compareAndSet(0, 1)) {
                     return null;
@@ -318,7 +342,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 victim.next = bucket.cachedPage;
                 bucket.cachedPage = victim;
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
             }
 
             if (DEBUG) {
@@ -331,7 +355,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             /*
              * Case 2a.
              */
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             try {
                 if (!victim.pinCount.compareAndSet(0, 1)) {
                     return null;
@@ -358,7 +382,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 }
                 victim.reset(dpid);
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
             }
             if (DEBUG) {
                 assert !victim.confiscated.get();
@@ -370,11 +394,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
              */
             CacheBucket victimBucket = pageMap[victimHash];
             if (victimHash < hash) {
-                victimBucket.bucketLock.lock();
-                bucket.bucketLock.lock();
+                victimBucket.lockForUpdate();
+                bucket.lockForUpdate();
             } else {
-                bucket.bucketLock.lock();
-                victimBucket.bucketLock.lock();
+                bucket.lockForUpdate();
+                victimBucket.lockForUpdate();
             }
             try {
                 if (!victim.pinCount.compareAndSet(0, 1)) {
@@ -409,8 +433,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 victim.next = bucket.cachedPage;
                 bucket.cachedPage = victim;
             } finally {
-                victimBucket.bucketLock.unlock();
-                bucket.bucketLock.unlock();
+                victimBucket.unlockForUpdate();
+                bucket.unlockForUpdate();
             }
             if (DEBUG) {
                 assert !victim.confiscated.get();
@@ -419,6 +443,38 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         }
     }
 
+    /**
+     * Find and pin a page without locking its bucket. The page is pinned first and then the bucket's version is
+     * checked. Hence, a page is returned only if no victim was taken from (and no page was moved out of) the bucket
+     * while it was looked up.
+     *
+     * @return the pinned page or null if the page is not cached or the bucket was modified during the lookup
+     */
+    private static CachedPage findPageOptimistically(long dpid, CacheBucket bucket) {
+        int version = bucket.version;
+        if ((version & 1) != 0) {
+            //The bucket is being modified
+            return null;
+        }
+        CachedPage cPage = bucket.cachedPage;
+        while (cPage != null && cPage.dpid != dpid) {
+            if (bucket.version != version) {
+                //The chain might have been unlinked (or moved to another bucket) while traversing it
+                return null;
+            }
+            cPage = cPage.next;
+        }
+        if (cPage == null) {
+            return null;
+        }
+        cPage.pinCount.incrementAndGet();
+        if (bucket.version != version || cPage.dpid != dpid) {
+            cPage.pinCount.decrementAndGet();
+            return null;
+        }
+        return cPage;
+    }
+
     private CachedPage findTargetInBucket(long dpid, CachedPage cPage, CachedPage victim) {
         while (cPage != null) {
             if (cPage.dpid == dpid) {
@@ -440,6 +496,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         buffer.append("Page Size: ").append(pageSize).append('\n');
         buffer.append("Number of physical pages: ").append(pageReplacementStrategy.getMaxAllowedNumPages())
                 .append('\n');
+        buffer.append("Replacement strategy: ").append(pageReplacementStrategy).append('\n');
         buffer.append("Hash table size: ").append(pageMap.length).append('\n');
         buffer.append("Page Map:\n");
         buffer.append("cpid -> [fileId:pageId, pinCount, valid/invalid, confiscated/physical, dirty/clean]");
@@ -482,9 +539,13 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     @Override
     public boolean isClean() {
         List<Long> reachableDpids = new LinkedList<>();
-        synchronized (cachedPages) {
-            for (ICachedPageInternal internalPage : cachedPages) {
-                CachedPage c = (CachedPage) internalPage;
+        synchronized (cachedPagesLock) {
+            AtomicReferenceArray<ICachedPageInternal> pages = cachedPages;
+            for (int i = 0; i < pages.length(); i++) {
+                CachedPage c = (CachedPage) pages.get(i);
+                if (c == null) {
+                    continue;
+                }
                 if (c.confiscated() || c.latch.getReadLockCount() != 0 || c.latch.getWriteHoldCount() != 0) {
                     return false;
                 }
@@ -572,6 +633,32 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     }
 
+    @Override
+    public Future<Void> prefetch(long dpid) {
+        try {
+            return CompletableFuture.runAsync(() -> readAhead(dpid), prefetchExecutor);
+        } catch (RejectedExecutionException e) {
+            //Too many pending read-aheads (or the cache is closed). The page will be read once it is pinned
+            droppedPrefetches.incrementAndGet();
+            CompletableFuture<Void> dropped = new CompletableFuture<>();
+            dropped.cancel(false);
+            return dropped;
+        }
+    }
+
+    private void readAhead(long dpid) {
+        if (closed) {
+            return;
+        }
+        try {
+            //Pages are read ahead for scans
+            unpin(pin(dpid, false, true));
+        } catch (Exception e) {
+            //The page will be read again (and the failure will be reported) once it is pinned by its reader
+            LOGGER.debug("Failed to read ahead page {}", dpid, e);
+        }
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         if (closed) {
@@ -585,12 +672,12 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public void subscribe(IThreadStats stats) {
-        statsSubscribers.put(Thread.currentThread(), stats);
+        statsSubscriber.set(stats);
     }
 
     @Override
     public void unsubscribe() {
-        statsSubscribers.remove(Thread.currentThread());
+        statsSubscriber.remove();
     }
 
     private int hash(long dpid) {
@@ -598,20 +685,36 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         return hashValue % pageMap.length;
     }
 
+    /**
+     * A hash bucket of the page table. The bucket's chain is read without locking (see
+     * {@link #findPageOptimistically(long, CacheBucket)}). Any modification of the chain, or of the disk page id of a
+     * page in the chain, must be done between {@link #lockForUpdate()} and {@link #unlockForUpdate()}, which make
+     * the bucket's version odd while the bucket is being modified.
+     */
     private static class CacheBucket {
         private final Lock bucketLock;
-        private CachedPage cachedPage;
+        private volatile CachedPage cachedPage;
+        private volatile int version;
 
         public CacheBucket() {
             bucketLock = new ReentrantLock();
         }
+
+        private void lockForUpdate() {
+            bucketLock.lock();
+            version++;
+        }
+
+        private void unlockForUpdate() {
+            version++;
+            bucketLock.unlock();
+        }
     }
 
     @Override
     public ICachedPageInternal getPage(int cpid) {
-        synchronized (cachedPages) {
-            return cachedPages.get(cpid);
-        }
+        AtomicReferenceArray<ICachedPageInternal> pages = cachedPages;
+        return cpid < pages.length() ? pages.get(cpid) : null;
     }
 
     private class CleanerThread implements Runnable {
@@ -694,8 +797,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             pageCleanerPolicy.notifyCleanCycleStart(threadLock);
             int curPage = 0;
             while (true) {
-                synchronized (cachedPages) {
-                    if (curPage >= cachedPages.size()) {
+                synchronized (cachedPagesLock) {
+                    if (curPage >= cachedPages.length()) {
                         break;
                     }
                     CachedPage cPage = (CachedPage) cachedPages.get(curPage);
@@ -714,6 +817,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     @Override
     public void close() {
         closed = true;
+        prefetchExecutor.shutdownNow();
         try {
             synchronized (cleanerThread.threadLock) {
                 cleanerThread.shutdownStart = true;
@@ -853,7 +957,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         }
         final int fileId = fInfo.getFileId();
         for (final CacheBucket bucket : pageMap) {
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             try {
                 CachedPage prev = bucket.cachedPage;
                 while (prev != null) {
@@ -875,7 +979,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                     cPage.next = null;
                 }
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
             }
         }
     }
@@ -1020,17 +1124,20 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public void addPage(ICachedPageInternal page) {
-        synchronized (cachedPages) {
+        synchronized (cachedPagesLock) {
             final int cpid = page.getCachedPageId();
-            if (cpid < cachedPages.size()) {
-                cachedPages.set(cpid, page);
-            } else {
-                if (cpid > cachedPages.size()) {
-                    // 4 > 1 -> [exiting, null, null, null, new]
-                    cachedPages.addAll(Collections.nCopies(cpid - cachedPages.size(), null));
+            AtomicReferenceArray<ICachedPageInternal> pages = cachedPages;
+            if (cpid >= pages.length()) {
+                //The budget was exceeded (e.g., by large pages). Grow the array and publish it once it is filled
+                AtomicReferenceArray<ICachedPageInternal> newPages =
+                        new AtomicReferenceArray<>(Math.max(cpid + 1, pages.length() * 2));
+                for (int i = 0; i < pages.length(); i++) {
+                    newPages.set(i, pages.get(i));
                 }
-                cachedPages.add(page);
+                pages = newPages;
+                cachedPages = newPages;
             }
+            pages.set(cpid, page);
         }
     }
 
@@ -1052,7 +1159,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             // Case 2a/b
             int pageHash = hash(victim.dpid);
             CacheBucket bucket = pageMap[pageHash];
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             try {
                 if (!victim.pinCount.compareAndSet(0, 1)) {
                     return false;
@@ -1097,11 +1204,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 }
                 assert found;
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
             }
         }
-        synchronized (cachedPages) {
-            ICachedPageInternal old = cachedPages.set(victim.cpid, null);
+        synchronized (cachedPagesLock) {
+            ICachedPageInternal old = cachedPages.getAndSet(victim.cpid, null);
             if (DEBUG) {
                 assert old == victim;
             }
@@ -1169,7 +1276,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             // Case 2a/b
             int pageHash = hash(victim.getDiskPageId());
             CacheBucket bucket = pageMap[pageHash];
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             try {
                 // readjust the next pointers to remove this page from
                 // the pagemap
@@ -1210,7 +1317,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                     ((CachedPage) returnPage).dpid = dpid;
                 } //otherwise, someone took the same victim before we acquired the lock. try again!
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
             }
         }
         // if we found a page after all that, go ahead and finish
@@ -1249,10 +1356,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     }
 
     private BufferedFileHandle getFileHandle(int fileId) throws HyracksDataException {
-        BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         if (fInfo == null) {
             throw HyracksDataException.create(ErrorCode.FILE_DOES_NOT_EXIST, fileId);
         }
@@ -1331,7 +1435,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         if (reinsert) {
             int hash = hash(cPage.dpid);
             bucket = pageMap[hash];
-            bucket.bucketLock.lock();
+            bucket.lockForUpdate();
             if (DEBUG) {
                 confiscateLock.lock();
             }
@@ -1349,7 +1453,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                     confiscatedPagesOwner.remove(cPage);
                 }
             } finally {
-                bucket.bucketLock.unlock();
+                bucket.unlockForUpdate();
                 if (DEBUG) {
                     confiscateLock.unlock();
                 }
@@ -1423,12 +1527,16 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public ICompressedPageWriter getCompressedPageWriter(int fileId) {
-        final BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
-
+        final BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         return fInfo.getCompressedPageWriter();
     }
 
+    @Override
+    public void addStats(ObjectNode stats) {
+        stats.put("pageSize", pageSize);
+        stats.put("numPages", pageReplacementStrategy.getMaxAllowedNumPages());
+        stats.put("droppedPrefetches", droppedPrefetches.get());
+        pageReplacementStrategy.addStats(stats);
+    }
+
 }
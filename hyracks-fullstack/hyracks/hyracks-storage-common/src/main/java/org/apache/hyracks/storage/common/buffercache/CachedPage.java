@@ -35,7 +35,7 @@ public class CachedPage implements ICachedPageInternal {
     private final Object replacementStrategyObject;
     private final IPageReplacementStrategy pageReplacementStrategy;
     volatile long dpid; // disk page id (composed of file id and page id)
-    CachedPage next;
+    volatile CachedPage next;
     volatile boolean valid;
     final AtomicBoolean confiscated;
     private int multiplier;
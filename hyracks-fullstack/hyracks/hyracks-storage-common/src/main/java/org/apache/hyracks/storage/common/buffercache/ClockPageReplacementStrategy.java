@@ -27,7 +27,10 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
+    public static final String NAME = "clock";
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int MAX_UNSUCCESSFUL_CYCLE_COUNT = 3;
 
@@ -92,6 +95,8 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
             if (multiple == multiplier) {
                 return victim;
             } else if (bufferCache.removePage(victim)) {
+                //The removed page's buffer is dropped. Hence, clear its state to not account for it anymore
+                notifyCachePageReset(victim);
                 cpIdFreeList.add(victim.getCachedPageId());
                 numPages.getAndAdd(-multiple);
             }
@@ -118,11 +123,8 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
                  * 2. We check with the buffer manager if it feels it's a good idea to use this
                  * page as a victim.
                  */
-                AtomicBoolean accessedFlag = getPerPageObject(cPage);
-                if (!accessedFlag.compareAndSet(true, false)) {
-                    if (cPage.isGoodVictim()) {
-                        return cPage;
-                    }
+                if (isEvictable(cPage, cycleCount) && cPage.isGoodVictim()) {
+                    return cPage;
                 }
             }
             if (clockPtr < lastClockPtr) {
@@ -144,6 +146,26 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         }
     }
 
+    /**
+     * Called by the clock for every page it passes while looking for a victim
+     *
+     * @param cPage
+     *            the page under the clock
+     * @param cycleCount
+     *            the number of full clock cycles completed so far without finding a victim
+     * @return true if the page can be evicted (i.e., it has not been accessed since the clock last passed it)
+     */
+    protected boolean isEvictable(ICachedPageInternal cPage, int cycleCount) {
+        return !getPerPageObject(cPage).compareAndSet(true, false);
+    }
+
+    /**
+     * @return the number of cached page ids (i.e., the size of the clock's dial)
+     */
+    protected int getNumCachedPageIds() {
+        return cpIdCounter.get();
+    }
+
     @Override
     public int getNumPages() {
         return numPages.get();
@@ -213,6 +235,7 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
             if (victim != null) {
                 final int victimMultiplier = victim.getFrameSizeMultiplier();
                 if (bufferCache.removePage(victim)) {
+                    notifyCachePageReset(victim);
                     cpIdFreeList.add(victim.getCachedPageId());
                     numPages.getAndAdd(-victimMultiplier);
                 }
@@ -257,6 +280,16 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         return maxAllowedNumPages;
     }
 
+    @Override
+    public String toString() {
+        return NAME;
+    }
+
+    @Override
+    public void addStats(ObjectNode stats) {
+        stats.put("replacementPolicy", NAME);
+    }
+
     @Override
     public void adviseWontNeed(ICachedPageInternal cPage) {
         //make the page appear as if it wasn't accessed even if it was
@@ -19,12 +19,15 @@
 
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * Implementation of an IBufferCache that counts the number of pins/unpins,
  * latches/unlatches, and file create/delete/open/close called on it. It
@@ -83,6 +86,18 @@ public class DebugBufferCache implements IBufferCache {
         return page;
     }
 
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(dpid, newPage, sequential);
+        pinCount.addAndGet(1);
+        return page;
+    }
+
+    @Override
+    public Future<Void> prefetch(long dpid) {
+        return bufferCache.prefetch(dpid);
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         bufferCache.unpin(page);
@@ -104,6 +119,11 @@ public class DebugBufferCache implements IBufferCache {
         return bufferCache.getPageBudget();
     }
 
+    @Override
+    public void addStats(ObjectNode stats) {
+        bufferCache.addStats(stats);
+    }
+
     @Override
     public void close() throws HyracksDataException {
         bufferCache.close();
@@ -18,11 +18,16 @@
  */
 package org.apache.hyracks.storage.common.buffercache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
 import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 public interface IBufferCache {
 
     long INVALID_DPID = -1L;
@@ -104,6 +109,24 @@ public interface IBufferCache {
      */
     ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException;
 
+    /**
+     * Pin the page the same way as {@link #pin(long, boolean)}, while telling the cache whether the page is pinned
+     * by a sequential reader (e.g., a scan or a merge cursor). A scan-resistant replacement strategy keeps such pages
+     * out of the cache's protected (i.e., frequently accessed) pages.
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @param newPage
+     *            whether this page is expected to be new.
+     * @param sequential
+     *            whether this page is pinned by a sequential reader
+     * @return the pinned page
+     * @throws HyracksDataException
+     */
+    default ICachedPage pin(long dpid, boolean newPage, boolean sequential) throws HyracksDataException {
+        return pin(dpid, newPage);
+    }
+
     /**
      * Unpin a pinned page so its buffer can be recycled
      *
@@ -113,6 +136,22 @@ public interface IBufferCache {
      */
     void unpin(ICachedPage page) throws HyracksDataException;
 
+    /**
+     * Read a page into the cache asynchronously (i.e., read-ahead) if the page is not already cached. The page is not
+     * kept pinned after it is read. Hence, a subsequent call to {@link #pin(long, boolean)} would not wait for the
+     * page to be read from disk unless it was evicted in between. Failing to read the page is ignored, as the
+     * subsequent {@link #pin(long, boolean)} would read it (and report the failure) again.
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @return a future that is completed once the page is read, which can be cancelled if the page is no longer
+     *         needed. The returned future is already cancelled if the read-ahead was dropped (e.g., too many
+     *         read-aheads are pending)
+     */
+    default Future<Void> prefetch(long dpid) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Flush the page if it is dirty
      *
@@ -281,4 +320,14 @@ public interface IBufferCache {
         throw new UnsupportedOperationException(this.getClass().getName() + " does not support compressed pages");
     }
 
+    /**
+     * Add the statistics of the buffer cache (e.g., the hits and misses of its page replacement strategy)
+     *
+     * @param stats
+     *            the object to add the statistics to
+     */
+    default void addStats(ObjectNode stats) {
+        //NoOp
+    }
+
 }
@@ -20,6 +20,8 @@ package org.apache.hyracks.storage.common.buffercache;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 public interface IPageReplacementStrategy {
     public Object createPerPageStrategyObject(int cpid);
 
@@ -31,8 +33,30 @@ public interface IPageReplacementStrategy {
 
     public void notifyCachePageAccess(ICachedPageInternal cPage);
 
+    /**
+     * Notify the strategy that a page is accessed
+     *
+     * @param cPage
+     *            the accessed page
+     * @param sequential
+     *            whether the page is accessed by a scan or a merge (i.e., it is unlikely to be accessed again soon)
+     */
+    default void notifyCachePageAccess(ICachedPageInternal cPage, boolean sequential) {
+        notifyCachePageAccess(cPage);
+    }
+
     public void adviseWontNeed(ICachedPageInternal cPage);
 
+    /**
+     * Add the statistics of the strategy (e.g., its hits and misses)
+     *
+     * @param stats
+     *            the object to add the statistics to
+     */
+    default void addStats(ObjectNode stats) {
+        //NoOp
+    }
+
     public ICachedPageInternal findVictim();
 
     public ICachedPageInternal findVictim(int multiplier);
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A scan-resistant variant of {@link ClockPageReplacementStrategy} that splits the cached pages into two queues
+ * (similar to 2Q and CLOCK-Pro):
+ * <ul>
+ * <li>probationary: pages that were accessed once since they were read. Newly read pages start here and only these
+ * pages are evicted by the clock (unless the clock cannot find a victim among them).</li>
+ * <li>protected: pages that were accessed again while they were on probation (e.g., B-tree interior pages, bloom
+ * filter pages, and metadata pages). A protected page is demoted back to probation only to make room for a newly
+ * protected page and only if it has not been accessed since the previous demotion attempt passed it.</li>
+ * </ul>
+ * Sequential accesses (see {@link IBufferCache#pin(long, boolean, boolean)}) never protect a page and do not give a
+ * probationary page a second chance. Hence, a full scan or a merge only cycles through the probationary pages and
+ * leaves the protected pages in the cache.
+ */
+public class TwoQueueClockPageReplacementStrategy extends ClockPageReplacementStrategy {
+    public static final String NAME = "2q";
+    /**
+     * The default share of the cache that can be occupied by protected pages, as suggested by the original 2Q paper
+     */
+    public static final double DEFAULT_PROTECTED_RATIO = 0.75;
+    /**
+     * The maximum number of pages the protected clock visits per access to make room for a newly protected page
+     */
+    public static final int MAX_DEMOTION_STEPS = 8;
+    //Per-page state bits
+    private static final int ACCESSED = 1;
+    private static final int REFERENCED = 1 << 1;
+    private static final int PROTECTED = 1 << 2;
+
+    private final int maxProtectedPages;
+    private final AtomicInteger protectedPages;
+    private final AtomicInteger protectedClockPtr;
+    private final LongAdder protectedHits;
+    private final LongAdder probationaryHits;
+    private final LongAdder misses;
+
+    public TwoQueueClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize,
+            int maxAllowedNumPages) {
+        this(allocator, pageSize, maxAllowedNumPages, DEFAULT_PROTECTED_RATIO);
+    }
+
+    public TwoQueueClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages,
+            double protectedRatio) {
+        super(allocator, pageSize, maxAllowedNumPages);
+        maxProtectedPages = (int) (maxAllowedNumPages * protectedRatio);
+        protectedPages = new AtomicInteger();
+        protectedClockPtr = new AtomicInteger();
+        protectedHits = new LongAdder();
+        probationaryHits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger();
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        //The page holds new content (or none) and starts over on probation
+        if ((getState(cPage).getAndSet(0) & PROTECTED) != 0) {
+            protectedPages.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        notifyCachePageAccess(cPage, false);
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage, boolean sequential) {
+        AtomicInteger state = getState(cPage);
+        int current = state.get();
+        if ((current & PROTECTED) != 0) {
+            protectedHits.increment();
+            if ((current & REFERENCED) == 0) {
+                state.getAndUpdate(s -> s | REFERENCED);
+            }
+        } else if ((current & ACCESSED) == 0) {
+            //First access since the page was read
+            misses.increment();
+            state.getAndUpdate(s -> s | (sequential ? ACCESSED : ACCESSED | REFERENCED));
+        } else {
+            probationaryHits.increment();
+            if (!sequential) {
+                accessProbationary(state);
+            }
+        }
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        //make the page appear as if it was only read once and never accessed
+        if ((getState(cPage).getAndSet(ACCESSED) & PROTECTED) != 0) {
+            protectedPages.decrementAndGet();
+        }
+    }
+
+    @Override
+    protected boolean isEvictable(ICachedPageInternal cPage, int cycleCount) {
+        AtomicInteger state = getState(cPage);
+        int current = state.get();
+        if ((current & PROTECTED) != 0 && cycleCount == 0) {
+            //Protected pages are only considered once the clock could not find a probationary victim
+            return false;
+        }
+        if ((current & REFERENCED) == 0) {
+            return true;
+        }
+        state.compareAndSet(current, current & ~REFERENCED);
+        return false;
+    }
+
+    public long getProtectedHits() {
+        return protectedHits.sum();
+    }
+
+    public long getProbationaryHits() {
+        return probationaryHits.sum();
+    }
+
+    /**
+     * @return the number of accesses to pages that were just read into the cache
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getNumProtectedPages() {
+        return protectedPages.get();
+    }
+
+    @Override
+    public void addStats(ObjectNode stats) {
+        stats.put("replacementPolicy", NAME);
+        stats.put("protectedPages", getNumProtectedPages());
+        stats.put("maxProtectedPages", maxProtectedPages);
+        stats.put("protectedHits", getProtectedHits());
+        stats.put("probationaryHits", getProbationaryHits());
+        stats.put("misses", getMisses());
+    }
+
+    @Override
+    public String toString() {
+        return NAME + " [protected pages: " + getNumProtectedPages() + "/" + maxProtectedPages + ", protected hits: "
+                + getProtectedHits() + ", probationary hits: " + getProbationaryHits() + ", misses: " + getMisses()
+                + "]";
+    }
+
+    /**
+     * A probationary page that is accessed again is protected if there is (or can be made) room for it. Otherwise,
+     * it gets a second chance like in {@link ClockPageReplacementStrategy}
+     */
+    private void accessProbationary(AtomicInteger state) {
+        if (protectedPages.get() >= maxProtectedPages && !demoteProtected()) {
+            state.getAndUpdate(s -> s | REFERENCED);
+            return;
+        }
+        int current = state.get();
+        if ((current & PROTECTED) == 0 && state.compareAndSet(current, current | REFERENCED | PROTECTED)) {
+            protectedPages.incrementAndGet();
+        }
+    }
+
+    /**
+     * Advance a second clock over the protected pages by at most {@link #MAX_DEMOTION_STEPS} pages. Referenced pages
+     * lose their reference and the first unreferenced page goes back on probation. The clock resumes where it
+     * stopped on the next access, so the references are cleared gradually and the cost of a pin stays constant
+     *
+     * @return true if a page was demoted, false otherwise
+     */
+    private boolean demoteProtected() {
+        int numPageIds = getNumCachedPageIds();
+        for (int i = 0; i < MAX_DEMOTION_STEPS; i++) {
+            ICachedPageInternal cPage = getBufferCache().getPage(advanceProtectedClock(numPageIds));
+            if (cPage == null) {
+                continue;
+            }
+            AtomicInteger state = getState(cPage);
+            int current = state.get();
+            if ((current & PROTECTED) == 0) {
+                continue;
+            }
+            if ((current & REFERENCED) != 0) {
+                state.compareAndSet(current, current & ~REFERENCED);
+            } else if (state.compareAndSet(current, current & ~PROTECTED)) {
+                protectedPages.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int advanceProtectedClock(int numPageIds) {
+        return protectedClockPtr.getAndUpdate(ptr -> (ptr + 1) % numPageIds);
+    }
+
+    private static AtomicInteger getState(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.hyracks.storage.common.projection;
 
 import java.io.DataOutput;
+import java.util.List;
 
 import org.apache.hyracks.api.comm.IFrameWriter;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -29,4 +30,24 @@ import org.apache.hyracks.storage.common.IIndexCursor;
 public interface ICodeGenerationExecutor {
     void execute(IIndexCursor cursor, DataOutput dos, ArrayTupleBuilder tb, IFrameWriter writer,
             FrameTupleAppender appender) throws HyracksDataException;
+
+    /**
+     * @return the maximum number of key ranges of a partition that can be executed concurrently. 1 means that the
+     * generated code must consume the whole partition using a single cursor
+     */
+    default int getMaxParallelism() {
+        return 1;
+    }
+
+    /**
+     * Execute the generated code concurrently, one worker per range. Workers only push frames to the writer.
+     *
+     * @param ranges     disjoint key ranges that cover the whole partition
+     * @param fieldCount number of fields of the output tuples
+     * @param writer     output writer (already opened)
+     */
+    default void execute(List<ICodeGenerationScanRange> ranges, int fieldCount, IFrameWriter writer)
+            throws HyracksDataException {
+        throw new UnsupportedOperationException("Parallel execution is not supported");
+    }
 }
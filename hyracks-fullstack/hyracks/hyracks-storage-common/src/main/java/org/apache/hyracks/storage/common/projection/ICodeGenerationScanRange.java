@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.projection;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.IIndexCursor;
+
+/**
+ * A disjoint key range of a partition that is scanned by one of the workers of
+ * {@link ICodeGenerationExecutor#execute(java.util.List, int, org.apache.hyracks.api.comm.IFrameWriter)}.
+ * The range is searched, consumed, and closed by the same worker thread.
+ */
+public interface ICodeGenerationScanRange {
+    /**
+     * Search the range
+     *
+     * @return a cursor over the range's tuples
+     */
+    IIndexCursor search() throws HyracksDataException;
+
+    /**
+     * Close and destroy the range's cursor (if any)
+     */
+    void close() throws HyracksDataException;
+}
@@ -69,6 +69,21 @@ public class TestNCServiceContext implements INCServiceContext {
             public boolean allocate(long memory) {
                 return true;
             }
+
+            @Override
+            public boolean allocateOffHeap(long memory) {
+                return true;
+            }
+
+            @Override
+            public void deallocateOffHeap(long memory) {
+
+            }
+
+            @Override
+            public long getOffHeapMemoryUsed() {
+                return 0;
+            }
         };
     }
 
@@ -443,6 +443,68 @@ public class BufferCacheTest {
         bufferCache.closeFile(fileId);
     }
 
+    @Test
+    public void concurrentPinUnpinTest() throws Exception {
+        /*
+         * Many threads pin random pages of a file that is larger than the buffer cache. Hence, pages are looked up
+         * (mostly without locking their buckets) while other threads evict them. Every pinned page must hold the
+         * content of the requested page.
+         */
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        String fileName = getFileName();
+        FileReference file = ioManager.resolve(fileName);
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+
+        final int numFilePages = NUM_PAGES * 4;
+        for (int i = 0; i < numFilePages; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), true);
+            page.acquireWriteLatch();
+            try {
+                page.getBuffer().putInt(0, i);
+            } finally {
+                page.releaseWriteLatch(true);
+                bufferCache.unpin(page);
+            }
+        }
+
+        final int numThreads = 8;
+        final int pinsPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final Random threadRnd = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < pinsPerThread; i++) {
+                    // a few hot pages are pinned most of the time
+                    int pageId = threadRnd.nextBoolean() ? threadRnd.nextInt(2) : threadRnd.nextInt(numFilePages);
+                    ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+                    page.acquireReadLatch();
+                    try {
+                        Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+                    } finally {
+                        page.releaseReadLatch();
+                        bufferCache.unpin(page);
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         for (String s : openedFiles) {
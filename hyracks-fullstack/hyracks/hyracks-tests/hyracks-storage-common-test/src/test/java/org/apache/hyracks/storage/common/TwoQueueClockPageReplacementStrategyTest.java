@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.ICachedPageInternal;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class TwoQueueClockPageReplacementStrategyTest {
+    private static final String FILE_NAME = "twoQueueTestFile";
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 10;
+    private static final int MAX_OPEN_FILES = 20;
+    private static final int NUM_HOT_PAGES = 4;
+    private static final int NUM_FILE_PAGES = 5 * NUM_PAGES;
+
+    @After
+    public void tearDown() {
+        File f = new File("target", FILE_NAME);
+        if (f.exists()) {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void scanDoesNotEvictProtectedPages() throws HyracksDataException {
+        TwoQueueClockPageReplacementStrategy strategy =
+                new TwoQueueClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        BufferCache bufferCache = createBufferCache(strategy);
+        int fileId = createFile(bufferCache);
+
+        //Accessing the hot pages twice protects them
+        for (int i = 0; i < 2; i++) {
+            for (int pageId = 0; pageId < NUM_HOT_PAGES; pageId++) {
+                pinAndUnpin(bufferCache, fileId, pageId, false);
+            }
+        }
+        Assert.assertEquals(NUM_HOT_PAGES, strategy.getNumProtectedPages());
+
+        //A scan much larger than the cache
+        for (int pageId = NUM_HOT_PAGES; pageId < NUM_FILE_PAGES; pageId++) {
+            pinAndUnpin(bufferCache, fileId, pageId, true);
+        }
+        Assert.assertEquals(NUM_HOT_PAGES, strategy.getNumProtectedPages());
+
+        //The hot pages are still cached
+        long misses = strategy.getMisses();
+        long protectedHits = strategy.getProtectedHits();
+        for (int pageId = 0; pageId < NUM_HOT_PAGES; pageId++) {
+            pinAndUnpin(bufferCache, fileId, pageId, false);
+        }
+        Assert.assertEquals(misses, strategy.getMisses());
+        Assert.assertEquals(protectedHits + NUM_HOT_PAGES, strategy.getProtectedHits());
+
+        //The hits and misses are reported through the buffer cache stats
+        ObjectNode stats = new ObjectMapper().createObjectNode();
+        bufferCache.addStats(stats);
+        Assert.assertEquals(TwoQueueClockPageReplacementStrategy.NAME, stats.get("replacementPolicy").asText());
+        Assert.assertEquals(NUM_PAGES, stats.get("numPages").asInt());
+        Assert.assertEquals(NUM_HOT_PAGES, stats.get("protectedPages").asInt());
+        Assert.assertEquals(strategy.getProtectedHits(), stats.get("protectedHits").asLong());
+        Assert.assertEquals(strategy.getProbationaryHits(), stats.get("probationaryHits").asLong());
+        Assert.assertEquals(strategy.getMisses(), stats.get("misses").asLong());
+
+        deleteFile(bufferCache, fileId);
+    }
+
+    @Test
+    public void demotionIsBoundedPerAccess() throws HyracksDataException {
+        TwoQueueClockPageReplacementStrategy strategy =
+                new TwoQueueClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        AtomicInteger visitedPages = new AtomicInteger();
+        BufferCache bufferCache = new BufferCache(TestStorageManagerComponentHolder.getIOManager(), strategy,
+                new DelayPageCleanerPolicy(1000), new FileMapManager(), MAX_OPEN_FILES, 10, Thread::new) {
+            @Override
+            public ICachedPageInternal getPage(int cpid) {
+                visitedPages.incrementAndGet();
+                return super.getPage(cpid);
+            }
+        };
+        int fileId = createFile(bufferCache);
+
+        //Fill the cache and protect as many pages as allowed
+        int maxProtectedPages = (int) (NUM_PAGES * TwoQueueClockPageReplacementStrategy.DEFAULT_PROTECTED_RATIO);
+        for (int pageId = 0; pageId < NUM_PAGES; pageId++) {
+            pinAndUnpin(bufferCache, fileId, pageId, false);
+        }
+        for (int pageId = 0; pageId < maxProtectedPages; pageId++) {
+            pinAndUnpin(bufferCache, fileId, pageId, false);
+        }
+        Assert.assertEquals(maxProtectedPages, strategy.getNumProtectedPages());
+
+        //Reference all protected pages so that a demotion has to clear their references first
+        for (int pageId = 0; pageId < maxProtectedPages; pageId++) {
+            pinAndUnpin(bufferCache, fileId, pageId, false);
+        }
+        //Accessing the cached probationary pages again only advances the protected clock by a few steps each time
+        for (int i = 0; i < 2 * NUM_PAGES; i++) {
+            int pageId = maxProtectedPages + i % (NUM_PAGES - maxProtectedPages);
+            visitedPages.set(0);
+            pinAndUnpin(bufferCache, fileId, pageId, false);
+            Assert.assertTrue(visitedPages.get() <= TwoQueueClockPageReplacementStrategy.MAX_DEMOTION_STEPS);
+            Assert.assertTrue(strategy.getNumProtectedPages() <= maxProtectedPages);
+        }
+        Assert.assertEquals(NUM_PAGES, strategy.getMisses());
+
+        deleteFile(bufferCache, fileId);
+    }
+
+    private static BufferCache createBufferCache(TwoQueueClockPageReplacementStrategy strategy) {
+        return new BufferCache(TestStorageManagerComponentHolder.getIOManager(), strategy,
+                new DelayPageCleanerPolicy(1000), new FileMapManager(), MAX_OPEN_FILES, 10, Thread::new);
+    }
+
+    private static int createFile(BufferCache bufferCache) throws HyracksDataException {
+        IOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        FileReference file = ioManager.resolve(FILE_NAME);
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        IFIFOPageWriter writer =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < NUM_FILE_PAGES; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writer.write(page);
+        }
+        return fileId;
+    }
+
+    private static void deleteFile(BufferCache bufferCache, int fileId) throws HyracksDataException {
+        bufferCache.closeFile(fileId);
+        bufferCache.deleteFile(fileId);
+        bufferCache.close();
+    }
+
+    private static void pinAndUnpin(IBufferCache bufferCache, int fileId, int pageId, boolean sequential)
+            throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false, sequential);
+        Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+        bufferCache.unpin(page);
+    }
+}
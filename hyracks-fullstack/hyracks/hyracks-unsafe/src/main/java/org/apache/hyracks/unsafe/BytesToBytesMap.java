@@ -22,6 +22,8 @@ import static org.apache.spark.unsafe.array.ByteArrayMethods.MAX_ROUNDED_ARRAY_L
 import java.util.Iterator;
 import java.util.LinkedList;
 
+import org.apache.hyracks.api.resources.IDeallocatable;
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
 import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.hyracks.unsafe.entry.IEntryComparator;
 import org.apache.spark.unsafe.Platform;
@@ -55,8 +57,11 @@ import com.google.common.annotations.VisibleForTesting;
  * It means first uaoSize bytes store the entire record (key + value + uaoSize) length. This format
  * is compatible with {@link org.apache.spark.util.collection.unsafe.sort.UnsafeExternalSorter},
  * so we can pass records from this map directly into the sorter to sort records in place.
+ * <p>
+ * In off-heap mode ({@link MemoryAllocator#UNSAFE}), the pages are reserved from the given {@link IMemoryManager}
+ * and the map should be {@link #deallocate() deallocated} when its owner (e.g., a task) is done.
  */
-public final class BytesToBytesMap extends MemoryConsumer {
+public final class BytesToBytesMap extends MemoryConsumer implements IDeallocatable {
 
     public static final int SEED = 42;
 
@@ -159,7 +164,12 @@ public final class BytesToBytesMap extends MemoryConsumer {
 
     public BytesToBytesMap(MemoryAllocator allocator, long budget, int initialCapacity,
             IEntryComparator keyComparator) {
-        super(allocator, budget);
+        this(allocator, null, budget, initialCapacity, keyComparator);
+    }
+
+    public BytesToBytesMap(MemoryAllocator allocator, IMemoryManager memoryManager, long budget, int initialCapacity,
+            IEntryComparator keyComparator) {
+        super(allocator, memoryManager, budget);
         this.loadFactor = 0.8d;
         this.loc = new Location();
         //1MB
@@ -565,9 +575,11 @@ public final class BytesToBytesMap extends MemoryConsumer {
         }
 
         /**
+         * Points this location to a record that is not stored in the map (e.g., a record read back from a spilled
+         * run), where {@code offset} points to the key length and {@code length} is the stored record length.
          * This is only used for spilling
          */
-        private Location with(Object base, long offset, int length) {
+        public Location with(Object base, long offset, int length) {
             this.isDefined = true;
             this.memoryPage = null;
             baseObject = base;
@@ -850,6 +862,13 @@ public final class BytesToBytesMap extends MemoryConsumer {
             freePage(dataPage);
         }
         assert (dataPages.isEmpty());
+        currentPage = null;
+        pageCursor = 0;
+    }
+
+    @Override
+    public void deallocate() {
+        free();
     }
 
     public long getPageSizeBytes() {
@@ -19,6 +19,7 @@ package org.apache.hyracks.unsafe;
 
 import java.util.BitSet;
 
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
 import org.apache.spark.unsafe.array.LongArray;
 import org.apache.spark.unsafe.memory.MemoryAllocator;
 import org.apache.spark.unsafe.memory.MemoryBlock;
@@ -40,12 +41,21 @@ abstract class MemoryConsumer {
 
     private final long budget;
     private final MemoryAllocator allocator;
+    /**
+     * Accounts for the off-heap pages (null if the pages are not accounted for)
+     */
+    private final IMemoryManager memoryManager;
     private final BitSet allocatedPages;
     private final MemoryBlock[] pageTable;
     protected long used;
 
     protected MemoryConsumer(MemoryAllocator allocator, long budget) {
+        this(allocator, null, budget);
+    }
+
+    protected MemoryConsumer(MemoryAllocator allocator, IMemoryManager memoryManager, long budget) {
         this.allocator = allocator;
+        this.memoryManager = allocator == MemoryAllocator.UNSAFE ? memoryManager : null;
         this.budget = roundedBudget(budget);
         allocatedPages = new BitSet(PAGE_TABLE_SIZE);
         pageTable = new MemoryBlock[PAGE_TABLE_SIZE];
@@ -83,6 +93,9 @@ abstract class MemoryConsumer {
         if (pageNumber >= PAGE_TABLE_SIZE || used - oldSize + size > budget) {
             return null;
         }
+        if (memoryManager != null && !memoryManager.allocateOffHeap(size)) {
+            return null;
+        }
         allocatedPages.set(pageNumber);
         MemoryBlock page = allocator.allocate(size);
         page.pageNumber = pageNumber;
@@ -104,6 +117,9 @@ abstract class MemoryConsumer {
         page.pageNumber = MemoryBlock.FREED_IN_TMM_PAGE_NUMBER;
 
         used -= page.size();
+        if (memoryManager != null) {
+            memoryManager.deallocateOffHeap(page.size());
+        }
         allocator.free(page);
     }
 
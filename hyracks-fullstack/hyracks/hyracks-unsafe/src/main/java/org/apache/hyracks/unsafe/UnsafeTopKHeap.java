@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.unsafe;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.hyracks.api.resources.IDeallocatable;
+import org.apache.hyracks.api.resources.memory.IMemoryManager;
+import org.apache.hyracks.unsafe.entry.IEntry;
+import org.apache.hyracks.unsafe.entry.IEntryComparator;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.memory.MemoryAllocator;
+import org.apache.spark.unsafe.memory.MemoryBlock;
+
+/**
+ * A bounded heap that keeps the K records with the smallest keys of a stream. Keys and values are contiguous regions
+ * of bytes that are copied into data pages in the following format:
+ * (key length) (value length) (key) (value)
+ * <p>
+ * The heap itself is an array of K record addresses, where the root is the record with the largest key (i.e., the
+ * next one to be evicted). An evicted record is not freed. Instead, the live records are compacted into new pages
+ * once the evicted ones take more space than the live ones.
+ * <p>
+ * Once the heap is full, most records of a large input are rejected. Thus, a caller may check
+ * {@link #isCandidate(IEntry)} before materializing a record's value. After {@link #sort()}, the records are iterated
+ * (in ascending order) using {@link #next()}, and no more records can be added.
+ */
+public final class UnsafeTopKHeap extends MemoryConsumer implements IDeallocatable {
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private final int k;
+    private final IEntryComparator comparator;
+    private final long[] heap;
+    private final LinkedList<MemoryBlock> dataPages;
+    private MemoryBlock currentPage;
+    private long pageCursor;
+    private long liveBytes;
+    private long evictedBytes;
+    private int size;
+    private byte[] keyBuffer;
+    private int cursor;
+    private Object recordBase;
+    private long recordOffset;
+
+    public UnsafeTopKHeap(MemoryAllocator allocator, IMemoryManager memoryManager, long budget, int k,
+            IEntryComparator comparator) {
+        super(allocator, memoryManager, budget);
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        this.k = k;
+        this.comparator = comparator;
+        heap = new long[k];
+        dataPages = new LinkedList<>();
+        keyBuffer = new byte[0];
+        cursor = -1;
+    }
+
+    /**
+     * @return true if a record with the given key would be added to the heap
+     */
+    public boolean isCandidate(IEntry key) {
+        if (size < k) {
+            return true;
+        }
+        int keyLength = key.getLength();
+        if (keyBuffer.length < keyLength) {
+            keyBuffer = new byte[keyLength];
+        }
+        key.set(keyBuffer, Platform.BYTE_ARRAY_OFFSET, keyLength);
+        Object rootBase = getPage(heap[0]);
+        long rootOffset = getOffsetInPage(heap[0]);
+        return comparator.compare(keyBuffer, Platform.BYTE_ARRAY_OFFSET, keyLength, rootBase,
+                rootOffset + HEADER_SIZE, Platform.getInt(rootBase, rootOffset)) < 0;
+    }
+
+    /**
+     * Add the record if it is among the K smallest records seen so far
+     *
+     * @return false if the record could not be stored as the memory budget is exhausted, true otherwise
+     */
+    public boolean add(IEntry key, IEntry value) {
+        if (!isCandidate(key)) {
+            return true;
+        }
+        long address = write(key, value);
+        if (address < 0) {
+            return false;
+        }
+        if (size < k) {
+            heap[size] = address;
+            siftUp(size++);
+        } else {
+            long evictedLength = getRecordLength(heap[0]);
+            liveBytes -= evictedLength;
+            evictedBytes += evictedLength;
+            heap[0] = address;
+            siftDown(0, size);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the records in ascending order and prepare them to be iterated
+     */
+    public void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        cursor = 0;
+    }
+
+    /**
+     * Move to the next record after {@link #sort()}
+     *
+     * @return true if there is a record, false otherwise
+     */
+    public boolean next() {
+        if (cursor < 0 || cursor >= size) {
+            return false;
+        }
+        long address = heap[cursor++];
+        recordBase = getPage(address);
+        recordOffset = getOffsetInPage(address);
+        return true;
+    }
+
+    public Object getKeyBase() {
+        return recordBase;
+    }
+
+    public long getKeyOffset() {
+        return recordOffset + HEADER_SIZE;
+    }
+
+    public int getKeyLength() {
+        return Platform.getInt(recordBase, recordOffset);
+    }
+
+    public Object getValueBase() {
+        return recordBase;
+    }
+
+    public long getValueOffset() {
+        return getKeyOffset() + getKeyLength();
+    }
+
+    public int getValueLength() {
+        return Platform.getInt(recordBase, recordOffset + Integer.BYTES);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Free all the records. This method is idempotent.
+     */
+    public void free() {
+        while (!dataPages.isEmpty()) {
+            freePage(dataPages.removeLast());
+        }
+        currentPage = null;
+        pageCursor = 0;
+        liveBytes = 0;
+        evictedBytes = 0;
+        size = 0;
+        cursor = -1;
+    }
+
+    @Override
+    public void deallocate() {
+        free();
+    }
+
+    private long write(IEntry key, IEntry value) {
+        int keyLength = key.getLength();
+        int valueLength = value.getLength();
+        long recordLength = HEADER_SIZE + (long) keyLength + valueLength;
+        if (!hasSpace(recordLength)) {
+            if (evictedBytes > liveBytes) {
+                compact();
+            }
+            if (!hasSpace(recordLength) && !acquireNewPage(recordLength)) {
+                return -1;
+            }
+        }
+        Object base = currentPage.getBaseObject();
+        long offset = currentPage.getBaseOffset() + pageCursor;
+        Platform.putInt(base, offset, keyLength);
+        Platform.putInt(base, offset + Integer.BYTES, valueLength);
+        key.set(base, offset + HEADER_SIZE, keyLength);
+        value.set(base, offset + HEADER_SIZE + keyLength, valueLength);
+        pageCursor += recordLength;
+        liveBytes += recordLength;
+        return encodePageNumberAndOffset(currentPage, offset);
+    }
+
+    /**
+     * Copy the live records into new pages and free the old ones. If the new pages cannot be acquired, the records
+     * are left as they are.
+     */
+    private void compact() {
+        List<MemoryBlock> oldPages = new ArrayList<>(dataPages);
+        MemoryBlock oldCurrentPage = currentPage;
+        long oldPageCursor = pageCursor;
+        long[] newAddresses = new long[size];
+        dataPages.clear();
+        currentPage = null;
+        for (int i = 0; i < size; i++) {
+            Object base = getPage(heap[i]);
+            long offset = getOffsetInPage(heap[i]);
+            long recordLength = getRecordLength(heap[i]);
+            if (!hasSpace(recordLength) && !acquireNewPage(recordLength)) {
+                while (!dataPages.isEmpty()) {
+                    freePage(dataPages.removeLast());
+                }
+                dataPages.addAll(oldPages);
+                currentPage = oldCurrentPage;
+                pageCursor = oldPageCursor;
+                return;
+            }
+            long newOffset = currentPage.getBaseOffset() + pageCursor;
+            Platform.copyMemory(base, offset, currentPage.getBaseObject(), newOffset, recordLength);
+            pageCursor += recordLength;
+            newAddresses[i] = encodePageNumberAndOffset(currentPage, newOffset);
+        }
+        System.arraycopy(newAddresses, 0, heap, 0, size);
+        for (MemoryBlock page : oldPages) {
+            freePage(page);
+        }
+        evictedBytes = 0;
+    }
+
+    private boolean hasSpace(long recordLength) {
+        return currentPage != null && currentPage.size() - pageCursor >= recordLength;
+    }
+
+    private boolean acquireNewPage(long required) {
+        MemoryBlock page = allocatePage(required);
+        if (page == null) {
+            return false;
+        }
+        dataPages.add(page);
+        currentPage = page;
+        pageCursor = 0;
+        return true;
+    }
+
+    private long getRecordLength(long address) {
+        Object base = getPage(address);
+        long offset = getOffsetInPage(address);
+        return HEADER_SIZE + (long) Platform.getInt(base, offset) + Platform.getInt(base, offset + Integer.BYTES);
+    }
+
+    private int compare(int i, int j) {
+        Object leftBase = getPage(heap[i]);
+        long leftOffset = getOffsetInPage(heap[i]);
+        Object rightBase = getPage(heap[j]);
+        long rightOffset = getOffsetInPage(heap[j]);
+        return comparator.compare(leftBase, leftOffset + HEADER_SIZE, Platform.getInt(leftBase, leftOffset),
+                rightBase, rightOffset + HEADER_SIZE, Platform.getInt(rightBase, rightOffset));
+    }
+
+    private void siftUp(int index) {
+        int child = index;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (compare(child, parent) <= 0) {
+                return;
+            }
+            swap(child, parent);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int index, int end) {
+        int parent = index;
+        while (true) {
+            int largest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < end && compare(left, largest) > 0) {
+                largest = left;
+            }
+            if (right < end && compare(right, largest) > 0) {
+                largest = right;
+            }
+            if (largest == parent) {
+                return;
+            }
+            swap(parent, largest);
+            parent = largest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long address = heap[i];
+        heap[i] = heap[j];
+        heap[j] = address;
+    }
+}
@@ -22,55 +22,157 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
-import org.apache.hyracks.dataflow.common.io.GeneratedRunFileReader;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IWorkspaceFileFactory;
 import org.apache.hyracks.dataflow.common.io.RunFileWriter;
 import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntry;
 import org.apache.spark.unsafe.Platform;
 import org.apache.spark.unsafe.UnsafeAlignedOffset;
 
+/**
+ * Writes runs of {@link org.apache.hyracks.unsafe.BytesToBytesMap} records into workspace files.
+ * Records are written as they are stored in the map (without the pointer to the next value):
+ * (record length) (key length) (key) (value)
+ */
 public class RunFileAppender {
-    private final RunFileWriter runWriter;
+    private final IWorkspaceFileFactory fileFactory;
+    private final IIOManager ioManager;
+    private final String prefix;
     private final ByteBuffer writeBuffer;
-    private final List<GeneratedRunFileReader> runs;
+    private final List<RunFileWriter> runs;
+    private RunFileWriter runWriter;
+
+    public RunFileAppender(IHyracksTaskContext ctx, String prefix, ByteBuffer writeBuffer) {
+        this(ctx, ctx.getIoManager(), prefix, writeBuffer);
+    }
 
-    public RunFileAppender(RunFileWriter runWriter, ByteBuffer writeBuffer) {
-        this.runWriter = runWriter;
+    /**
+     * @param fileFactory creates the runs' files (e.g., the joblet's context for runs that outlive the task)
+     */
+    public RunFileAppender(IWorkspaceFileFactory fileFactory, IIOManager ioManager, String prefix,
+            ByteBuffer writeBuffer) {
+        this.fileFactory = fileFactory;
+        this.ioManager = ioManager;
+        this.prefix = prefix;
         this.writeBuffer = writeBuffer;
         runs = new ArrayList<>();
     }
 
+    /**
+     * Start a new run
+     */
     public void open() throws HyracksDataException {
+        FileReference file = fileFactory.createManagedWorkspaceFile(prefix);
+        runWriter = new RunFileWriter(file, ioManager);
         runWriter.open();
+        writeBuffer.clear();
     }
 
     public void append(Location location) throws HyracksDataException {
-        Object baseObject = location.getKeyBase();
+        //(record length) (key length) (key) (value)
+        append(location.getKeyBase(), location.getKeyOffset() - UnsafeAlignedOffset.getUaoSize() * 2L);
+    }
+
+    /**
+     * Append a record that is not stored in a map
+     */
+    public void append(IEntry key, IEntry value) throws HyracksDataException {
         int uaoSize = UnsafeAlignedOffset.getUaoSize();
+        int keyLength = key.getLength();
+        int recordLength = uaoSize + keyLength + value.getLength();
+        int recordSize = recordLength + uaoSize;
+        if (recordSize > writeBuffer.remaining()) {
+            write();
+        }
+
+        Object baseObject;
+        long offset;
+        byte[] largeRecord = null;
+        if (recordSize > writeBuffer.capacity()) {
+            largeRecord = new byte[recordSize];
+            baseObject = largeRecord;
+            offset = Platform.BYTE_ARRAY_OFFSET;
+        } else {
+            baseObject = writeBuffer.array();
+            offset = Platform.BYTE_ARRAY_OFFSET + (long) writeBuffer.position();
+        }
         //(record length) (key length) (key) (value)
-        long offset = location.getKeyOffset() - uaoSize * 2L;
-        int recordSize = UnsafeAlignedOffset.getSize(baseObject, offset);
+        UnsafeAlignedOffset.putSize(baseObject, offset, recordLength);
+        UnsafeAlignedOffset.putSize(baseObject, offset + uaoSize, keyLength);
+        key.set(baseObject, offset + 2L * uaoSize, keyLength);
+        value.set(baseObject, offset + 2L * uaoSize + keyLength, value.getLength());
+
+        if (largeRecord != null) {
+            runWriter.nextFrame(ByteBuffer.wrap(largeRecord));
+        } else {
+            writeBuffer.position(writeBuffer.position() + recordSize);
+        }
+    }
+
+    private void append(Object baseObject, long offset) throws HyracksDataException {
+        //The stored record length does not include the record length itself
+        int recordSize = UnsafeAlignedOffset.getSize(baseObject, offset) + UnsafeAlignedOffset.getUaoSize();
         if (recordSize > writeBuffer.remaining()) {
             write();
         }
+
+        if (recordSize > writeBuffer.capacity()) {
+            //Large record (e.g., a long string key) -- write it directly
+            byte[] record = new byte[recordSize];
+            Platform.copyMemory(baseObject, offset, record, Platform.BYTE_ARRAY_OFFSET, recordSize);
+            runWriter.nextFrame(ByteBuffer.wrap(record));
+            return;
+        }
+
         int position = writeBuffer.position();
         int destOffset = position + Platform.BYTE_ARRAY_OFFSET;
         Platform.copyMemory(baseObject, offset, writeBuffer.array(), destOffset, recordSize);
         writeBuffer.position(position + recordSize);
     }
 
-    public List<GeneratedRunFileReader> getRuns() {
+    /**
+     * @return the written runs
+     */
+    public List<RunFileWriter> getRuns() {
         return runs;
     }
 
     private void write() throws HyracksDataException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
         writeBuffer.flip();
         runWriter.nextFrame(writeBuffer);
         writeBuffer.clear();
     }
 
+    /**
+     * Finish the current run
+     */
     public void close() throws HyracksDataException {
         write();
         runWriter.close();
+        runs.add(runWriter);
+        runWriter = null;
+    }
+
+    /**
+     * Delete all runs, including the one currently being written (if any)
+     */
+    public void erase() throws HyracksDataException {
+        if (runWriter != null) {
+            runWriter.erase();
+            runWriter = null;
+        }
+        for (RunFileWriter run : runs) {
+            if (run.getFileReference() != null) {
+                run.eraseClosed();
+            }
+        }
+        runs.clear();
     }
 }
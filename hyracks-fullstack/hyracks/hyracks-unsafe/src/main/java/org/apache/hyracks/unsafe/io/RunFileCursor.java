@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.unsafe.io;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.spark.unsafe.Platform;
+import org.apache.spark.unsafe.UnsafeAlignedOffset;
+
+/**
+ * Reads the records of a run written by {@link RunFileAppender} sequentially. The run's file is deleted when the
+ * cursor is closed.
+ */
+public class RunFileCursor {
+    private final IIOManager ioManager;
+    private final int uaoSize;
+    private ByteBuffer buffer;
+    private RunFileWriter run;
+    private IFileHandle handle;
+    private long readOffset;
+    private int recordLength;
+
+    public RunFileCursor(IIOManager ioManager, int bufferSize) {
+        this.ioManager = ioManager;
+        uaoSize = UnsafeAlignedOffset.getUaoSize();
+        buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    public void open(RunFileWriter run) throws HyracksDataException {
+        this.run = run;
+        handle = ioManager.open(run.getFileReference(), IIOManager.FileReadWriteMode.READ_ONLY,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        rewind();
+    }
+
+    /**
+     * Read the run again from its first record
+     */
+    public void rewind() {
+        readOffset = 0;
+        recordLength = 0;
+        buffer.clear();
+        buffer.limit(0);
+    }
+
+    /**
+     * Move to the next record. The previous record is no longer valid.
+     *
+     * @return true if there is a next record, false otherwise
+     */
+    public boolean next() throws HyracksDataException {
+        //Skip the current record (if any)
+        buffer.position(buffer.position() + getRecordSize());
+        recordLength = 0;
+        if (!ensureAvailable(uaoSize)) {
+            return false;
+        }
+        int length = UnsafeAlignedOffset.getSize(buffer.array(), getRecordOffset());
+        if (!ensureAvailable(length + uaoSize)) {
+            throw HyracksDataException.create(ErrorCode.EOF);
+        }
+        recordLength = length;
+        return true;
+    }
+
+    /**
+     * Point the given location to the current record
+     */
+    public void set(Location location) {
+        location.with(buffer.array(), getRecordOffset() + uaoSize, recordLength);
+    }
+
+    public Object getBaseObject() {
+        return buffer.array();
+    }
+
+    public long getKeyOffset() {
+        return getRecordOffset() + 2L * uaoSize;
+    }
+
+    public int getKeyLength() {
+        return UnsafeAlignedOffset.getSize(buffer.array(), getRecordOffset() + uaoSize);
+    }
+
+    public void close() throws HyracksDataException {
+        if (handle == null) {
+            return;
+        }
+        ioManager.close(handle);
+        handle = null;
+        if (run.getFileReference() != null) {
+            //The run is consumed
+            run.eraseClosed();
+        }
+        run = null;
+    }
+
+    private long getRecordOffset() {
+        return Platform.BYTE_ARRAY_OFFSET + (long) buffer.position();
+    }
+
+    private int getRecordSize() {
+        return recordLength == 0 ? 0 : recordLength + uaoSize;
+    }
+
+    private boolean ensureAvailable(int length) throws HyracksDataException {
+        if (buffer.remaining() >= length) {
+            return true;
+        }
+
+        long fileSize = run.getFileSize();
+        if (buffer.remaining() == 0 && readOffset >= fileSize) {
+            return false;
+        }
+
+        if (buffer.capacity() < length) {
+            //A large record that does not fit in the buffer
+            ByteBuffer largerBuffer = ByteBuffer.allocate(length);
+            largerBuffer.put(buffer);
+            buffer = largerBuffer;
+        } else {
+            buffer.compact();
+        }
+
+        while (buffer.position() < length && readOffset < fileSize) {
+            buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + fileSize - readOffset));
+            int read = ioManager.syncRead(handle, readOffset, buffer);
+            if (read <= 0) {
+                break;
+            }
+            readOffset += read;
+        }
+        buffer.flip();
+        return buffer.remaining() >= length;
+    }
+}
@@ -18,5 +18,80 @@
  */
 package org.apache.hyracks.unsafe.io;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
+import org.apache.hyracks.unsafe.BytesToBytesMap.Location;
+import org.apache.hyracks.unsafe.entry.IEntryComparator;
+
+/**
+ * Merges the sorted runs written by {@link RunFileAppender} in key order. The merger does not combine records with
+ * equal keys -- it is up to the caller to merge-aggregate them. Each merged run takes one read buffer and its file is
+ * deleted once it is consumed (or when the merger is closed).
+ */
 public class RunFilesMerger {
+    private final IIOManager ioManager;
+    private final int bufferSize;
+    private final PriorityQueue<RunFileCursor> queue;
+    private final List<RunFileCursor> cursors;
+    private RunFileCursor current;
+
+    public RunFilesMerger(IIOManager ioManager, IEntryComparator keyComparator, int bufferSize) {
+        this.ioManager = ioManager;
+        this.bufferSize = bufferSize;
+        queue = new PriorityQueue<>((x, y) -> keyComparator.compare(x.getBaseObject(), x.getKeyOffset(),
+                x.getKeyLength(), y.getBaseObject(), y.getKeyOffset(), y.getKeyLength()));
+        cursors = new ArrayList<>();
+    }
+
+    public void open(List<RunFileWriter> runs) throws HyracksDataException {
+        for (int i = cursors.size(); i < runs.size(); i++) {
+            cursors.add(new RunFileCursor(ioManager, bufferSize));
+        }
+
+        for (int i = 0; i < runs.size(); i++) {
+            RunFileCursor cursor = cursors.get(i);
+            cursor.open(runs.get(i));
+            if (cursor.next()) {
+                queue.add(cursor);
+            } else {
+                cursor.close();
+            }
+        }
+        current = null;
+    }
+
+    /**
+     * Point the given location to the next record in key order. The record is valid until the next call.
+     *
+     * @param location to point to the next record
+     * @return true if there is a next record, false otherwise
+     */
+    public boolean next(Location location) throws HyracksDataException {
+        if (current != null) {
+            if (current.next()) {
+                queue.add(current);
+            } else {
+                current.close();
+            }
+        }
+        current = queue.poll();
+        if (current == null) {
+            return false;
+        }
+        current.set(location);
+        return true;
+    }
+
+    public void close() throws HyracksDataException {
+        queue.clear();
+        current = null;
+        for (RunFileCursor cursor : cursors) {
+            cursor.close();
+        }
+    }
 }